@@ -0,0 +1,15 @@
+-- Modelo das mensagens dos issues (AnalysisIssue.IssueTemplate)
+--
+-- O perfil prod usa ddl-auto=validate e não cria as colunas novas: aplicar
+-- no SQL Server antes de subir a versão. O script pode ser executado de novo.
+
+IF COL_LENGTH('analysis_issues', 'message_template') IS NULL
+    ALTER TABLE analysis_issues ADD message_template VARCHAR(50) NULL;
+
+IF COL_LENGTH('analysis_issues', 'message_args') IS NULL
+    ALTER TABLE analysis_issues ADD message_args TEXT NULL;
+
+-- Bancos criados com ddl-auto=update por uma versão intermediária podem ter
+-- a coluna title aceitando nulo; o título volta a ser obrigatório
+UPDATE analysis_issues SET title = '' WHERE title IS NULL;
+ALTER TABLE analysis_issues ALTER COLUMN title VARCHAR(200) NOT NULL;
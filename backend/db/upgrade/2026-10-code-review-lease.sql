@@ -0,0 +1,7 @@
+-- Concessão das revisões da ingestão assíncrona (CodeReview.leaseExpiresAt)
+--
+-- O perfil prod usa ddl-auto=validate e não cria a coluna nova: aplicar no
+-- SQL Server antes de subir a versão. O script pode ser executado de novo.
+
+IF COL_LENGTH('code_reviews', 'lease_expires_at') IS NULL
+    ALTER TABLE code_reviews ADD lease_expires_at DATETIME2 NULL;
@@ -0,0 +1,7 @@
+-- Concessão das exportações em geração (ReviewExport.leaseExpiresAt)
+--
+-- O perfil prod usa ddl-auto=validate e não cria a coluna nova: aplicar no
+-- SQL Server antes de subir a versão. O script pode ser executado de novo.
+
+IF COL_LENGTH('review_exports', 'lease_expires_at') IS NULL
+    ALTER TABLE review_exports ADD lease_expires_at DATETIME2 NULL;
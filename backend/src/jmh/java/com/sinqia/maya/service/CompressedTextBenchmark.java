@@ -0,0 +1,118 @@
+package com.sinqia.maya.service;
+
+import com.sinqia.maya.entity.CompressedText;
+import com.sinqia.maya.entity.CompressedTextConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo e ganho da compressão das colunas TEXT ({@link CompressedTextConverter}).
+ *
+ * Mede a latência de gravação (compressão), de carga da entidade (sem
+ * descompressão) e de leitura do texto (descompressão) de textos típicos:
+ * descrição de issue (abaixo do limite, passa direto), relatório markdown
+ * com 40 issues e trecho de código do corpus sintético. O tamanho
+ * gravado de cada texto, antes e depois, é impresso no início da execução.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class CompressedTextBenchmark {
+
+    public enum Text {
+        ISSUE,
+        REPORT,
+        SOURCE
+    }
+
+    private static final String ISSUE_DESCRIPTION = "Método buscarClientes(), conexão 'conexao': existe caminho "
+            + "em que empresta() não é seguido de devolve(). Isso causa vazamento de conexão.";
+
+    @Param({"ISSUE", "REPORT", "SOURCE"})
+    public Text text;
+
+    private CompressedTextConverter converter;
+    private String plain;
+    private String stored;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        converter = new CompressedTextConverter(2048);
+        plain = switch (text) {
+            case ISSUE -> ISSUE_DESCRIPTION;
+            case REPORT -> report(40);
+            case SOURCE -> JavaSourceCorpus.generate(JavaSourceCorpus.Size.MEDIUM, "ClienteDao");
+        };
+        stored = converter.convertToDatabaseColumn(CompressedText.of(plain));
+
+        int before = plain.getBytes(StandardCharsets.UTF_8).length;
+        int after = stored.getBytes(StandardCharsets.UTF_8).length;
+        System.out.printf("%n%s: %d bytes -> %d bytes gravados (%.1f%%)%n",
+                text, before, after, after * 100.0 / before);
+    }
+
+    @Benchmark
+    public String write() {
+        return converter.convertToDatabaseColumn(CompressedText.of(plain));
+    }
+
+    @Benchmark
+    public CompressedText load() {
+        return converter.convertToEntityAttribute(stored);
+    }
+
+    @Benchmark
+    public String read() {
+        return converter.convertToEntityAttribute(stored).text();
+    }
+
+    /**
+     * Relatório no formato do MayaAnalysisService com a quantidade de issues pedida
+     */
+    private static String report(int issues) {
+        StringBuilder report = new StringBuilder();
+        report.append("# Relatório MAYA - ClienteDao.java\n\n")
+              .append("## Informações Básicas\n\n")
+              .append("- **Arquivo:** `src/main/java/com/sinqia/corban/cadastro/dao/ClienteDao.java`\n")
+              .append("- **Classe:** ClienteDao\n- **Linguagem:** java\n- **Linhas:** 1512\n")
+              .append("- **Score:** 62.5/100\n\n")
+              .append("## Análise de Conexões\n\n")
+              .append("- **empresta():** 48\n- **devolve():** 45\n- **Balanceado:** Não\n\n")
+              .append("## Métricas de Qualidade\n\n")
+              .append("- **Complexidade Ciclomática:** 18 Alta\n")
+              .append("- **Complexidade Cognitiva:** 27\n\n")
+              .append("## Issues Encontrados\n\n");
+        for (int i = 1; i <= issues; i++) {
+            report.append("### Vazamento de conexão\n\n")
+                  .append("- **Severidade:** Crítico\n")
+                  .append("- **Tipo:** Vazamento de Conexão\n")
+                  .append("- **Linha:** ").append(i * 37).append("\n")
+                  .append("- **Descrição:** ").append(ISSUE_DESCRIPTION.replace("buscarClientes", "buscarClientes" + i))
+                  .append("\n")
+                  .append("- **Sugestão:** Chame devolve() em um bloco finally\n\n");
+        }
+        report.append("## Recomendações\n\n")
+              .append("- **CRÍTICO:** Corrija os vazamentos de conexão identificados\n")
+              .append("- Refatore métodos com alta complexidade\n")
+              .append("- Adicione documentação adequada\n")
+              .append("- Implemente testes unitários\n\n")
+              .append("---\n*Relatório gerado automaticamente pelo Sistema MAYA*\n");
+        return report.toString();
+    }
+}
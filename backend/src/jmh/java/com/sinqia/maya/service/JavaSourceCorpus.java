@@ -0,0 +1,163 @@
+package com.sinqia.maya.service;
+
+import java.util.Random;
+
+/**
+ * Corpus sintético de arquivos Java no estilo dos sistemas Sinqia.
+ *
+ * Os arquivos são gerados de forma determinística (semente fixa) misturando
+ * métodos DAO com empresta/devolve (balanceados e com vazamento), regras de
+ * negócio com ifs e laços aninhados, SQL concatenado e logs com dados
+ * sensíveis, para exercitar todos os detectores.
+ */
+public final class JavaSourceCorpus {
+
+    private static final long SEED = 20240611L;
+
+    private JavaSourceCorpus() {
+    }
+
+    /**
+     * Tamanhos de arquivo do corpus, em linhas aproximadas
+     */
+    public enum Size {
+        SMALL(60),
+        MEDIUM(1_500),
+        HUGE(30_000);
+
+        final int targetLines;
+
+        Size(int targetLines) {
+            this.targetLines = targetLines;
+        }
+    }
+
+    public static String generate(Size size, String className) {
+        Random random = new Random(SEED + size.ordinal());
+        StringBuilder source = new StringBuilder(size.targetLines * 48);
+
+        source.append("package com.sinqia.corban.cadastro.dao;\n\n")
+              .append("import com.sinqia.corban.comum.conexao.Conexao;\n")
+              .append("import com.sinqia.corban.comum.conexao.GerenciadorConexao;\n")
+              .append("import java.sql.PreparedStatement;\n")
+              .append("import java.sql.ResultSet;\n")
+              .append("import java.util.ArrayList;\n")
+              .append("import java.util.List;\n\n")
+              .append("/**\n * Acesso a dados de clientes\n */\n")
+              .append("public class ").append(className).append(" {\n\n")
+              .append("    private final GerenciadorConexao gerenciadorConexao;\n\n");
+
+        int lines = 14;
+        int method = 0;
+        while (lines < size.targetLines) {
+            int kind = random.nextInt(10);
+            if (kind < 3) {
+                lines += balancedDao(source, method);
+            } else if (kind < 4) {
+                lines += leakingDao(source, method);
+            } else if (kind < 7) {
+                lines += businessRule(source, method, 1 + random.nextInt(4));
+            } else if (kind < 8) {
+                lines += unsafeQuery(source, method);
+            } else {
+                lines += accessor(source, method);
+            }
+            method++;
+        }
+
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private static int balancedDao(StringBuilder out, int n) {
+        out.append("    public List<Cliente> buscarClientes").append(n).append("(long codigo) throws Exception {\n")
+           .append("        Conexao conexao = null;\n")
+           .append("        List<Cliente> clientes = new ArrayList<>();\n")
+           .append("        try {\n")
+           .append("            conexao = gerenciadorConexao.empresta();\n")
+           .append("            PreparedStatement ps = conexao.prepareStatement(\"SELECT * FROM CLIENTE WHERE CODIGO = ?\");\n")
+           .append("            ps.setLong(1, codigo);\n")
+           .append("            ResultSet rs = ps.executeQuery();\n")
+           .append("            while (rs.next()) {\n")
+           .append("                clientes.add(new Cliente(rs.getLong(1), rs.getString(2)));\n")
+           .append("            }\n")
+           .append("            return clientes;\n")
+           .append("        } finally {\n")
+           .append("            gerenciadorConexao.devolve(conexao);\n")
+           .append("        }\n")
+           .append("    }\n\n");
+        return 17;
+    }
+
+    private static int leakingDao(StringBuilder out, int n) {
+        out.append("    public int contarClientes").append(n).append("(String situacao) throws Exception {\n")
+           .append("        Conexao conexao = gerenciadorConexao.empresta();\n")
+           .append("        PreparedStatement ps = conexao.prepareStatement(\"SELECT COUNT(*) FROM CLIENTE WHERE SITUACAO = ?\");\n")
+           .append("        ps.setString(1, situacao);\n")
+           .append("        ResultSet rs = ps.executeQuery();\n")
+           .append("        if (rs.next() && rs.getInt(1) > 0) {\n")
+           .append("            return rs.getInt(1);\n")
+           .append("        }\n")
+           .append("        return 0;\n")
+           .append("    }\n\n");
+        return 11;
+    }
+
+    private static int businessRule(StringBuilder out, int n, int depth) {
+        int lines = 0;
+        out.append("    public double calcularTaxa").append(n).append("(Cliente cliente, double valor, int prazo) {\n")
+           .append("        double taxa = 0.0;\n");
+        lines += 2;
+        String indent = "        ";
+        for (int level = 0; level < depth; level++) {
+            switch (level % 4) {
+                case 0 -> out.append(indent).append("if (cliente.isAtivo() && valor > ").append(level * 1000).append(") {\n");
+                case 1 -> out.append(indent).append("for (int parcela = 0; parcela < prazo; parcela++) {\n");
+                case 2 -> out.append(indent).append("while (taxa < 0.05 || prazo > 360) {\n");
+                default -> out.append(indent).append("if (cliente.getTipo() == TipoCliente.PJ) {\n");
+            }
+            indent += "    ";
+            lines++;
+        }
+        out.append(indent).append("taxa += valor * 0.0001;\n");
+        lines++;
+        for (int level = depth - 1; level >= 0; level--) {
+            indent = indent.substring(4);
+            out.append(indent).append("}\n");
+            lines++;
+            if (level == 0) {
+                out.append(indent).append("else {\n")
+                   .append(indent).append("    taxa = 0.01;\n")
+                   .append(indent).append("}\n");
+                lines += 3;
+            }
+        }
+        out.append("        switch (prazo / 12) {\n")
+           .append("            case 0: return taxa;\n")
+           .append("            case 1: return taxa * 1.1;\n")
+           .append("            default: return taxa * 1.2;\n")
+           .append("        }\n")
+           .append("    }\n\n");
+        return lines + 7;
+    }
+
+    private static int unsafeQuery(StringBuilder out, int n) {
+        out.append("    public void atualizarSenha").append(n).append("(Conexao conexao, String cpf, String senha) throws Exception {\n")
+           .append("        log.debug(\"Atualizando senha do cpf \" + cpf);\n")
+           .append("        String sql = \"UPDATE USUARIO SET SENHA = '\" + senha + \"' WHERE CPF = '\" + cpf + \"'\";\n")
+           .append("        try {\n")
+           .append("            conexao.createStatement().executeUpdate(sql);\n")
+           .append("        } catch (Exception e) {\n")
+           .append("            log.error(\"Falha ao atualizar\", e);\n")
+           .append("        }\n")
+           .append("    }\n\n");
+        return 10;
+    }
+
+    private static int accessor(StringBuilder out, int n) {
+        out.append("    public String getDescricao").append(n).append("() {\n")
+           .append("        return \"descricao").append(n).append("\";\n")
+           .append("    }\n\n");
+        return 4;
+    }
+}
@@ -0,0 +1,100 @@
+package com.sinqia.maya.service;
+
+import com.sinqia.maya.entity.FileAnalysis;
+import com.sinqia.maya.service.analysis.ComplexityAnalyzer;
+import com.sinqia.maya.service.analysis.ConnectionFlowAnalyzer;
+import com.sinqia.maya.service.analysis.JavaSource;
+import com.sinqia.maya.service.analysis.MethodComplexity;
+import com.sinqia.maya.service.config.ConfigurationSnapshot;
+import com.sinqia.maya.service.rules.BenchmarkRulePack;
+import com.sinqia.maya.service.rules.RuleEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks dos detectores MAYA sobre o corpus sintético.
+ *
+ * Mede vazão (operações por segundo) da leitura do fonte e de cada detector
+ * (conexões, complexidade, regras de arquitetura e segurança) para arquivos
+ * pequenos, médios e enormes; a taxa de alocação vem do profiler gc,
+ * habilitado na execução pelo perfil benchmark do Maven. Os detectores são
+ * chamados diretamente, sem o contexto Spring do MayaAnalysisService.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class MayaDetectorsBenchmark {
+
+    private static final String CLASS_NAME = "ClienteDao";
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    public JavaSourceCorpus.Size size;
+
+    private RuleEngine ruleEngine;
+    private String content;
+    private JavaSource source;
+    private FileAnalysis analysis;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ruleEngine = new RuleEngine(List.of(new BenchmarkRulePack()), fixedConfiguration());
+        content = JavaSourceCorpus.generate(size, CLASS_NAME);
+        source = JavaSource.parse(content);
+
+        // As regras apenas leem o arquivo: a mesma instância serve a todas as invocações
+        analysis = new FileAnalysis();
+        analysis.setFilePath("src/main/java/com/sinqia/corban/cadastro/dao/" + CLASS_NAME + ".java");
+        analysis.setClassName(CLASS_NAME);
+        analysis.setLanguage("java");
+    }
+
+    @Benchmark
+    public JavaSource parse() {
+        return JavaSource.parse(content);
+    }
+
+    @Benchmark
+    public ConnectionFlowAnalyzer.Result connectionBalance() {
+        return ConnectionFlowAnalyzer.analyze(source);
+    }
+
+    @Benchmark
+    public List<MethodComplexity> complexity() {
+        return ComplexityAnalyzer.analyze(source);
+    }
+
+    @Benchmark
+    public List<RuleEngine.Violation> rules() {
+        return ruleEngine.run(analysis, source);
+    }
+
+    /**
+     * Configuração fixa e vazia para o RuleEngine, sem banco nem barramento de invalidação
+     */
+    private static ConfigurationService fixedConfiguration() {
+        ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(0, Map.of());
+        return new ConfigurationService(null, null, null) {
+            @Override
+            public ConfigurationSnapshot getSnapshot() {
+                return snapshot;
+            }
+        };
+    }
+}
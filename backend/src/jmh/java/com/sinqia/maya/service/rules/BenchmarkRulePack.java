@@ -0,0 +1,24 @@
+package com.sinqia.maya.service.rules;
+
+import java.util.List;
+
+/**
+ * Regras padrão MAYA de arquitetura e segurança, todas ativas, sem as
+ * propriedades Spring do {@link MayaRulePack}
+ */
+public final class BenchmarkRulePack implements RulePack {
+
+    @Override
+    public String name() {
+        return "maya";
+    }
+
+    @Override
+    public List<Rule> rules() {
+        return List.of(
+                new MayaRulePack.SinqiaPackageRule(),
+                new MayaRulePack.LayerSuffixRule(),
+                new MayaRulePack.SqlConcatenationRule(),
+                new MayaRulePack.SensitiveLoggingRule());
+    }
+}
@@ -0,0 +1,72 @@
+package com.sinqia.maya.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executores dedicados a tarefas em segundo plano do sistema MAYA.
+ *
+ * Declarar executores próprios desativa o executor padrão do Spring Boot,
+ * então ele é declarado aqui do mesmo jeito: atende @Async e as respostas
+ * assíncronas do MVC (exportação em lote em ZIP) e é configurado pelas
+ * propriedades spring.task.execution.*.
+ *
+ * @author Sistema MAYA
+ * @version 1.0.0
+ */
+@Configuration
+public class AsyncConfiguration {
+
+    public static final String EXPORT_EXECUTOR = "exportTaskExecutor";
+    public static final String BATCH_EXPORT_EXECUTOR = "batchExportExecutor";
+
+    /**
+     * Executor padrão da aplicação, como o criado pelo Spring Boot
+     */
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Fila de geração de exportações, com número fixo de workers e fila limitada
+     */
+    @Bean(name = EXPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor exportTaskExecutor(
+            @Value("${maya.export.worker-threads:2}") int workerThreads,
+            @Value("${maya.export.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("maya-export-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Renderização paralela das exportações em lote (ZIP)
+     */
+    @Bean(name = BATCH_EXPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor batchExportExecutor(
+            @Value("${maya.export.batch-parallelism:4}") int parallelism,
+            @Value("${maya.export.batch-queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("maya-batch-export-");
+        executor.initialize();
+        return executor;
+    }
+}
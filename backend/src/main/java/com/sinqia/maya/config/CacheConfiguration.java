@@ -1,27 +1,111 @@
 package com.sinqia.maya.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sinqia.maya.repository.ConfigurationSettingsRepository;
+import com.sinqia.maya.service.prompt.PromptTemplateCache;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NullValue;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
- * Configurao de cache para o sistema MAYA.
- * 
+ * Configuração de cache para o sistema MAYA.
+ *
+ * Cada cache é um Caffeine (despejo W-TinyLFU) com limite de tamanho ou peso,
+ * expiração e estatísticas próprias, definidos em maya.cache.spec.&lt;nome&gt;
+ * (sintaxe CaffeineSpec) ou, na ausência, em maya.cache.default-spec. As
+ * estatísticas são publicadas pelo actuator como métricas cache.*.
+ *
  * @author Sistema MAYA
  * @version 1.0.0
  */
 @Configuration
 @EnableCaching
+@Slf4j
 public class CacheConfiguration {
 
+    public static final String CONFIGURATIONS = "configurations";
+    public static final String MODELS = "models";
+    public static final String FILE_ANALYSES = "file-analyses";
+    public static final String FILE_REPORTS = "file-reports";
+    public static final String AUXILIARY_FILES = "auxiliary-files";
+    public static final String DASHBOARD_TRENDS = "dashboard-trends";
+    public static final String DASHBOARD_RANKINGS = "dashboard-rankings";
+
+    public static final List<String> CACHE_NAMES = List.of(
+            CONFIGURATIONS, MODELS, FILE_ANALYSES, FILE_REPORTS, AUXILIARY_FILES, DASHBOARD_TRENDS, DASHBOARD_RANKINGS);
+
+    private static final String DEFAULT_SPEC = "maximumSize=1000,expireAfterWrite=10m";
+
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        cacheManager.setCacheNames(
-                java.util.Arrays.asList("configurations", "codeReviews", "fileAnalyses")
+    public CacheManager cacheManager(Environment environment, ConfigurationSettingsRepository configRepository) {
+        String defaultSpec = environment.getProperty("maya.cache.default-spec", DEFAULT_SPEC);
+
+        // Caches que sabem recarregar uma entrada sozinhos (refreshAfterWrite)
+        Map<String, CacheLoader<Object, Object>> loaders = Map.of(
+                CONFIGURATIONS, key -> configRepository.findByKeyName((String) key)
+                        .<Object>map(config -> config)
+                        .orElse(NullValue.INSTANCE)
         );
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Lista fechada: nomes desconhecidos falham em vez de criar caches sem limite
+        cacheManager.setCacheNames(Collections.emptyList());
+        for (String name : CACHE_NAMES) {
+            String spec = environment.getProperty("maya.cache.spec." + name, defaultSpec);
+            cacheManager.registerCustomCache(name, buildCache(name, spec, loaders.get(name)));
+        }
         return cacheManager;
     }
+
+    private Cache<Object, Object> buildCache(String name, String spec, CacheLoader<Object, Object> loader) {
+        List<String> options = Arrays.stream(spec.split(","))
+                .map(String::trim)
+                .filter(option -> !option.isEmpty() && !option.equals("recordStats"))
+                .collect(Collectors.toList());
+
+        if (loader == null && options.removeIf(option -> option.startsWith("refreshAfterWrite"))) {
+            log.warn("Cache {} não possui carregador; refreshAfterWrite ignorado", name);
+        }
+
+        Caffeine<Object, Object> builder = Caffeine.from(String.join(",", options)).recordStats();
+        if (options.stream().anyMatch(option -> option.startsWith("maximumWeight"))) {
+            builder.weigher(CacheConfiguration::weigh);
+        }
+
+        log.info("Cache {} configurado: {}", name, String.join(",", options));
+        return loader != null ? builder.build(loader) : builder.build();
+    }
+
+    /**
+     * Peso aproximado de uma entrada, usado com maximumWeight
+     */
+    static int weigh(Object key, Object value) {
+        if (value instanceof CharSequence text) {
+            return 1 + text.length() / 1024;
+        }
+        if (value instanceof PromptTemplateCache.Entry entry) {
+            return 1 + entry.template().length() / 1024;
+        }
+        if (value instanceof Collection<?> collection) {
+            return 1 + collection.size();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return 1 + map.size();
+        }
+        return 1;
+    }
 }
@@ -149,6 +149,20 @@ public class CodeReviewController {
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Obter relatrio Markdown de uma anlise de arquivo (gerado sob demanda)
+     */
+    @GetMapping(value = "/files/{fileAnalysisId}/report", produces = "text/markdown;charset=UTF-8")
+    public ResponseEntity<String> getFileReport(@PathVariable Long fileAnalysisId) {
+        log.debug("Buscando relatrio da anlise de arquivo: {}", fileAnalysisId);
+        
+        try {
+            return ResponseEntity.ok(mayaAnalysisService.getMarkdownReport(fileAnalysisId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     /**
      * Obter estatsticas do dashboard
      */
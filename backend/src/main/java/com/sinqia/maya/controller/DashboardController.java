@@ -264,7 +264,8 @@ public class DashboardController {
             double cpuUsage,
             long requestCount,
             double errorRate,
-            List<PerformancePoint> timeline
+            List<PerformancePoint> timeline,
+            List<LatencyPercentiles> latencies
     ) {}
 
     public record PerformancePoint(
@@ -274,6 +275,16 @@ public class DashboardController {
             double cpuUsage
     ) {}
 
+    public record LatencyPercentiles(
+            String metric,
+            long count,
+            double average,
+            double p50,
+            double p95,
+            double p99,
+            long max
+    ) {}
+
     public record SystemAlert(
             String id,
             String type,
@@ -2,9 +2,11 @@ package com.sinqia.maya.controller;
 
 import com.sinqia.maya.entity.ReviewExport;
 import com.sinqia.maya.service.ReviewExportService;
+import com.sinqia.maya.service.export.ExportFileSender;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -13,7 +15,10 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +34,7 @@ import java.util.Map;
 public class ReviewExportController {
 
     private final ReviewExportService reviewExportService;
+    private final ExportFileSender exportFileSender;
 
     /**
      * Exportar review em formato especfico
@@ -43,9 +49,9 @@ public class ReviewExportController {
         try {
             ReviewExport export = reviewExportService.exportReview(reviewId, request);
             
-            return ResponseEntity.ok(new ExportReviewResponse(
+            return ResponseEntity.accepted().body(new ExportReviewResponse(
                     true,
-                    "Exportao iniciada com sucesso",
+                    "Exportao enfileirada, acompanhe o status para obter o arquivo",
                     export.getId(),
                     export.getStatus(),
                     export.getFileName()
@@ -65,23 +71,27 @@ public class ReviewExportController {
      * Download de arquivo exportado
      */
     @GetMapping("/exports/{exportId}/download")
-    public ResponseEntity<Resource> downloadExport(@PathVariable Long exportId) {
+    public void downloadExport(@PathVariable Long exportId,
+                               HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
         log.info("Download da exportao: {}", exportId);
         
+        ExportFileSender.ExportFile file;
         try {
-            ReviewExportService.DownloadInfo downloadInfo = reviewExportService.prepareDownload(exportId);
-            
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(downloadInfo.contentType()))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, 
-                            "attachment; filename=\"" + downloadInfo.fileName() + "\"")
-                    .body(downloadInfo.resource());
-            
+            file = reviewExportService.prepareDownload(exportId);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            log.error("Erro no download da exportao {}: {}", exportId, e.getMessage());
-            return ResponseEntity.internalServerError().build();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, e.getMessage());
+            return;
+        }
+
+        try {
+            // Com sendfile o envio acontece depois do retorno: conta a tentativa
+            if (exportFileSender.send(file, request, response)) {
+                reviewExportService.registerDownload(exportId);
+            }
+        } catch (IOException e) {
+            // Em geral o cliente interrompeu o download; ele pode retomar com Range
+            log.debug("Download da exportao {} interrompido: {}", exportId, e.getMessage());
         }
     }
 
@@ -95,24 +105,27 @@ public class ReviewExportController {
         try {
             ReviewExport export = reviewExportService.getExportStatus(exportId);
             
-            return ResponseEntity.ok(new ExportStatusResponse(
-                    export.getId(),
-                    export.getStatus(),
-                    export.getFileName(),
-                    export.getFileSize(),
-                    export.getFormattedFileSize(),
-                    export.getDownloadCount(),
-                    export.getCreatedAt(),
-                    export.getExportedAt(),
-                    export.getExpiresAt(),
-                    export.getErrorMessage()
-            ));
+            return ResponseEntity.ok(ExportStatusResponse.of(export));
             
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Acompanhar o progresso de uma exportao (Server-Sent Events)
+     */
+    @GetMapping(value = "/exports/{exportId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToExport(@PathVariable Long exportId) {
+        log.debug("Inscrio no progresso da exportao: {}", exportId);
+        
+        try {
+            return ResponseEntity.ok(reviewExportService.subscribeToExport(exportId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     /**
      * Listar exportaes de um review
      */
@@ -278,6 +291,35 @@ public class ReviewExportController {
         }
     }
 
+    /**
+     * Exportao em lote de mltiplos reviews em um nico ZIP.
+     * O arquivo  transmitido conforme os reviews ficam prontos; falhas
+     * individuais so listadas no manifest.json ao final do ZIP. A escrita
+     * roda no executor assncrono do MVC, liberando a thread da requisio.
+     */
+    @PostMapping(value = "/batch-export/zip", produces = "application/zip")
+    public ResponseEntity<StreamingResponseBody> batchExportZip(@RequestBody BatchExportRequest request,
+                                                                HttpServletResponse response) throws IOException {
+        try {
+            reviewExportService.validateBatchRequest(request);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return null;
+        }
+
+        String zipFileName = request.zipFileName() != null && !request.zipFileName().isBlank()
+                ? request.zipFileName().replace("\"", "")
+                : "reviews-export.zip";
+        if (!zipFileName.endsWith(".zip")) {
+            zipFileName += ".zip";
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + zipFileName + "\"")
+                .body(out -> reviewExportService.batchExportZip(request, out));
+    }
+
     // DTOs
 
     public record ExportReviewRequest(
@@ -300,6 +342,7 @@ public class ReviewExportController {
     public record ExportStatusResponse(
             Long exportId,
             ReviewExport.ExportStatus status,
+            Integer progress,
             String fileName,
             Long fileSize,
             String formattedFileSize,
@@ -308,7 +351,23 @@ public class ReviewExportController {
             LocalDateTime exportedAt,
             LocalDateTime expiresAt,
             String errorMessage
-    ) {}
+    ) {
+        public static ExportStatusResponse of(ReviewExport export) {
+            return new ExportStatusResponse(
+                    export.getId(),
+                    export.getStatus(),
+                    export.getProgress(),
+                    export.getFileName(),
+                    export.getFileSize(),
+                    export.getFormattedFileSize(),
+                    export.getDownloadCount(),
+                    export.getCreatedAt(),
+                    export.getExportedAt(),
+                    export.getExpiresAt(),
+                    export.getErrorMessage()
+            );
+        }
+    }
 
     public record DeleteExportResponse(
             boolean success,
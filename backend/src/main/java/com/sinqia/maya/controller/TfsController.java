@@ -3,11 +3,16 @@ package com.sinqia.maya.controller;
 import com.sinqia.maya.entity.CodeReview;
 import com.sinqia.maya.service.TfsService;
 import com.sinqia.maya.service.TfsService.*;
+import com.sinqia.maya.service.ingestion.CommitIngestionPipeline;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -30,6 +35,7 @@ import java.util.List;
 public class TfsController {
 
     private final TfsService tfsService;
+    private final CommitIngestionPipeline ingestionPipeline;
 
     /**
      * Testar conectividade com Azure DevOps
@@ -174,15 +180,18 @@ public class TfsController {
         log.info("Agendando anlise automtica para commit: {} em {}/{}", commitSha, projectName, repositoryName);
         
         try {
-            CodeReview review = tfsService.scheduleCommitAnalysis(projectName, repositoryName, commitSha);
+            CodeReview review = ingestionPipeline.submit(projectName, repositoryName, commitSha);
             
             if (review != null) {
-                return ResponseEntity.ok(new ScheduleAnalysisResponse(
-                        true,
-                        "Anlise agendada com sucesso",
-                        review.getId(),
-                        review.getStatus()
-                ));
+                // Anlise assncrona: o andamento  acompanhado pela reviso pendente
+                return ResponseEntity.accepted()
+                        .location(URI.create("/api/v1/code-reviews/" + review.getId()))
+                        .body(new ScheduleAnalysisResponse(
+                                true,
+                                "Anlise agendada com sucesso",
+                                review.getId(),
+                                review.getStatus()
+                        ));
             } else {
                 return ResponseEntity.badRequest()
                         .body(new ScheduleAnalysisResponse(
@@ -193,6 +202,17 @@ public class TfsController {
                         ));
             }
             
+        } catch (TaskRejectedException e) {
+            log.warn("Anlise do commit {} recusada: {}", commitSha, e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ScheduleAnalysisResponse(
+                            false,
+                            "Fila de anlises cheia. Tente novamente em instantes.",
+                            null,
+                            null
+                    ));
+            
         } catch (Exception e) {
             log.error("Erro ao agendar anlise para commit {}: {}", commitSha, e.getMessage());
             
@@ -243,9 +263,10 @@ public class TfsController {
         try {
             List<TfsPullRequestInfo> pullRequests = tfsService.getRecentPullRequests(projectName, repositoryName, days);
             
-            int successCount = 0;
+            List<Long> reviewIds = new ArrayList<>();
             int failureCount = 0;
             int processedCount = 0;
+            int selectedCount = Math.min(pullRequests.size(), maxAnalyses);
             
             for (TfsPullRequestInfo pr : pullRequests) {
                 if (processedCount >= maxAnalyses) {
@@ -253,14 +274,20 @@ public class TfsController {
                 }
                 
                 try {
-                    CodeReview review = tfsService.scheduleCommitAnalysis(projectName, repositoryName, pr.lastCommitId());
-                    
+                    CodeReview review = ingestionPipeline.submit(projectName, repositoryName, pr.lastCommitId());
                     if (review != null) {
-                        successCount++;
+                        reviewIds.add(review.getId());
                     } else {
                         failureCount++;
                     }
                     
+                } catch (TaskRejectedException e) {
+                    // Fila cheia: cada nova tentativa esperaria o timeout de novo; o restante fica de fora
+                    log.warn("Fila de ingesto cheia no PR {}: {}", pr.pullRequestId(), e.getMessage());
+                    failureCount++;
+                    processedCount++;
+                    break;
+                    
                 } catch (Exception e) {
                     log.warn("Falha ao analisar PR {}: {}", pr.pullRequestId(), e.getMessage());
                     failureCount++;
@@ -268,23 +295,34 @@ public class TfsController {
                 
                 processedCount++;
             }
+            int skippedCount = selectedCount - processedCount;
             
             return ResponseEntity.ok(new BulkAnalysisResponse(
                     processedCount,
-                    successCount,
+                    reviewIds.size(),
                     failureCount,
-                    String.format("Processados %d pull requests: %d sucessos, %d falhas", 
-                            processedCount, successCount, failureCount)
+                    skippedCount,
+                    String.format("Processados %d pull requests: %d sucessos, %d falhas, %d ignorados (fila cheia)", 
+                            processedCount, reviewIds.size(), failureCount, skippedCount),
+                    reviewIds
             ));
             
         } catch (Exception e) {
             log.error("Erro durante anlise em lote: {}", e.getMessage());
             
             return ResponseEntity.internalServerError()
-                    .body(new BulkAnalysisResponse(0, 0, 0, "Erro interno: " + e.getMessage()));
+                    .body(new BulkAnalysisResponse(0, 0, 0, 0, "Erro interno: " + e.getMessage(), List.of()));
         }
     }
 
+    /**
+     * Situao das etapas da ingesto de commits (fila, workers e itens processados)
+     */
+    @GetMapping("/ingestion/stages")
+    public ResponseEntity<List<CommitIngestionPipeline.StageStats>> getIngestionStages() {
+        return ResponseEntity.ok(ingestionPipeline.stats());
+    }
+
     // DTOs para responses
     
     public record ConnectionTestResponse(
@@ -318,6 +356,8 @@ public class TfsController {
             int processedCount,
             int successCount,
             int failureCount,
-            String message
+            int skippedCount,
+            String message,
+            List<Long> reviewIds
     ) {}
 }
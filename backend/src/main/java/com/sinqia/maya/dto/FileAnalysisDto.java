@@ -4,6 +4,12 @@ import com.sinqia.maya.entity.FileAnalysis;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Dados de uma anlise de arquivo para a API.
+ *
+ * No traz o relatrio markdown: ele  montado sob demanda em
+ * GET /api/v1/code-reviews/files/{id}/report.
+ */
 public class FileAnalysisDto {
     
     private Long id;
@@ -20,7 +26,6 @@ public class FileAnalysisDto {
     private Boolean hasMethodChanges;
     private Boolean hasValidationChanges;
     private String analysisResult;
-    private String markdownReport;
     private LocalDateTime createdAt;
     private List<AnalysisIssueDto> issues;
     private boolean hasCriticalIssues;
@@ -43,7 +48,6 @@ public class FileAnalysisDto {
         this.hasMethodChanges = entity.getHasMethodChanges();
         this.hasValidationChanges = entity.getHasValidationChanges();
         this.analysisResult = entity.getAnalysisResult();
-        this.markdownReport = entity.getMarkdownReport();
         this.createdAt = entity.getCreatedAt();
         this.hasCriticalIssues = entity.hasCriticalIssues();
         this.criticalIssuesCount = entity.getCriticalIssuesCount();
@@ -166,14 +170,6 @@ public class FileAnalysisDto {
         this.analysisResult = analysisResult;
     }
     
-    public String getMarkdownReport() {
-        return markdownReport;
-    }
-    
-    public void setMarkdownReport(String markdownReport) {
-        this.markdownReport = markdownReport;
-    }
-    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
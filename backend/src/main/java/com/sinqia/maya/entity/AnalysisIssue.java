@@ -55,16 +55,31 @@ public class AnalysisIssue {
     private IssueType type;
 
     /**
-     * Ttulo do issue
+     * Ttulo do issue (gravado j montado tambm quando o texto vem do modelo)
      */
     @Column(name = "title", nullable = false, length = 200)
     private String title;
 
     /**
-     * Descrio detalhada do issue
+     * Descrio detalhada do issue (null quando o texto vem do modelo)
      */
     @Column(name = "description", columnDefinition = "TEXT")
-    private String description;
+    @Convert(converter = CompressedTextConverter.class)
+    private CompressedText description;
+
+    /**
+     * Modelo das mensagens do issue; ttulo, descrio e sugesto so montados na leitura
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "message_template", length = 50)
+    private IssueTemplate messageTemplate;
+
+    /**
+     * Parmetros do modelo, separados por {@link #ARGS_SEPARATOR}; sem limite de
+     * tamanho, pois podem trazer literais do cdigo analisado
+     */
+    @Column(name = "message_args", columnDefinition = "TEXT")
+    private String messageArgs;
 
     /**
      * Nmero da linha onde o issue foi encontrado
@@ -79,16 +94,18 @@ public class AnalysisIssue {
     private Integer columnNumber;
 
     /**
-     * Sugesto de correo
+     * Sugesto de correo (null quando o texto vem do modelo)
      */
     @Column(name = "suggestion", columnDefinition = "TEXT")
-    private String suggestion;
+    @Convert(converter = CompressedTextConverter.class)
+    private CompressedText suggestion;
 
     /**
      * Trecho de cdigo relacionado ao issue
      */
     @Column(name = "code_snippet", columnDefinition = "TEXT")
-    private String codeSnippet;
+    @Convert(converter = CompressedTextConverter.class)
+    private CompressedText codeSnippet;
 
     /**
      * Regra violada (se aplicvel)
@@ -171,6 +188,95 @@ public class AnalysisIssue {
         public String getDescription() { return description; }
     }
 
+    /**
+     * Modelos das mensagens dos issues gerados pelo MAYA.
+     * 
+     * Cada issue guarda s o modelo e os parmetros ({0}, {1}, ...); os textos
+     * existem uma nica vez, aqui. O nome da constante  gravado no banco e no
+     * pode mudar; o texto pode ser corrigido, mas um novo sentido ou novos
+     * parmetros pedem uma nova constante.
+     */
+    public enum IssueTemplate {
+        CONNECTION_MISSING_DEVOLVE(
+            "Conexo No Devolvida",
+            "Mtodo {0}(), conexo '{1}': existe caminho em que empresta() no  seguido de devolve(). " +
+            "Isso causa vazamento de conexo.",
+            "Chame devolve() em bloco finally logo aps o empresta()."),
+        CONNECTION_NOT_IN_FINALLY(
+            "Devolve Fora de Finally",
+            "Mtodo {0}(), conexo '{1}': uma exceo entre empresta() e devolve() deixa a conexo emprestada.",
+            "Mova o devolve() para um bloco finally que envolva o uso da conexo."),
+        CONNECTION_RETURN_BEFORE_DEVOLVE(
+            "Return Antes do Devolve",
+            "Mtodo {0}(), conexo '{1}': o mtodo retorna com a conexo ainda emprestada.",
+            "Devolva a conexo em bloco finally para cobrir todos os returns."),
+        CONNECTION_DOUBLE_DEVOLVE(
+            "Devolve Duplicado",
+            "Mtodo {0}(), conexo '{1}': devolve()  chamado sobre conexo j devolvida.",
+            "Mantenha um nico devolve() por empresta(), de preferncia no finally."),
+        METHOD_COMPLEXITY(
+            "Alta Complexidade no Mtodo {0}()",
+            "Mtodo {0}(): complexidade ciclomtica {1} (limite mdio: {2}) e cognitiva {3} (limite: {4}). " +
+            "Considere refatorar para reduzir complexidade.",
+            "Divida o mtodo em mtodos menores e mais focados e reduza o aninhamento."),
+        SINQIA_PACKAGE(
+            "Violao de Padro Arquitetural",
+            "Pacote {0} no segue o padro Sinqia (com.sinqia.*)",
+            "Mova a classe para pacote que segue o padro: com.sinqia.[produto].[modulo].[camada]"),
+        LAYER_SUFFIX(
+            "Classe Sem Sufixo {0}",
+            "Classe {1} est na camada {2} mas no termina com {0}",
+            "Renomeie a classe para {1}{0} ou mova-a para a camada correta."),
+        SQL_CONCATENATION(
+            "Possvel SQL Injection",
+            "Comando SQL montado por concatenao de strings com valores variveis",
+            "Use PreparedStatement com parmetros em vez de concatenar valores no SQL"),
+        SENSITIVE_LOGGING(
+            "Dado Sensvel em Log",
+            "Chamada de log inclui informao sensvel ({0})",
+            "Evite logar informaes sensveis; registre apenas identificadores mascarados");
+
+        private final String title;
+        private final String description;
+        private final String suggestion;
+
+        IssueTemplate(String title, String description, String suggestion) {
+            this.title = title;
+            this.description = description;
+            this.suggestion = suggestion;
+        }
+
+        public String title(String[] args) { return render(title, args); }
+        public String description(String[] args) { return render(description, args); }
+        public String suggestion(String[] args) { return render(suggestion, args); }
+
+        private static String render(String pattern, String[] args) {
+            if (pattern.indexOf('{') < 0) {
+                return pattern;
+            }
+            StringBuilder text = new StringBuilder(pattern.length() + 32);
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c == '{' && i + 2 < pattern.length() && pattern.charAt(i + 2) == '}'
+                        && Character.isDigit(pattern.charAt(i + 1))) {
+                    int index = pattern.charAt(i + 1) - '0';
+                    text.append(index < args.length ? args[index] : "?");
+                    i += 2;
+                } else {
+                    text.append(c);
+                }
+            }
+            return text.toString();
+        }
+    }
+
+    /**
+     * Separador dos parmetros do modelo em {@link #messageArgs}
+     */
+    public static final char ARGS_SEPARATOR = '\u001F';
+
+    private static final int TITLE_MAX_LENGTH = 200;
+
     /**
      * Constructor padro
      */
@@ -183,7 +289,7 @@ public class AnalysisIssue {
         this.type = type;
         this.severity = severity;
         this.title = title;
-        this.description = description;
+        this.description = CompressedText.of(description);
     }
 
     /**
@@ -194,9 +300,63 @@ public class AnalysisIssue {
         this.type = type;
         this.severity = severity;
         this.title = title;
-        this.description = description;
+        this.description = CompressedText.of(description);
         this.lineNumber = lineNumber;
-        this.suggestion = suggestion;
+        this.suggestion = CompressedText.of(suggestion);
+    }
+
+    /**
+     * Define as mensagens a partir de um modelo; descrio e sugesto literais
+     * so descartadas. O ttulo  gravado montado, pois a coluna no aceita nulo.
+     */
+    public void setMessage(IssueTemplate template, Object... args) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                joined.append(ARGS_SEPARATOR);
+            }
+            joined.append(args[i]);
+        }
+        this.messageTemplate = template;
+        this.messageArgs = joined.length() > 0 ? joined.toString() : null;
+        String rendered = template.title(messageArgs());
+        this.title = rendered.length() > TITLE_MAX_LENGTH ? rendered.substring(0, TITLE_MAX_LENGTH) : rendered;
+        this.description = null;
+        this.suggestion = null;
+    }
+
+    public String getTitle() {
+        return title != null || messageTemplate == null ? title : messageTemplate.title(messageArgs());
+    }
+
+    public String getDescription() {
+        return description != null || messageTemplate == null
+                ? CompressedText.textOf(description) : messageTemplate.description(messageArgs());
+    }
+
+    public void setDescription(String description) {
+        this.description = CompressedText.of(description);
+    }
+
+    public String getSuggestion() {
+        return suggestion != null || messageTemplate == null
+                ? CompressedText.textOf(suggestion) : messageTemplate.suggestion(messageArgs());
+    }
+
+    public void setSuggestion(String suggestion) {
+        this.suggestion = CompressedText.of(suggestion);
+    }
+
+    public String getCodeSnippet() {
+        return CompressedText.textOf(codeSnippet);
+    }
+
+    public void setCodeSnippet(String codeSnippet) {
+        this.codeSnippet = CompressedText.of(codeSnippet);
+    }
+
+    private String[] messageArgs() {
+        return messageArgs == null ? new String[0] : messageArgs.split(String.valueOf(ARGS_SEPARATOR), -1);
     }
 
     /**
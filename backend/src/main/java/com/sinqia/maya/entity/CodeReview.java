@@ -173,7 +173,8 @@ public class CodeReview {
      * Analysis summary
      */
     @Column(name = "summary", columnDefinition = "TEXT")
-    private String summary;
+    @Convert(converter = CompressedTextConverter.class)
+    private CompressedText summary;
 
     /**
      * Analysis recommendations
@@ -193,6 +194,13 @@ public class CodeReview {
     @Column(name = "title", length = 500)
     private String title;
 
+    /**
+     * Lease of the ingestion node processing this review, renewed while it runs
+     * (null for synchronous analyses)
+     */
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
     /**
      * Creation timestamp
      */
@@ -358,9 +366,12 @@ public class CodeReview {
             if (analysis.getLinesOfCode() != null) {
                 totalLines += analysis.getLinesOfCode();
             }
-            
-            // Note: Issue counting implementation depends on AnalysisIssue entity
-            // This is a placeholder implementation
+
+            // Roll issue counts up so dashboards can aggregate without joining issues
+            criticalIssues += (int) analysis.getIssueCountBySeverity(AnalysisIssue.IssueSeverity.CRITICAL);
+            highIssues += (int) analysis.getIssueCountBySeverity(AnalysisIssue.IssueSeverity.ERROR);
+            mediumIssues += (int) analysis.getIssueCountBySeverity(AnalysisIssue.IssueSeverity.WARNING);
+            lowIssues += (int) analysis.getIssueCountBySeverity(AnalysisIssue.IssueSeverity.INFO);
         }
 
         // Calculate overall score
@@ -375,7 +386,15 @@ public class CodeReview {
      * Set review comment
      */
     public void setReviewComment(String comment) {
-        this.summary = comment;
+        setSummary(comment);
+    }
+
+    public String getSummary() {
+        return CompressedText.textOf(summary);
+    }
+
+    public void setSummary(String summary) {
+        this.summary = CompressedText.of(summary);
     }
 
     /**
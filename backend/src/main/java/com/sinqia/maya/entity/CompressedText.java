@@ -0,0 +1,77 @@
+package com.sinqia.maya.entity;
+
+import java.util.Objects;
+
+/**
+ * Texto de uma coluna comprimida ({@link CompressedTextConverter}), descomprimido
+ * só na primeira leitura.
+ *
+ * Ao carregar a entidade o valor fica como está na coluna, então consultas que
+ * não leem relatórios e descrições não pagam a descompressão. O valor é
+ * imutável: a entidade troca a instância quando o texto muda, e um valor lido
+ * do banco e não alterado é regravado como estava, sem nova compressão.
+ */
+public final class CompressedText {
+
+    // Como gravado na coluna; null quando criado a partir do texto
+    private final String stored;
+    private volatile String text;
+
+    private CompressedText(String stored, String text) {
+        this.stored = stored;
+        this.text = text;
+    }
+
+    public static CompressedText of(String text) {
+        return text == null ? null : new CompressedText(null, text);
+    }
+
+    public static String textOf(CompressedText value) {
+        return value == null ? null : value.text();
+    }
+
+    static CompressedText fromColumn(String stored) {
+        if (stored == null) {
+            return null;
+        }
+        // Textos não comprimidos já são o próprio valor
+        return new CompressedText(stored, stored.startsWith(CompressedTextConverter.PREFIX) ? null : stored);
+    }
+
+    public String text() {
+        String result = text;
+        if (result == null) {
+            result = CompressedTextConverter.decompress(stored);
+            text = result;
+        }
+        return result;
+    }
+
+    /**
+     * Valor da coluna quando lido do banco e não alterado; null para texto novo
+     */
+    String stored() {
+        return stored;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CompressedText that)) {
+            return false;
+        }
+        return stored != null && stored.equals(that.stored) || text().equals(that.text());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(text());
+    }
+
+    @Override
+    public String toString() {
+        return text();
+    }
+}
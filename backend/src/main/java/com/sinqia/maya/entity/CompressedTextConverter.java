@@ -0,0 +1,132 @@
+package com.sinqia.maya.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.annotations.Immutable;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressão transparente de colunas TEXT grandes (relatórios, respostas de IA).
+ *
+ * Textos a partir do limite configurado são gravados comprimidos com deflate,
+ * usando um dicionário fixo com os termos mais comuns dos relatórios MAYA, em
+ * Base64 e com o prefixo {@link #PREFIX}; a coluna continua TEXT e textos
+ * curtos ficam como estão. Só valores com o prefixo são descomprimidos, então
+ * linhas gravadas antes da compressão continuam válidas. O dicionário não pode
+ * mudar: uma nova versão exige novo prefixo.
+ *
+ * A leitura não descomprime: o atributo é um {@link CompressedText}, que guarda
+ * o valor da coluna e só o descomprime no primeiro acesso ao texto. Por ser
+ * imutável, o Hibernate compara as instâncias sem copiar nem descomprimir.
+ */
+@Converter
+@Immutable
+@Slf4j
+public class CompressedTextConverter implements AttributeConverter<CompressedText, String> {
+
+    static final String PREFIX = "~mz1:";
+
+    // Termos frequentes nos relatórios e respostas de IA; os do fim são os mais usados
+    private static final byte[] DICTIONARY = String.join(" ",
+            "public private static final class interface return throws Exception String List Map null",
+            "try catch finally if else for while switch case new this void int long double boolean",
+            "Considere refatorar para reduzir complexidade. Divida o método em métodos menores",
+            "complexidade ciclomática cognitiva limite recomendado aninhamento",
+            "SQL injection PreparedStatement parâmetros concatenação dados sensíveis log",
+            "pacote padrão Sinqia com.sinqia arquitetura camada Service Controller nomenclatura",
+            "## Recomendações ## Issues Encontrados ## Métricas de Qualidade ## Análise de Conexões",
+            "- **Severidade:** - **Tipo:** - **Linha:** - **Descrição:** - **Sugestão:**",
+            "vazamento de conexão emprestada empresta() devolve() bloco finally",
+            "Método conexão análise código arquivo classe revisão problema sugestão correção",
+            "de da do das dos que para com não uma um em no na os as por ao é e o a")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final int threshold;
+
+    public CompressedTextConverter(@Value("${maya.storage.compression.threshold:2048}") int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(CompressedText value) {
+        if (value == null) {
+            return null;
+        }
+        // Valor lido e não alterado: regravado como está
+        return value.stored() != null ? value.stored() : compress(value.text());
+    }
+
+    @Override
+    public CompressedText convertToEntityAttribute(String stored) {
+        return CompressedText.fromColumn(stored);
+    }
+
+    String compress(String text) {
+        if (text.length() < threshold && !text.startsWith(PREFIX)) {
+            return text;
+        }
+        String compressed = PREFIX + Base64.getEncoder().encodeToString(deflate(text.getBytes(StandardCharsets.UTF_8)));
+        // Texto que não comprime (ex.: já codificado) fica como está, salvo se for confundido com o prefixo
+        return compressed.length() < text.length() || text.startsWith(PREFIX) ? compressed : text;
+    }
+
+    static String decompress(String stored) {
+        if (!stored.startsWith(PREFIX)) {
+            return stored;
+        }
+        try {
+            byte[] compressed = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+            return new String(inflate(compressed), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException | DataFormatException e) {
+            log.warn("Texto comprimido inválido ({} caracteres); mantido como gravado: {}", stored.length(), e.getMessage());
+            return stored;
+        }
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setDictionary(DICTIONARY);
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, input.length / 3));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(input.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0) {
+                    if (!inflater.needsDictionary()) {
+                        throw new DataFormatException("dados truncados");
+                    }
+                    inflater.setDictionary(DICTIONARY);
+                }
+                output.write(buffer, 0, count);
+            }
+            return output.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
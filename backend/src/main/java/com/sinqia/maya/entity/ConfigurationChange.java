@@ -0,0 +1,51 @@
+package com.sinqia.maya.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de alteração de configuração, usado para invalidar caches entre nós.
+ * 
+ * O id é crescente e funciona como versão: cada nó aplica as alterações com
+ * versão maior que a última aplicada.
+ * 
+ * @author Sistema MAYA
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "configuration_changes", indexes = {
+    @Index(name = "idx_configuration_changes_changed_at", columnList = "changed_at")
+})
+@Data
+@NoArgsConstructor
+public class ConfigurationChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Chave alterada (nula quando todas as configurações devem ser invalidadas)
+     */
+    @Column(name = "config_key", length = 100)
+    private String configKey;
+
+    /**
+     * Nó que originou a alteração
+     */
+    @Column(name = "node_id", nullable = false, length = 64)
+    private String nodeId;
+
+    @CreationTimestamp
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public ConfigurationChange(String configKey, String nodeId) {
+        this.configKey = configKey;
+        this.nodeId = nodeId;
+    }
+}
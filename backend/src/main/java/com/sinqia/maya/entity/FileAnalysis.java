@@ -67,11 +67,24 @@ public class FileAnalysis {
     private Integer lineCount = 0;
 
     /**
-     * Score de complexidade ciclomtica
+     * Score de complexidade ciclomtica (maior valor entre os mtodos)
      */
     @Column(name = "complexity_score")
     private Double complexityScore = 0.0;
 
+    /**
+     * Maior complexidade cognitiva entre os mtodos
+     */
+    @Column(name = "cognitive_complexity")
+    private Integer cognitiveComplexity = 0;
+
+    /**
+     * Complexidade por mtodo no formato compacto de MethodComplexity
+     * ("nome@linha=ciclomtica/cognitiva;...")
+     */
+    @Column(name = "method_complexity", columnDefinition = "TEXT")
+    private String methodComplexity;
+
     /**
      * Desequilbrio de conexes (percentual)
      */
@@ -126,13 +139,16 @@ public class FileAnalysis {
      * Relatrio textual da anlise
      */
     @Column(name = "analysis_report", columnDefinition = "TEXT")
-    private String analysisReport;
+    @Convert(converter = CompressedTextConverter.class)
+    private CompressedText analysisReport;
 
     /**
-     * Relatrio em formato Markdown
+     * Relatrio em formato Markdown gravado por verses anteriores; novas
+     * anlises deixam vazio e o relatrio  gerado sob demanda
      */
     @Column(name = "markdown_report", columnDefinition = "TEXT")
-    private String markdownReport;
+    @Convert(converter = CompressedTextConverter.class)
+    private CompressedText markdownReport;
 
     /**
      * Modelo de IA utilizado na anlise
@@ -269,6 +285,22 @@ public class FileAnalysis {
                connectionImbalance > 0;
     }
 
+    public String getAnalysisReport() {
+        return CompressedText.textOf(analysisReport);
+    }
+
+    public void setAnalysisReport(String analysisReport) {
+        this.analysisReport = CompressedText.of(analysisReport);
+    }
+
+    public String getMarkdownReport() {
+        return CompressedText.textOf(markdownReport);
+    }
+
+    public void setMarkdownReport(String markdownReport) {
+        this.markdownReport = CompressedText.of(markdownReport);
+    }
+
     /**
      * Obter nmero de linhas de cdigo (alias para lineCount)
      */
@@ -1,5 +1,6 @@
 package com.sinqia.maya.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -12,7 +13,11 @@ import java.time.LocalDateTime;
  * Entidade para controle de exportaes/downloads de reviews
  */
 @Entity
-@Table(name = "review_exports")
+@Table(name = "review_exports", indexes = {
+    @Index(name = "idx_review_exports_content_hash", columnList = "content_hash"),
+    @Index(name = "idx_review_exports_render_key", columnList = "render_key"),
+    @Index(name = "idx_review_exports_expires_at", columnList = "expires_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,6 +27,7 @@ public class ReviewExport {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "code_review_id", nullable = false)
     private CodeReview codeReview;
@@ -39,13 +45,26 @@ public class ReviewExport {
     @Column(name = "file_size")
     private Long fileSize;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // SHA-256 do contedo (nome do blob compartilhado)
+
+    @JsonIgnore
+    @Column(name = "render_key", length = 64)
+    private String renderKey; // Hash de review + verso + opes, para reaproveitar renderizaes
+
     @Column(name = "download_count")
-    private Integer downloadCount = 0;
+    private Integer downloadCount = 0; // Downloads at o fim do arquivo; com sendfile, tentativas
 
     @Enumerated(EnumType.STRING)
     @Column(name = "status")
     private ExportStatus status = ExportStatus.PENDING;
 
+    @Column(name = "progress")
+    private Integer progress = 0; // Percentual concludo (0-100)
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt; // Concesso do n que est gerando (renovada com o progresso)
+
     @Column(name = "error_message")
     private String errorMessage;
 
@@ -62,7 +81,7 @@ public class ReviewExport {
     @Column(name = "created_by")
     private String createdBy;
 
-    @Column(name = "export_options", length = 1000)
+    @Column(name = "export_options", columnDefinition = "TEXT")
     private String exportOptions; // JSON com opes da exportao
 
     public enum ExportFormat {
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -27,6 +28,14 @@ public interface AnalysisIssueRepository extends JpaRepository<AnalysisIssue, Lo
      */
     List<AnalysisIssue> findByFileAnalysisIdOrderBySeverityDescLineNumberAsc(Long fileAnalysisId);
 
+    /**
+     * Buscar issues de um conjunto de anlises de arquivo, agrupveis por arquivo
+     */
+    @Query("SELECT i FROM AnalysisIssue i " +
+           "WHERE i.fileAnalysis.id IN :fileAnalysisIds " +
+           "ORDER BY i.fileAnalysis.id ASC, i.lineNumber ASC")
+    List<AnalysisIssue> findByFileAnalysisIds(@Param("fileAnalysisIds") Collection<Long> fileAnalysisIds);
+
     /**
      * Buscar issues por severidade
      */
@@ -74,15 +83,6 @@ public interface AnalysisIssueRepository extends JpaRepository<AnalysisIssue, Lo
            "ORDER BY ai.severity DESC")
     List<Object[]> getIssueStatisticsByReview(@Param("reviewId") Long reviewId);
 
-    /**
-     * Buscar top issues mais comuns
-     */
-    @Query("SELECT ai.type, ai.title, COUNT(ai) as issueCount " +
-           "FROM AnalysisIssue ai " +
-           "GROUP BY ai.type, ai.title " +
-           "ORDER BY issueCount DESC")
-    List<Object[]> findMostCommonIssues(Pageable pageable);
-
     /**
      * Buscar issues por linha especfica
      */
@@ -165,14 +165,6 @@ public interface AnalysisIssueRepository extends JpaRepository<AnalysisIssue, Lo
            "ORDER BY ai.severity DESC, ai.lineNumber ASC")
     List<AnalysisIssue> findByFilePath(@Param("filePath") String filePath);
 
-    /**
-     * Buscar issues com sugestes
-     */
-    @Query("SELECT ai FROM AnalysisIssue ai " +
-           "WHERE ai.suggestion IS NOT NULL " +
-           "AND LENGTH(ai.suggestion) > 0")
-    List<AnalysisIssue> findIssuesWithSuggestions();
-
     /**
      * Obter estatsticas de resoluo por tipo
      */
@@ -184,19 +176,6 @@ public interface AnalysisIssueRepository extends JpaRepository<AnalysisIssue, Lo
            "ORDER BY totalCount DESC")
     List<Object[]> getResolutionStatistics();
 
-    /**
-     * Buscar issues similares
-     */
-    @Query("SELECT ai FROM AnalysisIssue ai " +
-           "WHERE ai.type = :type " +
-           "AND ai.title = :title " +
-           "AND ai.id != :excludeId " +
-           "ORDER BY ai.createdAt DESC")
-    List<AnalysisIssue> findSimilarIssues(@Param("type") AnalysisIssue.IssueType type,
-                                        @Param("title") String title,
-                                        @Param("excludeId") Long excludeId,
-                                        Pageable pageable);
-
     /**
      * Obter hotspots de issues (arquivos com mais issues)
      */
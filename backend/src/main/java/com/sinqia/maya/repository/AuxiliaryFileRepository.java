@@ -2,6 +2,7 @@ package com.sinqia.maya.repository;
 
 import com.sinqia.maya.entity.AuxiliaryFile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -228,4 +229,14 @@ public interface AuxiliaryFileRepository extends JpaRepository<AuxiliaryFile, Lo
      */
     @Query("SELECT af FROM AuxiliaryFile af WHERE af.id IN :ids ORDER BY af.name ASC")
     List<AuxiliaryFile> findByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Somar usos acumulados em memria (ver UsageCounters)
+     */
+    @Modifying
+    @Query("UPDATE AuxiliaryFile af SET af.usageCount = COALESCE(af.usageCount, 0) + :delta, " +
+           "af.lastUsedAt = CASE WHEN af.lastUsedAt IS NULL OR af.lastUsedAt < :lastUsedAt " +
+           "THEN :lastUsedAt ELSE af.lastUsedAt END " +
+           "WHERE af.id = :id")
+    int addUsage(@Param("id") Long id, @Param("delta") int delta, @Param("lastUsedAt") LocalDateTime lastUsedAt);
 }
@@ -1,17 +1,21 @@
 package com.sinqia.maya.repository;
 
 import com.sinqia.maya.entity.CodeReview;
+
 import com.sinqia.maya.repository.impl.CodeReviewRepositoryImpl;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -63,6 +67,39 @@ public interface CodeReviewRepository extends JpaRepository<CodeReview, Long>,
      */
     long countByStatus(CodeReview.ReviewStatus status);
 
+    /**
+     * Reviso pendente passa a em andamento
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE CodeReview cr SET cr.status = com.sinqia.maya.entity.CodeReview.ReviewStatus.IN_PROGRESS " +
+           "WHERE cr.id = :id AND cr.status = com.sinqia.maya.entity.CodeReview.ReviewStatus.PENDING")
+    int markInProgress(@Param("id") Long id);
+
+    /**
+     * Renova a concesso das revises ainda abertas processadas por este n
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE CodeReview cr SET cr.leaseExpiresAt = :expiresAt " +
+           "WHERE cr.id IN :ids " +
+           "AND cr.status IN (com.sinqia.maya.entity.CodeReview.ReviewStatus.PENDING, " +
+           "com.sinqia.maya.entity.CodeReview.ReviewStatus.IN_PROGRESS)")
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Marca como falhas as revises abertas cuja concesso venceu (o n que as
+     * processava parou sem conclu-las). Revises sem concesso no so tocadas.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE CodeReview cr SET cr.status = com.sinqia.maya.entity.CodeReview.ReviewStatus.FAILED, " +
+           "cr.errorMessage = :reason, cr.updatedAt = :now, cr.leaseExpiresAt = NULL " +
+           "WHERE cr.status IN (com.sinqia.maya.entity.CodeReview.ReviewStatus.PENDING, " +
+           "com.sinqia.maya.entity.CodeReview.ReviewStatus.IN_PROGRESS) " +
+           "AND cr.leaseExpiresAt < :now")
+    int failExpiredLeases(@Param("now") LocalDateTime now, @Param("reason") String reason);
+
     /**
      * Buscar revises por autor
      */
@@ -173,7 +210,7 @@ public interface CodeReviewRepository extends JpaRepository<CodeReview, Long>,
     List<CodeReview> findByAnalysisDurationAbove(@Param("durationMs") Long durationMs);
 
     /**
-     * Obter estatsticas de performance por perodo
+     * Obter estatsticas de performance por dia (repositrio opcional)
      */
     @Query("SELECT DATE(cr.createdAt) as analysisDate, " +
            "COUNT(cr) as totalReviews, " +
@@ -181,9 +218,11 @@ public interface CodeReviewRepository extends JpaRepository<CodeReview, Long>,
            "AVG(cr.analysisScore) as avgScore " +
            "FROM CodeReview cr " +
            "WHERE cr.createdAt >= :startDate " +
+           "AND (:repositoryName IS NULL OR cr.repositoryName = :repositoryName) " +
            "GROUP BY DATE(cr.createdAt) " +
-           "ORDER BY analysisDate DESC")
-    List<Object[]> getPerformanceStatistics(@Param("startDate") LocalDateTime startDate);
+           "ORDER BY analysisDate ASC")
+    List<Object[]> getPerformanceStatistics(@Param("startDate") LocalDateTime startDate,
+                                            @Param("repositoryName") String repositoryName);
 
     /**
      * Buscar revises similares baseadas no autor e repositrio
@@ -199,17 +238,56 @@ public interface CodeReviewRepository extends JpaRepository<CodeReview, Long>,
                                       Pageable pageable);
 
     /**
-     * Obter trending de qualidade por perodo
+     * Obter trending de qualidade por dia (repositrio opcional)
      */
     @Query("SELECT DATE(cr.createdAt) as analysisDate, " +
            "AVG(cr.analysisScore) as avgScore, " +
-           "COUNT(CASE WHEN cr.criticalIssues > 0 THEN 1 END) as criticalCount, " +
+           "COALESCE(SUM(cr.criticalIssues), 0) as criticalIssues, " +
            "COUNT(cr) as totalCount " +
            "FROM CodeReview cr " +
            "WHERE cr.createdAt >= :startDate " +
+           "AND (:repositoryName IS NULL OR cr.repositoryName = :repositoryName) " +
            "GROUP BY DATE(cr.createdAt) " +
            "ORDER BY analysisDate ASC")
-    List<Object[]> getQualityTrend(@Param("startDate") LocalDateTime startDate);
+    List<Object[]> getQualityTrend(@Param("startDate") LocalDateTime startDate,
+                                   @Param("repositoryName") String repositoryName);
+
+    /**
+     * Histograma de scores (um bucket por ponto inteiro) para distribuio e mediana
+     */
+    @Query("SELECT FLOOR(cr.analysisScore), COUNT(cr) " +
+           "FROM CodeReview cr " +
+           "WHERE cr.createdAt >= :startDate " +
+           "AND cr.analysisScore IS NOT NULL " +
+           "AND (:repositoryName IS NULL OR cr.repositoryName = :repositoryName) " +
+           "GROUP BY FLOOR(cr.analysisScore) " +
+           "ORDER BY FLOOR(cr.analysisScore) ASC")
+    List<Object[]> getScoreHistogram(@Param("startDate") LocalDateTime startDate,
+                                     @Param("repositoryName") String repositoryName);
+
+    /**
+     * Totais de issues por severidade e arquivos no perodo
+     */
+    @Query("SELECT COALESCE(SUM(cr.criticalIssues), 0), COALESCE(SUM(cr.highIssues), 0), " +
+           "COALESCE(SUM(cr.mediumIssues), 0), COALESCE(SUM(cr.lowIssues), 0), " +
+           "COALESCE(SUM(cr.totalFiles), 0), " +
+           "COALESCE(SUM(CASE WHEN cr.status = 'COMPLETED' THEN cr.totalFiles ELSE 0 END), 0) " +
+           "FROM CodeReview cr " +
+           "WHERE cr.createdAt >= :startDate " +
+           "AND (:repositoryName IS NULL OR cr.repositoryName = :repositoryName)")
+    List<Object[]> getQualityTotals(@Param("startDate") LocalDateTime startDate,
+                                    @Param("repositoryName") String repositoryName);
+
+    /**
+     * Score mdio por repositrio no perodo
+     */
+    @Query("SELECT cr.repositoryName, AVG(cr.analysisScore) " +
+           "FROM CodeReview cr " +
+           "WHERE cr.createdAt >= :startDate " +
+           "AND (:repositoryName IS NULL OR cr.repositoryName = :repositoryName) " +
+           "GROUP BY cr.repositoryName")
+    List<Object[]> getAverageScoreByRepository(@Param("startDate") LocalDateTime startDate,
+                                               @Param("repositoryName") String repositoryName);
 
     /**
      * Buscar revises que precisam de reprocessamento
@@ -233,11 +311,53 @@ public interface CodeReviewRepository extends JpaRepository<CodeReview, Long>,
     @Query("SELECT cr.author, COUNT(cr) FROM CodeReview cr WHERE cr.createdAt >= :cutoffDate GROUP BY cr.author ORDER BY COUNT(cr) DESC")
     List<Object[]> findTopAuthorsByReviewCount(@Param("cutoffDate") LocalDateTime cutoffDate);
     
+    /**
+     * Mtricas por repositrio a partir dos contadores consolidados da reviso (sem join com issues)
+     */
     @Query("SELECT cr.repositoryName, COUNT(cr), AVG(cr.analysisScore), " +
-           "SUM(CASE WHEN i.severity = 'CRITICAL' THEN 1 ELSE 0 END), " +
+           "COALESCE(SUM(cr.criticalIssues), 0), " +
            "SUM(CASE WHEN cr.status = 'COMPLETED' THEN 1 ELSE 0 END) " +
-           "FROM CodeReview cr LEFT JOIN cr.fileAnalyses fa LEFT JOIN fa.issues i " +
+           "FROM CodeReview cr " +
            "WHERE cr.createdAt >= :cutoffDate " +
            "GROUP BY cr.repositoryName")
     List<Object[]> findRepositoryMetrics(@Param("cutoffDate") LocalDateTime cutoffDate);
+
+    /**
+     * Ranking de repositrios: perodo atual e anterior agregados em uma passada.
+     * Colunas: nome, reviews, score mdio, issues crticos, score mdio anterior, ltima reviso
+     */
+    @Query("SELECT cr.repositoryName, " +
+           "SUM(CASE WHEN cr.createdAt >= :cutoffDate THEN 1 ELSE 0 END), " +
+           "AVG(CASE WHEN cr.createdAt >= :cutoffDate THEN cr.analysisScore END), " +
+           "COALESCE(SUM(CASE WHEN cr.createdAt >= :cutoffDate THEN cr.criticalIssues ELSE 0 END), 0), " +
+           "AVG(CASE WHEN cr.createdAt < :cutoffDate THEN cr.analysisScore END), " +
+           "MAX(cr.createdAt) " +
+           "FROM CodeReview cr " +
+           "WHERE cr.createdAt >= :previousStart " +
+           "GROUP BY cr.repositoryName " +
+           "HAVING SUM(CASE WHEN cr.createdAt >= :cutoffDate THEN 1 ELSE 0 END) > 0 " +
+           "ORDER BY AVG(CASE WHEN cr.createdAt >= :cutoffDate THEN cr.analysisScore END) DESC NULLS LAST, " +
+           "SUM(CASE WHEN cr.createdAt >= :cutoffDate THEN 1 ELSE 0 END) DESC")
+    List<Object[]> findRepositoryRanking(@Param("previousStart") LocalDateTime previousStart,
+                                         @Param("cutoffDate") LocalDateTime cutoffDate,
+                                         Pageable pageable);
+
+    /**
+     * Ranking de desenvolvedores: perodo atual e anterior agregados em uma passada.
+     * Colunas: autor, reviews, score mdio, issues crticos, score mdio anterior
+     */
+    @Query("SELECT cr.author, " +
+           "SUM(CASE WHEN cr.createdAt >= :cutoffDate THEN 1 ELSE 0 END), " +
+           "AVG(CASE WHEN cr.createdAt >= :cutoffDate THEN cr.analysisScore END), " +
+           "COALESCE(SUM(CASE WHEN cr.createdAt >= :cutoffDate THEN cr.criticalIssues ELSE 0 END), 0), " +
+           "AVG(CASE WHEN cr.createdAt < :cutoffDate THEN cr.analysisScore END) " +
+           "FROM CodeReview cr " +
+           "WHERE cr.createdAt >= :previousStart AND cr.author IS NOT NULL " +
+           "GROUP BY cr.author " +
+           "HAVING SUM(CASE WHEN cr.createdAt >= :cutoffDate THEN 1 ELSE 0 END) > 0 " +
+           "ORDER BY AVG(CASE WHEN cr.createdAt >= :cutoffDate THEN cr.analysisScore END) DESC NULLS LAST, " +
+           "SUM(CASE WHEN cr.createdAt >= :cutoffDate THEN 1 ELSE 0 END) DESC")
+    List<Object[]> findDeveloperRanking(@Param("previousStart") LocalDateTime previousStart,
+                                        @Param("cutoffDate") LocalDateTime cutoffDate,
+                                        Pageable pageable);
 }
@@ -0,0 +1,33 @@
+package com.sinqia.maya.repository;
+
+import com.sinqia.maya.entity.ConfigurationChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório do registro de alterações de configuração
+ */
+@Repository
+public interface ConfigurationChangeRepository extends JpaRepository<ConfigurationChange, Long> {
+
+    /**
+     * Alterações com versão maior que a informada, em ordem de versão
+     */
+    List<ConfigurationChange> findByIdGreaterThanOrderByIdAsc(Long version, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(cc.id), 0) FROM ConfigurationChange cc")
+    long findLatestVersion();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ConfigurationChange cc WHERE cc.changedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
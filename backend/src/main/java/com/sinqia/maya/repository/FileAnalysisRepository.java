@@ -27,6 +27,21 @@ public interface FileAnalysisRepository extends JpaRepository<FileAnalysis, Long
      */
     List<FileAnalysis> findByCodeReviewIdOrderByFilePathAsc(Long codeReviewId);
 
+    /**
+     * Pgina de anlises de uma reviso aps o id informado (paginao por chave)
+     */
+    @Query("SELECT fa FROM FileAnalysis fa " +
+           "WHERE fa.codeReview.id = :codeReviewId AND fa.id > :afterId " +
+           "ORDER BY fa.id ASC")
+    List<FileAnalysis> findPageByCodeReviewId(@Param("codeReviewId") Long codeReviewId,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    /**
+     * Quantidade de anlises de uma reviso
+     */
+    long countByCodeReviewId(Long codeReviewId);
+
     /**
      * Buscar anlises por linguagem
      */
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository as RepositoryAnnotation;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +21,8 @@ public interface RepositoryRepository extends JpaRepository<Repository, Long> {
 
     List<Repository> findByIsActiveTrue();
 
+    List<Repository> findByNameIn(Collection<String> names);
+
     Page<Repository> findByIsActiveTrueOrderByNameAsc(Pageable pageable);
 
     @Query("SELECT r FROM Repository r WHERE r.isActive = true AND r.autoReviewEnabled = true")
@@ -1,25 +1,95 @@
 package com.sinqia.maya.repository;
 
 import com.sinqia.maya.entity.ReviewExport;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import org.springframework.transaction.annotation.Transactional;
+
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ReviewExportRepository extends JpaRepository<ReviewExport, String> {
+public interface ReviewExportRepository extends JpaRepository<ReviewExport, Long> {
+    
+    @Query("SELECT re FROM ReviewExport re JOIN FETCH re.codeReview WHERE re.id = :id")
+    Optional<ReviewExport> findWithReviewById(@Param("id") Long id);
+    
+    List<ReviewExport> findByCodeReviewIdOrderByCreatedAtDesc(Long codeReviewId);
     
-    List<ReviewExport> findByUserIdOrderByCreatedAtDesc(String userId);
+    Page<ReviewExport> findByCreatedByOrderByCreatedAtDesc(String createdBy, Pageable pageable);
+    
+    Page<ReviewExport> findByCreatedByAndStatusOrderByCreatedAtDesc(String createdBy, ReviewExport.ExportStatus status,
+                                                                    Pageable pageable);
+    
+    List<ReviewExport> findByStatusIn(Collection<ReviewExport.ExportStatus> statuses);
     
     List<ReviewExport> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
     
-    @Query("SELECT re FROM ReviewExport re WHERE re.userId = :userId AND re.createdAt >= :since")
-    List<ReviewExport> findRecentExportsByUser(@Param("userId") String userId, @Param("since") LocalDateTime since);
+    @Query("SELECT re FROM ReviewExport re WHERE re.createdBy = :createdBy AND re.createdAt >= :since")
+    List<ReviewExport> findRecentExportsByUser(@Param("createdBy") String createdBy, @Param("since") LocalDateTime since);
     
     void deleteByCreatedAtBefore(LocalDateTime cutoffDate);
     
-    long countByUserIdAndCreatedAtAfter(String userId, LocalDateTime since);
+    Optional<ReviewExport> findFirstByRenderKeyAndStatusAndContentHashNotNullOrderByExportedAtDesc(
+            String renderKey, ReviewExport.ExportStatus status);
+    
+    @Query("SELECT DISTINCT re.contentHash FROM ReviewExport re WHERE re.contentHash IS NOT NULL")
+    List<String> findReferencedContentHashes();
+    
+    /**
+     * Arquivos fora do armazenamento por conteúdo (gerados antes dele) das exportações expiradas
+     */
+    @Query("SELECT re.filePath FROM ReviewExport re " +
+           "WHERE re.expiresAt < :now AND re.contentHash IS NULL AND re.filePath IS NOT NULL")
+    List<String> findExpiredLegacyFilePaths(@Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ReviewExport re WHERE re.expiresAt < :now " +
+           "AND re.status NOT IN (com.sinqia.maya.entity.ReviewExport.ExportStatus.PENDING, " +
+           "com.sinqia.maya.entity.ReviewExport.ExportStatus.PROCESSING)")
+    int deleteExpired(@Param("now") LocalDateTime now);
+    
+    long countByCreatedByAndCreatedAtAfter(String createdBy, LocalDateTime since);
+    
+    /**
+     * Soma um download no próprio banco, sem carregar a entidade (downloads concorrentes não se perdem)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReviewExport re SET re.downloadCount = COALESCE(re.downloadCount, 0) + 1 WHERE re.id = :id")
+    int incrementDownloadCount(@Param("id") Long id);
+    
+    /**
+     * Reserva a exportação para o nó que vai gerá-la: pendente, ou em geração
+     * com a concessão vencida (nó parado no meio). Retorna 0 se outro nó já a reservou.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReviewExport re SET re.status = com.sinqia.maya.entity.ReviewExport.ExportStatus.PROCESSING, " +
+           "re.progress = 0, re.leaseExpiresAt = :expiresAt " +
+           "WHERE re.id = :id AND (re.status = com.sinqia.maya.entity.ReviewExport.ExportStatus.PENDING " +
+           "OR (re.status = com.sinqia.maya.entity.ReviewExport.ExportStatus.PROCESSING " +
+           "AND (re.leaseExpiresAt IS NULL OR re.leaseExpiresAt < :now)))")
+    int claim(@Param("id") Long id,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * Grava o progresso e renova a concessão sem carregar a entidade
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReviewExport re SET re.progress = :progress, re.leaseExpiresAt = :expiresAt WHERE re.id = :id")
+    int updateProgress(@Param("id") Long id,
+                       @Param("progress") Integer progress,
+                       @Param("expiresAt") LocalDateTime expiresAt);
 }
@@ -4,10 +4,12 @@ import com.sinqia.maya.entity.ReviewPrompt;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,4 +43,11 @@ public interface ReviewPromptRepository extends JpaRepository<ReviewPrompt, Long
     Page<ReviewPrompt> findMostUsed(Pageable pageable);
 
     boolean existsByNameAndIsActiveTrue(String name);
+
+    @Modifying
+    @Query("UPDATE ReviewPrompt rp SET rp.usageCount = COALESCE(rp.usageCount, 0) + :delta, " +
+           "rp.lastUsedAt = CASE WHEN rp.lastUsedAt IS NULL OR rp.lastUsedAt < :lastUsedAt " +
+           "THEN :lastUsedAt ELSE rp.lastUsedAt END " +
+           "WHERE rp.id = :id")
+    int addUsage(@Param("id") Long id, @Param("delta") long delta, @Param("lastUsedAt") LocalDateTime lastUsedAt);
 }
@@ -1,18 +1,30 @@
 package com.sinqia.maya.service;
 
+import com.sinqia.maya.config.CacheConfiguration;
 import com.sinqia.maya.entity.ConfigurationSettings;
 import com.sinqia.maya.repository.ConfigurationSettingsRepository;
+import com.sinqia.maya.service.config.ConfigurationInvalidationBus;
+import com.sinqia.maya.service.config.ConfigurationSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Servio de gerenciamento de configuraes do sistema MAYA.
@@ -23,6 +35,13 @@ import java.util.Optional;
  * - Validao de configuraes
  * - Auditoria de mudanas
  * 
+ * As leituras de valores usam uma fotografia imutvel das configuraes
+ * ativas ({@link ConfigurationSnapshot}), lida sem bloqueio. Cada alterao
+ * aplicada neste n (contador do {@link ConfigurationInvalidationBus}, que no
+ * depende da ordem das verses) marca a fotografia como desatualizada; a
+ * prxima leitura remonta sem bloqueio, e leituras concorrentes no voltam a
+ * uma fotografia anterior.
+ * 
  * @author Sistema MAYA
  * @version 1.0.0
  */
@@ -33,11 +52,15 @@ import java.util.Optional;
 public class ConfigurationService {
 
     private final ConfigurationSettingsRepository configRepository;
+    private final ConfigurationInvalidationBus invalidationBus;
+    private final PlatformTransactionManager transactionManager;
+
+    private final AtomicReference<TypedSnapshot> snapshot = new AtomicReference<>();
 
     /**
      * Buscar configurao por chave (com cache)
      */
-    @Cacheable(value = "configurations", key = "#configKey")
+    @Cacheable(value = CacheConfiguration.CONFIGURATIONS, key = "#configKey")
     public Optional<ConfigurationSettings> getConfiguration(String configKey) {
         log.debug("Buscando configurao: {}", configKey);
         return configRepository.findByKeyName(configKey);
@@ -46,56 +69,58 @@ public class ConfigurationService {
     /**
      * Obter valor de configurao como String
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public String getConfigValue(String configKey, String defaultValue) {
-        Optional<ConfigurationSettings> config = getConfiguration(configKey);
-        return config.map(ConfigurationSettings::getConfigValue).orElse(defaultValue);
+        return getSnapshot().getString(configKey, defaultValue);
     }
 
     /**
      * Obter valor de configurao como Integer
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Integer getConfigValueAsInt(String configKey, Integer defaultValue) {
-        String value = getConfigValue(configKey, null);
-        if (value != null) {
-            try {
-                return Integer.parseInt(value);
-            } catch (NumberFormatException e) {
-                log.warn("Valor de configurao invlido para {}: {}", configKey, value);
-            }
-        }
-        return defaultValue;
+        return getSnapshot().getInt(configKey, defaultValue);
     }
 
     /**
      * Obter valor de configurao como Boolean
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Boolean getConfigValueAsBool(String configKey, Boolean defaultValue) {
-        String value = getConfigValue(configKey, null);
-        if (value != null) {
-            return Boolean.parseBoolean(value);
-        }
-        return defaultValue;
+        return getSnapshot().getBoolean(configKey, defaultValue);
     }
 
     /**
      * Obter valor de configurao como Double
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Double getConfigValueAsDouble(String configKey, Double defaultValue) {
-        String value = getConfigValue(configKey, null);
-        if (value != null) {
-            try {
-                return Double.parseDouble(value);
-            } catch (NumberFormatException e) {
-                log.warn("Valor de configurao invlido para {}: {}", configKey, value);
-            }
-        }
-        return defaultValue;
+        return getSnapshot().getDouble(configKey, defaultValue);
     }
 
     /**
-     * Salvar ou atualizar configurao
+     * Fotografia atual das configuraes ativas
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ConfigurationSnapshot getSnapshot() {
+        return currentSnapshot().values();
+    }
+
+    /**
+     * Monta a primeira fotografia antes das primeiras requisies
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void warmUpSnapshot() {
+        ConfigurationSnapshot current = getSnapshot();
+        log.info("Fotografia de configuraes montada: {} configuraes ativas, verso {}",
+                current.size(), current.version());
+    }
+
+    /**
+     * Salvar ou atualizar configurao.
+     * O cache  invalidado neste e nos demais ns aps o commit.
      */
-    @CacheEvict(value = "configurations", key = "#configKey")
     public ConfigurationSettings saveConfiguration(String configKey, String configValue, String description) {
         log.info("Salvando configurao: {} = {}", configKey, configValue);
         
@@ -118,7 +143,9 @@ public class ConfigurationService {
             config.setUpdatedAt(LocalDateTime.now());
         }
         
-        return configRepository.save(config);
+        ConfigurationSettings saved = configRepository.save(config);
+        invalidationBus.publish(configKey);
+        return saved;
     }
 
     /**
@@ -139,7 +166,6 @@ public class ConfigurationService {
     /**
      * Desativar configurao
      */
-    @CacheEvict(value = "configurations", key = "#configKey")
     public void deactivateConfiguration(String configKey) {
         log.info("Desativando configurao: {}", configKey);
         
@@ -149,58 +175,40 @@ public class ConfigurationService {
             setting.setIsActive(false);
             setting.setUpdatedAt(LocalDateTime.now());
             configRepository.save(setting);
+            invalidationBus.publish(configKey);
         }
     }
 
     /**
-     * Limpar cache de configuraes
+     * Limpar cache de configuraes (em todos os ns)
      */
-    @CacheEvict(value = "configurations", allEntries = true)
     public void clearConfigurationCache() {
+        invalidationBus.publish(null);
         log.info("Cache de configuraes limpo");
     }
 
     /**
      * Obter configuraes de TFS
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public TfsConfiguration getTfsConfiguration() {
-        return new TfsConfiguration(
-                getConfigValue("tfs.base.url", "https://tfs.sinqia.com.br"),
-                getConfigValue("tfs.organization", "sinqia"),
-                getConfigValue("tfs.personal.access.token", ""),
-                getConfigValue("tfs.api.version", "7.0"),
-                getConfigValueAsInt("tfs.timeout.ms", 30000),
-                getConfigValueAsBool("tfs.auto.analysis.enabled", true)
-        );
+        return currentSnapshot().tfs();
     }
 
     /**
      * Obter configuraes de IA
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public AiConfiguration getAiConfiguration() {
-        return new AiConfiguration(
-                getConfigValue("ai.endpoint", "https://api.openai.com/v1/chat/completions"),
-                getConfigValue("ai.api.key", ""),
-                getConfigValue("ai.model", "gpt-4"),
-                getConfigValueAsDouble("ai.temperature", 0.3),
-                getConfigValueAsInt("ai.max.tokens", 2000),
-                getConfigValueAsInt("ai.timeout.ms", 30000),
-                getConfigValueAsBool("ai.enabled", true)
-        );
+        return currentSnapshot().ai();
     }
 
     /**
      * Obter configuraes de anlise MAYA
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public MayaAnalysisConfiguration getMayaConfiguration() {
-        return new MayaAnalysisConfiguration(
-                getConfigValueAsInt("maya.complexity.threshold", 15),
-                getConfigValueAsInt("maya.connection.imbalance.threshold", 3),
-                getConfigValueAsInt("maya.min.score.threshold", 70),
-                getConfigValueAsBool("maya.auto.fix.enabled", false),
-                getConfigValueAsBool("maya.executive.report.enabled", true),
-                getConfigValueAsInt("maya.analysis.timeout.ms", 120000)
-        );
+        return currentSnapshot().maya();
     }
 
     /**
@@ -261,8 +269,11 @@ public class ConfigurationService {
         List<String> errors = new ArrayList<>();
         List<String> warnings = new ArrayList<>();
         
+        // Uma nica fotografia: todas as regras validam o mesmo conjunto de valores
+        TypedSnapshot current = currentSnapshot();
+        
         // Validar TFS
-        TfsConfiguration tfsConfig = getTfsConfiguration();
+        TfsConfiguration tfsConfig = current.tfs();
         if (tfsConfig.baseUrl().isEmpty()) {
             errors.add("URL base do TFS no configurada");
         }
@@ -271,7 +282,7 @@ public class ConfigurationService {
         }
         
         // Validar IA
-        AiConfiguration aiConfig = getAiConfiguration();
+        AiConfiguration aiConfig = current.ai();
         if (aiConfig.enabled() && aiConfig.apiKey().isEmpty()) {
             errors.add("Chave da API de IA no configurada");
         }
@@ -280,7 +291,7 @@ public class ConfigurationService {
         }
         
         // Validar MAYA
-        MayaAnalysisConfiguration mayaConfig = getMayaConfiguration();
+        MayaAnalysisConfiguration mayaConfig = current.maya();
         if (mayaConfig.complexityThreshold() <= 0) {
             errors.add("Limite de complexidade deve ser maior que 0");
         }
@@ -328,6 +339,102 @@ public class ConfigurationService {
         clearConfigurationCache();
     }
 
+    private TypedSnapshot currentSnapshot() {
+        TypedSnapshot current = snapshot.get();
+        if (current != null && current.values().version() >= invalidationBus.appliedChanges()) {
+            return current;
+        }
+        return rebuildSnapshot();
+    }
+
+    /**
+     * Remonta a fotografia sem bloqueio; a troca nunca substitui uma fotografia
+     * por outra mais antiga.
+     *
+     * A carga participa da transao do chamador, se houver, em vez de pedir
+     * outra conexo ao pool enquanto a dele est presa. Se essa transao for
+     * desfeita, a fotografia montada nela  descartada, pois pode conter
+     * alteraes do chamador que no foram confirmadas.
+     */
+    private TypedSnapshot rebuildSnapshot() {
+        // Contador lido antes da carga: a fotografia reflete ao menos essas alteraes
+        long version = invalidationBus.appliedChanges();
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        Map<String, String> values = transaction.execute(status -> {
+            Map<String, String> active = new HashMap<>();
+            for (ConfigurationSettings config : configRepository.findByIsActiveTrueOrderByCategory()) {
+                active.put(config.getKeyName(), config.getConfigValue());
+            }
+            return active;
+        });
+
+        TypedSnapshot rebuilt = TypedSnapshot.of(ConfigurationSnapshot.of(version, values));
+        TypedSnapshot current;
+        do {
+            current = snapshot.get();
+            if (current != null && current.values().version() > version) {
+                return current;
+            }
+        } while (!snapshot.compareAndSet(current, rebuilt));
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        snapshot.compareAndSet(rebuilt, null);
+                    }
+                }
+            });
+        }
+        log.debug("Fotografia de configuraes remontada na verso {}", version);
+        return rebuilt;
+    }
+
+    /**
+     * Fotografia com as configuraes tipadas j montadas
+     */
+    private record TypedSnapshot(
+            ConfigurationSnapshot values,
+            TfsConfiguration tfs,
+            AiConfiguration ai,
+            MayaAnalysisConfiguration maya
+    ) {
+        static TypedSnapshot of(ConfigurationSnapshot values) {
+            return new TypedSnapshot(
+                    values,
+                    new TfsConfiguration(
+                            values.getString("tfs.base.url", "https://tfs.sinqia.com.br"),
+                            values.getString("tfs.organization", "sinqia"),
+                            values.getString("tfs.personal.access.token", ""),
+                            values.getString("tfs.api.version", "7.0"),
+                            values.getInt("tfs.timeout.ms", 30000),
+                            values.getBoolean("tfs.auto.analysis.enabled", true)
+                    ),
+                    new AiConfiguration(
+                            values.getString("ai.endpoint", "https://api.openai.com/v1/chat/completions"),
+                            values.getString("ai.api.key", ""),
+                            values.getString("ai.model", "gpt-4"),
+                            values.getDouble("ai.temperature", 0.3),
+                            values.getInt("ai.max.tokens", 2000),
+                            values.getInt("ai.timeout.ms", 30000),
+                            values.getBoolean("ai.enabled", true)
+                    ),
+                    new MayaAnalysisConfiguration(
+                            values.getInt("maya.complexity.threshold", 15),
+                            values.getInt("maya.connection.imbalance.threshold", 3),
+                            values.getInt("maya.min.score.threshold", 70),
+                            values.getBoolean("maya.auto.fix.enabled", false),
+                            values.getBoolean("maya.executive.report.enabled", true),
+                            values.getInt("maya.analysis.timeout.ms", 120000)
+                    )
+            );
+        }
+    }
+
     // Records para DTOs de configurao
     
     public record TfsConfiguration(
@@ -1,19 +1,36 @@
 package com.sinqia.maya.service;
 
+import com.sinqia.maya.config.CacheConfiguration;
 import com.sinqia.maya.controller.DashboardController;
 import com.sinqia.maya.entity.CodeReview;
 import com.sinqia.maya.entity.DashboardMetric;
+import com.sinqia.maya.entity.Repository;
 import com.sinqia.maya.repository.CodeReviewRepository;
 import com.sinqia.maya.repository.RepositoryRepository;
+import com.sinqia.maya.service.alert.AlertEngine;
+import com.sinqia.maya.service.event.ReviewCompletedEvent;
+import com.sinqia.maya.service.metrics.PerformanceMetricsStore;
+import com.sinqia.maya.service.metrics.PerformanceMetricsStore.Metric;
+import com.sinqia.maya.service.metrics.TrendStatistics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -27,6 +44,18 @@ public class DashboardService {
 
     private final CodeReviewRepository codeReviewRepository;
     private final RepositoryRepository repositoryRepository;
+    private final PerformanceMetricsStore metricsStore;
+    private final AlertEngine alertEngine;
+
+    static final String TRENDS_CACHE = CacheConfiguration.DASHBOARD_TRENDS;
+    static final String RANKINGS_CACHE = CacheConfiguration.DASHBOARD_RANKINGS;
+
+    private static final int ACTIVE_REPOSITORY_DAYS = 7;
+
+    private static final int MOVING_AVERAGE_DAYS = 7;
+    private static final double TREND_TOLERANCE = 0.1;
+    private static final DateTimeFormatter DAY_LABEL = DateTimeFormatter.ofPattern("dd/MM");
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MM/yyyy");
 
     /**
      * Obter overview geral do sistema
@@ -64,33 +93,47 @@ public class DashboardService {
     /**
      * Obter mtricas de qualidade
      */
+    @Cacheable(value = TRENDS_CACHE, key = "'quality:' + #days + ':' + #repositoryId")
     public DashboardController.QualityMetrics getQualityMetrics(int days, Long repositoryId) {
         log.debug("Gerando mtricas de qualidade para {} dias, repo: {}", days, repositoryId);
 
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
+        LocalDateTime cutoffDate = startOfWindow(days);
+        String repositoryName = resolveRepositoryName(repositoryId);
 
-        // TODO: Implementar queries especficas baseadas no repositoryId
-        Double averageScore = codeReviewRepository.findAverageScoreAfter(cutoffDate);
-        if (averageScore == null) averageScore = 0.0;
+        List<DailyQuality> daily = loadDailyQuality(cutoffDate, repositoryName, days);
+        long[] histogram = loadScoreHistogram(cutoffDate, repositoryName);
+        Object[] totals = codeReviewRepository.getQualityTotals(cutoffDate, repositoryName).stream()
+                .findFirst()
+                .orElse(new Object[]{0L, 0L, 0L, 0L, 0L, 0L});
 
         Map<String, Long> issuesByType = new HashMap<>();
-        issuesByType.put("CRITICAL", codeReviewRepository.countCriticalIssuesAfter(cutoffDate));
-        issuesByType.put("HIGH", 0L); // TODO: Implementar
-        issuesByType.put("MEDIUM", 0L); // TODO: Implementar
-        issuesByType.put("LOW", 0L); // TODO: Implementar
+        issuesByType.put("CRITICAL", asLong(totals[0]));
+        issuesByType.put("HIGH", asLong(totals[1]));
+        issuesByType.put("MEDIUM", asLong(totals[2]));
+        issuesByType.put("LOW", asLong(totals[3]));
 
         Map<String, Double> scoresByRepository = new HashMap<>();
-        // TODO: Implementar scores por repositrio
+        for (Object[] row : codeReviewRepository.getAverageScoreByRepository(cutoffDate, repositoryName)) {
+            scoresByRepository.put((String) row[0], asDouble(row[1]));
+        }
 
-        List<DashboardController.QualityTrend> trends = new ArrayList<>();
-        // TODO: Implementar tendncias
+        List<DashboardController.QualityTrend> trends = daily.stream()
+                .filter(day -> day.reviews() > 0)
+                .map(day -> new DashboardController.QualityTrend(
+                        day.date().atStartOfDay(), day.averageScore(), day.critical(), day.reviews()))
+                .toList();
+
+        long[] bands = scoreBands(histogram);
+        long scoredReviews = bands[0] + bands[1] + bands[2] + bands[3];
+        // Percentual de revises classificadas como "Excelente" ou "Bom"
+        double goodOrBetter = scoredReviews > 0 ? (double) (bands[0] + bands[1]) / scoredReviews * 100.0 : 0.0;
 
         return new DashboardController.QualityMetrics(
-                averageScore,
-                averageScore, // TODO: Calcular mediana
-                0.0, // TODO: Calcular distribuio
-                0L, // TODO: Total de arquivos
-                0L, // TODO: Arquivos analisados
+                weightedAverageScore(daily),
+                medianScore(histogram),
+                goodOrBetter,
+                asLong(totals[4]),
+                asLong(totals[5]),
                 issuesByType,
                 scoresByRepository,
                 trends
@@ -100,46 +143,74 @@ public class DashboardService {
     /**
      * Obter anlise de tendncias
      */
+    @Cacheable(value = TRENDS_CACHE, key = "'trends:' + #period + ':' + #days")
     public DashboardController.TrendAnalysis getTrends(int days, String period) {
         log.debug("Gerando tendncias para {} dias, perodo: {}", days, period);
 
-        // TODO: Implementar anlise de tendncias completa
+        List<DailyQuality> daily = loadDailyQuality(startOfWindow(days), null, days);
+        List<TrendBucket> buckets = rollUp(daily, period);
+
         List<DashboardController.TrendPoint> reviewsTrend = new ArrayList<>();
         List<DashboardController.TrendPoint> qualityTrend = new ArrayList<>();
         List<DashboardController.TrendPoint> issuesTrend = new ArrayList<>();
-
-        Map<String, Object> insights = new HashMap<>();
-        insights.put("trend", "stable");
-        insights.put("recommendation", "Manter qualidade atual");
+        for (TrendBucket bucket : buckets) {
+            LocalDateTime timestamp = bucket.start().atStartOfDay();
+            String label = formatLabel(bucket.start(), period);
+            reviewsTrend.add(new DashboardController.TrendPoint(timestamp, bucket.reviews(), label));
+            issuesTrend.add(new DashboardController.TrendPoint(timestamp, bucket.critical(), label));
+            if (bucket.reviews() > 0) {
+                qualityTrend.add(new DashboardController.TrendPoint(timestamp, bucket.averageScore(), label));
+            }
+        }
 
         return new DashboardController.TrendAnalysis(
                 period,
                 reviewsTrend,
                 qualityTrend,
                 issuesTrend,
-                insights
+                buildInsights(reviewsTrend, qualityTrend, issuesTrend, period)
         );
     }
 
+    /**
+     * Invalida tendncias e grficos quando uma reviso termina
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @CacheEvict(value = TRENDS_CACHE, allEntries = true)
+    public void onReviewCompleted(ReviewCompletedEvent event) {
+        log.debug("Reviso {} concluda; invalidando cache de tendncias", event.reviewId());
+    }
+
     /**
      * Obter ranking de repositrios
      */
+    @Cacheable(value = RANKINGS_CACHE, key = "'repositories:' + #days + ':' + #limit")
     public List<DashboardController.RepositoryRanking> getRepositoryRanking(int days, int limit) {
         log.debug("Gerando ranking de repositrios para {} dias, limit: {}", days, limit);
 
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
-        List<Object[]> rawMetrics = codeReviewRepository.findRepositoryMetrics(cutoffDate);
+        LocalDateTime previousStart = cutoffDate.minusDays(days);
+        List<Object[]> rows = codeReviewRepository.findRepositoryRanking(
+                previousStart, cutoffDate, PageRequest.of(0, limit));
+
+        Map<String, Long> repositoryIds = new HashMap<>();
+        List<String> names = rows.stream().map(row -> (String) row[0]).toList();
+        if (!names.isEmpty()) {
+            for (Repository repository : repositoryRepository.findByNameIn(names)) {
+                repositoryIds.putIfAbsent(repository.getName(), repository.getId());
+            }
+        }
 
-        return rawMetrics.stream()
-                .limit(limit)
+        LocalDateTime activeSince = LocalDateTime.now().minusDays(ACTIVE_REPOSITORY_DAYS);
+        return rows.stream()
                 .map(row -> new DashboardController.RepositoryRanking(
-                        null, // TODO: ID do repositrio
+                        repositoryIds.get((String) row[0]),
                         (String) row[0], // nome
-                        ((Number) row[2]).doubleValue(), // score mdio
-                        ((Number) row[1]).longValue(), // total reviews
-                        ((Number) row[3]).longValue(), // issues crticos
-                        0.0, // TODO: Calcular trend
-                        "active"
+                        asDouble(row[2]), // score mdio
+                        asLong(row[1]), // total reviews
+                        asLong(row[3]), // issues crticos
+                        scoreTrend(row[4], row[2]), // variao % sobre o perodo anterior
+                        ((LocalDateTime) row[5]).isAfter(activeSince) ? "active" : "inactive"
                 ))
                 .toList();
     }
@@ -147,21 +218,22 @@ public class DashboardService {
     /**
      * Obter ranking de desenvolvedores
      */
+    @Cacheable(value = RANKINGS_CACHE, key = "'developers:' + #days + ':' + #limit")
     public List<DashboardController.DeveloperRanking> getDeveloperRanking(int days, int limit) {
         log.debug("Gerando ranking de desenvolvedores para {} dias, limit: {}", days, limit);
 
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
-        List<Object[]> rawAuthors = codeReviewRepository.findTopAuthorsByReviewCount(cutoffDate);
+        LocalDateTime previousStart = cutoffDate.minusDays(days);
 
-        return rawAuthors.stream()
-                .limit(limit)
+        return codeReviewRepository.findDeveloperRanking(previousStart, cutoffDate, PageRequest.of(0, limit))
+                .stream()
                 .map(row -> new DashboardController.DeveloperRanking(
                         (String) row[0], // autor
-                        0.0, // TODO: Score mdio por autor
-                        ((Number) row[1]).longValue(), // total reviews
-                        0L, // TODO: Issues crticos por autor
-                        0.0, // TODO: Melhoria
-                        "intermediate"
+                        asDouble(row[2]), // score mdio
+                        asLong(row[1]), // total reviews
+                        asLong(row[3]), // issues crticos
+                        scoreTrend(row[4], row[2]), // variao % sobre o perodo anterior
+                        developerLevel(asDouble(row[2]))
                 ))
                 .toList();
     }
@@ -203,16 +275,44 @@ public class DashboardService {
     public DashboardController.PerformanceMetrics getPerformanceMetrics(int days) {
         log.debug("Gerando mtricas de performance para {} dias", days);
 
-        List<DashboardController.PerformancePoint> timeline = new ArrayList<>();
+        Duration window = Duration.ofDays(days);
+        PerformanceMetricsStore.MetricSummary analysis = metricsStore.summary(Metric.ANALYSIS_DURATION, window);
+        PerformanceMetricsStore.MetricSummary requests = metricsStore.summary(Metric.HTTP_REQUEST, window);
+
+        // Percentual da janela coberto pelas amostras peridicas de sade
+        double uptime = metricsStore.availability(window);
+        double cpuUsage = Math.max(0.0, metricsStore.currentCpuUsage());
+
+        List<DashboardController.PerformancePoint> timeline = metricsStore
+                .hourlyTimeline(window, Metric.ANALYSIS_DURATION, Metric.MEMORY_USAGE_MB, Metric.CPU_USAGE)
+                .stream()
+                .map(point -> new DashboardController.PerformancePoint(
+                        point.timestamp(),
+                        point.valueOf(Metric.ANALYSIS_DURATION),
+                        point.valueOf(Metric.MEMORY_USAGE_MB),
+                        point.valueOf(Metric.CPU_USAGE) / 100.0 // gravado em centsimos de ponto percentual
+                ))
+                .toList();
+
+        List<DashboardController.LatencyPercentiles> latencies = new ArrayList<>();
+        for (Metric metric : Metric.values()) {
+            if (metric.isLatency()) {
+                PerformanceMetricsStore.MetricSummary summary = metricsStore.summary(metric, window);
+                latencies.add(new DashboardController.LatencyPercentiles(
+                        metric.name(), summary.count(), summary.average(),
+                        summary.p50(), summary.p95(), summary.p99(), summary.max()));
+            }
+        }
 
         return new DashboardController.PerformanceMetrics(
-                2500.0, // TODO: Tempo mdio de anlise
-                99.5, // TODO: Uptime do sistema
-                1024L, // TODO: Uso de memria
-                15.5, // TODO: Uso de CPU
-                1000L, // TODO: Contagem de requests
-                0.5, // TODO: Taxa de erro
-                timeline
+                analysis.average(),
+                uptime,
+                metricsStore.currentMemoryUsageMb(),
+                cpuUsage,
+                requests.count(),
+                requests.errorRate(),
+                timeline,
+                latencies
         );
     }
 
@@ -222,26 +322,13 @@ public class DashboardService {
     public List<DashboardController.SystemAlert> getActiveAlerts() {
         log.debug("Buscando alertas ativos");
 
-        List<DashboardController.SystemAlert> alerts = new ArrayList<>();
-        
-        // TODO: Implementar sistema de alertas
-        // Exemplo de alerta
-        alerts.add(new DashboardController.SystemAlert(
-                "alert_001",
-                "PERFORMANCE",
-                "WARNING",
-                "Tempo de anlise acima do normal",
-                "Anlises esto levando mais de 5 segundos em mdia",
-                LocalDateTime.now().minusHours(2),
-                false
-        ));
-
-        return alerts;
+        return alertEngine.getActiveAlerts();
     }
 
     /**
      * Obter dados para grficos
      */
+    @Cacheable(value = TRENDS_CACHE, key = "'chart:' + #chartType.toLowerCase() + ':' + #days + ':' + #repositoryId")
     public DashboardController.ChartData getChartData(String chartType, int days, Long repositoryId) {
         log.debug("Gerando dados do grfico: {} para {} dias", chartType, days);
 
@@ -249,23 +336,44 @@ public class DashboardService {
         List<DashboardController.DataSeries> datasets = new ArrayList<>();
         Map<String, Object> options = new HashMap<>();
 
+        LocalDateTime cutoffDate = startOfWindow(days);
+        String repositoryName = resolveRepositoryName(repositoryId);
+
         switch (chartType.toLowerCase()) {
             case "reviews-timeline":
-                labels.addAll(List.of("Jan", "Feb", "Mar", "Apr", "Mai", "Jun"));
+                double[] reviewsPerDay = loadDailyReviewCounts(cutoffDate, repositoryName, days);
+                LocalDate firstDay = cutoffDate.toLocalDate();
+                List<Object> reviewData = new ArrayList<>();
+                List<Object> movingAverageData = new ArrayList<>();
+                double[] movingAverage = TrendStatistics.movingAverage(reviewsPerDay, MOVING_AVERAGE_DAYS);
+                for (int i = 0; i < reviewsPerDay.length; i++) {
+                    labels.add(firstDay.plusDays(i).format(DAY_LABEL));
+                    reviewData.add((long) reviewsPerDay[i]);
+                    movingAverageData.add(round(movingAverage[i]));
+                }
                 datasets.add(new DashboardController.DataSeries(
                         "Reviews",
-                        List.of(10, 15, 12, 20, 18, 25),
+                        reviewData,
                         "#4CAF50",
                         "#4CAF50",
                         Map.of("fill", false)
                 ));
+                datasets.add(new DashboardController.DataSeries(
+                        "Mdia mvel (" + MOVING_AVERAGE_DAYS + " dias)",
+                        movingAverageData,
+                        "#FF9800",
+                        "#FF9800",
+                        Map.of("fill", false, "borderDash", List.of(5, 5))
+                ));
+                options.put("slope", round(TrendStatistics.slope(reviewsPerDay)));
                 break;
                 
             case "quality-distribution":
+                long[] bands = scoreBands(loadScoreHistogram(cutoffDate, repositoryName));
                 labels.addAll(List.of("Excelente", "Bom", "Regular", "Ruim"));
                 datasets.add(new DashboardController.DataSeries(
                         "Distribuio",
-                        List.of(25, 45, 20, 10),
+                        List.of(bands[0], bands[1], bands[2], bands[3]),
                         "#2196F3",
                         "#2196F3",
                         Map.of("type", "pie")
@@ -300,6 +408,233 @@ public class DashboardService {
 
     // Mtodos auxiliares privados
 
+    private LocalDateTime startOfWindow(int days) {
+        return LocalDate.now().minusDays(Math.max(1, days) - 1L).atStartOfDay();
+    }
+
+    private String resolveRepositoryName(Long repositoryId) {
+        if (repositoryId == null) {
+            return null;
+        }
+        return repositoryRepository.findById(repositoryId)
+                .map(Repository::getName)
+                .orElseThrow(() -> new IllegalArgumentException("Repositrio no encontrado: " + repositoryId));
+    }
+
+    /**
+     * Srie diria de qualidade com todos os dias da janela (dias sem reviso ficam zerados)
+     */
+    private List<DailyQuality> loadDailyQuality(LocalDateTime cutoffDate, String repositoryName, int days) {
+        Map<LocalDate, DailyQuality> byDate = new HashMap<>();
+        for (Object[] row : codeReviewRepository.getQualityTrend(cutoffDate, repositoryName)) {
+            LocalDate date = toLocalDate(row[0]);
+            byDate.put(date, new DailyQuality(date, asDouble(row[1]), asLong(row[3]), asLong(row[2])));
+        }
+
+        LocalDate firstDay = cutoffDate.toLocalDate();
+        List<DailyQuality> daily = new ArrayList<>(Math.max(1, days));
+        for (int i = 0; i < Math.max(1, days); i++) {
+            LocalDate date = firstDay.plusDays(i);
+            daily.add(byDate.getOrDefault(date, new DailyQuality(date, 0.0, 0L, 0L)));
+        }
+        return daily;
+    }
+
+    private double[] loadDailyReviewCounts(LocalDateTime cutoffDate, String repositoryName, int days) {
+        LocalDate firstDay = cutoffDate.toLocalDate();
+        double[] counts = new double[Math.max(1, days)];
+        for (Object[] row : codeReviewRepository.getPerformanceStatistics(cutoffDate, repositoryName)) {
+            long index = ChronoUnit.DAYS.between(firstDay, toLocalDate(row[0]));
+            if (index >= 0 && index < counts.length) {
+                counts[(int) index] = asLong(row[1]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Histograma com uma posio por ponto de score (0-100)
+     */
+    private long[] loadScoreHistogram(LocalDateTime cutoffDate, String repositoryName) {
+        long[] histogram = new long[101];
+        for (Object[] row : codeReviewRepository.getScoreHistogram(cutoffDate, repositoryName)) {
+            int score = (int) Math.max(0, Math.min(100, asLong(row[0])));
+            histogram[score] += asLong(row[1]);
+        }
+        return histogram;
+    }
+
+    /**
+     * Faixas Excelente (90+), Bom (70-89), Regular (50-69) e Ruim (abaixo de 50)
+     */
+    private long[] scoreBands(long[] histogram) {
+        long[] bands = new long[4];
+        for (int score = 0; score < histogram.length; score++) {
+            int band = score >= 90 ? 0 : score >= 70 ? 1 : score >= 50 ? 2 : 3;
+            bands[band] += histogram[score];
+        }
+        return bands;
+    }
+
+    private double medianScore(long[] histogram) {
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0.0;
+        }
+        long middle = (total + 1) / 2;
+        long cumulative = 0;
+        for (int score = 0; score < histogram.length; score++) {
+            cumulative += histogram[score];
+            if (cumulative >= middle) {
+                return score;
+            }
+        }
+        return 100.0;
+    }
+
+    private double weightedAverageScore(List<DailyQuality> daily) {
+        double weightedSum = 0.0;
+        long reviews = 0;
+        for (DailyQuality day : daily) {
+            weightedSum += day.averageScore() * day.reviews();
+            reviews += day.reviews();
+        }
+        return reviews > 0 ? weightedSum / reviews : 0.0;
+    }
+
+    /**
+     * Agrupa a srie diria no perodo pedido (DAILY, WEEKLY ou MONTHLY)
+     */
+    private List<TrendBucket> rollUp(List<DailyQuality> daily, String period) {
+        Map<LocalDate, TrendBucket> buckets = new LinkedHashMap<>();
+        for (DailyQuality day : daily) {
+            LocalDate start = switch (period.toUpperCase()) {
+                case "WEEKLY" -> day.date().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case "MONTHLY" -> day.date().withDayOfMonth(1);
+                default -> day.date();
+            };
+            TrendBucket current = buckets.getOrDefault(start, new TrendBucket(start, 0L, 0.0, 0L));
+            buckets.put(start, new TrendBucket(
+                    start,
+                    current.reviews() + day.reviews(),
+                    current.scoreSum() + day.averageScore() * day.reviews(),
+                    current.critical() + day.critical()
+            ));
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    private String formatLabel(LocalDate start, String period) {
+        return switch (period.toUpperCase()) {
+            case "WEEKLY" -> "Sem " + start.format(DAY_LABEL);
+            case "MONTHLY" -> start.format(MONTH_LABEL);
+            default -> start.format(DAY_LABEL);
+        };
+    }
+
+    /**
+     * Insights de tendncia: mdias mveis, inclinaes e recomendao
+     */
+    private Map<String, Object> buildInsights(List<DashboardController.TrendPoint> reviewsTrend,
+                                              List<DashboardController.TrendPoint> qualityTrend,
+                                              List<DashboardController.TrendPoint> issuesTrend,
+                                              String period) {
+        double[] reviews = values(reviewsTrend);
+        double[] quality = values(qualityTrend);
+        double[] issues = values(issuesTrend);
+
+        int window = switch (period.toUpperCase()) {
+            case "WEEKLY" -> 4;
+            case "MONTHLY" -> 3;
+            default -> MOVING_AVERAGE_DAYS;
+        };
+        double[] reviewsAverage = TrendStatistics.movingAverage(reviews, window);
+        double[] qualityAverage = TrendStatistics.movingAverage(quality, window);
+
+        double reviewsSlope = TrendStatistics.slope(reviews);
+        double qualitySlope = TrendStatistics.slope(quality);
+        double issuesSlope = TrendStatistics.slope(issues);
+
+        Map<String, Object> insights = new HashMap<>();
+        insights.put("reviewsSlope", round(reviewsSlope));
+        insights.put("qualitySlope", round(qualitySlope));
+        insights.put("issuesSlope", round(issuesSlope));
+        insights.put("movingAverageWindow", window);
+        insights.put("reviewsMovingAverage", reviewsAverage.length > 0 ? round(reviewsAverage[reviewsAverage.length - 1]) : 0.0);
+        insights.put("qualityMovingAverage", qualityAverage.length > 0 ? round(qualityAverage[qualityAverage.length - 1]) : 0.0);
+        if (qualityAverage.length > window) {
+            insights.put("qualityChangePercent", round(TrendStatistics.percentChange(
+                    qualityAverage[qualityAverage.length - 1 - window], qualityAverage[qualityAverage.length - 1])));
+        }
+        insights.put("reviewsDirection", TrendStatistics.direction(reviewsSlope, TREND_TOLERANCE));
+        insights.put("issuesDirection", TrendStatistics.direction(issuesSlope, TREND_TOLERANCE));
+
+        String qualityDirection = TrendStatistics.direction(qualitySlope, TREND_TOLERANCE);
+        if ("up".equals(qualityDirection)) {
+            insights.put("trend", "improving");
+            insights.put("recommendation", "Qualidade em alta: manter as prticas atuais de reviso");
+        } else if ("down".equals(qualityDirection)) {
+            insights.put("trend", "declining");
+            insights.put("recommendation", "Qualidade em queda: revisar os repositrios com mais issues crticos");
+        } else if ("up".equals(insights.get("issuesDirection"))) {
+            insights.put("trend", "stable");
+            insights.put("recommendation", "Score estvel, mas issues crticos aumentando: priorizar correes");
+        } else {
+            insights.put("trend", "stable");
+            insights.put("recommendation", "Manter qualidade atual");
+        }
+        return insights;
+    }
+
+    private static double scoreTrend(Object previousScore, Object currentScore) {
+        if (previousScore == null || currentScore == null) {
+            return 0.0;
+        }
+        return round(TrendStatistics.percentChange(asDouble(previousScore), asDouble(currentScore)));
+    }
+
+    private static String developerLevel(double averageScore) {
+        if (averageScore >= 90) return "expert";
+        if (averageScore >= 75) return "advanced";
+        if (averageScore >= 60) return "intermediate";
+        return "beginner";
+    }
+
+    private static double[] values(List<DashboardController.TrendPoint> points) {
+        return points.stream().mapToDouble(DashboardController.TrendPoint::value).toArray();
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate localDate) {
+            return localDate;
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate();
+        }
+        if (value instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate();
+        }
+        if (value instanceof java.util.Date date) {
+            return new java.sql.Date(date.getTime()).toLocalDate();
+        }
+        return LocalDate.parse(value.toString().substring(0, 10));
+    }
+
+    private static long asLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static double asDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : 0.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
     private List<DashboardController.QuickStat> generateQuickStats(LocalDateTime cutoffDate) {
         List<DashboardController.QuickStat> stats = new ArrayList<>();
 
@@ -336,4 +671,15 @@ public class DashboardService {
         // TODO: Implementar gerao de JSON
         return "{\"data\": \"json-content\"}";
     }
+
+    /**
+     * Totais de um dia; critical  a soma dos issues crticos das revises
+     */
+    private record DailyQuality(LocalDate date, double averageScore, long reviews, long critical) {}
+
+    private record TrendBucket(LocalDate start, long reviews, double scoreSum, long critical) {
+        double averageScore() {
+            return reviews > 0 ? scoreSum / reviews : 0.0;
+        }
+    }
 }
@@ -1,6 +1,10 @@
 package com.sinqia.maya.service;
 
 import com.sinqia.maya.dto.LlmModelDto;
+import com.sinqia.maya.service.metrics.PerformanceMetricsStore;
+import com.sinqia.maya.service.metrics.PerformanceMetricsStore.Metric;
+import com.sinqia.maya.service.metrics.PipelineMetrics;
+import com.sinqia.maya.service.metrics.PipelineMetrics.Stage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,6 +25,8 @@ import java.util.*;
 public class LlmService {
 
     private final RestTemplate restTemplate = new RestTemplate();
+    private final PerformanceMetricsStore metricsStore;
+    private final PipelineMetrics pipelineMetrics;
 
     @Value("${maya.llm.gemini.api-key:}")
     private String geminiApiKey;
@@ -254,12 +260,24 @@ public class LlmService {
     }
 
     private String callLlmApi(String model, String prompt) {
-        if (model.startsWith("gemini")) {
-            return callGeminiApi(model, prompt);
-        } else if (model.startsWith("gpt")) {
-            return callOpenAiApi(model, prompt);
-        } else {
-            throw new IllegalArgumentException("Modelo no suportado: " + model);
+        long startTime = System.currentTimeMillis();
+        long startNanos = pipelineMetrics.start();
+        pipelineMetrics.recordPromptSize(model, prompt.length());
+        boolean failed = true;
+        try {
+            String result;
+            if (model.startsWith("gemini")) {
+                result = callGeminiApi(model, prompt);
+            } else if (model.startsWith("gpt")) {
+                result = callOpenAiApi(model, prompt);
+            } else {
+                throw new IllegalArgumentException("Modelo no suportado: " + model);
+            }
+            failed = false;
+            return result;
+        } finally {
+            metricsStore.recordSince(Metric.LLM_LATENCY, startTime, failed);
+            pipelineMetrics.recordStage(Stage.LLM_CALL, startNanos, model, failed);
         }
     }
 
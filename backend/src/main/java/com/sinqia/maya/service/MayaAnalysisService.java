@@ -1,16 +1,40 @@
 package com.sinqia.maya.service;
 
+import com.sinqia.maya.config.CacheConfiguration;
 import com.sinqia.maya.entity.*;
 import com.sinqia.maya.repository.CodeReviewRepository;
 import com.sinqia.maya.repository.FileAnalysisRepository;
+import com.sinqia.maya.service.analysis.ComplexityAnalyzer;
+import com.sinqia.maya.service.analysis.ConnectionFlowAnalyzer;
+import com.sinqia.maya.service.analysis.JavaSource;
+import com.sinqia.maya.service.analysis.LineIndex;
+import com.sinqia.maya.service.analysis.MethodComplexity;
+import com.sinqia.maya.service.config.ConfigurationSnapshot;
+import com.sinqia.maya.service.event.ConfigurationChangedEvent;
+import com.sinqia.maya.service.event.ReviewCompletedEvent;
+import com.sinqia.maya.service.metrics.PerformanceMetricsStore;
+import com.sinqia.maya.service.metrics.PerformanceMetricsStore.Metric;
+import com.sinqia.maya.service.metrics.PipelineMetrics;
+import com.sinqia.maya.service.metrics.PipelineMetrics.Stage;
+import com.sinqia.maya.service.rules.RuleEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,13 +55,49 @@ public class MayaAnalysisService {
 
     private final CodeReviewRepository codeReviewRepository;
     private final FileAnalysisRepository fileAnalysisRepository;
+    private final PerformanceMetricsStore metricsStore;
+    private final PipelineMetrics pipelineMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConfigurationService configurationService;
+    private final RuleEngine ruleEngine;
+
+    // Severidades dos problemas de conexo
+    @Value("${maya.analysis.connection-leak.enabled:true}")
+    private boolean connectionLeakEnabled;
+
+    @Value("${maya.analysis.connection-leak.severity.missing-devolve:CRITICAL}")
+    private AnalysisIssue.IssueSeverity missingDevolveSeverity;
+
+    @Value("${maya.analysis.connection-leak.severity.not-in-finally:ERROR}")
+    private AnalysisIssue.IssueSeverity notInFinallySeverity;
+
+    @Value("${maya.analysis.connection-leak.severity.return-before-devolve:ERROR}")
+    private AnalysisIssue.IssueSeverity returnBeforeDevolveSeverity;
+
+    @Value("${maya.analysis.connection-leak.severity.double-devolve:ERROR}")
+    private AnalysisIssue.IssueSeverity doubleDevolveSeverity;
+
+    // Limites de complexidade aplicados a cada mtodo: padres das configuraes maya.complexity.* do banco
+    @Value("${maya.analysis.complexity.enabled:true}")
+    private boolean complexityEnabled;
+
+    @Value("${maya.analysis.complexity.threshold.low:5}")
+    private int complexityLow;
+
+    @Value("${maya.analysis.complexity.threshold.medium:10}")
+    private int complexityMedium;
+
+    @Value("${maya.analysis.complexity.threshold.high:15}")
+    private int complexityHigh;
+
+    @Value("${maya.analysis.complexity.threshold.critical:20}")
+    private int complexityCritical;
+
+    @Value("${maya.analysis.complexity.cognitive-threshold:15}")
+    private int cognitiveThreshold;
 
     // Padres regex para deteco MAYA
     private static final Pattern CLASS_NAME_PATTERN = Pattern.compile("class\\s+(\\w+)");
-    private static final Pattern EMPRESTA_PATTERN = Pattern.compile("(\\w+)\\s*=\\s*\\w*[Cc]onexao\\w*\\.empresta\\s*\\(");
-    private static final Pattern DEVOLVE_PATTERN = Pattern.compile("\\w*[Cc]onexao\\w*\\.devolve\\s*\\(([^)]+)\\)");
-    private static final Pattern PACKAGE_PATTERN = Pattern.compile("package\\s+([\\w\\.]+);");
-    private static final Pattern IMPORT_PATTERN = Pattern.compile("import\\s+([\\w\\.]+);");
 
     /**
      * Anlise principal de um commit
@@ -46,14 +106,8 @@ public class MayaAnalysisService {
                                    String projectName, String author, String title,
                                    List<String> javaFiles, String llmModel) {
         
-        log.info("Iniciando anlise MAYA para commit: {} do repositrio: {}", commitSha, repositoryName);
-        
         long startTime = System.currentTimeMillis();
-        
-        // Criar reviso de cdigo
-        CodeReview review = createCodeReview(commitSha, repositoryName, projectName, author, title, llmModel);
-        review.setStatus(CodeReview.ReviewStatus.IN_PROGRESS);
-        review = codeReviewRepository.save(review);
+        CodeReview review = startReview(commitSha, repositoryName, projectName, author, title, llmModel);
         
         try {
             // Analisar cada arquivo Java
@@ -66,77 +120,242 @@ public class MayaAnalysisService {
                 FileAnalysis analysis = analyzeFile(review, filePath, fileContent);
                 review.addFileAnalysis(analysis);
             }
-            
-            // Calcular mtricas finais
-            review.calculateMetrics();
-            review.setStatus(CodeReview.ReviewStatus.COMPLETED);
-            
-            long duration = System.currentTimeMillis() - startTime;
-            review.setAnalysisDurationMs(duration);
-            
-            log.info("Anlise MAYA concluda em {}ms. Score: {}, Issues crticos: {}", 
-                    duration, review.getAnalysisScore(), review.getCriticalIssues());
-            
         } catch (Exception e) {
             log.error("Erro durante anlise MAYA para commit: {}", commitSha, e);
-            review.setStatus(CodeReview.ReviewStatus.FAILED);
-            review.setReviewComment("Erro durante anlise: " + e.getMessage());
+            return completeReview(review, startTime, "Erro durante anlise: " + e.getMessage());
         }
+        return completeReview(review, startTime, null);
+    }
+
+    /**
+     * Cria e grava a reviso de um commit, j em andamento
+     */
+    public CodeReview startReview(String commitSha, String repositoryName, String projectName,
+                                  String author, String title, String llmModel) {
+        log.info("Iniciando anlise MAYA para commit: {} do repositrio: {}", commitSha, repositoryName);
         
-        return codeReviewRepository.save(review);
+        CodeReview review = createCodeReview(commitSha, repositoryName, projectName, author, title, llmModel);
+        review.setStatus(CodeReview.ReviewStatus.IN_PROGRESS);
+        return saveReview(review);
+    }
+
+    /**
+     * Cria e grava a reviso de um commit enfileirado para a ingesto assncrona
+     * 
+     * @param leaseExpiresAt fim da concesso do n que vai processar a reviso
+     */
+    public CodeReview createPendingReview(String commitSha, String repositoryName, String projectName,
+                                          String author, String title, String llmModel,
+                                          LocalDateTime leaseExpiresAt) {
+        CodeReview review = createCodeReview(commitSha, repositoryName, projectName, author, title, llmModel);
+        review.setStatus(CodeReview.ReviewStatus.PENDING);
+        review.setLeaseExpiresAt(leaseExpiresAt);
+        return saveReview(review);
+    }
+
+    /**
+     * Reviso pendente saiu da fila: passa a em andamento
+     */
+    public void markInProgress(CodeReview review) {
+        log.info("Iniciando anlise MAYA para commit: {} do repositrio: {}",
+                review.getCommitSha(), review.getRepositoryName());
+        codeReviewRepository.markInProgress(review.getId());
+        review.setStatus(CodeReview.ReviewStatus.IN_PROGRESS);
+    }
+
+    /**
+     * Remove uma reviso pendente que no chegou a ser enfileirada
+     */
+    public void discardReview(CodeReview review) {
+        codeReviewRepository.deleteById(review.getId());
+    }
+
+    /**
+     * Encerra a reviso: mtricas finais, status e evento de concluso
+     * 
+     * A reviso recebida pode estar desanexada (ingesto em etapas); s status
+     * e mtricas so gravados, na linha carregada pelo id, sem merge das
+     * anlises de arquivo j gravadas. O evento de concluso  publicado mesmo
+     * se a gravao falhar.
+     * 
+     * @param failure motivo da falha, ou null se a anlise foi concluda
+     */
+    public CodeReview completeReview(CodeReview review, long startTime, String failure) {
+        try {
+            if (failure == null) {
+                review.calculateMetrics();
+                review.setStatus(CodeReview.ReviewStatus.COMPLETED);
+                
+                long duration = System.currentTimeMillis() - startTime;
+                review.setAnalysisDurationMs(duration);
+                
+                log.info("Anlise MAYA concluda em {}ms. Score: {}, Issues crticos: {}", 
+                        duration, review.getAnalysisScore(), review.getCriticalIssues());
+            } else {
+                review.setStatus(CodeReview.ReviewStatus.FAILED);
+                review.setErrorMessage(failure);
+            }
+            
+            metricsStore.recordSince(Metric.ANALYSIS_DURATION, startTime,
+                    review.getStatus() == CodeReview.ReviewStatus.FAILED);
+            
+            pipelineMetrics.runStage(Stage.PERSISTENCE, PipelineMetrics.NONE, review.getLlmModel(),
+                    () -> saveOutcome(review));
+        } finally {
+            eventPublisher.publishEvent(ReviewCompletedEvent.of(review));
+        }
+        return review;
+    }
+
+    private void saveOutcome(CodeReview review) {
+        CodeReview stored = codeReviewRepository.findById(review.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Reviso no encontrada: " + review.getId()));
+        stored.setStatus(review.getStatus());
+        stored.setAnalysisScore(review.getAnalysisScore());
+        stored.setCriticalIssues(review.getCriticalIssues());
+        stored.setHighIssues(review.getHighIssues());
+        stored.setMediumIssues(review.getMediumIssues());
+        stored.setLowIssues(review.getLowIssues());
+        stored.setTotalFiles(review.getTotalFiles());
+        stored.setTotalLines(review.getTotalLines());
+        stored.setAnalysisDurationMs(review.getAnalysisDurationMs());
+        stored.setSummary(review.getSummary());
+        stored.setErrorMessage(review.getErrorMessage());
+    }
+
+    /**
+     * Renova a concesso das revises que este n ainda est processando
+     */
+    public void renewLeases(Collection<Long> reviewIds, LocalDateTime expiresAt) {
+        if (!reviewIds.isEmpty()) {
+            codeReviewRepository.renewLeases(reviewIds, expiresAt);
+        }
+    }
+
+    /**
+     * Marca como falhas as revises abertas cuja concesso venceu
+     * 
+     * S revises da ingesto assncrona tm concesso; as de outros ns
+     * ativos continuam sendo renovadas e no so tocadas.
+     */
+    public int failExpiredReviews() {
+        int failed = codeReviewRepository.failExpiredLeases(LocalDateTime.now(),
+                "Anlise interrompida: o n responsvel parou antes de conclu-la");
+        if (failed > 0) {
+            log.warn("{} revises com concesso vencida marcadas como falha", failed);
+        }
+        return failed;
+    }
+
+    private CodeReview saveReview(CodeReview review) {
+        return pipelineMetrics.timeStage(Stage.PERSISTENCE, PipelineMetrics.NONE, review.getLlmModel(),
+                () -> codeReviewRepository.save(review));
     }
 
     /**
-     * Anlise especfica MAYA de um arquivo
+     * Anlise especfica MAYA de um arquivo, gravada em seguida
      */
     private FileAnalysis analyzeFile(CodeReview review, String filePath, String content) {
+        FileAnalysis analysis = analyzeContent(review, filePath, content);
+        return pipelineMetrics.timeStage(Stage.PERSISTENCE, PipelineMetrics.NONE, review.getLlmModel(),
+                () -> fileAnalysisRepository.save(analysis));
+    }
+
+    /**
+     * Anlise especfica MAYA de um arquivo, sem gravar
+     * 
+     * No usa o banco: fora de transao para no prender uma conexo do pool
+     * enquanto os detectores rodam.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FileAnalysis analyzeContent(CodeReview review, String filePath, String content) {
         long startTime = System.currentTimeMillis();
+        String repository = review.getRepositoryName();
+        String model = review.getLlmModel();
         
-        FileAnalysis analysis = new FileAnalysis();
-        analysis.setCodeReview(review);
-        analysis.setFilePath(filePath);
-        analysis.setClassName(extractClassName(content));
-        analysis.setLanguage(detectLanguage(filePath));
-        analysis.setLineCount(content.split("\\n").length);
-        
-        // Anlises especficas MAYA
-        analyzeConnections(analysis, content);
-        analyzeComplexity(analysis, content);
-        analyzeArchitecture(analysis, content);
-        analyzeSecurity(analysis, content);
-        
-        // Gerar issues baseados na anlise
-        createIssuesFromAnalysis(analysis, content);
-        
-        // Calcular score final
-        analysis.calculateScore();
-        
-        // Gerar relatrio markdown
-        analysis.setMarkdownReport(generateMarkdownReport(analysis, content));
-        
-        long processingTime = System.currentTimeMillis() - startTime;
-        analysis.setProcessingTimeMs(processingTime);
-        
-        return fileAnalysisRepository.save(analysis);
+        try {
+            FileAnalysis analysis = new FileAnalysis();
+            analysis.setCodeReview(review);
+            analysis.setFilePath(filePath);
+            analysis.setClassName(extractClassName(content));
+            analysis.setLanguage(detectLanguage(filePath));
+            
+            // Tokens e ndice de linhas montados uma vez e compartilhados pelos detectores
+            JavaSource source = pipelineMetrics.timeStage(Stage.DETECTOR, "parse", model,
+                    () -> JavaSource.parse(content));
+            analysis.setLineCount(source.lines().lineCount());
+            pipelineMetrics.recordFileLines(repository, analysis.getLineCount());
+            
+            // Anlises especficas MAYA (cada detector medido separadamente)
+            List<ConnectionFlowAnalyzer.Finding> connectionFindings = pipelineMetrics.timeStage(
+                    Stage.DETECTOR, "connections", model,
+                    () -> analyzeConnections(analysis, source));
+            List<MethodComplexity> methodComplexities = pipelineMetrics.timeStage(
+                    Stage.DETECTOR, "complexity", model,
+                    () -> analyzeComplexity(analysis, source));
+            List<RuleEngine.Violation> ruleViolations = pipelineMetrics.timeStage(
+                    Stage.DETECTOR, "rules", model,
+                    () -> ruleEngine.run(analysis, source));
+            
+            // Gerar issues baseados na anlise
+            pipelineMetrics.runStage(Stage.DETECTOR, "issues", model,
+                    () -> createIssuesFromAnalysis(analysis, source.lines(), connectionFindings, methodComplexities,
+                            ruleViolations));
+            countIssues(repository, analysis);
+            
+            // Calcular score final (o relatrio markdown  gerado sob demanda)
+            analysis.calculateScore();
+            
+            long processingTime = System.currentTimeMillis() - startTime;
+            analysis.setProcessingTimeMs(processingTime);
+            
+            pipelineMetrics.countFile(repository, false);
+            return analysis;
+        } catch (RuntimeException e) {
+            pipelineMetrics.countFile(repository, true);
+            throw e;
+        }
+    }
+
+    /**
+     * Grava um lote de anlises de arquivo numa nica transao
+     */
+    public List<FileAnalysis> saveFileAnalyses(List<FileAnalysis> analyses) {
+        return pipelineMetrics.timeStage(Stage.PERSISTENCE, "batch", PipelineMetrics.NONE,
+                () -> fileAnalysisRepository.saveAll(analyses));
+    }
+
+    private void countIssues(String repository, FileAnalysis analysis) {
+        Map<AnalysisIssue.IssueSeverity, Long> bySeverity = new EnumMap<>(AnalysisIssue.IssueSeverity.class);
+        for (AnalysisIssue issue : analysis.getIssues()) {
+            if (issue.getSeverity() != null) {
+                bySeverity.merge(issue.getSeverity(), 1L, Long::sum);
+            }
+        }
+        bySeverity.forEach((severity, count) ->
+                pipelineMetrics.countIssues(repository, severity.name().toLowerCase(), count));
     }
 
     /**
      * Anlise de conexes empresta/devolve (core MAYA)
+     * 
+     * O fluxo de cada mtodo  analisado separadamente: um vazamento e um
+     * devolve duplicado no mesmo arquivo no se compensam mais.
      */
-    private void analyzeConnections(FileAnalysis analysis, String content) {
+    private List<ConnectionFlowAnalyzer.Finding> analyzeConnections(FileAnalysis analysis, JavaSource source) {
         log.debug("Analisando conexes para arquivo: {}", analysis.getFilePath());
         
-        if (content == null || content.trim().isEmpty()) {
-            return;
+        if (!connectionLeakEnabled || source.size() == 0) {
+            return List.of();
         }
         
-        // Contar empresta() e devolve()
-        int empresta = countOccurrences(content, EMPRESTA_PATTERN);
-        int devolve = countOccurrences(content, DEVOLVE_PATTERN);
+        ConnectionFlowAnalyzer.Result result = ConnectionFlowAnalyzer.analyze(source);
+        int empresta = result.emprestaCount();
+        int devolve = result.devolveCount();
         
         analysis.setConnectionEmpresta(empresta);
         analysis.setConnectionDevolve(devolve);
-        analysis.setConnectionBalanced(empresta == devolve);
+        analysis.setConnectionBalanced(result.balanced());
         
         // Calcular desequilbrio
         if (empresta + devolve > 0) {
@@ -144,154 +363,81 @@ public class MayaAnalysisService {
             analysis.setConnectionImbalance(imbalance);
         }
         
-        log.debug("Conexes analisadas - empresta: {}, devolve: {}, balanceado: {}", 
-                empresta, devolve, analysis.getConnectionBalanced());
+        log.debug("Conexes analisadas - empresta: {}, devolve: {}, problemas: {}", 
+                empresta, devolve, result.findings().size());
+        return result.findings();
     }
 
     /**
-     * Anlise de complexidade ciclomtica
+     * Anlise de complexidade ciclomtica e cognitiva por mtodo
+     * 
+     * O score do arquivo passa a ser o do mtodo mais complexo; os valores de
+     * cada mtodo ficam gravados em formato compacto para o relatrio.
      */
-    private void analyzeComplexity(FileAnalysis analysis, String content) {
-        if (content == null || content.trim().isEmpty()) {
-            return;
+    private List<MethodComplexity> analyzeComplexity(FileAnalysis analysis, JavaSource source) {
+        if (!complexityEnabled || source.size() == 0) {
+            return List.of();
         }
         
-        // Contar estruturas de controle
-        int complexity = 1; // Complexidade base
-        complexity += countOccurrences(content, Pattern.compile("\\bif\\b"));
-        complexity += countOccurrences(content, Pattern.compile("\\belse\\b"));
-        complexity += countOccurrences(content, Pattern.compile("\\bfor\\b"));
-        complexity += countOccurrences(content, Pattern.compile("\\bwhile\\b"));
-        complexity += countOccurrences(content, Pattern.compile("\\bswitch\\b"));
-        complexity += countOccurrences(content, Pattern.compile("\\bcatch\\b"));
-        complexity += countOccurrences(content, Pattern.compile("\\b&&\\b"));
-        complexity += countOccurrences(content, Pattern.compile("\\b\\|\\|\\b"));
-        
-        analysis.setComplexityScore((double) complexity);
-        
-        log.debug("Complexidade ciclomtica calculada: {} para arquivo: {}", 
-                complexity, analysis.getFilePath());
-    }
-
-    /**
-     * Anlise de padres arquiteturais Sinqia
-     */
-    private void analyzeArchitecture(FileAnalysis analysis, String content) {
-        // Verificar estrutura de pacotes Sinqia
-        Matcher packageMatcher = PACKAGE_PATTERN.matcher(content);
-        if (packageMatcher.find()) {
-            String packageName = packageMatcher.group(1);
-            
-            // Verificar se segue padro com.sinqia.*
-            if (!packageName.startsWith("com.sinqia")) {
-                analysis.setHasValidationChanges(true); // Usar como flag para violaes arquiteturais
-            }
+        List<MethodComplexity> methods = ComplexityAnalyzer.analyze(source);
+        int cyclomatic = 1; // Complexidade base (arquivo sem mtodos)
+        int cognitive = 0;
+        for (MethodComplexity method : methods) {
+            cyclomatic = Math.max(cyclomatic, method.cyclomatic());
+            cognitive = Math.max(cognitive, method.cognitive());
         }
         
-        // Verificar nomenclatura de classe
-        String className = analysis.getClassName();
-        if (className != null) {
-            // Verificar sufixos obrigatrios
-            if (analysis.getFilePath().contains("service") && !className.endsWith("Service")) {
-                analysis.setHasMethodChanges(true); // Flag para violaes de nomenclatura
-            }
-            if (analysis.getFilePath().contains("controller") && !className.endsWith("Controller")) {
-                analysis.setHasMethodChanges(true);
-            }
-        }
-    }
-
-    /**
-     * Anlise de segurana
-     */
-    private void analyzeSecurity(FileAnalysis analysis, String content) {
-        // Detectar possvel SQL injection (concatenao de strings em SQL)
-        Pattern sqlConcatPattern = Pattern.compile("(SELECT|INSERT|UPDATE|DELETE).*\\+.*['\"]", Pattern.CASE_INSENSITIVE);
-        if (sqlConcatPattern.matcher(content).find()) {
-            analysis.setHasTypeChanges(true); // Flag para issues de segurana
-        }
+        analysis.setComplexityScore((double) cyclomatic);
+        analysis.setCognitiveComplexity(cognitive);
+        analysis.setMethodComplexity(MethodComplexity.encode(methods));
         
-        // Detectar logging de informaes sensveis
-        Pattern sensitiveLogPattern = Pattern.compile("log\\.(debug|info|warn|error).*(?:senha|password|token|cpf|cnpj)", Pattern.CASE_INSENSITIVE);
-        if (sensitiveLogPattern.matcher(content).find()) {
-            analysis.setHasTypeChanges(true);
-        }
+        log.debug("Complexidade calculada para {} mtodos (mx. ciclomtica: {}, cognitiva: {}) no arquivo: {}", 
+                methods.size(), cyclomatic, cognitive, analysis.getFilePath());
+        return methods;
     }
 
     /**
      * Criar issues baseados na anlise
      */
-    private void createIssuesFromAnalysis(FileAnalysis analysis, String content) {
+    private void createIssuesFromAnalysis(FileAnalysis analysis, LineIndex lines,
+                                          List<ConnectionFlowAnalyzer.Finding> connectionFindings,
+                                          List<MethodComplexity> methodComplexities,
+                                          List<RuleEngine.Violation> ruleViolations) {
         List<AnalysisIssue> issues = new ArrayList<>();
         
-        // Issue crtico: conexes desbalanceadas
-        if (Boolean.FALSE.equals(analysis.getConnectionBalanced())) {
-            int difference = Math.abs(analysis.getConnectionEmpresta() - analysis.getConnectionDevolve());
-            
-            AnalysisIssue.IssueSeverity severity = difference > 5 ? 
-                AnalysisIssue.IssueSeverity.CRITICAL : AnalysisIssue.IssueSeverity.ERROR;
-            
-            AnalysisIssue issue = new AnalysisIssue();
-            issue.setFileAnalysis(analysis);
-            issue.setType(AnalysisIssue.IssueType.CONNECTION_LEAK);
-            issue.setSeverity(severity);
-            issue.setTitle("Conexes Desbalanceadas");
-            issue.setDescription(String.format(
-                "Conexes desbalanceadas detectadas: %d empresta() vs %d devolve() (diferena: %d). " +
-                "Isso pode causar vazamentos de conexo.",
-                analysis.getConnectionEmpresta(), analysis.getConnectionDevolve(), difference));
-            issue.setSuggestion("Garanta que toda chamada empresta() tenha devolve() correspondente, " +
-                              "preferencialmente em bloco finally.");
-            
-            // Encontrar linha do primeiro empresta()
-            String[] lines = content.split("\\n");
-            for (int i = 0; i < lines.length; i++) {
-                if (EMPRESTA_PATTERN.matcher(lines[i]).find()) {
-                    issue.setLineNumber(i + 1);
-                    issue.setCodeSnippet(lines[i].trim());
-                    break;
-                }
-            }
-            
-            issues.add(issue);
-        }
-        
-        // Issue: alta complexidade
-        if (analysis.getComplexityScore() > 15) {
-            AnalysisIssue issue = new AnalysisIssue();
+        // Issues de conexo: um por problema encontrado na anlise de fluxo
+        for (ConnectionFlowAnalyzer.Finding finding : connectionFindings) {
+            AnalysisIssue issue = createConnectionIssue(finding);
             issue.setFileAnalysis(analysis);
-            issue.setType(AnalysisIssue.IssueType.COMPLEXITY);
-            issue.setSeverity(AnalysisIssue.IssueSeverity.WARNING);
-            issue.setTitle("Alta Complexidade Ciclomtica");
-            issue.setDescription(String.format(
-                "Alta complexidade ciclomtica: %.0f (limite recomendado: 15). " +
-                "Considere refatorar para reduzir complexidade.",
-                analysis.getComplexityScore()));
-            issue.setSuggestion("Divida mtodos complexos em mtodos menores e mais focados.");
+            setLocation(issue, lines, finding.offset());
             issues.add(issue);
         }
         
-        // Issue: violaes arquiteturais
-        if (Boolean.TRUE.equals(analysis.getHasValidationChanges())) {
-            AnalysisIssue issue = new AnalysisIssue();
-            issue.setFileAnalysis(analysis);
-            issue.setType(AnalysisIssue.IssueType.ARCHITECTURE);
-            issue.setSeverity(AnalysisIssue.IssueSeverity.ERROR);
-            issue.setTitle("Violao de Padro Arquitetural");
-            issue.setDescription("Estrutura de pacotes no segue o padro Sinqia (com.sinqia.*)");
-            issue.setSuggestion("Mova a classe para pacote que segue o padro: com.sinqia.[produto].[modulo].[camada]");
-            issues.add(issue);
+        // Issues de complexidade: um por mtodo acima dos limites
+        ComplexityThresholds thresholds = methodComplexities.isEmpty() ? null : complexityThresholds();
+        for (MethodComplexity method : methodComplexities) {
+            AnalysisIssue issue = createComplexityIssue(method, thresholds);
+            if (issue != null) {
+                issue.setFileAnalysis(analysis);
+                setLineLocation(issue, lines, method.line());
+                issues.add(issue);
+            }
         }
         
-        // Issue: problemas de segurana
-        if (Boolean.TRUE.equals(analysis.getHasTypeChanges())) {
+        // Issues das regras (arquitetura, segurana e pacotes de regras adicionais)
+        for (RuleEngine.Violation violation : ruleViolations) {
             AnalysisIssue issue = new AnalysisIssue();
             issue.setFileAnalysis(analysis);
-            issue.setType(AnalysisIssue.IssueType.SECURITY_ISSUE);
-            issue.setSeverity(AnalysisIssue.IssueSeverity.ERROR);
-            issue.setTitle("Possvel Vulnerabilidade de Segurana");
-            issue.setDescription("Detectado possvel SQL injection ou exposio de dados sensveis em logs");
-            issue.setSuggestion("Use PreparedStatement para SQL e evite logar informaes sensveis");
+            issue.setType(violation.type());
+            issue.setSeverity(violation.severity());
+            if (violation.template() != null) {
+                issue.setMessage(violation.template(), violation.args());
+            } else {
+                issue.setTitle(violation.title());
+                issue.setDescription(violation.description());
+                issue.setSuggestion(violation.suggestion());
+            }
+            setLocation(issue, lines, violation.offset());
             issues.add(issue);
         }
         
@@ -301,10 +447,144 @@ public class MayaAnalysisService {
         }
     }
 
+    private AnalysisIssue createConnectionIssue(ConnectionFlowAnalyzer.Finding finding) {
+        AnalysisIssue issue = new AnalysisIssue();
+        issue.setType(AnalysisIssue.IssueType.CONNECTION_LEAK);
+        
+        AnalysisIssue.IssueTemplate template = switch (finding.type()) {
+            case MISSING_DEVOLVE -> {
+                issue.setSeverity(missingDevolveSeverity);
+                yield AnalysisIssue.IssueTemplate.CONNECTION_MISSING_DEVOLVE;
+            }
+            case NOT_IN_FINALLY -> {
+                issue.setSeverity(notInFinallySeverity);
+                yield AnalysisIssue.IssueTemplate.CONNECTION_NOT_IN_FINALLY;
+            }
+            case RETURN_BEFORE_DEVOLVE -> {
+                issue.setSeverity(returnBeforeDevolveSeverity);
+                yield AnalysisIssue.IssueTemplate.CONNECTION_RETURN_BEFORE_DEVOLVE;
+            }
+            case DOUBLE_DEVOLVE -> {
+                issue.setSeverity(doubleDevolveSeverity);
+                yield AnalysisIssue.IssueTemplate.CONNECTION_DOUBLE_DEVOLVE;
+            }
+        };
+        issue.setMessage(template, finding.method(), finding.variable());
+        return issue;
+    }
+
+    /**
+     * Issue de complexidade de um mtodo, ou null se estiver dentro dos limites
+     * 
+     * A severidade segue os limites ciclomticos (mdio: INFO, alto: WARNING,
+     * crtico: ERROR); complexidade cognitiva acima do limite  no mnimo WARNING.
+     */
+    private AnalysisIssue createComplexityIssue(MethodComplexity method, ComplexityThresholds thresholds) {
+        AnalysisIssue.IssueSeverity severity = null;
+        if (method.cyclomatic() > thresholds.critical()) {
+            severity = AnalysisIssue.IssueSeverity.ERROR;
+        } else if (method.cyclomatic() > thresholds.high()) {
+            severity = AnalysisIssue.IssueSeverity.WARNING;
+        } else if (method.cyclomatic() > thresholds.medium()) {
+            severity = AnalysisIssue.IssueSeverity.INFO;
+        }
+        if (method.cognitive() > thresholds.cognitive()
+                && (severity == null || severity == AnalysisIssue.IssueSeverity.INFO)) {
+            severity = AnalysisIssue.IssueSeverity.WARNING;
+        }
+        if (severity == null) {
+            return null;
+        }
+        
+        AnalysisIssue issue = new AnalysisIssue();
+        issue.setType(AnalysisIssue.IssueType.COMPLEXITY);
+        issue.setSeverity(severity);
+        issue.setMessage(AnalysisIssue.IssueTemplate.METHOD_COMPLEXITY, method.method(),
+                method.cyclomatic(), thresholds.medium(), method.cognitive(), thresholds.cognitive());
+        return issue;
+    }
+
+    /**
+     * Limites de complexidade vigentes: configuraes do banco, com as
+     * propriedades maya.analysis.complexity.* como padro
+     */
+    private ComplexityThresholds complexityThresholds() {
+        ConfigurationSnapshot values = configurationService.getSnapshot();
+        return new ComplexityThresholds(
+                values.getInt("maya.complexity.threshold.low", complexityLow),
+                values.getInt("maya.complexity.threshold.medium", complexityMedium),
+                values.getInt("maya.complexity.threshold", complexityHigh),
+                values.getInt("maya.complexity.threshold.critical", complexityCritical),
+                values.getInt("maya.complexity.cognitive.threshold", cognitiveThreshold));
+    }
+
+    private record ComplexityThresholds(int low, int medium, int high, int critical, int cognitive) {}
+
+    /**
+     * Linha, coluna e trecho de cdigo a partir da posio no fonte (-1: sem posio)
+     */
+    private void setLocation(AnalysisIssue issue, LineIndex lines, int offset) {
+        if (offset >= 0) {
+            int line = lines.lineOf(offset);
+            issue.setLineNumber(line);
+            issue.setColumnNumber(lines.columnOf(offset));
+            issue.setCodeSnippet(lines.line(line).trim());
+        }
+    }
+
+    /**
+     * Localizao de uma linha inteira: a coluna  a do primeiro caractere da declarao
+     */
+    private void setLineLocation(AnalysisIssue issue, LineIndex lines, int line) {
+        if (line > 0 && line <= lines.lineCount()) {
+            issue.setLineNumber(line);
+            issue.setColumnNumber(lines.indentColumn(line));
+            issue.setCodeSnippet(lines.line(line).trim());
+        }
+    }
+
+    /**
+     * Relatrio Markdown de uma anlise de arquivo, gerado sob demanda
+     * 
+     * Os relatrios no so mais gravados: so montados a partir dos dados
+     * estruturados da anlise quando pedidos e mantidos em cache. Anlises
+     * antigas que j tm o relatrio gravado o devolvem como est.
+     */
+    @Cacheable(value = CacheConfiguration.FILE_REPORTS, key = "#fileAnalysisId")
+    @Transactional(readOnly = true)
+    public String getMarkdownReport(Long fileAnalysisId) {
+        FileAnalysis analysis = fileAnalysisRepository.findById(fileAnalysisId)
+                .orElseThrow(() -> new IllegalArgumentException("Anlise de arquivo no encontrada: " + fileAnalysisId));
+        if (analysis.getMarkdownReport() != null) {
+            return analysis.getMarkdownReport();
+        }
+        
+        CodeReview review = analysis.getCodeReview();
+        String repository = review != null ? review.getRepositoryName() : null;
+        String model = review != null ? review.getLlmModel() : null;
+        String report = pipelineMetrics.timeStage(Stage.REPORT, PipelineMetrics.NONE, model,
+                () -> generateMarkdownReport(analysis));
+        pipelineMetrics.recordReportSize(repository, report.length());
+        return report;
+    }
+
+    /**
+     * O relatrio usa o score mnimo e os limites de complexidade das
+     * configuraes: alter-los descarta os relatrios em cache
+     */
+    @EventListener(condition = "#event.affectsAll() or #event.configKey() == 'maya.min.score.threshold' "
+            + "or #event.configKey().startsWith('maya.complexity.')")
+    @CacheEvict(value = CacheConfiguration.FILE_REPORTS, allEntries = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void onConfigurationChanged(ConfigurationChangedEvent event) {
+        log.debug("Relatrios de arquivo em cache descartados pela alterao de {}",
+                event.affectsAll() ? "todas as configuraes" : event.configKey());
+    }
+
     /**
      * Gerar relatrio em Markdown
      */
-    private String generateMarkdownReport(FileAnalysis analysis, String content) {
+    private String generateMarkdownReport(FileAnalysis analysis) {
         StringBuilder report = new StringBuilder();
         
         report.append("# Relatrio MAYA - ").append(analysis.getFileName()).append("\n\n");
@@ -332,14 +612,33 @@ public class MayaAnalysisService {
         report.append("## ?? Mtricas de Qualidade\n\n");
         report.append("- **Complexidade Ciclomtica:** ").append(String.format("%.0f", analysis.getComplexityScore()));
         
-        if (analysis.getComplexityScore() <= 10) {
+        ComplexityThresholds thresholds = complexityThresholds();
+        if (analysis.getComplexityScore() <= thresholds.medium()) {
             report.append(" ? Boa");
-        } else if (analysis.getComplexityScore() <= 15) {
+        } else if (analysis.getComplexityScore() <= thresholds.high()) {
             report.append(" ?? Mdia");
         } else {
             report.append(" ? Alta");
         }
-        report.append("\n\n");
+        report.append("\n");
+        if (analysis.getCognitiveComplexity() != null) {
+            report.append("- **Complexidade Cognitiva:** ").append(analysis.getCognitiveComplexity()).append("\n");
+        }
+        
+        // Mtodos acima do limite baixo, do mais complexo para o menos
+        List<MethodComplexity> complexMethods = MethodComplexity.decode(analysis.getMethodComplexity()).stream()
+                .filter(method -> method.cyclomatic() > thresholds.low() || method.cognitive() > thresholds.cognitive())
+                .sorted(Comparator.comparingInt(MethodComplexity::cyclomatic).reversed())
+                .toList();
+        if (!complexMethods.isEmpty()) {
+            report.append("\n| Mtodo | Linha | Ciclomtica | Cognitiva |\n");
+            report.append("|--------|-------|-------------|-----------|\n");
+            for (MethodComplexity method : complexMethods) {
+                report.append("| `").append(method.method()).append("()` | ").append(method.line())
+                      .append(" | ").append(method.cyclomatic()).append(" | ").append(method.cognitive()).append(" |\n");
+            }
+        }
+        report.append("\n");
         
         // Issues encontrados
         if (!analysis.getIssues().isEmpty()) {
@@ -371,11 +670,12 @@ public class MayaAnalysisService {
             report.append("- ?? **CRTICO:** Corrija os vazamentos de conexo identificados\n");
         }
         
-        if (analysis.getComplexityScore() > 15) {
+        // Mesmos limites dos issues de complexidade
+        if (analysis.getComplexityScore() > thresholds.high()) {
             report.append("- ?? Refatore mtodos com alta complexidade\n");
         }
         
-        if (analysis.getScore() < 70) {
+        if (analysis.getScore() < configurationService.getMayaConfiguration().minScoreThreshold()) {
             report.append("- ?? Melhore a qualidade geral do cdigo\n");
         }
         
@@ -425,17 +725,7 @@ public class MayaAnalysisService {
         };
     }
     
-    private int countOccurrences(String content, Pattern pattern) {
-        if (content == null) return 0;
-        
-        Matcher matcher = pattern.matcher(content);
-        int count = 0;
-        while (matcher.find()) {
-            count++;
-        }
-        return count;
-    }
-    
+
     /**
      * Gerar contedo Java de exemplo para demonstrao
      */
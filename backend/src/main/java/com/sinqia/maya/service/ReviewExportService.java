@@ -1,20 +1,33 @@
 package com.sinqia.maya.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sinqia.maya.controller.ReviewExportController;
 import com.sinqia.maya.entity.CodeReview;
 import com.sinqia.maya.entity.ReviewExport;
 import com.sinqia.maya.repository.CodeReviewRepository;
+import com.sinqia.maya.repository.ReviewExportRepository;
+import com.sinqia.maya.service.event.ExportRequestedEvent;
+import com.sinqia.maya.service.export.BatchZipExporter;
+import com.sinqia.maya.service.export.ExportFileSender;
+import com.sinqia.maya.service.export.ExportJobRunner;
+import com.sinqia.maya.service.export.ReviewExportWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -33,16 +46,26 @@ import java.util.UUID;
 @Transactional
 public class ReviewExportService {
 
+    private static final String CURRENT_USER = "current-user"; // TODO: Obter usurio atual
+
     private final CodeReviewRepository codeReviewRepository;
-    
-    @Value("${maya.export.directory:${java.io.tmpdir}/maya-exports}")
-    private String exportDirectory;
+    private final ReviewExportRepository exportRepository;
+    private final ExportJobRunner exportJobRunner;
+    private final BatchZipExporter batchZipExporter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
 
     @Value("${maya.export.retention-days:7}")
     private int retentionDays;
 
+    @Value("${maya.export.batch-max-reviews:1000}")
+    private int maxBatchSize;
+
     /**
-     * Exportar review em formato especfico
+     * Registrar exportao de review em formato especfico.
+     * A gerao do arquivo ocorre em segundo plano; o status e o progresso
+     * podem ser acompanhados pela prpria exportao.
      */
     public ReviewExport exportReview(Long reviewId, ReviewExportController.ExportReviewRequest request) {
         log.info("Iniciando exportao do review {} para formato {}", reviewId, request.format());
@@ -53,47 +76,33 @@ public class ReviewExportService {
         ReviewExport export = new ReviewExport();
         export.setCodeReview(review);
         export.setExportFormat(request.format());
-        export.setStatus(ReviewExport.ExportStatus.PROCESSING);
-        export.setCreatedBy("current-user"); // TODO: Obter usurio atual
+        export.setStatus(ReviewExport.ExportStatus.PENDING);
+        export.setProgress(0);
+        export.setCreatedBy(CURRENT_USER);
         export.setExpiresAt(LocalDateTime.now().plusDays(retentionDays));
-
-        // Gerar nome do arquivo
-        String fileName = generateFileName(review, request.format());
-        export.setFileName(fileName);
+        export.setFileName(generateFileName(review, request.format()));
 
         try {
-            // Processar exportao baseada no formato
-            String content = generateExportContent(review, request);
-            Path filePath = saveExportFile(fileName, content);
-            
-            export.setFilePath(filePath.toString());
-            export.setFileSize(Files.size(filePath));
-            export.setStatus(ReviewExport.ExportStatus.COMPLETED);
-            export.setExportedAt(LocalDateTime.now());
-
-            log.info("Exportao concluda: {} -> {}", reviewId, fileName);
-
-        } catch (Exception e) {
-            log.error("Erro na exportao do review {}: {}", reviewId, e.getMessage());
-            export.setStatus(ReviewExport.ExportStatus.FAILED);
-            export.setErrorMessage(e.getMessage());
+            export.setExportOptions(objectMapper.writeValueAsString(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Opes de exportao invlidas: " + e.getOriginalMessage());
         }
 
-        // TODO: Salvar no repositrio ReviewExportRepository
+        export = exportRepository.save(export);
+
+        // O job s  enfileirado aps o commit, quando a exportao j est visvel
+        eventPublisher.publishEvent(new ExportRequestedEvent(export.getId(), reviewId));
         return export;
     }
 
     /**
      * Preparar download de arquivo exportado
      */
-    public DownloadInfo prepareDownload(Long exportId) {
+    @Transactional(readOnly = true)
+    public ExportFileSender.ExportFile prepareDownload(Long exportId) {
         log.info("Preparando download da exportao: {}", exportId);
 
-        // TODO: Buscar do repositrio
-        ReviewExport export = new ReviewExport(); // Placeholder
-        export.setId(exportId);
-        export.setFileName("review-export.pdf");
-        export.setFilePath("/tmp/test.pdf");
+        ReviewExport export = findExport(exportId);
 
         if (export.isExpired()) {
             throw new IllegalArgumentException("Exportao expirada");
@@ -108,51 +117,93 @@ public class ReviewExportService {
             throw new IllegalArgumentException("Arquivo no encontrado");
         }
 
-        export.incrementDownloadCount();
-        // TODO: Salvar contador atualizado
+        Path gzipPath = ReviewExportWriter.gzipVariantOf(filePath);
+        long lastModified;
+        try {
+            lastModified = Files.getLastModifiedTime(filePath).toMillis();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Arquivo no encontrado");
+        }
 
-        Resource resource = new FileSystemResource(filePath);
-        String contentType = export.getExportFormat().getMimeType();
+        // Blobs so endereados pelo prprio hash; arquivos antigos nunca so reescritos aps concludos
+        String eTag = export.getContentHash() != null
+                ? "\"" + export.getContentHash() + "\""
+                : String.format("\"%d-%x-%x\"", export.getId(), export.getFileSize(), lastModified);
+
+        return new ExportFileSender.ExportFile(
+                filePath,
+                Files.exists(gzipPath) ? gzipPath : null,
+                export.getExportFormat().getMimeType(),
+                export.getFileName(),
+                eTag,
+                lastModified
+        );
+    }
 
-        return new DownloadInfo(resource, contentType, export.getFileName());
+    /**
+     * Contabilizar um download: envio at o fim do arquivo ou, com sendfile,
+     * entregue ao Tomcat (tentativa, ver {@link ExportFileSender#send})
+     */
+    public void registerDownload(Long exportId) {
+        exportRepository.incrementDownloadCount(exportId);
     }
 
     /**
      * Obter status de exportao
      */
+    @Transactional(readOnly = true)
     public ReviewExport getExportStatus(Long exportId) {
-        // TODO: Buscar do repositrio
-        ReviewExport export = new ReviewExport();
-        export.setId(exportId);
-        export.setStatus(ReviewExport.ExportStatus.COMPLETED);
-        export.setFileName("review-export.pdf");
-        return export;
+        return findExport(exportId);
+    }
+
+    /**
+     * Inscrever cliente para acompanhar o progresso de uma exportao
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SseEmitter subscribeToExport(Long exportId) {
+        return exportJobRunner.subscribe(exportId);
     }
 
     /**
      * Listar exportaes de um review
      */
+    @Transactional(readOnly = true)
     public List<ReviewExport> getReviewExports(Long reviewId) {
-        CodeReview review = codeReviewRepository.findById(reviewId)
-                .orElseThrow(() -> new IllegalArgumentException("Review no encontrado"));
-
-        // TODO: Buscar exportaes do repositrio
-        return new ArrayList<>();
+        if (!codeReviewRepository.existsById(reviewId)) {
+            throw new IllegalArgumentException("Review no encontrado");
+        }
+        return exportRepository.findByCodeReviewIdOrderByCreatedAtDesc(reviewId);
     }
 
     /**
      * Listar exportaes do usurio atual
      */
+    @Transactional(readOnly = true)
     public Page<ReviewExport> getUserExports(Pageable pageable, ReviewExport.ExportStatus status) {
-        // TODO: Implementar busca por usurio e status
-        return Page.empty();
+        if (status == null) {
+            return exportRepository.findByCreatedByOrderByCreatedAtDesc(CURRENT_USER, pageable);
+        }
+        return exportRepository.findByCreatedByAndStatusOrderByCreatedAtDesc(CURRENT_USER, status, pageable);
     }
 
     /**
      * Deletar exportao
      */
     public void deleteExport(Long exportId) {
-        // TODO: Buscar e deletar do repositrio
+        ReviewExport export = findExport(exportId);
+
+        // Blobs podem ser compartilhados com outras exportaes: ficam para a limpeza de rfos
+        if (export.getFilePath() != null && export.getContentHash() == null) {
+            try {
+                Path filePath = Paths.get(export.getFilePath());
+                Files.deleteIfExists(filePath);
+                Files.deleteIfExists(ReviewExportWriter.gzipVariantOf(filePath));
+            } catch (IOException e) {
+                log.warn("No foi possvel remover o arquivo da exportao {}: {}", exportId, e.getMessage());
+            }
+        }
+
+        exportRepository.delete(export);
         log.info("Exportao deletada: {}", exportId);
     }
 
@@ -197,23 +248,22 @@ public class ReviewExportService {
     }
 
     /**
-     * Exportao em lote
+     * Exportao em lote. Cada review  registrado em transao prpria: a falha
+     * de um no desfaz (nem marca para rollback) os demais.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Long> batchExport(ReviewExportController.BatchExportRequest request) {
         log.info("Iniciando exportao em lote de {} reviews", request.reviewIds().size());
 
         List<Long> exportIds = new ArrayList<>();
 
+        ReviewExportController.ExportReviewRequest exportRequest = toExportRequest(request);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
         for (Long reviewId : request.reviewIds()) {
             try {
-                ReviewExportController.ExportReviewRequest exportRequest = 
-                    new ReviewExportController.ExportReviewRequest(
-                        request.format(),
-                        true, true, true, true, // incluir tudo por padro
-                        request.options()
-                    );
-
-                ReviewExport export = exportReview(reviewId, exportRequest);
+                ReviewExport export = transaction.execute(status -> exportReview(reviewId, exportRequest));
                 exportIds.add(export.getId());
 
             } catch (Exception e) {
@@ -227,122 +277,53 @@ public class ReviewExportService {
         return exportIds;
     }
 
-    // Mtodos auxiliares privados
-
-    private String generateFileName(CodeReview review, ReviewExport.ExportFormat format) {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String baseName = String.format("review_%s_%s_%s", 
-                review.getRepositoryName(), 
-                review.getCommitSha().substring(0, 8), 
-                timestamp);
-        return baseName + format.getExtension();
+    /**
+     * Exportao em lote para um nico ZIP, escrito diretamente no stream.
+     * No participa de transao: cada reviso  lida na prpria thread de renderizao.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchZipExporter.BatchExportReport batchExportZip(ReviewExportController.BatchExportRequest request,
+                                                             OutputStream out) throws IOException {
+        log.info("Iniciando exportao em lote (ZIP) de {} reviews", request.reviewIds().size());
+        return batchZipExporter.writeZip(request.reviewIds(), toExportRequest(request), out);
     }
 
-    private String generateExportContent(CodeReview review, ReviewExportController.ExportReviewRequest request) {
-        switch (request.format()) {
-            case PDF:
-                return generatePdfContent(review, request);
-            case MARKDOWN:
-                return generateMarkdownContent(review, request);
-            case HTML:
-                return generateHtmlContent(review, request);
-            case JSON:
-                return generateJsonContent(review, request);
-            case EXCEL:
-                return generateExcelContent(review, request);
-            case CSV:
-                return generateCsvContent(review, request);
-            default:
-                throw new IllegalArgumentException("Formato no suportado: " + request.format());
+    /**
+     * Valida um pedido de exportao em lote antes de iniciar a resposta
+     */
+    public void validateBatchRequest(ReviewExportController.BatchExportRequest request) {
+        if (request.reviewIds() == null || request.reviewIds().isEmpty()) {
+            throw new IllegalArgumentException("Nenhum review informado");
         }
-    }
-
-    private Path saveExportFile(String fileName, String content) throws IOException {
-        Path exportDir = Paths.get(exportDirectory);
-        Files.createDirectories(exportDir);
-
-        Path filePath = exportDir.resolve(fileName);
-        Files.write(filePath, content.getBytes());
-
-        return filePath;
-    }
-
-    private String generatePdfContent(CodeReview review, ReviewExportController.ExportReviewRequest request) {
-        // TODO: Implementar gerao de PDF
-        return "pdf-content-placeholder";
-    }
-
-    private String generateMarkdownContent(CodeReview review, ReviewExportController.ExportReviewRequest request) {
-        StringBuilder md = new StringBuilder();
-        
-        md.append("# Code Review Report\n\n");
-        md.append("**Repository:** ").append(review.getRepositoryName()).append("\n");
-        md.append("**Commit:** ").append(review.getCommitSha()).append("\n");
-        md.append("**Author:** ").append(review.getAuthor()).append("\n");
-        md.append("**Date:** ").append(review.getCreatedAt()).append("\n\n");
-        
-        md.append("## Summary\n\n");
-        md.append("- **Quality Score:** ").append(review.getAnalysisScore()).append("/100\n");
-        md.append("- **Critical Issues:** ").append(review.getCriticalIssues()).append("\n");
-        md.append("- **Files Analyzed:** ").append(review.getTotalFiles()).append("\n\n");
-        
-        if (request.includeAnalysisDetails() && review.getFileAnalyses() != null) {
-            md.append("## File Analysis\n\n");
-            review.getFileAnalyses().forEach(fileAnalysis -> {
-                md.append("### ").append(fileAnalysis.getFilePath()).append("\n\n");
-                if (fileAnalysis.getIssues() != null) {
-                    fileAnalysis.getIssues().forEach(issue -> {
-                        md.append("- **").append(issue.getSeverity()).append(":** ");
-                        md.append(issue.getDescription()).append("\n");
-                    });
-                }
-                md.append("\n");
-            });
+        if (request.format() == null) {
+            throw new IllegalArgumentException("Formato de exportao no informado");
+        }
+        if (request.reviewIds().size() > maxBatchSize) {
+            throw new IllegalArgumentException("Lote excede o limite de " + maxBatchSize + " reviews");
         }
-        
-        return md.toString();
     }
 
-    private String generateHtmlContent(CodeReview review, ReviewExportController.ExportReviewRequest request) {
-        // TODO: Implementar gerao de HTML
-        return "<html><body><h1>Code Review Report</h1></body></html>";
-    }
+    // Mtodos auxiliares privados
 
-    private String generateJsonContent(CodeReview review, ReviewExportController.ExportReviewRequest request) {
-        // TODO: Implementar serializao JSON completa
-        return "{ \"review\": \"json-content\" }";
+    private ReviewExportController.ExportReviewRequest toExportRequest(ReviewExportController.BatchExportRequest request) {
+        return new ReviewExportController.ExportReviewRequest(
+                request.format(),
+                true, true, true, true, // incluir tudo por padro
+                request.options()
+        );
     }
 
-    private String generateExcelContent(CodeReview review, ReviewExportController.ExportReviewRequest request) {
-        // TODO: Implementar gerao de Excel
-        return "excel-content-placeholder";
+    private ReviewExport findExport(Long exportId) {
+        return exportRepository.findById(exportId)
+                .orElseThrow(() -> new IllegalArgumentException("Exportao no encontrada"));
     }
 
-    private String generateCsvContent(CodeReview review, ReviewExportController.ExportReviewRequest request) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("File,Issue Type,Severity,Description,Line\n");
-        
-        if (review.getFileAnalyses() != null) {
-            review.getFileAnalyses().forEach(fileAnalysis -> {
-                if (fileAnalysis.getIssues() != null) {
-                    fileAnalysis.getIssues().forEach(issue -> {
-                        csv.append(fileAnalysis.getFilePath()).append(",");
-                        csv.append(issue.getType()).append(",");
-                        csv.append(issue.getSeverity()).append(",");
-                        csv.append("\"").append(issue.getDescription()).append("\",");
-                        csv.append(issue.getLineNumber() != null ? issue.getLineNumber() : "").append("\n");
-                    });
-                }
-            });
-        }
-        
-        return csv.toString();
+    private String generateFileName(CodeReview review, ReviewExport.ExportFormat format) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String baseName = String.format("review_%s_%s_%s", 
+                review.getRepositoryName(), 
+                review.getCommitSha().substring(0, 8), 
+                timestamp);
+        return baseName + format.getExtension();
     }
-
-    // Record para informaes de download
-    public record DownloadInfo(
-            Resource resource,
-            String contentType,
-            String fileName
-    ) {}
 }
@@ -4,6 +4,8 @@ import com.sinqia.maya.controller.ReviewPromptController;
 import com.sinqia.maya.entity.AuxiliaryFile;
 import com.sinqia.maya.entity.ReviewPrompt;
 import com.sinqia.maya.repository.ReviewPromptRepository;
+import com.sinqia.maya.service.prompt.PromptTemplateCache;
+import com.sinqia.maya.service.usage.UsageCounters;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -27,6 +29,8 @@ public class ReviewPromptService {
 
     private final ReviewPromptRepository reviewPromptRepository;
     private final SinqiaAiService sinqiaAiService;
+    private final PromptTemplateCache promptTemplates;
+    private final UsageCounters usageCounters;
 
     /**
      * Buscar prompts com filtros
@@ -80,6 +84,7 @@ public class ReviewPromptService {
         }
 
         prompt = reviewPromptRepository.save(prompt);
+        promptTemplates.invalidateAll();
         log.info("Prompt criado com sucesso: {}", prompt.getId());
 
         return prompt;
@@ -129,6 +134,7 @@ public class ReviewPromptService {
         }
 
         prompt = reviewPromptRepository.save(prompt);
+        promptTemplates.invalidateAll();
         log.info("Prompt atualizado: {}", id);
 
         return prompt;
@@ -143,6 +149,7 @@ public class ReviewPromptService {
 
         prompt.setIsActive(false);
         reviewPromptRepository.save(prompt);
+        promptTemplates.invalidateAll();
         
         log.info("Prompt desativado: {}", id);
     }
@@ -164,6 +171,7 @@ public class ReviewPromptService {
         // Definir novo padro
         prompt.setIsDefault(true);
         reviewPromptRepository.save(prompt);
+        promptTemplates.invalidateAll();
 
         log.info("Prompt definido como padro: {}", id);
     }
@@ -245,6 +253,7 @@ public class ReviewPromptService {
             auxiliaryFile.setReviewPrompt(prompt);
             
             // TODO: Salvar arquivo auxiliar no repositrio
+            promptTemplates.invalidateAll();
             log.info("Arquivo auxiliar carregado para prompt {}: {}", promptId, file.getOriginalFilename());
             
             return auxiliaryFile;
@@ -273,12 +282,9 @@ public class ReviewPromptService {
     }
 
     /**
-     * Incrementar contador de uso de um prompt
+     * Incrementar contador de uso de um prompt (gravado em lote, ver UsageCounters)
      */
     public void incrementUsage(Long promptId) {
-        reviewPromptRepository.findById(promptId).ifPresent(prompt -> {
-            prompt.incrementUsage();
-            reviewPromptRepository.save(prompt);
-        });
+        usageCounters.recordPromptUse(promptId);
     }
 }
@@ -1,10 +1,14 @@
 package com.sinqia.maya.service;
 
-import com.sinqia.maya.entity.AuxiliaryFile;
 import com.sinqia.maya.entity.ConfigurationSettings;
 import com.sinqia.maya.entity.FileAnalysis;
-import com.sinqia.maya.repository.AuxiliaryFileRepository;
 import com.sinqia.maya.repository.ConfigurationSettingsRepository;
+import com.sinqia.maya.service.metrics.PerformanceMetricsStore;
+import com.sinqia.maya.service.metrics.PerformanceMetricsStore.Metric;
+import com.sinqia.maya.service.metrics.PipelineMetrics;
+import com.sinqia.maya.service.metrics.PipelineMetrics.Stage;
+import com.sinqia.maya.service.prompt.PromptTemplate;
+import com.sinqia.maya.service.prompt.PromptTemplateCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -31,9 +35,83 @@ import java.util.*;
 @Slf4j
 public class SinqiaAiService {
 
+    // Templates fixos, compilados uma nica vez
+    private static final PromptTemplate IMPROVEMENTS_REQUEST = PromptTemplate.compile("""
+            {{prompt}}
+            
+            CDIGO PARA ANLISE:
+            Classe: {{className}}
+            Pacote: {{packageName}}
+            
+            ```java
+            {{code}}
+            ```
+            
+            Fornea 3-5 sugestes especficas de melhoria seguindo os padres Sinqia.
+            """, "prompt", "className", "packageName", "code");
+
+    private static final PromptTemplate COMPLIANCE_REQUEST = PromptTemplate.compile("""
+            {{prompt}}
+            
+            ARQUIVO: {{filePath}}
+            
+            ```java
+            {{code}}
+            ```
+            
+            Analise a conformidade com os padres Sinqia e retorne um JSON com:
+            - score (0-100)
+            - violations (lista de violaes)
+            - recommendations (recomendaes)
+            """, "prompt", "filePath", "code");
+
+    private static final PromptTemplate ANALYSIS_REQUEST = PromptTemplate.compile("""
+            {{prompt}}
+            
+            CDIGO PARA ANLISE:
+            
+            ```java
+            {{code}}
+            ```
+            """, "prompt", "code");
+
+    private static final PromptTemplate EXECUTIVE_REPORT_REQUEST = PromptTemplate.compile("""
+            Gere um relatrio executivo baseado no template e dados fornecidos.
+            
+            TEMPLATE:
+            {{template}}
+            
+            DADOS:
+            {{data}}
+            
+            Crie um relatrio profissional e conciso para apresentao executiva.
+            """, "template", "data");
+
+    private static final String DEFAULT_ANALYSIS_PROMPT = """
+            Voc  um especialista em anlise de cdigo Java com foco nos padres de desenvolvimento Sinqia.
+            
+            Analise o cdigo fornecido considerando:
+            1. Vazamentos de conexo (empresta/devolve)
+            2. Complexidade ciclomtica
+            3. Padres arquiteturais Sinqia
+            4. Segurana
+            5. Performance
+            
+            Arquivo: {{filePath}}
+            Linguagem: {{language}}
+            
+            Fornea uma anlise detalhada em formato markdown com:
+            - Resumo executivo
+            - Issues encontrados (crticos, errors, warnings)
+            - Sugestes de melhoria
+            - Score de qualidade (0-100)
+            """;
+
     private final RestTemplate restTemplate;
     private final ConfigurationSettingsRepository configRepository;
-    private final AuxiliaryFileRepository auxiliaryFileRepository;
+    private final PerformanceMetricsStore metricsStore;
+    private final PromptTemplateCache promptTemplates;
+    private final PipelineMetrics pipelineMetrics;
 
     @Value("${maya.ai.endpoint}")
     private String aiEndpoint;
@@ -137,19 +215,7 @@ public class SinqiaAiService {
         try {
             String improvementPrompt = getImprovementPrompt();
             
-            String prompt = String.format("""
-                %s
-                
-                CDIGO PARA ANLISE:
-                Classe: %s
-                Pacote: %s
-                
-                ```java
-                %s
-                ```
-                
-                Fornea 3-5 sugestes especficas de melhoria seguindo os padres Sinqia.
-                """, improvementPrompt, className, packageName, code);
+            String prompt = IMPROVEMENTS_REQUEST.render(improvementPrompt, className, packageName, code);
             
             AiRequest request = new AiRequest(
                     defaultModel,
@@ -181,20 +247,7 @@ public class SinqiaAiService {
         try {
             String compliancePrompt = getSinqiaCompliancePrompt();
             
-            String prompt = String.format("""
-                %s
-                
-                ARQUIVO: %s
-                
-                ```java
-                %s
-                ```
-                
-                Analise a conformidade com os padres Sinqia e retorne um JSON com:
-                - score (0-100)
-                - violations (lista de violaes)
-                - recommendations (recomendaes)
-                """, compliancePrompt, filePath, code);
+            String prompt = COMPLIANCE_REQUEST.render(compliancePrompt, filePath, code);
             
             AiRequest request = new AiRequest(
                     defaultModel,
@@ -221,6 +274,9 @@ public class SinqiaAiService {
     // Mtodos privados de suporte
     
     private AiResponse callAiApi(AiRequest request) {
+        long startTime = System.currentTimeMillis();
+        long startNanos = pipelineMetrics.start();
+        pipelineMetrics.recordPromptSize(request.model(), request.prompt().length());
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -231,6 +287,8 @@ public class SinqiaAiService {
             ResponseEntity<Map> response = restTemplate.postForEntity(aiEndpoint, entity, Map.class);
             
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+                metricsStore.recordSince(Metric.LLM_LATENCY, startTime, false);
+                pipelineMetrics.recordStage(Stage.LLM_CALL, startNanos, request.model(), false);
                 return parseAiResponse(response.getBody());
             }
             
@@ -238,74 +296,37 @@ public class SinqiaAiService {
             log.error("Erro na chamada da API de IA: {}", e.getMessage());
         }
         
+        metricsStore.recordSince(Metric.LLM_LATENCY, startTime, true);
+        pipelineMetrics.recordStage(Stage.LLM_CALL, startNanos, request.model(), true);
         return null;
     }
     
     private String getAnalysisPrompt(String language, String filePath) {
-        // Buscar prompt especfico do banco
-        Optional<AuxiliaryFile> promptFile = auxiliaryFileRepository
-                .findByTypeAndName("prompt", "analysis_" + language);
-        
-        if (promptFile.isPresent()) {
-            return promptFile.get().getContent();
-        }
-        
-        // Prompt padro
-        return String.format("""
-            Voc  um especialista em anlise de cdigo Java com foco nos padres de desenvolvimento Sinqia.
-            
-            Analise o cdigo fornecido considerando:
-            1. Vazamentos de conexo (empresta/devolve)
-            2. Complexidade ciclomtica
-            3. Padres arquiteturais Sinqia
-            4. Segurana
-            5. Performance
-            
-            Arquivo: %s
-            Linguagem: %s
-            
-            Fornea uma anlise detalhada em formato markdown com:
-            - Resumo executivo
-            - Issues encontrados (crticos, errors, warnings)
-            - Sugestes de melhoria
-            - Score de qualidade (0-100)
-            """, filePath, language);
+        // Prompt especfico do banco (compilado e em cache), ou o padro
+        return promptTemplates.get("prompt", "analysis_" + language, DEFAULT_ANALYSIS_PROMPT,
+                        "filePath", "language")
+                .render(filePath, language);
     }
     
     private String getExecutiveReportTemplate() {
-        Optional<AuxiliaryFile> template = auxiliaryFileRepository
-                .findByTypeAndName("template", "executive_report");
-        
-        return template.map(AuxiliaryFile::getContent)
-                      .orElse(getDefaultExecutiveTemplate());
+        return promptTemplates.get("template", "executive_report", getDefaultExecutiveTemplate())
+                .render();
     }
     
     private String getImprovementPrompt() {
-        Optional<AuxiliaryFile> prompt = auxiliaryFileRepository
-                .findByTypeAndName("prompt", "improvements");
-        
-        return prompt.map(AuxiliaryFile::getContent)
-                    .orElse("Analise o cdigo e sugira melhorias seguindo os padres Sinqia.");
+        return promptTemplates.get("prompt", "improvements",
+                        "Analise o cdigo e sugira melhorias seguindo os padres Sinqia.")
+                .render();
     }
     
     private String getSinqiaCompliancePrompt() {
-        Optional<AuxiliaryFile> prompt = auxiliaryFileRepository
-                .findByTypeAndName("prompt", "sinqia_compliance");
-        
-        return prompt.map(AuxiliaryFile::getContent)
-                    .orElse("Verifique se o cdigo segue os padres de desenvolvimento Sinqia.");
+        return promptTemplates.get("prompt", "sinqia_compliance",
+                        "Verifique se o cdigo segue os padres de desenvolvimento Sinqia.")
+                .render();
     }
     
     private AiRequest buildAnalysisRequest(String prompt, String content, String filePath) {
-        String fullPrompt = String.format("""
-            %s
-            
-            CDIGO PARA ANLISE:
-            
-            ```java
-            %s
-            ```
-            """, prompt, content);
+        String fullPrompt = ANALYSIS_REQUEST.render(prompt, content);
         
         return new AiRequest(
                 defaultModel,
@@ -349,17 +370,7 @@ public class SinqiaAiService {
     }
     
     private String buildExecutiveReportPrompt(String template, Map<String, Object> data) {
-        return String.format("""
-            Gere um relatrio executivo baseado no template e dados fornecidos.
-            
-            TEMPLATE:
-            %s
-            
-            DADOS:
-            %s
-            
-            Crie um relatrio profissional e conciso para apresentao executiva.
-            """, template, data.toString());
+        return EXECUTIVE_REPORT_REQUEST.render(template, data);
     }
     
     private AiResponse parseAiResponse(Map<String, Object> responseData) {
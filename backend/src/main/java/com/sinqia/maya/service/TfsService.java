@@ -1,6 +1,9 @@
 package com.sinqia.maya.service;
 
-import com.sinqia.maya.entity.CodeReview;
+import com.sinqia.maya.service.metrics.PerformanceMetricsStore;
+import com.sinqia.maya.service.metrics.PerformanceMetricsStore.Metric;
+import com.sinqia.maya.service.metrics.PipelineMetrics;
+import com.sinqia.maya.service.metrics.PipelineMetrics.Stage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,7 +23,7 @@ import java.util.*;
  * - Conectar com Azure DevOps REST API
  * - Buscar informaes de commits e pull requests
  * - Obter arquivos modificados
- * - Agendar anlises automticas
+ * - Fornecer commits e contedos  ingesto de commits
  * 
  * @author Sistema MAYA
  * @version 1.0.0
@@ -31,7 +34,8 @@ import java.util.*;
 public class TfsService {
 
     private final RestTemplate restTemplate;
-    private final MayaAnalysisService mayaAnalysisService;
+    private final PerformanceMetricsStore metricsStore;
+    private final PipelineMetrics pipelineMetrics;
 
     @Value("${maya.tfs.base-url:https://dev.azure.com/sinqia}")
     private String tfsBaseUrl;
@@ -62,6 +66,24 @@ public class TfsService {
         return headers;
     }
 
+    /**
+     * GET autenticado no TFS registrando a latncia da busca
+     */
+    private <T> ResponseEntity<T> fetch(String url, Class<T> responseType, Stage stage) {
+        long startTime = System.currentTimeMillis();
+        long startNanos = pipelineMetrics.start();
+        boolean failed = true;
+        try {
+            HttpEntity<String> entity = new HttpEntity<>(createHeaders());
+            ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.GET, entity, responseType);
+            failed = !response.getStatusCode().is2xxSuccessful();
+            return response;
+        } finally {
+            metricsStore.recordSince(Metric.FETCH_LATENCY, startTime, failed);
+            pipelineMetrics.recordStage(stage, startNanos, PipelineMetrics.NONE, failed);
+        }
+    }
+
     /**
      * Buscar informaes de um commit especfico
      */
@@ -72,8 +94,7 @@ public class TfsService {
             String url = String.format("%s/%s/_apis/git/repositories/%s/commits/%s?api-version=%s",
                     tfsBaseUrl, projectName, repositoryName, commitSha, apiVersion);
             
-            HttpEntity<String> entity = new HttpEntity<>(createHeaders());
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
+            ResponseEntity<Map> response = fetch(url, Map.class, Stage.COMMIT_FETCH);
             
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 return parseCommitInfo(response.getBody());
@@ -96,8 +117,7 @@ public class TfsService {
             String url = String.format("%s/%s/_apis/git/repositories/%s/commits/%s/changes?api-version=%s",
                     tfsBaseUrl, projectName, repositoryName, commitSha, apiVersion);
             
-            HttpEntity<String> entity = new HttpEntity<>(createHeaders());
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
+            ResponseEntity<Map> response = fetch(url, Map.class, Stage.COMMIT_FETCH);
             
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 return parseChangedFiles(response.getBody());
@@ -123,8 +143,7 @@ public class TfsService {
             String url = String.format("%s/%s/_apis/git/repositories/%s/items?path=%s&versionDescriptor.version=%s&versionDescriptor.versionType=commit&api-version=%s",
                     tfsBaseUrl, projectName, repositoryName, encodedPath, commitSha, apiVersion);
             
-            HttpEntity<String> entity = new HttpEntity<>(createHeaders());
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
+            ResponseEntity<String> response = fetch(url, String.class, Stage.FILE_FETCH);
             
             if (response.getStatusCode() == HttpStatus.OK) {
                 return response.getBody();
@@ -164,50 +183,6 @@ public class TfsService {
         return Collections.emptyList();
     }
 
-    /**
-     * Agendar anlise automtica de um commit
-     */
-    public CodeReview scheduleCommitAnalysis(String projectName, String repositoryName, String commitSha) {
-        log.info("Agendando anlise automtica para commit: {}", commitSha);
-        
-        try {
-            // Buscar informaes do commit
-            TfsCommitInfo commitInfo = getCommitInfo(projectName, repositoryName, commitSha);
-            if (commitInfo == null) {
-                log.warn("Commit no encontrado: {}", commitSha);
-                return null;
-            }
-            
-            // Buscar arquivos modificados (apenas Java)
-            List<String> allFiles = getCommitChangedFiles(projectName, repositoryName, commitSha);
-            List<String> javaFiles = allFiles.stream()
-                    .filter(file -> file.endsWith(".java"))
-                    .toList();
-            
-            if (javaFiles.isEmpty()) {
-                log.info("Nenhum arquivo Java encontrado no commit: {}", commitSha);
-                return null;
-            }
-            
-            log.info("Encontrados {} arquivos Java para anlise no commit: {}", javaFiles.size(), commitSha);
-            
-            // Iniciar anlise MAYA
-            return mayaAnalysisService.analyzeCommit(
-                    commitSha,
-                    repositoryName,
-                    projectName,
-                    commitInfo.author(),
-                    commitInfo.comment(),
-                    javaFiles,
-                    "gpt-4"
-            );
-            
-        } catch (Exception e) {
-            log.error("Erro ao agendar anlise para commit {}: {}", commitSha, e.getMessage());
-            return null;
-        }
-    }
-
     /**
      * Buscar repositrios do projeto
      */
@@ -0,0 +1,199 @@
+package com.sinqia.maya.service.alert;
+
+import com.sinqia.maya.controller.DashboardController;
+import com.sinqia.maya.service.event.ReviewCompletedEvent;
+import com.sinqia.maya.service.metrics.PerformanceMetricsStore;
+import com.sinqia.maya.service.metrics.PerformanceMetricsStore.Metric;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Motor de alertas sobre as métricas em memória.
+ *
+ * As regras de latência, erros do LLM e backlog são avaliadas apenas pelo
+ * agendamento, sobre os ring buffers e a profundidade atual das filas
+ * registradas; gravar uma amostra não dispara avaliação e nenhuma regra
+ * consulta o banco. O pico de vazamentos é avaliado no fim de cada revisão.
+ * Alertas disparados ficam ativos até a regra voltar ao normal.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AlertEngine {
+
+    private final PerformanceMetricsStore metricsStore;
+
+    @Value("${maya.alerts.window-minutes:5}")
+    private int windowMinutes;
+
+    @Value("${maya.alerts.analysis-p95-ms:5000}")
+    private long analysisP95ThresholdMs;
+
+    @Value("${maya.alerts.latency-degradation-factor:2.0}")
+    private double latencyDegradationFactor;
+
+    @Value("${maya.alerts.llm-error-rate:20.0}")
+    private double llmErrorRateThreshold;
+
+    @Value("${maya.alerts.min-samples:10}")
+    private long minSamples;
+
+    @Value("${maya.alerts.leak-spike-factor:2.0}")
+    private double leakSpikeFactor;
+
+    @Value("${maya.alerts.leak-spike-min:3}")
+    private long leakSpikeMinimum;
+
+    @Value("${maya.alerts.backlog-threshold:20}")
+    private int backlogThreshold;
+
+    /** Peso da amostra mais recente na média exponencial de vazamentos */
+    private static final double LEAK_BASELINE_WEIGHT = 0.2;
+
+    private final Map<String, DashboardController.SystemAlert> activeAlerts = new ConcurrentHashMap<>();
+    private final Map<String, Double> leakBaselines = new ConcurrentHashMap<>();
+    private final Map<String, IntSupplier> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Alertas ativos, do mais recente para o mais antigo
+     */
+    public List<DashboardController.SystemAlert> getActiveAlerts() {
+        return activeAlerts.values().stream()
+                .sorted(Comparator.comparing(DashboardController.SystemAlert::timestamp).reversed())
+                .toList();
+    }
+
+    /**
+     * Registra uma fila de processamento; a profundidade é lida a cada avaliação
+     */
+    public void registerQueue(String queueName, IntSupplier depth) {
+        queues.put(queueName, depth);
+    }
+
+    @EventListener
+    public void onReviewCompleted(ReviewCompletedEvent event) {
+        if (event.repositoryName() != null) {
+            evaluateConnectionLeaks(event.repositoryName(), event.connectionLeaks());
+        }
+    }
+
+    /**
+     * Avalia as regras de janela e de backlog
+     */
+    @Scheduled(fixedDelayString = "${maya.alerts.evaluation-interval-ms:30000}")
+    public void evaluate() {
+        evaluateAnalysisLatency();
+        evaluateLlmErrorRate();
+        queues.forEach((queueName, depth) -> evaluateBacklog(queueName, depth.getAsInt()));
+    }
+
+    /**
+     * p95 da análise acima do limite ou muito acima da última hora
+     */
+    private void evaluateAnalysisLatency() {
+        PerformanceMetricsStore.MetricSummary recent =
+                metricsStore.summary(Metric.ANALYSIS_DURATION, Duration.ofMinutes(windowMinutes));
+
+        if (recent.count() > 0 && recent.p95() > analysisP95ThresholdMs) {
+            String severity = recent.p95() > analysisP95ThresholdMs * 2 ? "CRITICAL" : "WARNING";
+            fire("analysis-latency-p95", "PERFORMANCE", severity,
+                    "Tempo de análise acima do normal",
+                    String.format("p95 de %.0f ms nos últimos %d minutos (limite %d ms)",
+                            recent.p95(), windowMinutes, analysisP95ThresholdMs));
+        } else {
+            resolve("analysis-latency-p95");
+        }
+
+        PerformanceMetricsStore.MetricSummary baseline =
+                metricsStore.summary(Metric.ANALYSIS_DURATION, Duration.ofHours(1));
+        if (baseline.count() >= minSamples && baseline.p95() > 0
+                && recent.p95() > baseline.p95() * latencyDegradationFactor) {
+            fire("analysis-latency-degradation", "PERFORMANCE", "WARNING",
+                    "Degradação no tempo de análise",
+                    String.format("p95 recente de %.0f ms contra %.0f ms na última hora",
+                            recent.p95(), baseline.p95()));
+        } else {
+            resolve("analysis-latency-degradation");
+        }
+    }
+
+    /**
+     * Taxa de erro das chamadas LLM na janela recente
+     */
+    private void evaluateLlmErrorRate() {
+        PerformanceMetricsStore.MetricSummary recent =
+                metricsStore.summary(Metric.LLM_LATENCY, Duration.ofMinutes(windowMinutes));
+
+        if (recent.count() >= minSamples && recent.errorRate() > llmErrorRateThreshold) {
+            String severity = recent.errorRate() > Math.min(100.0, llmErrorRateThreshold * 2.5) ? "CRITICAL" : "WARNING";
+            fire("llm-error-rate", "INTEGRATION", severity,
+                    "Falhas nas chamadas ao LLM",
+                    String.format("%.1f%% de erro em %d chamadas nos últimos %d minutos (limite %.1f%%)",
+                            recent.errorRate(), recent.count(), windowMinutes, llmErrorRateThreshold));
+        } else {
+            resolve("llm-error-rate");
+        }
+    }
+
+    /**
+     * Pico de vazamentos de conexão em relação à média do repositório
+     */
+    private void evaluateConnectionLeaks(String repositoryName, long leaks) {
+        double baseline = leakBaselines.getOrDefault(repositoryName, 0.0);
+        String alertId = "connection-leak-spike:" + repositoryName;
+
+        if (leaks >= leakSpikeMinimum && leaks > baseline * leakSpikeFactor) {
+            fire(alertId, "QUALITY", leaks >= leakSpikeMinimum * 3 ? "CRITICAL" : "WARNING",
+                    "Pico de vazamentos de conexão em " + repositoryName,
+                    String.format("%d vazamentos empresta/devolve na última revisão (média %.1f)", leaks, baseline));
+        } else if (leaks <= baseline) {
+            resolve(alertId);
+        }
+
+        leakBaselines.put(repositoryName, baseline + LEAK_BASELINE_WEIGHT * (leaks - baseline));
+    }
+
+    /**
+     * Backlog de uma fila acima do limite
+     */
+    private void evaluateBacklog(String queueName, int depth) {
+        String alertId = "queue-backlog:" + queueName;
+        if (depth > backlogThreshold) {
+            fire(alertId, "CAPACITY", depth > backlogThreshold * 2 ? "CRITICAL" : "WARNING",
+                    "Fila " + queueName + " acumulando trabalho",
+                    String.format("%d itens pendentes (limite %d)", depth, backlogThreshold));
+        } else {
+            resolve(alertId);
+        }
+    }
+
+    private void fire(String id, String type, String severity, String message, String details) {
+        activeAlerts.compute(id, (key, existing) -> {
+            if (existing == null) {
+                log.warn("Alerta disparado [{}] {}: {}", severity, message, details);
+            }
+            // Mantém o instante do primeiro disparo enquanto o alerta continuar ativo
+            LocalDateTime firedAt = existing != null ? existing.timestamp() : LocalDateTime.now();
+            return new DashboardController.SystemAlert(id, type, severity, message, details, firedAt, false);
+        });
+    }
+
+    private void resolve(String id) {
+        DashboardController.SystemAlert removed = activeAlerts.remove(id);
+        if (removed != null) {
+            log.info("Alerta resolvido: {}", removed.message());
+        }
+    }
+}
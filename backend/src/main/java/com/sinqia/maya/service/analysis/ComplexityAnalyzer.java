@@ -0,0 +1,279 @@
+package com.sinqia.maya.service.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Complexidade ciclomática e cognitiva por método.
+ *
+ * Os métodos vêm da divisão feita por {@link JavaSource}; cada corpo é
+ * percorrido uma única vez, acompanhando o aninhamento dos comandos.
+ *
+ * Ciclomática (McCabe): 1 + if, for, while, do, case, catch, &&, || e
+ * ternário. Cognitiva (modelo SonarSource): +1 por if, else if, else,
+ * switch, laço, catch e ternário, somando o nível de aninhamento nas
+ * estruturas que aninham; +1 por sequência de operadores lógicos iguais,
+ * por break/continue com rótulo e por chamada recursiva. Lambdas aumentam o
+ * aninhamento sem contar como estrutura.
+ */
+public final class ComplexityAnalyzer {
+
+    private ComplexityAnalyzer() {
+    }
+
+    public static List<MethodComplexity> analyze(JavaSource source) {
+        List<MethodComplexity> methods = new ArrayList<>(source.methods().size());
+        for (JavaSource.Method method : source.methods()) {
+            MethodCounter counter = new MethodCounter(source, method.name());
+            counter.block(method.bodyStart(), 0);
+            methods.add(new MethodComplexity(method.name(), method.line(),
+                    1 + counter.decisions, counter.cognitive));
+        }
+        return methods;
+    }
+
+    /**
+     * Percorre os comandos de um método contando decisões e aninhamento
+     */
+    private static final class MethodCounter {
+
+        private final JavaSource source;
+        private final String methodName;
+        private int decisions;
+        private int cognitive;
+
+        MethodCounter(JavaSource source, String methodName) {
+            this.source = source;
+            this.methodName = methodName;
+        }
+
+        int block(int open, int nesting) {
+            int close = source.matching(open);
+            if (close < 0) {
+                return open + 1;
+            }
+            int i = open + 1;
+            while (i < close) {
+                i = Math.max(statement(i, close, nesting), i + 1);
+            }
+            return close + 1;
+        }
+
+        private int statement(int i, int limit, int nesting) {
+            switch (source.text(i)) {
+                case "{":
+                    return block(i, nesting);
+                case "if":
+                    cognitive += 1 + nesting;
+                    return ifChain(i, limit, nesting);
+                case "for":
+                case "while": {
+                    structure(nesting);
+                    int body = condition(i + 1, nesting);
+                    return statement(body, limit, nesting + 1);
+                }
+                case "do": {
+                    structure(nesting);
+                    int next = statement(i + 1, limit, nesting + 1);
+                    if (source.is(next, "while")) {
+                        next = condition(next + 1, nesting);
+                    }
+                    return source.is(next, ";") ? next + 1 : next;
+                }
+                case "switch":
+                    if (source.is(i + 1, "(")) {
+                        return switchStatement(i, limit, nesting);
+                    }
+                    break;
+                case "try":
+                    return tryStatement(i, limit, nesting);
+                case "synchronized":
+                    if (source.is(i + 1, "(")) {
+                        return statement(condition(i + 1, nesting), limit, nesting);
+                    }
+                    break;
+                case "break":
+                case "continue":
+                    if (source.token(i + 1).kind() == JavaSource.Kind.IDENTIFIER) {
+                        // Desvio para rótulo
+                        cognitive++;
+                    }
+                    return source.statementEnd(i, limit) + 1;
+                case "class":
+                case "interface":
+                case "enum":
+                case "record":
+                    return skipLocalType(i, limit);
+                default:
+                    break;
+            }
+
+            if (source.token(i).kind() == JavaSource.Kind.IDENTIFIER && source.is(i + 1, ":")) {
+                return statement(i + 2, limit, nesting);
+            }
+
+            int end = source.statementEnd(i, limit);
+            expression(i, end, nesting);
+            return end + 1;
+        }
+
+        /**
+         * if / else if / else: só o primeiro if paga o aninhamento
+         */
+        private int ifChain(int i, int limit, int nesting) {
+            decisions++;
+            int body = condition(i + 1, nesting);
+            int next = statement(body, limit, nesting + 1);
+            if (source.is(next, "else")) {
+                cognitive++;
+                if (source.is(next + 1, "if")) {
+                    return ifChain(next + 1, limit, nesting);
+                }
+                return statement(next + 1, limit, nesting + 1);
+            }
+            return next;
+        }
+
+        private int switchStatement(int i, int limit, int nesting) {
+            cognitive += 1 + nesting;
+            int bodyStart = condition(i + 1, nesting);
+            int bodyEnd = source.matching(bodyStart);
+            if (!source.is(bodyStart, "{") || bodyEnd < 0) {
+                return source.statementEnd(i, limit) + 1;
+            }
+
+            int j = bodyStart + 1;
+            while (j < bodyEnd) {
+                boolean isCase = source.is(j, "case");
+                if (isCase || source.is(j, "default")) {
+                    if (isCase) {
+                        decisions++;
+                    }
+                    int label = labelEnd(j, bodyEnd);
+                    j = source.is(label, "->") ? statement(label + 1, bodyEnd, nesting + 1) : label + 1;
+                } else {
+                    j = Math.max(statement(j, bodyEnd, nesting + 1), j + 1);
+                }
+            }
+            return bodyEnd + 1;
+        }
+
+        private int tryStatement(int i, int limit, int nesting) {
+            int next = i + 1;
+            if (source.is(next, "(")) {
+                next = condition(next, nesting);
+            }
+            if (!source.is(next, "{")) {
+                return source.statementEnd(i, limit) + 1;
+            }
+            next = block(next, nesting);
+
+            while (source.is(next, "catch") && source.is(next + 1, "(")) {
+                structure(nesting);
+                int body = source.matching(next + 1) + 1;
+                if (!source.is(body, "{")) {
+                    return body;
+                }
+                next = block(body, nesting + 1);
+            }
+            if (source.is(next, "finally") && source.is(next + 1, "{")) {
+                next = block(next + 1, nesting);
+            }
+            return next;
+        }
+
+        /**
+         * Operadores lógicos, ternários, lambdas e recursão dentro de uma expressão [from, to)
+         */
+        private void expression(int from, int to, int nesting) {
+            String lastOperator = null;
+            int k = from;
+            while (k < to) {
+                String text = source.text(k);
+                if (text.equals("&&") || text.equals("||")) {
+                    decisions++;
+                    if (!text.equals(lastOperator)) {
+                        cognitive++;
+                    }
+                    lastOperator = text;
+                } else if (text.equals(";") || text.equals(",")) {
+                    lastOperator = null;
+                } else if (text.equals("?") && isTernary(k)) {
+                    decisions++;
+                    cognitive += 1 + nesting;
+                } else if (text.equals("switch") && source.is(k + 1, "(")) {
+                    // Switch como expressão
+                    k = switchStatement(k, to, nesting);
+                    continue;
+                } else if (text.equals("->") && source.is(k + 1, "{") && source.matching(k + 1) > k) {
+                    // Corpo de lambda: aninha um nível
+                    k = block(k + 1, nesting + 1);
+                    continue;
+                } else if (text.equals("{") && source.is(k - 1, ")") && source.matching(k) > k) {
+                    // Classe anônima: os corpos dos métodos aninham um nível
+                    k = anonymousClass(k, nesting + 1);
+                    continue;
+                } else if (text.equals(methodName) && source.is(k + 1, "(")
+                        && (!source.is(k - 1, ".") || source.is(k - 2, "this")) && !source.is(k - 1, "new")) {
+                    cognitive++;
+                }
+                k++;
+            }
+        }
+
+        private int anonymousClass(int open, int nesting) {
+            int close = source.matching(open);
+            int j = open + 1;
+            while (j < close) {
+                if (source.is(j, "{") && source.is(j - 1, ")")) {
+                    j = block(j, nesting);
+                } else if (source.is(j, "{") && source.matching(j) > j) {
+                    j = source.matching(j) + 1;
+                } else {
+                    j++;
+                }
+            }
+            return close + 1;
+        }
+
+        private boolean isTernary(int k) {
+            // "?" de tipo genérico: <?>, <? extends T>, Map<K, ?>
+            return !(source.is(k - 1, "<") || source.is(k + 1, ">") || source.is(k + 1, ",")
+                    || source.is(k + 1, "extends") || source.is(k + 1, "super"));
+        }
+
+        private void structure(int nesting) {
+            decisions++;
+            cognitive += 1 + nesting;
+        }
+
+        private int condition(int open, int nesting) {
+            int close = source.matching(open);
+            if (!source.is(open, "(") || close < 0) {
+                return open;
+            }
+            expression(open + 1, close, nesting);
+            return close + 1;
+        }
+
+        private int labelEnd(int j, int limit) {
+            int k = j + 1;
+            while (k < limit && !source.is(k, ":") && !source.is(k, "->")) {
+                if (source.is(k, "(") && source.matching(k) > k) {
+                    k = source.matching(k);
+                }
+                k++;
+            }
+            return k;
+        }
+
+        private int skipLocalType(int i, int limit) {
+            int j = i;
+            while (j < limit && !source.is(j, "{")) {
+                j++;
+            }
+            int close = source.matching(j);
+            return close > j ? close + 1 : j + 1;
+        }
+    }
+}
@@ -0,0 +1,808 @@
+package com.sinqia.maya.service.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Análise de fluxo de conexões empresta/devolve por método.
+ *
+ * Cada variável que recebe o retorno de empresta() é acompanhada pelos
+ * desvios do método (if/else, laços, switch, break/continue, return, throw,
+ * try/catch/finally) com um estado abstrato: pode estar livre, emprestada ou
+ * devolvida, ou em mais de um desses estados quando caminhos se juntam. Os
+ * comandos são visitados uma única vez (laços contam como zero ou uma
+ * iteração), o que mantém a análise linear no tamanho do arquivo.
+ *
+ * São apontados: conexão não devolvida em algum caminho, return antes do
+ * devolve, devolve fora de finally (exceção entre empresta e devolve vaza a
+ * conexão) e devolve duplicado. Conexões devolvidas ao chamador (return da
+ * variável), guardadas em campo ou passadas como argumento a outro método
+ * (ex.: um utilitário que as devolve) deixam de ser acompanhadas.
+ *
+ * Testes de nulo sobre a variável (if (conexao != null) ...) refinam o estado
+ * em cada ramo: o ramo em que ela é nula não tem conexão emprestada.
+ */
+public final class ConnectionFlowAnalyzer {
+
+    private static final int FREE = 1;
+    private static final int BORROWED = 2;
+    private static final int RELEASED = 4;
+
+    private ConnectionFlowAnalyzer() {
+    }
+
+    public static Result analyze(JavaSource source) {
+        int empresta = 0;
+        int devolve = 0;
+        for (int i = 1; i + 1 < source.size(); i++) {
+            if (source.is(i - 1, ".") && source.is(i + 1, "(")) {
+                if (source.is(i, "empresta")) {
+                    empresta++;
+                } else if (source.is(i, "devolve")) {
+                    devolve++;
+                }
+            }
+        }
+
+        List<Finding> findings = new ArrayList<>();
+        if (empresta + devolve > 0) {
+            for (JavaSource.Method method : source.methods()) {
+                new MethodFlow(source, method).analyze(findings);
+            }
+        }
+        return new Result(empresta, devolve, findings);
+    }
+
+    /**
+     * Percorre os comandos de um método mantendo o estado de cada conexão
+     */
+    private static final class MethodFlow {
+
+        private final JavaSource source;
+        private final JavaSource.Method method;
+
+        /** Estado corrente por variável (máscara FREE/BORROWED/RELEASED); null = caminho inalcançável */
+        private Map<String, Integer> state = new HashMap<>();
+
+        private final Map<String, Connection> connections = new LinkedHashMap<>();
+        private final Deque<TryScope> tryScopes = new ArrayDeque<>();
+        private final Deque<List<Map<String, Integer>>> breakTargets = new ArrayDeque<>();
+
+        MethodFlow(JavaSource source, JavaSource.Method method) {
+            this.source = source;
+            this.method = method;
+        }
+
+        void analyze(List<Finding> findings) {
+            block(method.bodyStart());
+
+            // Fim do método alcançável com conexão ainda emprestada (salvo se emprestada sob finally que a devolve)
+            if (state != null) {
+                state.forEach((variable, mask) -> {
+                    Connection connection = connections.get(variable);
+                    if ((mask & BORROWED) != 0 && !connection.releasedByFinally) {
+                        connection.leakedAtEnd = true;
+                    }
+                });
+            }
+
+            for (Connection connection : connections.values()) {
+                connection.report(method.name(), findings);
+            }
+        }
+
+        // -------------------------------------------------------------------
+        // Comandos
+        // -------------------------------------------------------------------
+
+        /**
+         * Processa o bloco aberto em {@code open}; devolve o índice após a chave de fechamento
+         */
+        private int block(int open) {
+            int close = source.matching(open);
+            if (close < 0) {
+                return open + 1;
+            }
+            int i = open + 1;
+            while (i < close) {
+                // Código malformado não pode travar a análise: sempre avança ao menos um token
+                i = Math.max(statement(i, close), i + 1);
+            }
+            return close + 1;
+        }
+
+        private int statement(int i, int limit) {
+            String text = source.text(i);
+            switch (text) {
+                case "{":
+                    return block(i);
+                case ";":
+                    return i + 1;
+                case "if":
+                    return ifStatement(i, limit);
+                case "for":
+                case "while":
+                    return loop(i + 1, limit);
+                case "do":
+                    return doWhile(i, limit);
+                case "try":
+                    return tryStatement(i, limit);
+                case "switch":
+                    if (source.is(i + 1, "(")) {
+                        return switchStatement(i, limit);
+                    }
+                    break;
+                case "synchronized":
+                    if (source.is(i + 1, "(")) {
+                        int close = source.matching(i + 1);
+                        events(i + 1, close + 1);
+                        return statement(close + 1, limit);
+                    }
+                    break;
+                case "return":
+                    return exitStatement(i, limit, true);
+                case "throw":
+                    return exitStatement(i, limit, false);
+                case "break":
+                case "continue":
+                    return jump(i, limit);
+                case "class":
+                case "interface":
+                case "enum":
+                case "record":
+                    return skipLocalType(i, limit);
+                default:
+                    break;
+            }
+
+            // Rótulo (ident:) seguido do comando rotulado
+            if (source.token(i).kind() == JavaSource.Kind.IDENTIFIER && source.is(i + 1, ":")) {
+                return statement(i + 2, limit);
+            }
+
+            int end = source.statementEnd(i, limit);
+            events(i, end);
+            return end + 1;
+        }
+
+        private int ifStatement(int i, int limit) {
+            int conditionEnd = condition(i + 1);
+            NullGuard guard = nullGuard(i + 1, conditionEnd - 1);
+            Map<String, Integer> before = copy(state);
+            refine(guard, true);
+            int next = statement(conditionEnd, limit);
+            Map<String, Integer> thenState = state;
+
+            state = copy(before);
+            refine(guard, false);
+            before = state;
+            if (source.is(next, "else")) {
+                next = statement(next + 1, limit);
+                state = join(thenState, state);
+            } else {
+                state = join(thenState, before);
+            }
+            return next;
+        }
+
+        /**
+         * Teste de nulo sobre uma conexão: (x != null), (x != null && ...), (x == null), (x == null || ...)
+         */
+        private NullGuard nullGuard(int open, int close) {
+            if (!source.is(open, "(") || close - open < 4) {
+                return null;
+            }
+            int left = open + 1;
+            String variable;
+            if (source.is(left + 2, "null") && connections.containsKey(source.text(left))) {
+                variable = source.text(left);
+            } else if (source.is(left, "null") && connections.containsKey(source.text(left + 2))) {
+                variable = source.text(left + 2);
+            } else {
+                return null;
+            }
+            boolean whole = left + 3 == close;
+            if (source.is(left + 1, "!=") && (whole || source.is(left + 3, "&&"))) {
+                return new NullGuard(variable, true, whole);
+            }
+            if (source.is(left + 1, "==") && (whole || source.is(left + 3, "||"))) {
+                return new NullGuard(variable, false, whole);
+            }
+            return null;
+        }
+
+        /**
+         * Restringe o estado ao ramo do if: quando a variável é nula não há conexão emprestada
+         */
+        private void refine(NullGuard guard, boolean thenBranch) {
+            if (guard == null || state == null || !state.containsKey(guard.variable())) {
+                return;
+            }
+            boolean nonNull = guard.thenNonNull() == thenBranch;
+            if (!nonNull && !guard.exact()) {
+                // (x != null && ...) falso não garante x nulo
+                return;
+            }
+            int mask = state.get(guard.variable());
+            if (nonNull) {
+                if ((mask & ~FREE) != 0) {
+                    state.put(guard.variable(), mask & ~FREE);
+                }
+            } else {
+                state.put(guard.variable(), FREE);
+            }
+        }
+
+        private int loop(int header, int limit) {
+            int bodyStart = condition(header);
+            Map<String, Integer> entry = copy(state);
+            List<Map<String, Integer>> breaks = new ArrayList<>();
+            breakTargets.push(breaks);
+            int next = statement(bodyStart, limit);
+            breakTargets.pop();
+
+            // Zero ou uma iteração: a saída junta a entrada, o fim do corpo e os breaks
+            Map<String, Integer> exit = join(entry, state);
+            for (Map<String, Integer> jumped : breaks) {
+                exit = join(exit, jumped);
+            }
+            state = exit;
+            return next;
+        }
+
+        private int doWhile(int i, int limit) {
+            List<Map<String, Integer>> breaks = new ArrayList<>();
+            breakTargets.push(breaks);
+            int next = statement(i + 1, limit);
+            breakTargets.pop();
+
+            for (Map<String, Integer> jumped : breaks) {
+                state = join(state, jumped);
+            }
+            if (source.is(next, "while")) {
+                next = condition(next + 1);
+            }
+            return source.is(next, ";") ? next + 1 : next;
+        }
+
+        private int tryStatement(int i, int limit) {
+            int next = i + 1;
+            if (source.is(next, "(")) {
+                // try-with-resources: os recursos são fechados pelo próprio try
+                next = source.matching(next) + 1;
+            }
+            if (!source.is(next, "{") || source.matching(next) < 0) {
+                return source.statementEnd(i, limit) + 1;
+            }
+            int tryBlock = next;
+
+            List<Integer> catchBlocks = new ArrayList<>();
+            int cursor = source.matching(tryBlock) + 1;
+            while (source.is(cursor, "catch") && source.is(cursor + 1, "(")) {
+                int catchBlock = source.matching(cursor + 1) + 1;
+                if (!source.is(catchBlock, "{") || source.matching(catchBlock) < 0) {
+                    break;
+                }
+                catchBlocks.add(catchBlock);
+                cursor = source.matching(catchBlock) + 1;
+            }
+            int finallyBlock = -1;
+            if (source.is(cursor, "finally") && source.is(cursor + 1, "{") && source.matching(cursor + 1) > 0) {
+                finallyBlock = cursor + 1;
+                cursor = source.matching(finallyBlock) + 1;
+            }
+
+            Set<String> releasedInFinally = finallyBlock < 0
+                    ? Set.of() : releasedVariables(finallyBlock, source.matching(finallyBlock));
+
+            // Bloco try: exceções vão para os catch (se houver) ou para o finally
+            Map<String, Integer> entry = copy(state);
+            TryScope tryScope = new TryScope(releasedInFinally, !catchBlocks.isEmpty());
+            tryScopes.push(tryScope);
+            block(tryBlock);
+            tryScopes.pop();
+            Map<String, Integer> normal = state;
+
+            // Blocos catch: começam em qualquer estado possível dentro do try
+            Map<String, Integer> catchEntry = join(entry, tryScope.thrown);
+            TryScope catchScope = new TryScope(releasedInFinally, false);
+            tryScopes.push(catchScope);
+            for (int catchBlock : catchBlocks) {
+                state = copy(catchEntry);
+                block(catchBlock);
+                normal = join(normal, state);
+            }
+            tryScopes.pop();
+
+            if (finallyBlock >= 0) {
+                if (normal != null) {
+                    state = normal;
+                    block(finallyBlock);
+                } else {
+                    // Todos os caminhos saem por return/throw: o finally roda só nesses desvios
+                    state = join(catchEntry, catchScope.thrown);
+                    block(finallyBlock);
+                    state = null;
+                }
+            } else {
+                state = normal;
+            }
+            return cursor;
+        }
+
+        private int switchStatement(int i, int limit) {
+            int bodyStart = condition(i + 1);
+            int bodyEnd = source.matching(bodyStart);
+            if (!source.is(bodyStart, "{") || bodyEnd < 0) {
+                return source.statementEnd(i, limit) + 1;
+            }
+
+            Map<String, Integer> entry = copy(state);
+            List<Map<String, Integer>> breaks = new ArrayList<>();
+            breakTargets.push(breaks);
+            boolean hasDefault = false;
+            boolean arrows = false;
+            state = null;
+
+            int j = bodyStart + 1;
+            while (j < bodyEnd) {
+                if (source.is(j, "case") || source.is(j, "default")) {
+                    hasDefault |= source.is(j, "default");
+                    int label = labelEnd(j, bodyEnd);
+                    if (source.is(label, "->")) {
+                        // case X -> comando: sem queda para o próximo case
+                        arrows = true;
+                        if (state != null) {
+                            breaks.add(state);
+                        }
+                        state = copy(entry);
+                        j = statement(label + 1, bodyEnd);
+                        if (state != null) {
+                            breaks.add(state);
+                        }
+                        state = null;
+                    } else {
+                        // case X: o caminho anterior pode cair neste case
+                        state = join(state, copy(entry));
+                        j = label + 1;
+                    }
+                } else {
+                    if (state == null && !arrows) {
+                        state = copy(entry);
+                    }
+                    j = Math.max(statement(j, bodyEnd), j + 1);
+                }
+            }
+            breakTargets.pop();
+
+            Map<String, Integer> exit = state;
+            for (Map<String, Integer> jumped : breaks) {
+                exit = join(exit, jumped);
+            }
+            if (!hasDefault) {
+                exit = join(exit, entry);
+            }
+            state = exit;
+            return bodyEnd + 1;
+        }
+
+        private int exitStatement(int i, int limit, boolean isReturn) {
+            int end = source.statementEnd(i, limit);
+
+            if (isReturn && end == i + 2 && connections.containsKey(source.text(i + 1))) {
+                // return conexao: a responsabilidade de devolver passa ao chamador
+                escape(source.text(i + 1));
+            }
+            events(i + 1, end);
+
+            if (state != null) {
+                int offset = source.token(i).offset();
+                for (Map.Entry<String, Integer> entry : state.entrySet()) {
+                    if ((entry.getValue() & BORROWED) == 0 || releasedByFinally(entry.getKey())) {
+                        continue;
+                    }
+                    Connection connection = connections.get(entry.getKey());
+                    if (isReturn) {
+                        connection.returnOffset = firstOffset(connection.returnOffset, offset);
+                    } else if (!caught()) {
+                        connection.unprotectedOffset = firstOffset(connection.unprotectedOffset, offset);
+                    }
+                }
+                if (!isReturn) {
+                    recordThrown(state);
+                }
+            }
+            state = null;
+            return end + 1;
+        }
+
+        private int jump(int i, int limit) {
+            int end = source.statementEnd(i, limit);
+            if (state != null && !breakTargets.isEmpty()) {
+                breakTargets.peek().add(state);
+            }
+            state = null;
+            return end + 1;
+        }
+
+        private int skipLocalType(int i, int limit) {
+            int j = i;
+            while (j < limit && !source.is(j, "{")) {
+                j++;
+            }
+            int close = source.matching(j);
+            return close > j ? close + 1 : j + 1;
+        }
+
+        // -------------------------------------------------------------------
+        // Eventos dentro de expressões
+        // -------------------------------------------------------------------
+
+        /**
+         * Aplica empresta/devolve/atribuições de uma expressão ou declaração [from, to)
+         */
+        private void events(int from, int to) {
+            if (state == null) {
+                return;
+            }
+            Map<String, Integer> before = copy(state);
+            boolean mayThrow = false;
+            Set<String> releasedHere = new HashSet<>();
+
+            for (int k = from; k < to; k++) {
+                String text = source.text(k);
+                if (source.is(k + 1, "(") && source.token(k).kind() == JavaSource.Kind.IDENTIFIER) {
+                    mayThrow = true;
+                }
+                if (text.equals("new")) {
+                    mayThrow = true;
+                }
+
+                if (text.equals("empresta") && source.is(k - 1, ".") && source.is(k + 1, "(")) {
+                    borrow(from, k);
+                } else if (text.equals("devolve") && source.is(k - 1, ".") && source.is(k + 1, "(")
+                        && source.is(k + 3, ")")) {
+                    String variable = source.text(k + 2);
+                    release(variable, source.token(k).offset());
+                    releasedHere.add(variable);
+                } else if (connections.containsKey(text) && isCallArgument(k)) {
+                    // Conexão passada a outro método (ex.: utilitário que a devolve): responsabilidade dele
+                    escape(text);
+                } else if (text.equals("=") && source.is(k + 2, ";") && connections.containsKey(source.text(k + 1))
+                        && !source.text(k + 1).equals(source.text(k - 1))) {
+                    // Conexão repassada a campo ou outra variável: deixa de ser responsabilidade desta
+                    escape(source.text(k + 1));
+                } else if (text.equals("=") && k > from && connections.containsKey(source.text(k - 1))
+                        && !source.is(k - 2, ".") && !isBorrowAssignment(k, to)) {
+                    reassign(source.text(k - 1), source.token(k).offset());
+                }
+            }
+
+            if (mayThrow) {
+                exceptionPoint(before, releasedHere, source.token(from).offset());
+            }
+        }
+
+        private void borrow(int from, int callIndex) {
+            // Variável atribuída: "x = ... .empresta(" na mesma expressão
+            int assign = -1;
+            for (int k = callIndex - 1; k >= from; k--) {
+                if (source.is(k, "=")) {
+                    assign = k;
+                    break;
+                }
+            }
+            if (assign - 1 < from
+                    || source.token(assign - 1).kind() != JavaSource.Kind.IDENTIFIER
+                    || source.is(assign - 2, ".")) {
+                // Retorno repassado diretamente ou guardado em campo: fora do escopo do método
+                return;
+            }
+            String variable = source.text(assign - 1);
+            int offset = source.token(callIndex).offset();
+
+            Connection connection = connections.get(variable);
+            if (connection == null) {
+                connection = new Connection(variable, offset);
+                connections.put(variable, connection);
+            } else {
+                if ((mask(variable) & BORROWED) != 0) {
+                    // Novo empresta sobre conexão ainda emprestada: a anterior se perde
+                    connection.overwrittenOffset = firstOffset(connection.overwrittenOffset, offset);
+                }
+                connection.escaped = false;
+            }
+            connection.releasedByFinally = releasedByFinally(variable);
+            state.put(variable, BORROWED);
+        }
+
+        /**
+         * Variável usada como argumento de chamada: foo(x), a.foo(y, x), new Foo(x)
+         */
+        private boolean isCallArgument(int k) {
+            if (!(source.is(k - 1, "(") || source.is(k - 1, ","))
+                    || !(source.is(k + 1, ")") || source.is(k + 1, ","))) {
+                return false;
+            }
+            // Parêntese que abre a lista de argumentos
+            int depth = 0;
+            for (int j = k - 1; j > 0; j--) {
+                if (source.is(j, ";") || source.is(j, "{") || source.is(j, "}")) {
+                    return false;
+                } else if (source.is(j, ")")) {
+                    depth++;
+                } else if (source.is(j, "(") && depth-- == 0) {
+                    String callee = source.text(j - 1);
+                    return source.token(j - 1).kind() == JavaSource.Kind.IDENTIFIER
+                            && !callee.equals("devolve") && !CONTROL_KEYWORDS.contains(callee);
+                }
+            }
+            return false;
+        }
+
+        private void release(String variable, int offset) {
+            Connection connection = connections.get(variable);
+            if (connection == null) {
+                // Parâmetro ou campo: emprestado fora deste método
+                return;
+            }
+            if ((mask(variable) & RELEASED) != 0) {
+                connection.doubleReleaseOffset = firstOffset(connection.doubleReleaseOffset, offset);
+            }
+            connection.released = true;
+            state.put(variable, RELEASED);
+        }
+
+        /**
+         * Nova atribuição sobre a variável; se ainda estava emprestada, a conexão se perde
+         */
+        private void reassign(String variable, int offset) {
+            if ((mask(variable) & BORROWED) != 0) {
+                Connection connection = connections.get(variable);
+                connection.overwrittenOffset = firstOffset(connection.overwrittenOffset, offset);
+            }
+            state.put(variable, FREE);
+        }
+
+        private boolean isBorrowAssignment(int assign, int to) {
+            for (int k = assign + 1; k < to && !source.is(k, ";"); k++) {
+                if (source.is(k, "empresta") && source.is(k - 1, ".")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void escape(String variable) {
+            connections.get(variable).escaped = true;
+            if (state != null) {
+                state.remove(variable);
+            }
+        }
+
+        /**
+         * Comando que pode lançar exceção com conexões emprestadas antes dele
+         */
+        private void exceptionPoint(Map<String, Integer> before, Set<String> releasedHere, int offset) {
+            for (Map.Entry<String, Integer> entry : before.entrySet()) {
+                String variable = entry.getKey();
+                if ((entry.getValue() & BORROWED) == 0 || releasedHere.contains(variable)
+                        || releasedByFinally(variable) || caught()) {
+                    continue;
+                }
+                Connection connection = connections.get(variable);
+                connection.unprotectedOffset = firstOffset(connection.unprotectedOffset, offset);
+            }
+            recordThrown(before);
+        }
+
+        private void recordThrown(Map<String, Integer> thrown) {
+            for (TryScope scope : tryScopes) {
+                scope.thrown = join(scope.thrown, copy(thrown));
+                if (scope.hasCatch) {
+                    return;
+                }
+            }
+        }
+
+        private boolean releasedByFinally(String variable) {
+            for (TryScope scope : tryScopes) {
+                if (scope.releasedInFinally.contains(variable)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean caught() {
+            for (TryScope scope : tryScopes) {
+                if (scope.hasCatch) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Set<String> releasedVariables(int open, int close) {
+            Set<String> released = new HashSet<>();
+            for (int k = open + 1; k < close; k++) {
+                if (source.is(k, "devolve") && source.is(k - 1, ".") && source.is(k + 1, "(") && source.is(k + 3, ")")) {
+                    released.add(source.text(k + 2));
+                }
+            }
+            return released;
+        }
+
+        // -------------------------------------------------------------------
+        // Utilitários
+        // -------------------------------------------------------------------
+
+        /**
+         * Pula a condição entre parênteses (aplicando seus eventos); devolve o índice seguinte
+         */
+        private int condition(int open) {
+            int close = source.matching(open);
+            if (!source.is(open, "(") || close < 0) {
+                return open;
+            }
+            events(open + 1, close);
+            return close + 1;
+        }
+
+        private int labelEnd(int j, int limit) {
+            int k = j + 1;
+            while (k < limit && !source.is(k, ":") && !source.is(k, "->")) {
+                if (source.is(k, "(") && source.matching(k) > k) {
+                    k = source.matching(k);
+                }
+                k++;
+            }
+            return k;
+        }
+
+        private int mask(String variable) {
+            return state.getOrDefault(variable, FREE);
+        }
+
+        private static Map<String, Integer> copy(Map<String, Integer> state) {
+            return state == null ? null : new HashMap<>(state);
+        }
+
+        private static Map<String, Integer> join(Map<String, Integer> a, Map<String, Integer> b) {
+            if (a == null) {
+                return b;
+            }
+            if (b == null) {
+                return a;
+            }
+            Map<String, Integer> joined = new HashMap<>(a);
+            b.forEach((variable, mask) -> joined.merge(variable, mask, (x, y) -> x | y));
+            a.keySet().forEach(variable -> {
+                if (!b.containsKey(variable)) {
+                    joined.merge(variable, FREE, (x, y) -> x | y);
+                }
+            });
+            b.keySet().forEach(variable -> {
+                if (!a.containsKey(variable)) {
+                    joined.merge(variable, FREE, (x, y) -> x | y);
+                }
+            });
+            return joined;
+        }
+
+        private static int firstOffset(int current, int offset) {
+            return current >= 0 ? current : offset;
+        }
+    }
+
+    private static final Set<String> CONTROL_KEYWORDS =
+            Set.of("if", "while", "for", "switch", "catch", "synchronized", "return");
+
+    /**
+     * Teste de nulo de uma variável na condição do if; {@code thenNonNull}: no ramo then ela não é nula;
+     * {@code exact}: a condição é só o teste, então o outro ramo garante o contrário
+     */
+    private record NullGuard(String variable, boolean thenNonNull, boolean exact) {}
+
+    /**
+     * Bloco try em análise: variáveis devolvidas no finally e estados vistos em exceções
+     */
+    private static final class TryScope {
+        private final Set<String> releasedInFinally;
+        private final boolean hasCatch;
+        private Map<String, Integer> thrown;
+
+        TryScope(Set<String> releasedInFinally, boolean hasCatch) {
+            this.releasedInFinally = releasedInFinally;
+            this.hasCatch = hasCatch;
+        }
+    }
+
+    /**
+     * Histórico de uma variável de conexão no método
+     */
+    private static final class Connection {
+        private final String variable;
+        private final int borrowOffset;
+        private boolean released;
+        private boolean escaped;
+        private boolean leakedAtEnd;
+        /** Último empresta feito dentro de try cujo finally devolve a variável */
+        private boolean releasedByFinally;
+        private int returnOffset = -1;
+        private int unprotectedOffset = -1;
+        private int overwrittenOffset = -1;
+        private int doubleReleaseOffset = -1;
+
+        Connection(String variable, int borrowOffset) {
+            this.variable = variable;
+            this.borrowOffset = borrowOffset;
+        }
+
+        void report(String method, List<Finding> findings) {
+            if (doubleReleaseOffset >= 0) {
+                findings.add(new Finding(FindingType.DOUBLE_DEVOLVE, method, variable, doubleReleaseOffset));
+            }
+            if (escaped) {
+                return;
+            }
+            if (!released) {
+                // Nenhum caminho devolve: vazamento em qualquer execução
+                findings.add(new Finding(FindingType.MISSING_DEVOLVE, method, variable, borrowOffset));
+                return;
+            }
+            if (leakedAtEnd || overwrittenOffset >= 0) {
+                findings.add(new Finding(FindingType.MISSING_DEVOLVE, method, variable,
+                        overwrittenOffset >= 0 ? overwrittenOffset : borrowOffset));
+            }
+            if (returnOffset >= 0) {
+                findings.add(new Finding(FindingType.RETURN_BEFORE_DEVOLVE, method, variable, returnOffset));
+            }
+            if (unprotectedOffset >= 0) {
+                findings.add(new Finding(FindingType.NOT_IN_FINALLY, method, variable, unprotectedOffset));
+            }
+        }
+    }
+
+    public enum FindingType {
+        /** Algum caminho termina o método sem devolver a conexão */
+        MISSING_DEVOLVE,
+        /** Exceção entre empresta e devolve vaza a conexão (devolve fora de finally) */
+        NOT_IN_FINALLY,
+        /** return executado com a conexão ainda emprestada */
+        RETURN_BEFORE_DEVOLVE,
+        /** devolve chamado sobre conexão já devolvida */
+        DOUBLE_DEVOLVE
+    }
+
+    /**
+     * Problema encontrado; {@code offset} é a posição no fonte do comando
+     * envolvido (linha e coluna via {@link JavaSource#lines()})
+     */
+    public record Finding(
+            FindingType type,
+            String method,
+            String variable,
+            int offset
+    ) {}
+
+    /**
+     * Contagens de chamadas e problemas encontrados no arquivo
+     */
+    public record Result(
+            int emprestaCount,
+            int devolveCount,
+            List<Finding> findings
+    ) {
+        public boolean balanced() {
+            return findings.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.sinqia.maya.service.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Leitura estrutural leve de um arquivo Java.
+ *
+ * O fonte é percorrido uma única vez: comentários e espaços são descartados,
+ * strings, caracteres e text blocks viram um único token e cada token guarda
+ * a linha onde começa. Em seguida, também em tempo linear, são calculados o
+ * par de cada parêntese, colchete e chave e os corpos de métodos e
+ * construtores das classes do arquivo. Não é um parser completo: basta para
+ * os detectores que precisam enxergar métodos, blocos e fluxo de controle.
+ */
+public final class JavaSource {
+
+    private static final Set<String> CONTROL_KEYWORDS = Set.of(
+            "if", "for", "while", "switch", "catch", "synchronized", "try", "do", "else", "return", "new", "throw");
+
+    private static final Set<String> TYPE_KEYWORDS = Set.of("class", "interface", "enum", "record");
+
+    private static final String[] TWO_CHAR_SYMBOLS = {
+            "->", "::", "==", "!=", "<=", ">=", "&&", "||", "++", "--",
+            "+=", "-=", "*=", "/=", "%=", "&=", "|=", "^="
+    };
+
+    private final List<Token> tokens;
+    private final LineIndex lines;
+    private final int[] matching;
+    private final List<Method> methods;
+
+    private JavaSource(List<Token> tokens, LineIndex lines) {
+        this.tokens = tokens;
+        this.lines = lines;
+        this.matching = matchBrackets(tokens);
+        this.methods = findMethods();
+    }
+
+    public static JavaSource parse(String content) {
+        String text = content == null ? "" : content;
+        return new JavaSource(tokenize(text), LineIndex.of(text));
+    }
+
+    /**
+     * Índice de linhas do fonte, para converter a posição dos tokens em linha e coluna
+     */
+    public LineIndex lines() {
+        return lines;
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    public Token token(int index) {
+        return tokens.get(index);
+    }
+
+    /**
+     * Texto do token, ou vazio fora dos limites (evita testes de índice nos detectores)
+     */
+    public String text(int index) {
+        return index >= 0 && index < tokens.size() ? tokens.get(index).text() : "";
+    }
+
+    public boolean is(int index, String text) {
+        return text(index).equals(text);
+    }
+
+    /**
+     * Índice do parêntese, colchete ou chave que fecha (ou abre) o token; -1 se desbalanceado
+     */
+    public int matching(int index) {
+        return index >= 0 && index < matching.length ? matching[index] : -1;
+    }
+
+    public List<Method> methods() {
+        return methods;
+    }
+
+    /**
+     * Fim de um comando simples iniciado em {@code start}: o ';' fora de parênteses,
+     * colchetes e chaves, ou o token antes da chave que fecha o bloco
+     */
+    public int statementEnd(int start, int limit) {
+        int i = start;
+        while (i < limit) {
+            String text = text(i);
+            if (text.equals(";")) {
+                return i;
+            }
+            if ((text.equals("(") || text.equals("[") || text.equals("{")) && matching(i) > i) {
+                // Argumentos, lambdas, classes anônimas e inicializadores fazem parte do comando
+                i = matching(i) + 1;
+                continue;
+            }
+            if (text.equals("}")) {
+                return i - 1;
+            }
+            i++;
+        }
+        return limit - 1;
+    }
+
+    // ===================================================================
+    // Análise léxica
+    // ===================================================================
+
+    private static List<Token> tokenize(String source) {
+        List<Token> tokens = new ArrayList<>(source.length() / 4);
+        int length = source.length();
+        int line = 1;
+        int i = 0;
+
+        while (i < length) {
+            char c = source.charAt(i);
+
+            if (c == '\n') {
+                line++;
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '/' && i + 1 < length && source.charAt(i + 1) == '/') {
+                while (i < length && source.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && i + 1 < length && source.charAt(i + 1) == '*') {
+                int end = source.indexOf("*/", i + 2);
+                end = end < 0 ? length : end + 2;
+                line += countLines(source, i, end);
+                i = end;
+            } else if (c == '"' && source.startsWith("\"\"\"", i)) {
+                int end = endOfTextBlock(source, i + 3);
+                tokens.add(new Token(Kind.LITERAL, source.substring(i, end), line, i));
+                line += countLines(source, i, end);
+                i = end;
+            } else if (c == '"' || c == '\'') {
+                int end = endOfQuoted(source, i + 1, c);
+                tokens.add(new Token(Kind.LITERAL, source.substring(i, end), line, i));
+                i = end;
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int end = i + 1;
+                while (end < length && Character.isJavaIdentifierPart(source.charAt(end))) {
+                    end++;
+                }
+                tokens.add(new Token(Kind.IDENTIFIER, source.substring(i, end), line, i));
+                i = end;
+            } else if (Character.isDigit(c) || (c == '.' && i + 1 < length && Character.isDigit(source.charAt(i + 1)))) {
+                int end = i + 1;
+                while (end < length && (Character.isLetterOrDigit(source.charAt(end))
+                        || source.charAt(end) == '.' || source.charAt(end) == '_')) {
+                    end++;
+                }
+                tokens.add(new Token(Kind.LITERAL, source.substring(i, end), line, i));
+                i = end;
+            } else {
+                String symbol = twoCharSymbol(source, i);
+                tokens.add(new Token(Kind.SYMBOL, symbol, line, i));
+                i += symbol.length();
+            }
+        }
+        return tokens;
+    }
+
+    private static int endOfQuoted(String source, int from, char quote) {
+        int i = from;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                return i + 1;
+            } else if (c == '\n') {
+                // Literal não terminado: encerra na linha para não engolir o resto do arquivo
+                return i;
+            } else {
+                i++;
+            }
+        }
+        return source.length();
+    }
+
+    private static int endOfTextBlock(String source, int from) {
+        int i = from;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (source.startsWith("\"\"\"", i)) {
+                return i + 3;
+            } else {
+                i++;
+            }
+        }
+        return source.length();
+    }
+
+    private static String twoCharSymbol(String source, int i) {
+        if (i + 1 < source.length()) {
+            for (String symbol : TWO_CHAR_SYMBOLS) {
+                if (source.charAt(i) == symbol.charAt(0) && source.charAt(i + 1) == symbol.charAt(1)) {
+                    return symbol;
+                }
+            }
+        }
+        return String.valueOf(source.charAt(i));
+    }
+
+    private static int countLines(String source, int from, int to) {
+        int lines = 0;
+        for (int i = from; i < to; i++) {
+            if (source.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    // ===================================================================
+    // Estrutura
+    // ===================================================================
+
+    private static int[] matchBrackets(List<Token> tokens) {
+        int[] matching = new int[tokens.size()];
+        Arrays.fill(matching, -1);
+        Deque<Integer> open = new ArrayDeque<>();
+
+        for (int i = 0; i < tokens.size(); i++) {
+            String text = tokens.get(i).text();
+            if (tokens.get(i).kind() != Kind.SYMBOL || text.length() != 1) {
+                continue;
+            }
+            char c = text.charAt(0);
+            if (c == '(' || c == '[' || c == '{') {
+                open.push(i);
+            } else if (c == ')' || c == ']' || c == '}') {
+                char expected = c == ')' ? '(' : c == ']' ? '[' : '{';
+                // Fechamento sem par (código incompleto): descarta aberturas pendentes de outro tipo
+                while (!open.isEmpty() && tokens.get(open.peek()).text().charAt(0) != expected) {
+                    open.pop();
+                }
+                if (!open.isEmpty()) {
+                    int start = open.pop();
+                    matching[start] = i;
+                    matching[i] = start;
+                }
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Localiza corpos de métodos e construtores no corpo das classes (inclusive aninhadas)
+     */
+    private List<Method> findMethods() {
+        List<Method> found = new ArrayList<>();
+        int declarationStart = 0;
+        int i = 0;
+
+        while (i < tokens.size()) {
+            String text = text(i);
+            if (text.equals("(") && matching(i) > i) {
+                // Parâmetros e argumentos de anotações não abrem corpos
+                i = matching(i) + 1;
+            } else if (text.equals(";") || text.equals("}")) {
+                declarationStart = i + 1;
+                i++;
+            } else if (text.equals("{")) {
+                int close = matching(i);
+                if (isTypeDeclaration(declarationStart, i)) {
+                    i++;
+                } else {
+                    Method method = methodHeader(declarationStart, i, close);
+                    if (method != null) {
+                        found.add(method);
+                    }
+                    // Corpos de métodos e inicializadores são pulados inteiros
+                    i = close > i ? close + 1 : i + 1;
+                }
+                declarationStart = i;
+            } else {
+                i++;
+            }
+        }
+        return found;
+    }
+
+    private boolean isTypeDeclaration(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (TYPE_KEYWORDS.contains(text(i)) && !is(i - 1, ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Method methodHeader(int from, int open, int close) {
+        if (close < 0) {
+            return null;
+        }
+        int lastParen = -1;
+        for (int i = from; i < open; i++) {
+            if (is(i, "=") || is(i, "->")) {
+                // Inicializador de campo com lambda ou classe anônima
+                return null;
+            }
+            if (is(i, ")")) {
+                lastParen = i;
+            }
+        }
+        if (lastParen < 0) {
+            return null;
+        }
+        int nameIndex = matching(lastParen) - 1;
+        if (nameIndex < from || token(nameIndex).kind() != Kind.IDENTIFIER
+                || CONTROL_KEYWORDS.contains(text(nameIndex))) {
+            return null;
+        }
+        return new Method(text(nameIndex), token(nameIndex).line(), open, close);
+    }
+
+    public enum Kind {
+        IDENTIFIER,
+        LITERAL,
+        SYMBOL
+    }
+
+    /**
+     * Token com a linha e a posição (offset) onde começa no fonte
+     */
+    public record Token(
+            Kind kind,
+            String text,
+            int line,
+            int offset
+    ) {}
+
+    /**
+     * Método ou construtor: nome, linha da declaração e índices das chaves do corpo
+     */
+    public record Method(
+            String name,
+            int line,
+            int bodyStart,
+            int bodyEnd
+    ) {}
+}
@@ -0,0 +1,103 @@
+package com.sinqia.maya.service.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Índice de linhas de um arquivo: posição de início de cada linha.
+ *
+ * Construído uma vez por arquivo em uma passada sobre o conteúdo, converte a
+ * posição de qualquer trecho (token, match de regex) em linha e coluna por
+ * busca binária e extrai o texto de uma linha sem montar um array com todas
+ * as linhas. Linhas e colunas começam em 1.
+ */
+public final class LineIndex {
+
+    private final String content;
+    private final int[] lineStarts;
+    private final int lineCount;
+
+    private LineIndex(String content, int[] lineStarts, int lineCount) {
+        this.content = content;
+        this.lineStarts = lineStarts;
+        this.lineCount = lineCount;
+    }
+
+    public static LineIndex of(String content) {
+        String text = content == null ? "" : content;
+        int[] starts = new int[Math.max(16, text.length() / 32)];
+        int count = 1;
+        for (int i = text.indexOf('\n'); i >= 0; i = text.indexOf('\n', i + 1)) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+            }
+            starts[count++] = i + 1;
+        }
+        return new LineIndex(text, starts, count);
+    }
+
+    /**
+     * Quantidade de linhas; quebras de linha no fim do arquivo não abrem
+     * linhas novas (mesmo resultado de {@code content.split("\\n").length})
+     */
+    public int lineCount() {
+        if (content.isEmpty()) {
+            return 1;
+        }
+        int count = lineCount;
+        while (count > 0 && rawEnd(count) == lineStart(count)) {
+            count--;
+        }
+        return count;
+    }
+
+    /**
+     * Linha (1..n) da posição; posições fora do conteúdo ficam na primeira ou na última linha
+     */
+    public int lineOf(int offset) {
+        int found = Arrays.binarySearch(lineStarts, 0, lineCount, offset);
+        return found >= 0 ? found + 1 : Math.max(1, -found - 1);
+    }
+
+    /**
+     * Coluna (1..n) da posição dentro da sua linha
+     */
+    public int columnOf(int offset) {
+        return offset - lineStarts[lineOf(offset) - 1] + 1;
+    }
+
+    /**
+     * Coluna do primeiro caractere não branco da linha (1 para linha vazia)
+     */
+    public int indentColumn(int line) {
+        int start = lineStart(line);
+        int end = lineEnd(line);
+        int i = start;
+        while (i < end && Character.isWhitespace(content.charAt(i))) {
+            i++;
+        }
+        return i < end ? i - start + 1 : 1;
+    }
+
+    /**
+     * Texto da linha sem a quebra de linha; vazio para linha inexistente
+     */
+    public String line(int line) {
+        if (line < 1 || line > lineCount) {
+            return "";
+        }
+        return content.substring(lineStart(line), lineEnd(line));
+    }
+
+    private int lineStart(int line) {
+        return lineStarts[line - 1];
+    }
+
+    private int lineEnd(int line) {
+        int end = rawEnd(line);
+        return end > lineStart(line) && content.charAt(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    private int rawEnd(int line) {
+        return line < lineCount ? lineStarts[line] - 1 : content.length();
+    }
+}
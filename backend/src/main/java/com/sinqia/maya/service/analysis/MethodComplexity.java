@@ -0,0 +1,59 @@
+package com.sinqia.maya.service.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Complexidade ciclomática e cognitiva de um método.
+ *
+ * A lista de um arquivo é gravada em uma única coluna no formato compacto
+ * "nome@linha=ciclomática/cognitiva" separado por ';' (ex.:
+ * "buscar@12=3/2;calcular@40=9/14"), sem tabela extra por método.
+ */
+public record MethodComplexity(
+        String method,
+        int line,
+        int cyclomatic,
+        int cognitive
+) {
+
+    public static String encode(List<MethodComplexity> methods) {
+        StringBuilder encoded = new StringBuilder(methods.size() * 24);
+        for (MethodComplexity method : methods) {
+            if (!encoded.isEmpty()) {
+                encoded.append(';');
+            }
+            encoded.append(method.method()).append('@').append(method.line())
+                   .append('=').append(method.cyclomatic()).append('/').append(method.cognitive());
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Lê o formato de {@link #encode}; entradas inválidas são ignoradas
+     */
+    public static List<MethodComplexity> decode(String encoded) {
+        List<MethodComplexity> methods = new ArrayList<>();
+        if (encoded == null || encoded.isBlank()) {
+            return methods;
+        }
+        for (String entry : encoded.split(";")) {
+            int at = entry.indexOf('@');
+            int equals = entry.indexOf('=', at);
+            int slash = entry.indexOf('/', equals);
+            if (at <= 0 || equals < 0 || slash < 0) {
+                continue;
+            }
+            try {
+                methods.add(new MethodComplexity(
+                        entry.substring(0, at),
+                        Integer.parseInt(entry.substring(at + 1, equals)),
+                        Integer.parseInt(entry.substring(equals + 1, slash)),
+                        Integer.parseInt(entry.substring(slash + 1))));
+            } catch (NumberFormatException e) {
+                // Entrada corrompida: as demais continuam válidas
+            }
+        }
+        return methods;
+    }
+}
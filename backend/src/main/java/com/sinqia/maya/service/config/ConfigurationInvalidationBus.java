@@ -0,0 +1,173 @@
+package com.sinqia.maya.service.config;
+
+import com.sinqia.maya.config.CacheConfiguration;
+import com.sinqia.maya.entity.ConfigurationChange;
+import com.sinqia.maya.repository.ConfigurationChangeRepository;
+import com.sinqia.maya.service.event.ConfigurationChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Barramento de invalidação do cache de configurações entre nós.
+ *
+ * Cada alteração grava uma linha em configuration_changes na mesma transação
+ * da configuração; o id da linha é a versão da alteração. Após o commit o nó
+ * de origem invalida o próprio cache, e os demais nós aplicam a alteração ao
+ * consultar periodicamente as versões novas (consulta por índice, barata).
+ *
+ * Versões de ids alocados antes mas confirmados depois são cobertas por uma
+ * janela de releitura; ids já aplicados são lembrados para não invalidar duas
+ * vezes. Como as versões podem chegar fora de ordem, quem remonta dados a
+ * partir das configurações compara o contador de alterações aplicadas, que
+ * cresce a cada uma delas, e não a maior versão vista.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ConfigurationInvalidationBus {
+
+    private final ConfigurationChangeRepository changeRepository;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${maya.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${maya.config.invalidation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${maya.config.invalidation.lookback:100}")
+    private long lookback;
+
+    @Value("${maya.config.invalidation.retention-hours:24}")
+    private long retentionHours;
+
+    private String nodeId;
+    private final AtomicLong polledVersion = new AtomicLong();
+    private final AtomicLong appliedChanges = new AtomicLong();
+    private final Set<Long> recentlyApplied = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void initialize() {
+        nodeId = configuredNodeId == null || configuredNodeId.isBlank()
+                ? UUID.randomUUID().toString()
+                : configuredNodeId;
+        long latest = changeRepository.findLatestVersion();
+        polledVersion.set(latest);
+        log.info("Invalidação de configurações iniciada no nó {} a partir da versão {}", nodeId, latest);
+    }
+
+    /**
+     * Registra a alteração de uma chave (null para todas) na transação atual.
+     * O cache local é invalidado após o commit.
+     */
+    public long publish(String configKey) {
+        ConfigurationChange change = changeRepository.save(new ConfigurationChange(configKey, nodeId));
+        long version = change.getId();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(configKey, version, false);
+                }
+            });
+        } else {
+            apply(configKey, version, false);
+        }
+        return version;
+    }
+
+    /**
+     * Quantidade de alterações aplicadas neste nó, em qualquer ordem de versão
+     */
+    public long appliedChanges() {
+        return appliedChanges.get();
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Aplica as alterações feitas por outros nós
+     */
+    @Scheduled(fixedDelayString = "${maya.config.invalidation.poll-interval-ms:2000}")
+    public void poll() {
+        long from = Math.max(0L, polledVersion.get() - lookback);
+        long highest = polledVersion.get();
+
+        try {
+            while (true) {
+                List<ConfigurationChange> changes =
+                        changeRepository.findByIdGreaterThanOrderByIdAsc(from, PageRequest.of(0, batchSize));
+                for (ConfigurationChange change : changes) {
+                    if (!nodeId.equals(change.getNodeId())) {
+                        apply(change.getConfigKey(), change.getId(), true);
+                    }
+                    from = change.getId();
+                    highest = Math.max(highest, change.getId());
+                }
+                if (changes.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao consultar alterações de configuração: {}", e.getMessage());
+            return;
+        }
+
+        long watermark = polledVersion.accumulateAndGet(highest, Math::max) - lookback;
+        recentlyApplied.removeIf(version -> version <= watermark);
+    }
+
+    /**
+     * Remove registros antigos, que nenhum nó ativo precisa mais ler
+     */
+    @Scheduled(cron = "${maya.config.invalidation.prune-cron:0 15 * * * *}")
+    public void prune() {
+        int removed = changeRepository.deleteOlderThan(LocalDateTime.now().minusHours(retentionHours));
+        if (removed > 0) {
+            log.debug("{} registros de alteração de configuração removidos", removed);
+        }
+    }
+
+    private void apply(String configKey, long version, boolean remote) {
+        if (!recentlyApplied.add(version)) {
+            return;
+        }
+
+        Cache cache = cacheManager.getCache(CacheConfiguration.CONFIGURATIONS);
+        if (cache != null) {
+            if (configKey == null) {
+                cache.clear();
+            } else {
+                cache.evict(configKey);
+            }
+        }
+        appliedChanges.incrementAndGet();
+
+        if (remote) {
+            log.debug("Configuração {} invalidada pela versão {} de outro nó",
+                    configKey != null ? configKey : "(todas)", version);
+        }
+        eventPublisher.publishEvent(new ConfigurationChangedEvent(configKey, version, remote));
+    }
+}
@@ -0,0 +1,130 @@
+package com.sinqia.maya.service.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fotografia imutável das configurações ativas.
+ *
+ * Os valores são convertidos para inteiro, decimal e booleano uma única vez,
+ * na montagem; as leituras são apenas consultas a mapas imutáveis, sem
+ * bloqueio. Uma alteração gera uma nova fotografia, trocada inteira, então
+ * quem a lê sempre enxerga um conjunto consistente de valores.
+ */
+@Slf4j
+public final class ConfigurationSnapshot {
+
+    private final long version;
+    private final Map<String, String> values;
+    private final Map<String, Integer> ints;
+    private final Map<String, Double> doubles;
+    private final Map<String, Boolean> booleans;
+
+    // Chaves com valor inválido já registradas no log, para avisar uma vez por fotografia
+    private final Set<String> reportedInvalid = ConcurrentHashMap.newKeySet();
+
+    private ConfigurationSnapshot(long version, Map<String, String> values) {
+        Map<String, Integer> parsedInts = new HashMap<>();
+        Map<String, Double> parsedDoubles = new HashMap<>();
+        Map<String, Boolean> parsedBooleans = new HashMap<>();
+
+        values.forEach((key, value) -> {
+            parsedBooleans.put(key, Boolean.parseBoolean(value));
+            try {
+                parsedInts.put(key, Integer.parseInt(value));
+            } catch (NumberFormatException ignored) {
+                // Não é inteiro; tratado como ausente em getInt
+            }
+            try {
+                parsedDoubles.put(key, Double.parseDouble(value));
+            } catch (NumberFormatException ignored) {
+                // Não é decimal; tratado como ausente em getDouble
+            }
+        });
+
+        this.version = version;
+        this.values = Map.copyOf(values);
+        this.ints = Map.copyOf(parsedInts);
+        this.doubles = Map.copyOf(parsedDoubles);
+        this.booleans = Map.copyOf(parsedBooleans);
+    }
+
+    /**
+     * Monta a fotografia a partir dos pares chave/valor ativos.
+     * Chaves sem valor são ignoradas.
+     */
+    public static ConfigurationSnapshot of(long version, Map<String, String> values) {
+        Map<String, String> present = new HashMap<>();
+        values.forEach((key, value) -> {
+            if (key != null && value != null) {
+                present.put(key, value);
+            }
+        });
+        return new ConfigurationSnapshot(version, present);
+    }
+
+    /**
+     * Alterações aplicadas neste nó já refletidas
+     * ({@link ConfigurationInvalidationBus#appliedChanges()} lido antes da carga)
+     */
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    public String getString(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public Integer getInt(String key, Integer defaultValue) {
+        Integer value = ints.get(key);
+        if (value == null) {
+            reportInvalid(key);
+            return defaultValue;
+        }
+        return value;
+    }
+
+    public Double getDouble(String key, Double defaultValue) {
+        Double value = doubles.get(key);
+        if (value == null) {
+            reportInvalid(key);
+            return defaultValue;
+        }
+        return value;
+    }
+
+    public Boolean getBoolean(String key, Boolean defaultValue) {
+        return booleans.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Valores das chaves que começam com o prefixo, indexados pelo restante da chave
+     */
+    public Map<String, String> withPrefix(String prefix) {
+        Map<String, String> matching = new HashMap<>();
+        values.forEach((key, value) -> {
+            if (key.startsWith(prefix) && key.length() > prefix.length()) {
+                matching.put(key.substring(prefix.length()), value);
+            }
+        });
+        return matching;
+    }
+
+    private void reportInvalid(String key) {
+        if (values.containsKey(key) && reportedInvalid.add(key)) {
+            log.warn("Valor de configuração inválido para {}: {}", key, values.get(key));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.sinqia.maya.service.event;
+
+/**
+ * Evento publicado quando uma alteração de configuração é aplicada neste nó,
+ * seja ela local (após o commit) ou recebida de outro nó.
+ */
+public record ConfigurationChangedEvent(
+        String configKey,
+        long version,
+        boolean remote
+) {
+    /**
+     * Indica se a alteração invalida todas as configurações
+     */
+    public boolean affectsAll() {
+        return configKey == null;
+    }
+}
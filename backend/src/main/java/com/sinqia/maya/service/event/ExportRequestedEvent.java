@@ -0,0 +1,10 @@
+package com.sinqia.maya.service.event;
+
+/**
+ * Evento publicado quando uma exportação é registrada e aguarda processamento.
+ */
+public record ExportRequestedEvent(
+        Long exportId,
+        Long reviewId
+) {
+}
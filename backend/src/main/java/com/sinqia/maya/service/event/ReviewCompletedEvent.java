@@ -0,0 +1,38 @@
+package com.sinqia.maya.service.event;
+
+import com.sinqia.maya.entity.AnalysisIssue;
+import com.sinqia.maya.entity.CodeReview;
+
+/**
+ * Evento publicado quando a análise de uma revisão termina (com sucesso ou falha).
+ */
+public record ReviewCompletedEvent(
+        Long reviewId,
+        String repositoryName,
+        String author,
+        CodeReview.ReviewStatus status,
+        Double analysisScore,
+        long durationMs,
+        long connectionLeaks
+) {
+    public static ReviewCompletedEvent of(CodeReview review) {
+        long connectionLeaks = review.getFileAnalyses().stream()
+                .flatMap(analysis -> analysis.getIssues().stream())
+                .filter(issue -> issue.getType() == AnalysisIssue.IssueType.CONNECTION_LEAK)
+                .count();
+
+        return new ReviewCompletedEvent(
+                review.getId(),
+                review.getRepositoryName(),
+                review.getAuthor(),
+                review.getStatus(),
+                review.getAnalysisScore(),
+                review.getAnalysisDurationMs() != null ? review.getAnalysisDurationMs() : 0L,
+                connectionLeaks
+        );
+    }
+
+    public boolean isSuccessful() {
+        return status == CodeReview.ReviewStatus.COMPLETED;
+    }
+}
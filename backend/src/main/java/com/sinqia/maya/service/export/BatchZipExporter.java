@@ -0,0 +1,231 @@
+package com.sinqia.maya.service.export;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sinqia.maya.controller.ReviewExportController;
+import com.sinqia.maya.entity.CodeReview;
+import com.sinqia.maya.repository.CodeReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exportação em lote de várias revisões para um único arquivo ZIP.
+ *
+ * As revisões são renderizadas em paralelo no executor de lote, cada uma em um
+ * arquivo temporário, e copiadas para o ZIP na ordem em que terminam. O número
+ * de renderizações em andamento é limitado, então memória e disco temporário
+ * não crescem com o tamanho do lote. Falhas individuais não interrompem o lote:
+ * são registradas no manifest.json incluído ao final do arquivo.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BatchZipExporter {
+
+    public static final String MANIFEST_ENTRY = "manifest.json";
+
+    private final CodeReviewRepository codeReviewRepository;
+    private final ReviewExportWriter exportWriter;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor batchExportExecutor;
+
+    @Value("${maya.export.directory:${java.io.tmpdir}/maya-exports}")
+    private String exportDirectory;
+
+    @Value("${maya.export.batch-parallelism:4}")
+    private int parallelism;
+
+    /**
+     * Escreve o ZIP com as revisões informadas no stream (não fecha o stream)
+     */
+    public BatchExportReport writeZip(List<Long> reviewIds, ReviewExportController.ExportReviewRequest request,
+                                      OutputStream out) throws IOException {
+        long startTime = System.currentTimeMillis();
+        Path workDirectory = Files.createDirectories(Paths.get(exportDirectory).resolve("batch"));
+
+        CompletionService<BatchItemResult> completion =
+                new ExecutorCompletionService<>(batchExportExecutor.getThreadPoolExecutor());
+        List<Future<BatchItemResult>> inFlight = new ArrayList<>();
+        List<BatchItemResult> results = new ArrayList<>();
+        Iterator<Long> pending = reviewIds.stream().distinct().iterator();
+        // Até duas renderizações por worker: uma em execução e uma pronta para cópia
+        int maxInFlight = Math.max(1, parallelism * 2);
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        try {
+            while (!inFlight.isEmpty() || pending.hasNext()) {
+                while (inFlight.size() < maxInFlight && pending.hasNext()) {
+                    Long reviewId = pending.next();
+                    try {
+                        inFlight.add(completion.submit(() -> render(reviewId, request, workDirectory)));
+                    } catch (RejectedExecutionException e) {
+                        results.add(BatchItemResult.failed(reviewId, "Executor de lote saturado"));
+                    }
+                }
+                if (inFlight.isEmpty()) {
+                    continue;
+                }
+
+                Future<BatchItemResult> done = completion.take();
+                inFlight.remove(done);
+                BatchItemResult result = done.get();
+                if (result.success()) {
+                    copyEntry(zip, result);
+                }
+                results.add(result);
+            }
+
+            BatchExportReport report = BatchExportReport.of(results, System.currentTimeMillis() - startTime);
+            zip.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+            zip.write(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(report));
+            zip.closeEntry();
+            zip.finish();
+
+            log.info("Exportação em lote concluída: {} de {} reviews em {} ms",
+                    report.succeeded(), report.total(), report.durationMs());
+            return report;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(inFlight);
+            throw new InterruptedIOException("Exportação em lote interrompida");
+        } catch (ExecutionException e) {
+            // render() trata as próprias falhas; só chega aqui por erro inesperado
+            abort(inFlight);
+            throw new IOException("Falha inesperada na exportação em lote", e.getCause());
+        } catch (IOException | RuntimeException e) {
+            // Normalmente o cliente desconectou: não adianta continuar renderizando
+            abort(inFlight);
+            throw e;
+        }
+    }
+
+    /**
+     * Renderiza uma revisão em arquivo temporário (executado no pool de lote)
+     */
+    private BatchItemResult render(Long reviewId, ReviewExportController.ExportReviewRequest request,
+                                   Path workDirectory) {
+        Path target = null;
+        try {
+            CodeReview review = codeReviewRepository.findById(reviewId).orElse(null);
+            if (review == null) {
+                return BatchItemResult.failed(reviewId, "Review não encontrado");
+            }
+
+            target = Files.createTempFile(workDirectory, "review-" + reviewId + "-", request.format().getExtension());
+            long size = exportWriter.writeToFile(review, request, target);
+
+            if (Thread.currentThread().isInterrupted()) {
+                deleteQuietly(target);
+                return BatchItemResult.failed(reviewId, "Cancelado");
+            }
+            return new BatchItemResult(reviewId, entryName(review, request), true, size, null, target);
+
+        } catch (Exception e) {
+            log.warn("Erro na exportação em lote do review {}: {}", reviewId, e.getMessage());
+            deleteQuietly(target);
+            return BatchItemResult.failed(reviewId, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private void copyEntry(ZipOutputStream zip, BatchItemResult result) throws IOException {
+        try {
+            zip.putNextEntry(new ZipEntry(result.entryName()));
+            Files.copy(result.file(), zip);
+            zip.closeEntry();
+        } finally {
+            deleteQuietly(result.file());
+        }
+    }
+
+    /**
+     * Cancela as renderizações restantes e remove os temporários já gerados
+     */
+    private void abort(List<Future<BatchItemResult>> inFlight) {
+        for (Future<BatchItemResult> future : inFlight) {
+            if (!future.cancel(true) && future.isDone()) {
+                try {
+                    deleteQuietly(future.get().file());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException | CancellationException e) {
+                    // Nada a remover
+                }
+            }
+        }
+    }
+
+    private String entryName(CodeReview review, ReviewExportController.ExportReviewRequest request) {
+        String repository = review.getRepositoryName() != null
+                ? review.getRepositoryName().replaceAll("[^A-Za-z0-9._-]", "_")
+                : "repository";
+        String sha = review.getCommitSha() != null
+                ? review.getCommitSha().substring(0, Math.min(8, review.getCommitSha().length()))
+                : "unknown";
+        return String.format("review_%d_%s_%s%s", review.getId(), repository, sha, request.format().getExtension());
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Resultado de uma revisão do lote
+     */
+    public record BatchItemResult(
+            Long reviewId,
+            String entryName,
+            boolean success,
+            long fileSize,
+            String errorMessage,
+            @JsonIgnore Path file
+    ) {
+        static BatchItemResult failed(Long reviewId, String errorMessage) {
+            return new BatchItemResult(reviewId, null, false, 0L, errorMessage, null);
+        }
+    }
+
+    /**
+     * Resumo do lote, gravado no manifest.json
+     */
+    public record BatchExportReport(
+            int total,
+            int succeeded,
+            int failed,
+            long durationMs,
+            List<BatchItemResult> items
+    ) {
+        static BatchExportReport of(List<BatchItemResult> items, long durationMs) {
+            int succeeded = (int) items.stream().filter(BatchItemResult::success).count();
+            return new BatchExportReport(items.size(), succeeded, items.size() - succeeded, durationMs, items);
+        }
+    }
+}
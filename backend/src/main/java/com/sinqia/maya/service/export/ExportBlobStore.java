@@ -0,0 +1,215 @@
+package com.sinqia.maya.service.export;
+
+import com.sinqia.maya.entity.ReviewExport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Armazenamento das exportações endereçado por conteúdo.
+ *
+ * Cada arquivo renderizado é guardado em blobs/&lt;hh&gt;/&lt;sha-256&gt;; exportações
+ * com conteúdo idêntico apontam para o mesmo blob. Blobs sem nenhuma
+ * exportação associada são removidos pelo {@link ExportRetentionSweeper}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExportBlobStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ReviewExportWriter exportWriter;
+
+    @Value("${maya.export.directory:${java.io.tmpdir}/maya-exports}")
+    private String exportDirectory;
+
+    /**
+     * Diretório de trabalho para renderizações ainda não armazenadas
+     */
+    public Path workDirectory() throws IOException {
+        return Files.createDirectories(Paths.get(exportDirectory).resolve("tmp"));
+    }
+
+    public Path blobDirectory() {
+        return Paths.get(exportDirectory).resolve("blobs");
+    }
+
+    /**
+     * Move um arquivo renderizado para o armazenamento.
+     * Se já existir um blob com o mesmo conteúdo, o arquivo é descartado.
+     */
+    public StoredBlob store(Path rendered, ReviewExport.ExportFormat format) throws IOException {
+        String hash = sha256(rendered);
+        Path blob = blobPath(hash);
+        long size = Files.size(rendered);
+
+        // Renova a data para o blob não ser tratado como órfão antes de a exportação ser gravada
+        if (touch(blob)) {
+            Files.delete(rendered);
+            log.debug("Conteúdo já armazenado, reaproveitando blob {}", hash);
+            return new StoredBlob(hash, blob, size, false);
+        }
+
+        Files.createDirectories(blob.getParent());
+        try {
+            Files.move(rendered, blob, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Outra renderização idêntica terminou primeiro
+            Files.delete(rendered);
+            return new StoredBlob(hash, blob, size, false);
+        }
+
+        try {
+            exportWriter.writeGzipVariant(blob, format);
+        } catch (IOException e) {
+            // Variante gzip é opcional: uma falha aqui não invalida a exportação
+            log.warn("Não foi possível gerar a variante gzip de {}: {}", blob, e.getMessage());
+        }
+        return new StoredBlob(hash, blob, size, true);
+    }
+
+    /**
+     * Renova um blob existente que será reaproveitado; false se ele não existe mais
+     */
+    public boolean touch(Path blob) {
+        FileTime now = FileTime.fromMillis(System.currentTimeMillis());
+        try {
+            Files.setLastModifiedTime(blob, now);
+            Path gzip = ReviewExportWriter.gzipVariantOf(blob);
+            if (Files.exists(gzip)) {
+                Files.setLastModifiedTime(gzip, now);
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Remove os blobs não referenciados mais antigos que o limite
+     *
+     * @return bytes liberados
+     */
+    public long deleteOrphans(Set<String> referencedHashes, long olderThanMillis) throws IOException {
+        Path root = blobDirectory();
+        if (!Files.isDirectory(root)) {
+            return 0L;
+        }
+
+        long freed = 0L;
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                String name = file.getFileName().toString();
+                String hash = name.endsWith(".gz") ? name.substring(0, name.length() - 3) : name;
+                if (!referencedHashes.contains(hash) && isOlderThan(file, olderThanMillis)) {
+                    freed += deleteQuietly(file);
+                }
+            }
+        }
+        return freed;
+    }
+
+    /**
+     * Remove renderizações interrompidas deixadas no diretório de trabalho
+     */
+    public long deleteStaleWorkFiles(long olderThanMillis) throws IOException {
+        Path work = workDirectory();
+        long freed = 0L;
+        try (Stream<Path> files = Files.list(work)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                if (isOlderThan(file, olderThanMillis)) {
+                    freed += deleteQuietly(file);
+                }
+            }
+        }
+        return freed;
+    }
+
+    /**
+     * Indica se o caminho pertence ao armazenamento (e pode ser compartilhado)
+     */
+    public boolean isBlob(Path path) {
+        return path.toAbsolutePath().normalize().startsWith(blobDirectory().toAbsolutePath().normalize());
+    }
+
+    /**
+     * Chave que identifica uma renderização: mesma chave, mesmo conteúdo
+     */
+    public static String renderKey(Object... parts) {
+        MessageDigest digest = newDigest();
+        for (Object part : parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Path blobPath(String hash) {
+        return blobDirectory().resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private String sha256(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private boolean isOlderThan(Path file, long olderThanMillis) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis() < olderThanMillis;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private long deleteQuietly(Path file) {
+        try {
+            long size = Files.size(file);
+            return Files.deleteIfExists(file) ? size : 0L;
+        } catch (IOException e) {
+            log.warn("Não foi possível remover {}: {}", file, e.getMessage());
+            return 0L;
+        }
+    }
+
+    /**
+     * Blob armazenado
+     */
+    public record StoredBlob(
+            String hash,
+            Path path,
+            long size,
+            boolean created
+    ) {}
+}
@@ -0,0 +1,215 @@
+package com.sinqia.maya.service.export;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Envio de arquivos exportados direto do disco para a resposta HTTP.
+ *
+ * Suporta requisições condicionais (ETag / If-None-Match), faixas de bytes
+ * (Range / If-Range, uma faixa por requisição) e a variante .gz gerada na
+ * exportação quando o cliente aceita gzip. Quando o Tomcat oferece sendfile o
+ * envio é delegado ao conector, sem cópia pela aplicação. Caso contrário o
+ * arquivo é copiado com FileChannel.transferTo para o OutputStream da
+ * resposta; como o destino não é um canal de arquivo ou socket, essa cópia
+ * passa por um buffer intermediário (não é zero-copy).
+ */
+@Component
+@Slf4j
+public class ExportFileSender {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    /**
+     * Envia o arquivo atendendo aos cabeçalhos da requisição
+     *
+     * @return true se a resposta vai até o último byte do arquivo (conta como download); um
+     *         download retomado em faixas conta uma vez, na faixa final. Na cópia o arquivo já
+     *         foi escrito na resposta; com sendfile o Tomcat só o envia depois que o controller
+     *         retorna e não informa se o cliente recebeu tudo, então o que se conta é a tentativa
+     */
+    public boolean send(ExportFile file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean gzip = file.gzipPath() != null && acceptsGzip(request) && request.getHeader(HttpHeaders.RANGE) == null;
+        Path path = gzip ? file.gzipPath() : file.path();
+        long length = Files.size(path);
+        String eTag = gzip ? file.eTag().substring(0, file.eTag().length() - 1) + "-gz\"" : file.eTag();
+
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, file.lastModified());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (file.gzipPath() != null) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+
+        response.setContentType(file.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.fileName() + "\"");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = rangeToHonor(request, eTag);
+        if (range != null) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return false;
+            }
+            start = bounds[0];
+            end = bounds[1];
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod())) {
+            return false;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+        } else {
+            transfer(path, start, count, response.getOutputStream());
+        }
+        return end == length - 1;
+    }
+
+    /**
+     * Cópia em blocos para o stream da resposta (buffer intermediário do Channels.newChannel)
+     */
+    private void transfer(Path path, long start, long count, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, Math.min(remaining, TRANSFER_CHUNK), target);
+                if (sent <= 0) {
+                    throw new IOException("Arquivo truncado durante o envio: " + path);
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Range a atender, ou null se ausente, com várias faixas, ou invalidado por If-Range
+     */
+    private String rangeToHonor(HttpServletRequest request, String eTag) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null || !range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.trim().equals(eTag)) {
+            return null;
+        }
+        return range.substring("bytes=".length()).trim();
+    }
+
+    /**
+     * Converte "a-b", "a-" ou "-n" em limites inclusivos; null se não satisfazível
+     */
+    private long[] parseRange(String range, long length) {
+        int dash = range.indexOf('-');
+        if (dash < 0 || length == 0) {
+            return null;
+        }
+        try {
+            String first = range.substring(0, dash).trim();
+            String last = range.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            return start <= end && start < length ? new long[]{start, end} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Comparação fraca de If-None-Match
+     */
+    private boolean matchesAny(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(stripWeak(eTag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    /**
+     * Arquivo exportado pronto para envio
+     */
+    public record ExportFile(
+            Path path,
+            Path gzipPath,
+            String contentType,
+            String fileName,
+            String eTag,
+            long lastModified
+    ) {}
+}
@@ -0,0 +1,307 @@
+package com.sinqia.maya.service.export;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sinqia.maya.controller.ReviewExportController;
+import com.sinqia.maya.entity.CodeReview;
+import com.sinqia.maya.entity.ReviewExport;
+import com.sinqia.maya.repository.FileAnalysisRepository;
+import com.sinqia.maya.repository.ReviewExportRepository;
+import com.sinqia.maya.service.alert.AlertEngine;
+import com.sinqia.maya.service.event.ExportRequestedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila de geração de exportações em segundo plano.
+ *
+ * Cada exportação registrada é enviada ao executor dedicado após o commit da
+ * transação que a criou. O job grava status e progresso na própria entidade,
+ * para consulta por polling, e notifica os clientes inscritos via SSE.
+ *
+ * Antes de gerar, o job reserva a exportação com um UPDATE condicional e uma
+ * concessão renovada junto com o progresso; só um nó gera cada exportação.
+ * Exportações pendentes ou com a concessão vencida (nó parado no meio) são
+ * reenfileiradas na inicialização.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExportJobRunner {
+
+    private static final String QUEUE_NAME = "export";
+
+    private final ReviewExportRepository exportRepository;
+    private final FileAnalysisRepository fileAnalysisRepository;
+    private final ReviewExportWriter exportWriter;
+    private final ExportBlobStore blobStore;
+    private final ObjectMapper objectMapper;
+    private final AlertEngine alertEngine;
+    private final ThreadPoolTaskExecutor exportTaskExecutor;
+
+    @Value("${maya.export.progress-step:5}")
+    private int progressStep;
+
+    @Value("${maya.export.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${maya.export.subscribe-timeout-ms:300000}")
+    private long subscribeTimeoutMs;
+
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerQueue() {
+        alertEngine.registerQueue(QUEUE_NAME, () -> exportTaskExecutor.getThreadPoolExecutor().getQueue().size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExportRequested(ExportRequestedEvent event) {
+        submit(event.exportId(), true);
+    }
+
+    /**
+     * Reenfileira exportações que não terminaram antes da última parada. As
+     * que outro nó está gerando (concessão em dia) ficam de fora, e a reserva
+     * em {@link #run} resolve a disputa entre nós que sobem juntos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingExports() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ReviewExport> pending = exportRepository.findByStatusIn(
+                        EnumSet.of(ReviewExport.ExportStatus.PENDING, ReviewExport.ExportStatus.PROCESSING))
+                .stream()
+                .filter(export -> export.getStatus() == ReviewExport.ExportStatus.PENDING
+                        || export.getLeaseExpiresAt() == null || export.getLeaseExpiresAt().isBefore(now))
+                .toList();
+        if (!pending.isEmpty()) {
+            log.info("Reenfileirando {} exportações pendentes", pending.size());
+            pending.forEach(export -> submit(export.getId(), false));
+        }
+    }
+
+    /**
+     * Inscreve um cliente para receber o progresso de uma exportação
+     */
+    public SseEmitter subscribe(Long exportId) {
+        SseEmitter emitter = new SseEmitter(subscribeTimeoutMs);
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(exportId, id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> unsubscribe(exportId, emitter));
+        emitter.onTimeout(() -> unsubscribe(exportId, emitter));
+        emitter.onError(error -> unsubscribe(exportId, emitter));
+
+        // Lido após a inscrição para não perder uma conclusão concorrente
+        ReviewExport export = exportRepository.findById(exportId).orElse(null);
+        if (export == null) {
+            unsubscribe(exportId, emitter);
+            throw new IllegalArgumentException("Exportação não encontrada");
+        }
+
+        if (isFinished(export.getStatus())) {
+            send(exportId, emitter, "status", ReviewExportController.ExportStatusResponse.of(export));
+            emitter.complete();
+        } else {
+            send(exportId, emitter, "progress",
+                    new ExportProgress(exportId, export.getStatus(), export.getProgress()));
+        }
+        return emitter;
+    }
+
+    /**
+     * @param failWhenRejected falha a exportação com a fila cheia; sem isso ela
+     *                         continua pendente (reenfileiramento na inicialização)
+     */
+    private void submit(Long exportId, boolean failWhenRejected) {
+        try {
+            exportTaskExecutor.execute(() -> run(exportId));
+        } catch (TaskRejectedException e) {
+            if (!failWhenRejected) {
+                log.warn("Fila de exportação cheia, exportação {} continua pendente", exportId);
+                return;
+            }
+            log.warn("Fila de exportação cheia, exportação {} rejeitada", exportId);
+            finish(exportId, null, null, "Fila de exportação cheia, tente novamente mais tarde");
+        }
+    }
+
+    private void run(Long exportId) {
+        boolean claimed = false;
+        try {
+            ReviewExport export = exportRepository.findWithReviewById(exportId).orElse(null);
+            if (export == null || isFinished(export.getStatus())) {
+                return;
+            }
+            if (exportRepository.claim(exportId, LocalDateTime.now(), leaseExpiration()) == 0) {
+                log.debug("Exportação {} já reservada por outro nó", exportId);
+                return;
+            }
+            claimed = true;
+
+            CodeReview review = export.getCodeReview();
+            // A revisão muda de versão (updatedAt) a cada reanálise, invalidando a chave
+            String renderKey = ExportBlobStore.renderKey(review.getId(), review.getUpdatedAt(),
+                    export.getExportFormat(), export.getExportOptions());
+
+            ExportBlobStore.StoredBlob reused = findReusableBlob(renderKey);
+            if (reused != null) {
+                log.info("Exportação {} reaproveita renderização idêntica ({})", exportId, reused.hash());
+                finish(exportId, reused, renderKey, null);
+                return;
+            }
+
+            log.info("Gerando exportação {} ({})", exportId, export.getExportFormat());
+            publishProgress(exportId, ReviewExport.ExportStatus.PROCESSING, 0);
+
+            long totalFiles = fileAnalysisRepository.countByCodeReviewId(review.getId());
+            AtomicInteger lastReported = new AtomicInteger();
+            AtomicLong nextRenewal = new AtomicLong(System.currentTimeMillis() + leaseMs / 2);
+
+            Path rendered = Files.createTempFile(blobStore.workDirectory(), "export-" + exportId + "-",
+                    export.getExportFormat().getExtension());
+            // O progresso é notificado fora de transação, entre as páginas lidas pelo writer
+            exportWriter.writeToFile(review, readRequest(export), rendered, written -> {
+                // Limita as gravações de progresso a um passo mínimo, renovando a concessão antes do vencimento
+                int progress = totalFiles > 0 ? (int) Math.min(99, written * 100 / totalFiles) : 0;
+                long now = System.currentTimeMillis();
+                if (progress - lastReported.get() >= progressStep || now >= nextRenewal.get()) {
+                    lastReported.set(progress);
+                    nextRenewal.set(now + leaseMs / 2);
+                    exportRepository.updateProgress(exportId, progress, leaseExpiration());
+                    publishProgress(exportId, ReviewExport.ExportStatus.PROCESSING, progress);
+                }
+            });
+
+            finish(exportId, blobStore.store(rendered, export.getExportFormat()), renderKey, null);
+
+        } catch (Exception e) {
+            log.error("Erro na exportação {}: {}", exportId, e.getMessage());
+            if (claimed) {
+                finish(exportId, null, null, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Grava o resultado final e notifica os inscritos
+     */
+    private void finish(Long exportId, ExportBlobStore.StoredBlob blob, String renderKey, String errorMessage) {
+        ReviewExport export = exportRepository.findById(exportId).orElse(null);
+        if (export == null) {
+            // Exportação removida durante o processamento; um blob órfão é recolhido pela limpeza
+            return;
+        }
+
+        if (errorMessage == null) {
+            export.setFilePath(blob.path().toString());
+            export.setFileSize(blob.size());
+            export.setContentHash(blob.hash());
+            export.setRenderKey(renderKey);
+            export.setStatus(ReviewExport.ExportStatus.COMPLETED);
+            export.setProgress(100);
+            export.setExportedAt(LocalDateTime.now());
+            log.info("Exportação concluída: {} -> {}", exportId, export.getFileName());
+        } else {
+            export.setStatus(ReviewExport.ExportStatus.FAILED);
+            export.setErrorMessage(errorMessage);
+        }
+        export.setLeaseExpiresAt(null);
+        export = exportRepository.save(export);
+
+        List<SseEmitter> emitters = subscribers.remove(exportId);
+        if (emitters != null) {
+            ReviewExportController.ExportStatusResponse status = ReviewExportController.ExportStatusResponse.of(export);
+            for (SseEmitter emitter : emitters) {
+                send(exportId, emitter, "status", status);
+                emitter.complete();
+            }
+        }
+    }
+
+    private ReviewExportController.ExportReviewRequest readRequest(ReviewExport export) throws JsonProcessingException {
+        if (export.getExportOptions() == null) {
+            return new ReviewExportController.ExportReviewRequest(
+                    export.getExportFormat(), true, true, true, true, Map.of());
+        }
+        return objectMapper.readValue(export.getExportOptions(), ReviewExportController.ExportReviewRequest.class);
+    }
+
+    private void publishProgress(Long exportId, ReviewExport.ExportStatus status, int progress) {
+        List<SseEmitter> emitters = subscribers.get(exportId);
+        if (emitters != null) {
+            ExportProgress event = new ExportProgress(exportId, status, progress);
+            emitters.forEach(emitter -> send(exportId, emitter, "progress", event));
+        }
+    }
+
+    private void send(Long exportId, SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Cliente da exportação {} desconectado: {}", exportId, e.getMessage());
+            unsubscribe(exportId, emitter);
+        }
+    }
+
+    private void unsubscribe(Long exportId, SseEmitter emitter) {
+        subscribers.computeIfPresent(exportId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private LocalDateTime leaseExpiration() {
+        return LocalDateTime.now().plus(Duration.ofMillis(leaseMs));
+    }
+
+    private boolean isFinished(ReviewExport.ExportStatus status) {
+        return status == ReviewExport.ExportStatus.COMPLETED
+                || status == ReviewExport.ExportStatus.FAILED
+                || status == ReviewExport.ExportStatus.EXPIRED;
+    }
+
+    /**
+     * Blob de uma exportação anterior com a mesma chave de renderização, se ainda existir
+     */
+    private ExportBlobStore.StoredBlob findReusableBlob(String renderKey) {
+        return exportRepository
+                .findFirstByRenderKeyAndStatusAndContentHashNotNullOrderByExportedAtDesc(
+                        renderKey, ReviewExport.ExportStatus.COMPLETED)
+                .filter(previous -> blobStore.touch(Paths.get(previous.getFilePath())))
+                .map(previous -> new ExportBlobStore.StoredBlob(previous.getContentHash(),
+                        Paths.get(previous.getFilePath()), previous.getFileSize(), false))
+                .orElse(null);
+    }
+
+    /**
+     * Notificação de progresso enviada aos inscritos
+     */
+    public record ExportProgress(
+            Long exportId,
+            ReviewExport.ExportStatus status,
+            Integer progress
+    ) {}
+}
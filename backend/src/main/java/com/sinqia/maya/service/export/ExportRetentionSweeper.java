@@ -0,0 +1,85 @@
+package com.sinqia.maya.service.export;
+
+import com.sinqia.maya.repository.ReviewExportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Limpeza periódica das exportações.
+ *
+ * Remove em lote as exportações vencidas (maya.export.retention-days), os
+ * blobs que deixaram de ser referenciados e renderizações interrompidas.
+ * Arquivos recentes são preservados pelo período de carência, para não
+ * competir com uma exportação que acabou de gravar ou reaproveitar um blob.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExportRetentionSweeper {
+
+    private final ReviewExportRepository exportRepository;
+    private final ExportBlobStore blobStore;
+
+    @Value("${maya.export.orphan-grace-minutes:60}")
+    private long orphanGraceMinutes;
+
+    @Scheduled(initialDelayString = "${maya.export.sweep-initial-delay-ms:300000}",
+               fixedDelayString = "${maya.export.sweep-interval-ms:3600000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        long graceLimit = System.currentTimeMillis() - Duration.ofMinutes(orphanGraceMinutes).toMillis();
+
+        try {
+            long freed = deleteLegacyFiles(exportRepository.findExpiredLegacyFilePaths(now));
+            int expired = exportRepository.deleteExpired(now);
+
+            Set<String> referenced = new HashSet<>(exportRepository.findReferencedContentHashes());
+            freed += blobStore.deleteOrphans(referenced, graceLimit);
+            freed += blobStore.deleteStaleWorkFiles(graceLimit);
+
+            if (expired > 0 || freed > 0) {
+                log.info("Limpeza de exportações: {} exportações vencidas removidas, {} KB liberados",
+                        expired, freed / 1024);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Erro na limpeza de exportações: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Arquivos gravados fora do armazenamento por conteúdo não são compartilhados
+     */
+    private long deleteLegacyFiles(List<String> filePaths) {
+        long freed = 0L;
+        for (String filePath : filePaths) {
+            Path file = Paths.get(filePath);
+            if (blobStore.isBlob(file)) {
+                continue;
+            }
+            for (Path candidate : List.of(file, ReviewExportWriter.gzipVariantOf(file))) {
+                try {
+                    long size = Files.exists(candidate) ? Files.size(candidate) : 0L;
+                    if (Files.deleteIfExists(candidate)) {
+                        freed += size;
+                    }
+                } catch (IOException e) {
+                    log.warn("Não foi possível remover {}: {}", candidate, e.getMessage());
+                }
+            }
+        }
+        return freed;
+    }
+}
@@ -0,0 +1,465 @@
+package com.sinqia.maya.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sinqia.maya.controller.ReviewExportController;
+import com.sinqia.maya.entity.AnalysisIssue;
+import com.sinqia.maya.entity.CodeReview;
+import com.sinqia.maya.entity.FileAnalysis;
+import com.sinqia.maya.entity.ReviewExport;
+import com.sinqia.maya.repository.AnalysisIssueRepository;
+import com.sinqia.maya.repository.FileAnalysisRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Escreve exportações de review diretamente em disco, em streaming.
+ *
+ * As análises de arquivo são lidas do banco em páginas (paginação por chave)
+ * com os issues de cada página em uma única consulta; cada página é escrita
+ * e desanexada do contexto de persistência antes da próxima. O consumo de
+ * memória depende do tamanho da página, não do tamanho do review.
+ *
+ * Na escrita em arquivo cada página é lida em uma transação somente leitura
+ * própria: nenhuma conexão fica presa enquanto o arquivo é escrito, e o
+ * progresso é notificado fora de transação.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ReviewExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Set<ReviewExport.ExportFormat> COMPRESSIBLE_FORMATS = EnumSet.of(
+            ReviewExport.ExportFormat.MARKDOWN,
+            ReviewExport.ExportFormat.HTML,
+            ReviewExport.ExportFormat.JSON,
+            ReviewExport.ExportFormat.CSV);
+
+    private final FileAnalysisRepository fileAnalysisRepository;
+    private final AnalysisIssueRepository analysisIssueRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${maya.performance.batch-size:50}")
+    private int pageSize;
+
+    @Value("${maya.export.precompress-min-bytes:1024}")
+    private long precompressMinBytes;
+
+    /**
+     * Escreve a exportação no caminho informado.
+     * O conteúdo vai para um arquivo temporário ao lado e só é movido ao final,
+     * evitando que um download encontre um arquivo pela metade.
+     */
+    public long writeToFile(CodeReview review, ReviewExportController.ExportReviewRequest request,
+                            Path target) throws IOException {
+        return writeToFile(review, request, target, written -> { });
+    }
+
+    /**
+     * Escreve a exportação no caminho informado, notificando a quantidade de
+     * arquivos já escritos ao final de cada página
+     */
+    public long writeToFile(CodeReview review, ReviewExportController.ExportReviewRequest request,
+                            Path target, LongConsumer progress) throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+
+        try (OutputStream out = Files.newOutputStream(partial)) {
+            write(review, request, out, progress);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return Files.size(target);
+    }
+
+    /**
+     * Gera a variante .gz de um arquivo exportado, servida a clientes que aceitam gzip.
+     * Só é mantida para formatos textuais e quando de fato reduz o tamanho.
+     *
+     * @return caminho da variante, ou null se não foi gerada
+     */
+    public Path writeGzipVariant(Path file, ReviewExport.ExportFormat format) throws IOException {
+        if (!COMPRESSIBLE_FORMATS.contains(format) || Files.size(file) < precompressMinBytes) {
+            return null;
+        }
+
+        Path gzip = gzipVariantOf(file);
+        Path partial = gzip.resolveSibling(gzip.getFileName() + ".part");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial), BUFFER_SIZE)) {
+            Files.copy(file, out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+
+        if (Files.size(partial) >= Files.size(file)) {
+            Files.delete(partial);
+            return null;
+        }
+        Files.move(partial, gzip, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return gzip;
+    }
+
+    /**
+     * Caminho da variante .gz de um arquivo exportado
+     */
+    public static Path gzipVariantOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".gz");
+    }
+
+    /**
+     * Escreve a exportação no stream informado (não fecha o stream)
+     */
+    @Transactional(readOnly = true)
+    public void write(CodeReview review, ReviewExportController.ExportReviewRequest request,
+                      OutputStream out) throws IOException {
+        write(review, request, out, written -> { });
+    }
+
+    /**
+     * Escreve a exportação no stream informado, notificando o progresso por página
+     */
+    @Transactional(readOnly = true)
+    public void write(CodeReview review, ReviewExportController.ExportReviewRequest request,
+                      OutputStream out, LongConsumer progress) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        ExportSink sink = createSink(request.format(), writer);
+
+        sink.begin(review, request);
+        if (sink.needsFiles(request)) {
+            walkFiles(review.getId(), sink, progress);
+        }
+        sink.end(review, request);
+        writer.flush();
+    }
+
+    private ExportSink createSink(ReviewExport.ExportFormat format, Writer writer) throws IOException {
+        return switch (format) {
+            case MARKDOWN -> new MarkdownSink(writer);
+            case CSV -> new CsvSink(writer);
+            case JSON -> new JsonSink(objectMapper.getFactory().createGenerator(writer));
+            case HTML -> new HtmlSink(writer);
+            case PDF -> new PlaceholderSink(writer, "pdf-content-placeholder"); // TODO: Implementar geração de PDF
+            case EXCEL -> new PlaceholderSink(writer, "excel-content-placeholder"); // TODO: Implementar geração de Excel
+        };
+    }
+
+    /**
+     * Percorre as análises da revisão página a página
+     */
+    private void walkFiles(Long reviewId, ExportSink sink, LongConsumer progress) throws IOException {
+        long afterId = 0L;
+        long written = 0L;
+        PageRequest page = PageRequest.of(0, pageSize);
+        // Participa da transação do chamador, se houver (escrita direta no stream da resposta)
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        while (true) {
+            long after = afterId;
+            FilePage filePage = transaction.execute(status -> readPage(reviewId, after, page));
+            List<FileAnalysis> files = filePage.files();
+            if (files.isEmpty()) {
+                return;
+            }
+
+            for (FileAnalysis file : files) {
+                sink.file(file, filePage.issuesByFile().getOrDefault(file.getId(), List.of()));
+            }
+
+            written += files.size();
+            progress.accept(written);
+
+            afterId = files.get(files.size() - 1).getId();
+            if (files.size() < pageSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lê uma página de análises com os seus issues, já desanexados
+     */
+    private FilePage readPage(Long reviewId, long afterId, PageRequest page) {
+        List<FileAnalysis> files = fileAnalysisRepository.findPageByCodeReviewId(reviewId, afterId, page);
+        Map<Long, List<AnalysisIssue>> issuesByFile = new LinkedHashMap<>();
+        if (files.isEmpty()) {
+            return new FilePage(files, issuesByFile);
+        }
+
+        List<Long> ids = files.stream().map(FileAnalysis::getId).toList();
+        for (AnalysisIssue issue : analysisIssueRepository.findByFileAnalysisIds(ids)) {
+            issuesByFile.computeIfAbsent(issue.getFileAnalysis().getId(), id -> new ArrayList<>()).add(issue);
+            entityManager.detach(issue);
+        }
+        files.forEach(entityManager::detach);
+        return new FilePage(files, issuesByFile);
+    }
+
+    private record FilePage(List<FileAnalysis> files, Map<Long, List<AnalysisIssue>> issuesByFile) {}
+
+    /**
+     * Destino de um formato de exportação
+     */
+    private interface ExportSink {
+
+        void begin(CodeReview review, ReviewExportController.ExportReviewRequest request) throws IOException;
+
+        void file(FileAnalysis file, List<AnalysisIssue> issues) throws IOException;
+
+        void end(CodeReview review, ReviewExportController.ExportReviewRequest request) throws IOException;
+
+        default boolean needsFiles(ReviewExportController.ExportReviewRequest request) {
+            return request.includeAnalysisDetails();
+        }
+    }
+
+    private static final class MarkdownSink implements ExportSink {
+
+        private final Writer out;
+        private boolean sectionStarted;
+
+        MarkdownSink(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin(CodeReview review, ReviewExportController.ExportReviewRequest request) throws IOException {
+            out.write("# Code Review Report\n\n");
+            out.write("**Repository:** " + review.getRepositoryName() + "\n");
+            out.write("**Commit:** " + review.getCommitSha() + "\n");
+            out.write("**Author:** " + review.getAuthor() + "\n");
+            out.write("**Date:** " + review.getCreatedAt() + "\n\n");
+
+            out.write("## Summary\n\n");
+            out.write("- **Quality Score:** " + review.getAnalysisScore() + "/100\n");
+            out.write("- **Critical Issues:** " + review.getCriticalIssues() + "\n");
+            out.write("- **Files Analyzed:** " + review.getTotalFiles() + "\n\n");
+        }
+
+        @Override
+        public void file(FileAnalysis file, List<AnalysisIssue> issues) throws IOException {
+            if (!sectionStarted) {
+                out.write("## File Analysis\n\n");
+                sectionStarted = true;
+            }
+            out.write("### " + file.getFilePath() + "\n\n");
+            for (AnalysisIssue issue : issues) {
+                out.write("- **" + issue.getSeverity() + ":** " + issue.getDescription() + "\n");
+            }
+            out.write("\n");
+        }
+
+        @Override
+        public void end(CodeReview review, ReviewExportController.ExportReviewRequest request) {
+            // Markdown não possui rodapé
+        }
+    }
+
+    private static final class CsvSink implements ExportSink {
+
+        private final Writer out;
+
+        CsvSink(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public boolean needsFiles(ReviewExportController.ExportReviewRequest request) {
+            return true;
+        }
+
+        @Override
+        public void begin(CodeReview review, ReviewExportController.ExportReviewRequest request) throws IOException {
+            out.write("File,Issue Type,Severity,Description,Line\n");
+        }
+
+        @Override
+        public void file(FileAnalysis file, List<AnalysisIssue> issues) throws IOException {
+            for (AnalysisIssue issue : issues) {
+                out.write(escape(file.getFilePath()));
+                out.write(',');
+                out.write(String.valueOf(issue.getType()));
+                out.write(',');
+                out.write(String.valueOf(issue.getSeverity()));
+                out.write(',');
+                out.write(escape(issue.getDescription()));
+                out.write(',');
+                out.write(issue.getLineNumber() != null ? issue.getLineNumber().toString() : "");
+                out.write('\n');
+            }
+        }
+
+        @Override
+        public void end(CodeReview review, ReviewExportController.ExportReviewRequest request) {
+            // CSV não possui rodapé
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+    }
+
+    private static final class JsonSink implements ExportSink {
+
+        private final JsonGenerator json;
+
+        JsonSink(JsonGenerator json) {
+            this.json = json;
+        }
+
+        @Override
+        public void begin(CodeReview review, ReviewExportController.ExportReviewRequest request) throws IOException {
+            json.writeStartObject();
+            json.writeObjectFieldStart("review");
+            json.writeObjectField("id", review.getId());
+            json.writeStringField("repository", review.getRepositoryName());
+            json.writeStringField("commitSha", review.getCommitSha());
+            json.writeStringField("author", review.getAuthor());
+            json.writeStringField("createdAt", String.valueOf(review.getCreatedAt()));
+            json.writeObjectField("analysisScore", review.getAnalysisScore());
+            json.writeObjectField("criticalIssues", review.getCriticalIssues());
+            json.writeObjectField("totalFiles", review.getTotalFiles());
+            if (request.includeRecommendations()) {
+                json.writeStringField("summary", review.getSummary());
+                json.writeStringField("recommendations", review.getRecommendations());
+            }
+            json.writeEndObject();
+            json.writeArrayFieldStart("files");
+        }
+
+        @Override
+        public void file(FileAnalysis file, List<AnalysisIssue> issues) throws IOException {
+            json.writeStartObject();
+            json.writeStringField("path", file.getFilePath());
+            json.writeStringField("language", file.getLanguage());
+            json.writeObjectField("lineCount", file.getLineCount());
+            json.writeObjectField("score", file.getScore());
+            json.writeArrayFieldStart("issues");
+            for (AnalysisIssue issue : issues) {
+                json.writeStartObject();
+                json.writeStringField("type", String.valueOf(issue.getType()));
+                json.writeStringField("severity", String.valueOf(issue.getSeverity()));
+                json.writeStringField("title", issue.getTitle());
+                json.writeStringField("description", issue.getDescription());
+                json.writeObjectField("line", issue.getLineNumber());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+
+        @Override
+        public void end(CodeReview review, ReviewExportController.ExportReviewRequest request) throws IOException {
+            json.writeEndArray();
+            json.writeEndObject();
+            json.flush();
+        }
+    }
+
+    private static final class HtmlSink implements ExportSink {
+
+        private final Writer out;
+
+        HtmlSink(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin(CodeReview review, ReviewExportController.ExportReviewRequest request) throws IOException {
+            out.write("<html><head><meta charset=\"UTF-8\"><title>Code Review Report</title></head><body>\n");
+            out.write("<h1>Code Review Report</h1>\n");
+            out.write("<p><b>Repository:</b> " + escape(review.getRepositoryName()) + "<br>");
+            out.write("<b>Commit:</b> " + escape(review.getCommitSha()) + "<br>");
+            out.write("<b>Author:</b> " + escape(review.getAuthor()) + "<br>");
+            out.write("<b>Quality Score:</b> " + review.getAnalysisScore() + "/100</p>\n");
+        }
+
+        @Override
+        public void file(FileAnalysis file, List<AnalysisIssue> issues) throws IOException {
+            out.write("<h3>" + escape(file.getFilePath()) + "</h3>\n<ul>\n");
+            for (AnalysisIssue issue : issues) {
+                out.write("<li><b>" + issue.getSeverity() + ":</b> " + escape(issue.getDescription()) + "</li>\n");
+            }
+            out.write("</ul>\n");
+        }
+
+        @Override
+        public void end(CodeReview review, ReviewExportController.ExportReviewRequest request) throws IOException {
+            out.write("</body></html>\n");
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+        }
+    }
+
+    private static final class PlaceholderSink implements ExportSink {
+
+        private final Writer out;
+        private final String content;
+
+        PlaceholderSink(Writer out, String content) {
+            this.out = out;
+            this.content = content;
+        }
+
+        @Override
+        public boolean needsFiles(ReviewExportController.ExportReviewRequest request) {
+            return false;
+        }
+
+        @Override
+        public void begin(CodeReview review, ReviewExportController.ExportReviewRequest request) throws IOException {
+            out.write(content);
+        }
+
+        @Override
+        public void file(FileAnalysis file, List<AnalysisIssue> issues) {
+            // Sem conteúdo por arquivo
+        }
+
+        @Override
+        public void end(CodeReview review, ReviewExportController.ExportReviewRequest request) {
+            // Sem rodapé
+        }
+    }
+}
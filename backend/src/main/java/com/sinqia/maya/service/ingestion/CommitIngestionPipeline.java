@@ -0,0 +1,409 @@
+package com.sinqia.maya.service.ingestion;
+
+import com.sinqia.maya.entity.CodeReview;
+import com.sinqia.maya.entity.FileAnalysis;
+import com.sinqia.maya.service.MayaAnalysisService;
+import com.sinqia.maya.service.SinqiaAiService;
+import com.sinqia.maya.service.TfsService;
+import com.sinqia.maya.service.alert.AlertEngine;
+import com.sinqia.maya.service.metrics.PipelineMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Ingestão de commits do TFS em etapas.
+ *
+ * Os dados e os arquivos alterados do commit são buscados no envio, que
+ * recusa commits inexistentes ou sem arquivos Java e grava a revisão pendente
+ * antes de enfileirá-la. Depois: commits (início da revisão) -> conteúdos ->
+ * análise estática -> LLM -> gravação. Cada etapa tem fila limitada e
+ * workers próprios: chamadas lentas ao LLM não seguram a análise estática de
+ * outros arquivos, e quando uma fila enche a etapa anterior espera em vez de
+ * acumular memória. A gravação é a última etapa, com um único worker que
+ * grava as análises em lotes; a revisão é concluída quando o último arquivo
+ * dela é gravado.
+ *
+ * A etapa de LLM só recebe arquivos com maya.ingestion.llm.enabled=true;
+ * caso contrário a análise estática segue direto para a gravação.
+ *
+ * Arquivo que falha em qualquer etapa conta como não analisado, sem segurar a
+ * revisão. Revisões ainda abertas no encerramento são marcadas como falhas.
+ *
+ * Cada revisão aberta tem uma concessão renovada periodicamente pelo nó que a
+ * processa; qualquer nó marca como falhas as revisões cuja concessão venceu
+ * (nó parado sem encerramento limpo). Revisões de outros nós ativos e análises
+ * síncronas, sem concessão, não são tocadas.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CommitIngestionPipeline {
+
+    private final TfsService tfsService;
+    private final MayaAnalysisService mayaAnalysisService;
+    private final SinqiaAiService sinqiaAiService;
+    private final PipelineMetrics pipelineMetrics;
+    private final AlertEngine alertEngine;
+
+    @Value("${maya.ai.model:gpt-4}")
+    private String llmModel;
+
+    @Value("${maya.ingestion.llm.enabled:false}")
+    private boolean llmEnabled;
+
+    @Value("${maya.ingestion.submit-timeout-ms:2000}")
+    private long submitTimeoutMs;
+
+    @Value("${maya.ingestion.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${maya.ingestion.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${maya.ingestion.commits.workers:2}")
+    private int commitWorkers;
+
+    @Value("${maya.ingestion.commits.queue-capacity:100}")
+    private int commitCapacity;
+
+    @Value("${maya.ingestion.contents.workers:8}")
+    private int contentWorkers;
+
+    @Value("${maya.ingestion.contents.queue-capacity:200}")
+    private int contentCapacity;
+
+    @Value("${maya.ingestion.analysis.workers:2}")
+    private int analysisWorkers;
+
+    @Value("${maya.ingestion.analysis.queue-capacity:200}")
+    private int analysisCapacity;
+
+    @Value("${maya.ingestion.llm.workers:4}")
+    private int llmWorkers;
+
+    @Value("${maya.ingestion.llm.queue-capacity:50}")
+    private int llmCapacity;
+
+    @Value("${maya.ingestion.persistence.queue-capacity:500}")
+    private int persistenceCapacity;
+
+    @Value("${maya.ingestion.persistence.batch-size:50}")
+    private int persistenceBatchSize;
+
+    private IngestionStage<ReviewProgress> commits;
+    private IngestionStage<FileTask> contents;
+    private IngestionStage<FileTask> analysis;
+    private IngestionStage<FileTask> llm;
+    private IngestionStage<FileTask> persistence;
+
+    private final Set<ReviewProgress> openReviews = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void start() {
+        commits = new IngestionStage<>("commits", commitWorkers, commitCapacity, 1,
+                batch -> startReview(batch.get(0)), pipelineMetrics, alertEngine);
+        contents = new IngestionStage<>("contents", contentWorkers, contentCapacity, 1,
+                perFile(this::fetchContent), pipelineMetrics, alertEngine);
+        analysis = new IngestionStage<>("analysis", analysisWorkers, analysisCapacity, 1,
+                perFile(this::analyze), pipelineMetrics, alertEngine);
+        llm = new IngestionStage<>("llm", llmWorkers, llmCapacity, 1,
+                perFile(this::analyzeWithLlm), pipelineMetrics, alertEngine);
+        // Um único worker na gravação: os lotes e a conclusão das revisões não concorrem
+        persistence = new IngestionStage<>("persistence", 1, persistenceCapacity, persistenceBatchSize,
+                this::persist, pipelineMetrics, alertEngine);
+
+        for (IngestionStage<?> stage : stagesFromTail()) {
+            stage.start();
+        }
+        log.info("Ingestão de commits iniciada (LLM {})", llmEnabled ? "habilitado" : "desabilitado");
+    }
+
+    @PreDestroy
+    void stop() {
+        // Da primeira para a última etapa, para que cada uma esvazie nas seguintes;
+        // o prazo vale para o encerramento inteiro, não para cada etapa
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMs;
+        List<IngestionStage<?>> stages = stagesFromTail();
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            stages.get(i).stop(deadline);
+        }
+        // Arquivos ainda na fila ou em processamento não serão concluídos
+        for (ReviewProgress progress : openReviews) {
+            finish(progress, "Ingestão interrompida pelo encerramento da aplicação");
+        }
+    }
+
+    /**
+     * Renova a concessão das revisões abertas neste nó e encerra as revisões
+     * de qualquer nó cuja concessão venceu
+     */
+    @Scheduled(fixedDelayString = "${maya.ingestion.lease-renewal-ms:60000}")
+    public void renewLeases() {
+        try {
+            List<Long> reviewIds = openReviews.stream().map(progress -> progress.review().getId()).toList();
+            mayaAnalysisService.renewLeases(reviewIds, leaseExpiration());
+            mayaAnalysisService.failExpiredReviews();
+        } catch (RuntimeException e) {
+            log.error("Erro ao renovar concessões das revisões: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Valida o commit, grava a revisão pendente e a enfileira
+     *
+     * @return a revisão pendente, ou null se o commit não existe ou não tem arquivos Java
+     * @throws TaskRejectedException se a fila de commits continuar cheia após
+     *                               maya.ingestion.submit-timeout-ms; a revisão é descartada
+     */
+    public CodeReview submit(String projectName, String repositoryName, String commitSha) {
+        TfsService.TfsCommitInfo commitInfo = tfsService.getCommitInfo(projectName, repositoryName, commitSha);
+        if (commitInfo == null) {
+            log.warn("Commit não encontrado: {}", commitSha);
+            return null;
+        }
+
+        List<String> javaFiles = tfsService.getCommitChangedFiles(projectName, repositoryName, commitSha).stream()
+                .filter(file -> file.endsWith(".java"))
+                .toList();
+        if (javaFiles.isEmpty()) {
+            log.info("Nenhum arquivo Java encontrado no commit: {}", commitSha);
+            return null;
+        }
+        log.info("Enfileirando análise de {} arquivos Java do commit: {}", javaFiles.size(), commitSha);
+
+        CodeReview review = mayaAnalysisService.createPendingReview(commitSha, repositoryName, projectName,
+                commitInfo.author(), commitInfo.comment(), llmModel, leaseExpiration());
+        ReviewProgress progress = new ReviewProgress(review, projectName, javaFiles);
+        openReviews.add(progress);
+        try {
+            if (commits.offer(progress, submitTimeoutMs)) {
+                return review;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Recusada: para o cliente a revisão não chegou a existir
+        openReviews.remove(progress);
+        mayaAnalysisService.discardReview(review);
+        throw new TaskRejectedException("Fila de ingestão de commits cheia");
+    }
+
+    /**
+     * Situação de cada etapa, na ordem do pipeline
+     */
+    public List<StageStats> stats() {
+        return List.of(commits.stats(), contents.stats(), analysis.stats(), llm.stats(), persistence.stats());
+    }
+
+    private List<IngestionStage<?>> stagesFromTail() {
+        return List.of(persistence, llm, analysis, contents, commits);
+    }
+
+    private void startReview(ReviewProgress progress) {
+        try {
+            mayaAnalysisService.markInProgress(progress.review());
+        } catch (RuntimeException e) {
+            finish(progress, "Erro ao iniciar a análise: " + e.getMessage());
+            throw e;
+        }
+        // A duração da análise não inclui a espera na fila
+        progress.startTime().set(System.currentTimeMillis());
+        for (String filePath : progress.files()) {
+            forward(contents, new FileTask(progress, filePath, null, null));
+        }
+    }
+
+    private LocalDateTime leaseExpiration() {
+        return LocalDateTime.now().plus(Duration.ofMillis(leaseMs));
+    }
+
+    private void fetchContent(FileTask task) {
+        CodeReview review = task.progress().review();
+        String content = tfsService.getFileContent(task.progress().projectName(), review.getRepositoryName(),
+                review.getCommitSha(), task.filePath());
+        if (content == null) {
+            fileDone(task.progress(), true);
+            return;
+        }
+        forward(analysis, new FileTask(task.progress(), task.filePath(), content, null));
+    }
+
+    private void analyze(FileTask task) {
+        FileAnalysis fileAnalysis =
+                mayaAnalysisService.analyzeContent(task.progress().review(), task.filePath(), task.content());
+        if (llmEnabled) {
+            forward(llm, new FileTask(task.progress(), task.filePath(), task.content(), fileAnalysis));
+        } else {
+            forward(persistence, new FileTask(task.progress(), task.filePath(), null, fileAnalysis));
+        }
+    }
+
+    private void analyzeWithLlm(FileTask task) {
+        FileAnalysis fileAnalysis = task.analysis();
+        SinqiaAiService.AiAnalysisResult result =
+                sinqiaAiService.analyzeCode(task.filePath(), task.content(), fileAnalysis.getLanguage());
+        // Falha do LLM não descarta a análise estática
+        if (result.success()) {
+            fileAnalysis.setAiAnalysisUsed(true);
+            fileAnalysis.setAiModelUsed(llmModel);
+            fileAnalysis.setAnalysisReport(result.content());
+        }
+        forward(persistence, new FileTask(task.progress(), task.filePath(), null, fileAnalysis));
+    }
+
+    private void persist(List<FileTask> batch) {
+        List<FileAnalysis> saved;
+        try {
+            saved = mayaAnalysisService.saveFileAnalyses(batch.stream().map(FileTask::analysis).toList());
+        } catch (RuntimeException e) {
+            // Uma linha inválida não descarta o lote inteiro
+            log.warn("Erro ao gravar lote de {} análises, gravando uma a uma: {}", batch.size(), e.getMessage());
+            batch.forEach(this::persistOne);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            ReviewProgress progress = batch.get(i).progress();
+            progress.review().addFileAnalysis(saved.get(i));
+            fileDone(progress, false);
+        }
+    }
+
+    private void persistOne(FileTask task) {
+        FileAnalysis analysis = task.analysis();
+        // Ids gerados no lote desfeito não existem no banco: sem eles a análise volta a ser nova
+        analysis.setId(null);
+        analysis.getIssues().forEach(issue -> issue.setId(null));
+        try {
+            FileAnalysis saved = mayaAnalysisService.saveFileAnalyses(List.of(analysis)).get(0);
+            task.progress().review().addFileAnalysis(saved);
+            fileDone(task.progress(), false);
+        } catch (RuntimeException e) {
+            log.error("Erro ao gravar análise do arquivo {}: {}", task.filePath(), e.getMessage());
+            fileDone(task.progress(), true);
+        }
+    }
+
+    /**
+     * Handler de etapa por arquivo: exceção conta o arquivo como não analisado
+     * antes de chegar ao worker
+     */
+    private Consumer<List<FileTask>> perFile(Consumer<FileTask> handler) {
+        return batch -> {
+            FileTask task = batch.get(0);
+            try {
+                handler.accept(task);
+            } catch (RuntimeException e) {
+                log.error("Erro no arquivo {}: {}", task.filePath(), e.getMessage());
+                fileDone(task.progress(), true);
+                throw e;
+            }
+        };
+    }
+
+    private void forward(IngestionStage<FileTask> stage, FileTask task) {
+        try {
+            stage.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fileDone(task.progress(), true);
+        }
+    }
+
+    /**
+     * Conta um arquivo encerrado; o último conclui a revisão
+     */
+    private void fileDone(ReviewProgress progress, boolean failed) {
+        if (failed) {
+            progress.failedFiles().incrementAndGet();
+        }
+        if (progress.pendingFiles().decrementAndGet() > 0) {
+            return;
+        }
+        int failures = progress.failedFiles().get();
+        String failure = failures == progress.files().size()
+                ? "Nenhum arquivo do commit pôde ser analisado" : null;
+        if (failures > 0 && failure == null) {
+            log.warn("Revisão {}: {} de {} arquivos não foram analisados",
+                    progress.review().getId(), failures, progress.files().size());
+        }
+        finish(progress, failure);
+    }
+
+    /**
+     * Conclui a revisão uma única vez (último arquivo ou encerramento da aplicação)
+     */
+    private void finish(ReviewProgress progress, String failure) {
+        if (!progress.finished().compareAndSet(false, true)) {
+            return;
+        }
+        openReviews.remove(progress);
+        try {
+            mayaAnalysisService.completeReview(progress.review(), progress.startTime().get(), failure);
+        } catch (RuntimeException e) {
+            log.error("Erro ao concluir revisão {}: {}", progress.review().getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Arquivo em trânsito; conteúdo e análise são preenchidos pelas etapas
+     */
+    private record FileTask(ReviewProgress progress, String filePath, String content, FileAnalysis analysis) {}
+
+    /**
+     * Revisão enfileirada ou em andamento e contagem dos arquivos que ainda não terminaram
+     */
+    private record ReviewProgress(
+            CodeReview review,
+            String projectName,
+            List<String> files,
+            AtomicLong startTime,
+            AtomicInteger pendingFiles,
+            AtomicInteger failedFiles,
+            AtomicBoolean finished
+    ) {
+        ReviewProgress(CodeReview review, String projectName, List<String> files) {
+            this(review, projectName, files, new AtomicLong(System.currentTimeMillis()),
+                    new AtomicInteger(files.size()), new AtomicInteger(), new AtomicBoolean());
+        }
+
+        // Identidade: cada revisão em andamento é uma entrada distinta em openReviews
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+
+    /**
+     * Situação de uma etapa: workers, fila (atual e capacidade) e itens processados
+     */
+    public record StageStats(
+            String stage,
+            int workers,
+            int queueDepth,
+            int queueCapacity,
+            long processed,
+            long failed
+    ) {}
+}
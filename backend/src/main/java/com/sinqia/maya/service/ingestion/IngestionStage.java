@@ -0,0 +1,142 @@
+package com.sinqia.maya.service.ingestion;
+
+import com.sinqia.maya.service.alert.AlertEngine;
+import com.sinqia.maya.service.metrics.PipelineMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Etapa da ingestão: fila limitada consumida por um número fixo de workers.
+ *
+ * {@link #put} bloqueia enquanto a fila estiver cheia, então uma etapa lenta
+ * segura as anteriores em vez de acumular itens em memória. Cada worker tira
+ * até {@code batchSize} itens de uma vez e os entrega juntos ao handler.
+ * Exceções do handler são registradas e não derrubam o worker.
+ *
+ * Os workers rodam em um {@link ThreadPoolTaskExecutor} próprio, com threads
+ * daemon. No encerramento a etapa esvazia a fila até o prazo recebido; depois
+ * dele os itens restantes são descartados e os workers interrompidos.
+ *
+ * A fila é registrada no gauge maya.ingestion.queue.depth e no
+ * {@link AlertEngine} (fila "ingestion-[etapa]"), que leem a profundidade
+ * quando precisam; os itens processados vão para o contador maya.ingestion.items.
+ */
+@Slf4j
+final class IngestionStage<T> {
+
+    private static final long POLL_TIMEOUT_MS = 500;
+
+    private final String name;
+    private final int workers;
+    private final int batchSize;
+    private final Consumer<List<T>> handler;
+    private final PipelineMetrics pipelineMetrics;
+    private final AlertEngine alertEngine;
+    private final BlockingQueue<T> queue;
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean running;
+
+    IngestionStage(String name, int workers, int capacity, int batchSize, Consumer<List<T>> handler,
+                   PipelineMetrics pipelineMetrics, AlertEngine alertEngine) {
+        this.name = name;
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.handler = handler;
+        this.pipelineMetrics = pipelineMetrics;
+        this.alertEngine = alertEngine;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    void start() {
+        pipelineMetrics.registerIngestionQueue(name, queue);
+        alertEngine.registerQueue("ingestion-" + name, queue::size);
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("maya-ingest-" + name + "-");
+        executor.setDaemon(true);
+        executor.initialize();
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::work);
+        }
+    }
+
+    /**
+     * Para de aceitar trabalho novo e espera os workers esvaziarem a fila até
+     * {@code deadline} (epoch em ms, comum a todas as etapas); depois disso
+     * descarta os itens restantes e interrompe os workers
+     */
+    void stop(long deadline) {
+        running = false;
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        pool.shutdown();
+        try {
+            if (pool.awaitTermination(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int discarded = queue.size();
+        queue.clear();
+        pool.shutdownNow();
+        log.warn("Etapa {} interrompida no prazo de encerramento com {} itens pendentes", name, discarded);
+    }
+
+    /**
+     * Enfileira esperando por espaço (pressão de volta sobre a etapa anterior)
+     */
+    void put(T item) throws InterruptedException {
+        queue.put(item);
+    }
+
+    /**
+     * Enfileira esperando no máximo {@code timeoutMs}; false se a fila continuou cheia
+     */
+    boolean offer(T item, long timeoutMs) throws InterruptedException {
+        return queue.offer(item, timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void work() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while ((running || !queue.isEmpty()) && !Thread.currentThread().isInterrupted()) {
+            try {
+                T first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                handler.accept(batch);
+                processed.addAndGet(batch.size());
+                pipelineMetrics.countIngested(name, false, batch.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                failed.addAndGet(batch.size());
+                pipelineMetrics.countIngested(name, true, batch.size());
+                log.error("Falha na etapa {} ({} itens): {}", name, batch.size(), e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    CommitIngestionPipeline.StageStats stats() {
+        return new CommitIngestionPipeline.StageStats(name, workers, queue.size(),
+                queue.size() + queue.remainingCapacity(), processed.get(), failed.get());
+    }
+}
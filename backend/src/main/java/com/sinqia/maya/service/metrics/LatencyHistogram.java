@@ -0,0 +1,69 @@
+package com.sinqia.maya.service.metrics;
+
+/**
+ * Histograma de latência no estilo HDR (log-linear) com precisão fixa.
+ *
+ * Valores abaixo de {@link #SUB_BUCKETS} ms são exatos; acima disso cada
+ * potência de dois é dividida em {@link #SUB_BUCKETS} sub-buckets lineares,
+ * o que limita o erro relativo a 1/{@link #SUB_BUCKETS} (12,5%).
+ * A classe só calcula índices e percentis: os contadores ficam nos arrays
+ * pré-alocados de {@link TimeSeriesRing}, sem alocação no caminho de gravação.
+ */
+final class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Maior magnitude representada: valores acima de ~4,6 horas são truncados */
+    static final int MAX_MAGNITUDE = 23;
+    static final long MAX_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+
+    static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private LatencyHistogram() {
+    }
+
+    /**
+     * Índice do bucket para um valor em milissegundos
+     */
+    static int bucketIndex(long value) {
+        long clamped = Math.min(Math.max(value, 0L), MAX_VALUE);
+        if (clamped < SUB_BUCKETS) {
+            return (int) clamped;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(clamped);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) ((clamped >>> shift) & (SUB_BUCKETS - 1));
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Maior valor equivalente ao bucket (limite superior inclusivo)
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Estima o percentil (0-100) a partir de contadores agregados
+     */
+    static long percentile(long[] counts, long total, double percentile) {
+        if (total <= 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * total));
+        long cumulative = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return bucketUpperBound(i);
+            }
+        }
+        return bucketUpperBound(counts.length - 1);
+    }
+}
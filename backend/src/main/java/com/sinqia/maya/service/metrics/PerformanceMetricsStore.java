@@ -0,0 +1,247 @@
+package com.sinqia.maya.service.metrics;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Armazenamento em memória das séries temporais de performance.
+ *
+ * Mantém, para cada métrica, um ring buffer de slots por minuto (janelas
+ * curtas, usado por alertas) e outro de slots por hora (janelas do dashboard).
+ * Cada amostra é gravada nos dois buffers sem alocação; a leitura agrega
+ * apenas os slots da janela pedida.
+ */
+@Component
+@Slf4j
+public class PerformanceMetricsStore {
+
+    private static final long MINUTE_MILLIS = Duration.ofMinutes(1).toMillis();
+    private static final long HOUR_MILLIS = Duration.ofHours(1).toMillis();
+
+    @Value("${maya.metrics.minute-slots:1440}")
+    private int minuteSlots;
+
+    @Value("${maya.metrics.hour-slots:720}")
+    private int hourSlots;
+
+    @Value("${maya.metrics.sample-interval-ms:60000}")
+    private long sampleIntervalMs;
+
+    private final Map<Metric, TimeSeriesRing> minuteRings = new EnumMap<>(Metric.class);
+    private final Map<Metric, TimeSeriesRing> hourRings = new EnumMap<>(Metric.class);
+
+    @PostConstruct
+    void initialize() {
+        for (Metric metric : Metric.values()) {
+            minuteRings.put(metric, new TimeSeriesRing(MINUTE_MILLIS, minuteSlots, metric.latency));
+            hourRings.put(metric, new TimeSeriesRing(HOUR_MILLIS, hourSlots, metric.latency));
+        }
+        log.info("Armazenamento de métricas inicializado: {} slots por minuto, {} slots por hora",
+                minuteSlots, hourSlots);
+    }
+
+    /**
+     * Registra uma amostra (latência em ms ou valor de gauge)
+     */
+    public void record(Metric metric, long value, boolean error) {
+        long now = System.currentTimeMillis();
+        minuteRings.get(metric).record(now, value, error);
+        hourRings.get(metric).record(now, value, error);
+    }
+
+    /**
+     * Registra a duração de uma operação iniciada em startMillis
+     */
+    public void recordSince(Metric metric, long startMillis, boolean error) {
+        record(metric, Math.max(0L, System.currentTimeMillis() - startMillis), error);
+    }
+
+    /**
+     * Resumo de uma métrica na janela informada
+     */
+    public MetricSummary summary(Metric metric, Duration window) {
+        long now = System.currentTimeMillis();
+        TimeSeriesRing.WindowAccumulator accumulator = new TimeSeriesRing.WindowAccumulator();
+        ringFor(metric, window).aggregate(now - window.toMillis(), now, accumulator);
+
+        if (accumulator.count == 0) {
+            return MetricSummary.empty(metric);
+        }
+        double average = (double) accumulator.sum / accumulator.count;
+        if (!metric.latency) {
+            return new MetricSummary(metric, accumulator.count, accumulator.errors, average,
+                    average, average, average, accumulator.max);
+        }
+        return new MetricSummary(
+                metric,
+                accumulator.count,
+                accumulator.errors,
+                average,
+                percentile(accumulator, 50.0),
+                percentile(accumulator, 95.0),
+                percentile(accumulator, 99.0),
+                accumulator.max
+        );
+    }
+
+    /**
+     * Série horária com a média de cada métrica por slot.
+     * Slots sem nenhuma amostra são omitidos.
+     */
+    public List<TimelinePoint> hourlyTimeline(Duration window, Metric... metrics) {
+        long now = System.currentTimeMillis();
+        long toEpoch = now / HOUR_MILLIS;
+        long fromEpoch = Math.max((now - window.toMillis()) / HOUR_MILLIS, toEpoch - hourSlots + 1);
+
+        Map<Metric, double[]> series = new EnumMap<>(Metric.class);
+        for (Metric metric : metrics) {
+            series.put(metric, hourRings.get(metric).slotAverages(fromEpoch, toEpoch));
+        }
+
+        List<TimelinePoint> timeline = new ArrayList<>();
+        for (int i = 0; i <= toEpoch - fromEpoch; i++) {
+            Map<Metric, Double> values = new EnumMap<>(Metric.class);
+            for (Map.Entry<Metric, double[]> entry : series.entrySet()) {
+                double value = entry.getValue()[i];
+                if (!Double.isNaN(value)) {
+                    values.put(entry.getKey(), value);
+                }
+            }
+            if (!values.isEmpty()) {
+                LocalDateTime timestamp = LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli((fromEpoch + i) * HOUR_MILLIS), ZoneId.systemDefault());
+                timeline.add(new TimelinePoint(timestamp, values));
+            }
+        }
+        return timeline;
+    }
+
+    /**
+     * Amostra memória e CPU da JVM uma vez por minuto
+     */
+    @Scheduled(fixedRateString = "${maya.metrics.sample-interval-ms:60000}")
+    public void sampleSystemMetrics() {
+        record(Metric.MEMORY_USAGE_MB, currentMemoryUsageMb(), false);
+        double cpu = currentCpuUsage();
+        if (cpu >= 0) {
+            // Guardado em centésimos de ponto percentual para não perder precisão
+            record(Metric.CPU_USAGE, Math.round(cpu * 100), false);
+        }
+    }
+
+    /**
+     * Memória de heap em uso, em MB
+     */
+    public long currentMemoryUsageMb() {
+        Runtime runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+    }
+
+    /**
+     * Uso de CPU do processo em percentual, ou -1 se indisponível
+     */
+    public double currentCpuUsage() {
+        OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+        if (osBean instanceof com.sun.management.OperatingSystemMXBean sunBean) {
+            double load = sunBean.getProcessCpuLoad();
+            return load < 0 ? -1.0 : load * 100.0;
+        }
+        return -1.0;
+    }
+
+    /**
+     * Percentual da janela com amostras de saúde gravadas, comparando as
+     * amostras de memória recebidas com as esperadas pelo intervalo de coleta.
+     * A janela é limitada à retenção do buffer consultado.
+     */
+    public double availability(Duration window) {
+        long retentionMillis = window.toMinutes() <= minuteSlots
+                ? minuteSlots * MINUTE_MILLIS
+                : hourSlots * HOUR_MILLIS;
+        long expected = Math.min(window.toMillis(), retentionMillis) / sampleIntervalMs;
+        if (expected <= 0) {
+            return 0.0;
+        }
+        long received = summary(Metric.MEMORY_USAGE_MB, window).count();
+        return Math.min(100.0, received * 100.0 / expected);
+    }
+
+    private TimeSeriesRing ringFor(Metric metric, Duration window) {
+        return window.toMinutes() <= minuteSlots ? minuteRings.get(metric) : hourRings.get(metric);
+    }
+
+    private double percentile(TimeSeriesRing.WindowAccumulator accumulator, double percentile) {
+        long estimate = LatencyHistogram.percentile(accumulator.histogram, accumulator.count, percentile);
+        return Math.min(estimate, accumulator.max);
+    }
+
+    /**
+     * Métricas coletadas
+     */
+    public enum Metric {
+        ANALYSIS_DURATION(true),
+        LLM_LATENCY(true),
+        FETCH_LATENCY(true),
+        HTTP_REQUEST(true),
+        MEMORY_USAGE_MB(false),
+        CPU_USAGE(false);
+
+        private final boolean latency;
+
+        Metric(boolean latency) {
+            this.latency = latency;
+        }
+
+        public boolean isLatency() {
+            return latency;
+        }
+    }
+
+    /**
+     * Resumo de uma métrica em uma janela
+     */
+    public record MetricSummary(
+            Metric metric,
+            long count,
+            long errors,
+            double average,
+            double p50,
+            double p95,
+            double p99,
+            long max
+    ) {
+        static MetricSummary empty(Metric metric) {
+            return new MetricSummary(metric, 0L, 0L, 0.0, 0.0, 0.0, 0.0, 0L);
+        }
+
+        public double errorRate() {
+            return count > 0 ? (double) errors / count * 100.0 : 0.0;
+        }
+    }
+
+    /**
+     * Ponto da série horária
+     */
+    public record TimelinePoint(
+            LocalDateTime timestamp,
+            Map<Metric, Double> values
+    ) {
+        public double valueOf(Metric metric) {
+            return values.getOrDefault(metric, 0.0);
+        }
+    }
+}
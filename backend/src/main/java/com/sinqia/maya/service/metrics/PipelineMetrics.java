@@ -0,0 +1,219 @@
+package com.sinqia.maya.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Métricas Micrometer das etapas do pipeline de revisão.
+ *
+ * Todas as etapas usam o mesmo timer (maya.pipeline.stage), diferenciado
+ * pelas tags stage, detector, model e outcome; o conjunto de tags é sempre o
+ * mesmo, como exige o formato Prometheus. Valores ausentes são gravados como
+ * "none". O timer tem histograma de percentis, então não leva a tag
+ * repository (cada repositório multiplicaria os buckets); a quebra por
+ * repositório fica nos contadores de arquivos e issues. Os histogramas são
+ * habilitados em management.metrics.distribution.percentiles-histogram.
+ *
+ * Os medidores são criados uma vez por combinação de tags e guardados em
+ * mapas, fora do caminho de cada arquivo analisado.
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineMetrics {
+
+    public static final String STAGE_TIMER = "maya.pipeline.stage";
+    public static final String FILES_COUNTER = "maya.pipeline.files";
+    public static final String ISSUES_COUNTER = "maya.pipeline.issues";
+    public static final String FILE_LINES_SUMMARY = "maya.pipeline.file.lines";
+    public static final String PROMPT_CHARS_SUMMARY = "maya.pipeline.llm.prompt.chars";
+    public static final String REPORT_CHARS_SUMMARY = "maya.pipeline.report.chars";
+    public static final String INGESTION_QUEUE_GAUGE = "maya.ingestion.queue.depth";
+    public static final String INGESTION_ITEMS_COUNTER = "maya.ingestion.items";
+
+    public static final String NONE = "none";
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+
+    private final MeterRegistry registry;
+
+    private final Map<StageKey, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<MeterKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Início de uma medição (relógio monotônico)
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Registra a duração de uma etapa iniciada em {@link #start()}
+     */
+    public void recordStage(Stage stage, long startNanos, String model, boolean failed) {
+        recordStage(stage, NONE, startNanos, model, failed);
+    }
+
+    /**
+     * Registra a duração de um detector específico
+     */
+    public void recordStage(Stage stage, String detector, long startNanos, String model, boolean failed) {
+        StageKey key = new StageKey(stage, tagValue(detector), tagValue(model), failed);
+        stageTimers.computeIfAbsent(key, k -> Timer.builder(STAGE_TIMER)
+                        .description("Duração das etapas do pipeline de revisão")
+                        .tag("stage", k.stage().tag())
+                        .tag("detector", k.detector())
+                        .tag("model", k.model())
+                        .tag("outcome", k.failed() ? ERROR : SUCCESS)
+                        .register(registry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Executa e mede uma etapa; exceções são registradas como erro e propagadas
+     */
+    public <T> T timeStage(Stage stage, String detector, String model, Supplier<T> action) {
+        long startNanos = start();
+        boolean failed = true;
+        try {
+            T result = action.get();
+            failed = false;
+            return result;
+        } finally {
+            recordStage(stage, detector, startNanos, model, failed);
+        }
+    }
+
+    /**
+     * Executa e mede uma etapa sem retorno
+     */
+    public void runStage(Stage stage, String detector, String model, Runnable action) {
+        timeStage(stage, detector, model, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public void countFile(String repository, boolean failed) {
+        counter(new MeterKey(FILES_COUNTER, tagValue(repository), failed ? ERROR : SUCCESS), key ->
+                Counter.builder(FILES_COUNTER)
+                        .description("Arquivos analisados")
+                        .tag("repository", key.first())
+                        .tag("outcome", key.second()))
+                .increment();
+    }
+
+    public void countIssues(String repository, String severity, long count) {
+        if (count <= 0) {
+            return;
+        }
+        counter(new MeterKey(ISSUES_COUNTER, tagValue(repository), tagValue(severity)), key ->
+                Counter.builder(ISSUES_COUNTER)
+                        .description("Issues encontrados pelos detectores")
+                        .tag("repository", key.first())
+                        .tag("severity", key.second()))
+                .increment(count);
+    }
+
+    public void recordFileLines(String repository, int lines) {
+        summary(new MeterKey(FILE_LINES_SUMMARY, tagValue(repository), null), key ->
+                DistributionSummary.builder(FILE_LINES_SUMMARY)
+                        .description("Linhas por arquivo analisado")
+                        .baseUnit("lines")
+                        .tag("repository", key.first()))
+                .record(lines);
+    }
+
+    public void recordPromptSize(String model, int chars) {
+        summary(new MeterKey(PROMPT_CHARS_SUMMARY, tagValue(model), null), key ->
+                DistributionSummary.builder(PROMPT_CHARS_SUMMARY)
+                        .description("Tamanho dos prompts enviados ao LLM")
+                        .baseUnit("chars")
+                        .tag("model", key.first()))
+                .record(chars);
+    }
+
+    public void recordReportSize(String repository, int chars) {
+        summary(new MeterKey(REPORT_CHARS_SUMMARY, tagValue(repository), null), key ->
+                DistributionSummary.builder(REPORT_CHARS_SUMMARY)
+                        .description("Tamanho dos relatórios gerados")
+                        .baseUnit("chars")
+                        .tag("repository", key.first()))
+                .record(chars);
+    }
+
+    /**
+     * Profundidade da fila de entrada de uma etapa da ingestão de commits
+     */
+    public void registerIngestionQueue(String stage, Collection<?> queue) {
+        Gauge.builder(INGESTION_QUEUE_GAUGE, queue, Collection::size)
+                .description("Itens aguardando em cada etapa da ingestão de commits")
+                .tag("stage", tagValue(stage))
+                .register(registry);
+    }
+
+    /**
+     * Itens processados por uma etapa da ingestão (a taxa do contador é a vazão da etapa)
+     */
+    public void countIngested(String stage, boolean failed, int count) {
+        counter(new MeterKey(INGESTION_ITEMS_COUNTER, tagValue(stage), failed ? ERROR : SUCCESS), key ->
+                Counter.builder(INGESTION_ITEMS_COUNTER)
+                        .description("Itens processados pelas etapas da ingestão de commits")
+                        .tag("stage", key.first())
+                        .tag("outcome", key.second()))
+                .increment(count);
+    }
+
+    private Counter counter(MeterKey key, Function<MeterKey, Counter.Builder> builder) {
+        return counters.computeIfAbsent(key, k -> builder.apply(k).register(registry));
+    }
+
+    private DistributionSummary summary(MeterKey key, Function<MeterKey, DistributionSummary.Builder> builder) {
+        return summaries.computeIfAbsent(key, k -> builder.apply(k).register(registry));
+    }
+
+    private static String tagValue(String value) {
+        return value == null || value.isBlank() ? NONE : value;
+    }
+
+    private record StageKey(Stage stage, String detector, String model, boolean failed) {}
+
+    /**
+     * Nome do medidor e valores das tags (na ordem em que o medidor as declara)
+     */
+    private record MeterKey(String name, String first, String second) {}
+
+    /**
+     * Etapas do pipeline de revisão
+     */
+    public enum Stage {
+        COMMIT_FETCH("commit_fetch"),
+        FILE_FETCH("file_fetch"),
+        DETECTOR("detector"),
+        LLM_CALL("llm_call"),
+        PERSISTENCE("persistence"),
+        REPORT("report");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.sinqia.maya.service.metrics;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ring buffer de tamanho fixo com um slot por intervalo de tempo.
+ *
+ * Cada slot guarda contagem, erros, soma, máximo e, opcionalmente, um
+ * histograma de latência. Todo o armazenamento é alocado na construção e
+ * reaproveitado quando o slot volta a ser usado, de modo que gravar uma
+ * amostra não aloca objetos e ler uma janela custa O(slots da janela).
+ */
+final class TimeSeriesRing {
+
+    private final long slotMillis;
+    private final int capacity;
+    private final boolean withHistogram;
+
+    private final AtomicLongArray slotEpochs;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray errors;
+    private final AtomicLongArray sums;
+    private final AtomicLongArray maxima;
+    private final AtomicIntegerArray histograms;
+
+    TimeSeriesRing(long slotMillis, int capacity, boolean withHistogram) {
+        this.slotMillis = slotMillis;
+        this.capacity = capacity;
+        this.withHistogram = withHistogram;
+        this.slotEpochs = new AtomicLongArray(capacity);
+        this.counts = new AtomicLongArray(capacity);
+        this.errors = new AtomicLongArray(capacity);
+        this.sums = new AtomicLongArray(capacity);
+        this.maxima = new AtomicLongArray(capacity);
+        this.histograms = new AtomicIntegerArray(withHistogram ? capacity * LatencyHistogram.BUCKET_COUNT : 0);
+        for (int i = 0; i < capacity; i++) {
+            slotEpochs.set(i, -1L);
+        }
+    }
+
+    long slotMillis() {
+        return slotMillis;
+    }
+
+    /**
+     * Grava uma amostra no slot correspondente ao timestamp
+     */
+    void record(long timestampMillis, long value, boolean error) {
+        long epoch = timestampMillis / slotMillis;
+        int slot = (int) (epoch % capacity);
+        if (slotEpochs.get(slot) != epoch) {
+            rollOver(slot, epoch);
+            if (slotEpochs.get(slot) != epoch) {
+                // Amostra atrasada de um intervalo que já saiu do buffer
+                return;
+            }
+        }
+
+        counts.incrementAndGet(slot);
+        if (error) {
+            errors.incrementAndGet(slot);
+        }
+        sums.addAndGet(slot, value);
+        maxima.accumulateAndGet(slot, value, Math::max);
+        if (withHistogram) {
+            histograms.incrementAndGet(slot * LatencyHistogram.BUCKET_COUNT + LatencyHistogram.bucketIndex(value));
+        }
+    }
+
+    /**
+     * Recicla o slot para um novo intervalo (raro: uma vez por intervalo)
+     */
+    private synchronized void rollOver(int slot, long epoch) {
+        if (slotEpochs.get(slot) >= epoch) {
+            return;
+        }
+        counts.set(slot, 0L);
+        errors.set(slot, 0L);
+        sums.set(slot, 0L);
+        maxima.set(slot, 0L);
+        if (withHistogram) {
+            int base = slot * LatencyHistogram.BUCKET_COUNT;
+            for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+                histograms.set(base + i, 0);
+            }
+        }
+        slotEpochs.set(slot, epoch);
+    }
+
+    /**
+     * Agrega os slots no intervalo [fromMillis, toMillis] no acumulador informado
+     */
+    void aggregate(long fromMillis, long toMillis, WindowAccumulator accumulator) {
+        long toEpoch = toMillis / slotMillis;
+        long fromEpoch = Math.max(fromMillis / slotMillis, toEpoch - capacity + 1);
+
+        for (long epoch = fromEpoch; epoch <= toEpoch; epoch++) {
+            int slot = (int) (epoch % capacity);
+            if (slotEpochs.get(slot) != epoch) {
+                continue;
+            }
+            accumulator.count += counts.get(slot);
+            accumulator.errors += errors.get(slot);
+            accumulator.sum += sums.get(slot);
+            accumulator.max = Math.max(accumulator.max, maxima.get(slot));
+            if (withHistogram) {
+                int base = slot * LatencyHistogram.BUCKET_COUNT;
+                for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+                    accumulator.histogram[i] += histograms.get(base + i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Média por slot no intervalo; slots sem amostras retornam NaN
+     */
+    double[] slotAverages(long fromEpoch, long toEpoch) {
+        int length = (int) (toEpoch - fromEpoch + 1);
+        double[] averages = new double[length];
+        for (int i = 0; i < length; i++) {
+            long epoch = fromEpoch + i;
+            int slot = (int) (epoch % capacity);
+            long count = slotEpochs.get(slot) == epoch ? counts.get(slot) : 0L;
+            averages[i] = count > 0 ? (double) sums.get(slot) / count : Double.NaN;
+        }
+        return averages;
+    }
+
+    /**
+     * Acumulador mutável usado na leitura de janelas
+     */
+    static final class WindowAccumulator {
+        long count;
+        long errors;
+        long sum;
+        long max;
+        final long[] histogram = new long[LatencyHistogram.BUCKET_COUNT];
+    }
+}
@@ -0,0 +1,74 @@
+package com.sinqia.maya.service.metrics;
+
+/**
+ * Funções estatísticas usadas nas séries de tendência do dashboard.
+ */
+public final class TrendStatistics {
+
+    private TrendStatistics() {
+    }
+
+    /**
+     * Média móvel simples; os primeiros pontos usam a janela disponível
+     */
+    public static double[] movingAverage(double[] values, int window) {
+        double[] result = new double[values.length];
+        double sum = 0.0;
+        for (int i = 0; i < values.length; i++) {
+            sum += values[i];
+            if (i >= window) {
+                sum -= values[i - window];
+            }
+            result[i] = sum / Math.min(i + 1, window);
+        }
+        return result;
+    }
+
+    /**
+     * Inclinação da reta de mínimos quadrados (variação por ponto)
+     */
+    public static double slope(double[] values) {
+        int n = values.length;
+        if (n < 2) {
+            return 0.0;
+        }
+        double meanX = (n - 1) / 2.0;
+        double meanY = 0.0;
+        for (double value : values) {
+            meanY += value;
+        }
+        meanY /= n;
+
+        double numerator = 0.0;
+        double denominator = 0.0;
+        for (int i = 0; i < n; i++) {
+            double dx = i - meanX;
+            numerator += dx * (values[i] - meanY);
+            denominator += dx * dx;
+        }
+        return numerator / denominator;
+    }
+
+    /**
+     * Variação percentual entre dois valores
+     */
+    public static double percentChange(double previous, double current) {
+        if (previous == 0.0) {
+            return current == 0.0 ? 0.0 : 100.0;
+        }
+        return (current - previous) / Math.abs(previous) * 100.0;
+    }
+
+    /**
+     * Classifica uma inclinação em up/down/stable segundo a tolerância
+     */
+    public static String direction(double slope, double tolerance) {
+        if (slope > tolerance) {
+            return "up";
+        }
+        if (slope < -tolerance) {
+            return "down";
+        }
+        return "stable";
+    }
+}
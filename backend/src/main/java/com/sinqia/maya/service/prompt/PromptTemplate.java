@@ -0,0 +1,115 @@
+package com.sinqia.maya.service.prompt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Template de prompt compilado.
+ *
+ * Os marcadores {{nome}} são localizados uma única vez, na compilação; a
+ * renderização apenas intercala trechos fixos e valores, em um buffer
+ * reaproveitado pela thread. Marcadores que não correspondem a nenhum
+ * parâmetro declarado são mantidos como texto.
+ */
+public final class PromptTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\s*([A-Za-z0-9_.]+)\\s*}}");
+
+    // Buffers maiores que isto não ficam presos à thread depois da renderização
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    private final String[] literals;
+    private final int[] slots;
+    private final int parameterCount;
+    private final int literalLength;
+
+    private PromptTemplate(String[] literals, int[] slots, int parameterCount) {
+        this.literals = literals;
+        this.slots = slots;
+        this.parameterCount = parameterCount;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compila o texto; a posição de cada parâmetro define a ordem dos valores em {@link #render}
+     */
+    public static PromptTemplate compile(String text, String... parameters) {
+        String source = text != null ? text : "";
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+
+        StringBuilder literal = new StringBuilder();
+        Matcher matcher = PLACEHOLDER.matcher(source);
+        int last = 0;
+        while (matcher.find()) {
+            int slot = indexOf(parameters, matcher.group(1));
+            if (slot < 0) {
+                continue;
+            }
+            literal.append(source, last, matcher.start());
+            literals.add(literal.toString());
+            slots.add(slot);
+            literal.setLength(0);
+            last = matcher.end();
+        }
+        literal.append(source, last, source.length());
+        literals.add(literal.toString());
+
+        return new PromptTemplate(
+                literals.toArray(String[]::new),
+                slots.stream().mapToInt(Integer::intValue).toArray(),
+                parameters.length);
+    }
+
+    /**
+     * Renderiza com os valores na ordem dos parâmetros declarados na compilação
+     */
+    public String render(Object... values) {
+        if (values.length != parameterCount) {
+            throw new IllegalArgumentException(
+                    "Template espera " + parameterCount + " valores, recebeu " + values.length);
+        }
+
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        try {
+            buffer.append(literals[0]);
+            for (int i = 0; i < slots.length; i++) {
+                buffer.append(values[slots[i]]);
+                buffer.append(literals[i + 1]);
+            }
+            return buffer.toString();
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFER.remove();
+            } else {
+                buffer.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * Tamanho do texto fixo, usado como peso no cache
+     */
+    public int length() {
+        return literalLength;
+    }
+
+    private static int indexOf(String[] parameters, String name) {
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
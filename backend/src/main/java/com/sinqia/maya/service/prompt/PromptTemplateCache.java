@@ -0,0 +1,107 @@
+package com.sinqia.maya.service.prompt;
+
+import com.sinqia.maya.config.CacheConfiguration;
+import com.sinqia.maya.entity.AuxiliaryFile;
+import com.sinqia.maya.repository.AuxiliaryFileRepository;
+import com.sinqia.maya.service.usage.UsageCounters;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache de templates de prompt carregados dos arquivos auxiliares.
+ *
+ * Cada arquivo (tipo e nome) é lido do banco e compilado uma única vez; sem
+ * arquivo ativo, o texto padrão informado é compilado no lugar. As entradas
+ * ficam no cache auxiliary-files e são invalidadas quando os prompts são
+ * alterados pelo ReviewPromptService. Cada uso de um arquivo do banco é
+ * contado em {@link UsageCounters}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PromptTemplateCache {
+
+    private final AuxiliaryFileRepository auxiliaryFileRepository;
+    private final CacheManager cacheManager;
+    private final UsageCounters usageCounters;
+
+    /**
+     * Template do arquivo auxiliar, ou do texto padrão quando ele não existe
+     */
+    public PromptTemplate get(String type, String name, String defaultText, String... parameters) {
+        Entry entry = cache().get(key(type, name), () -> load(type, name, defaultText, parameters));
+        usageCounters.recordAuxiliaryFileUse(entry.auxiliaryFileId());
+        return entry.template();
+    }
+
+    /**
+     * Descarta o template compilado de um arquivo (após o commit, se houver transação)
+     */
+    public void invalidate(String type, String name) {
+        afterCommit(() -> cache().evict(key(type, name)));
+    }
+
+    /**
+     * Descarta todos os templates compilados (após o commit, se houver transação)
+     */
+    public void invalidateAll() {
+        afterCommit(() -> {
+            cache().clear();
+            log.debug("Cache de templates de prompt limpo");
+        });
+    }
+
+    /**
+     * Invalidar antes do commit deixaria outra thread recarregar o conteúdo antigo
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Entry load(String type, String name, String defaultText, String... parameters) {
+        AuxiliaryFile file = auxiliaryFileRepository.findByTypeAndName(type, name)
+                .filter(found -> found.getContent() != null)
+                .orElse(null);
+
+        if (file == null) {
+            log.debug("Arquivo auxiliar {}/{} não encontrado, usando template padrão", type, name);
+            return new Entry(null, PromptTemplate.compile(defaultText, parameters));
+        }
+        log.debug("Template {}/{} carregado do banco", type, name);
+        return new Entry(file.getId(), PromptTemplate.compile(file.getContent(), parameters));
+    }
+
+    private Cache cache() {
+        Cache cache = cacheManager.getCache(CacheConfiguration.AUXILIARY_FILES);
+        if (cache == null) {
+            throw new IllegalStateException("Cache " + CacheConfiguration.AUXILIARY_FILES + " não configurado");
+        }
+        return cache;
+    }
+
+    private static String key(String type, String name) {
+        return type + ":" + name;
+    }
+
+    /**
+     * Template em cache e o arquivo auxiliar de origem (null para o padrão)
+     */
+    public record Entry(
+            Long auxiliaryFileId,
+            PromptTemplate template
+    ) {}
+}
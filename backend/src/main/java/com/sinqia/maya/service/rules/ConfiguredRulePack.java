@@ -0,0 +1,98 @@
+package com.sinqia.maya.service.rules;
+
+import com.sinqia.maya.entity.AnalysisIssue;
+import com.sinqia.maya.service.analysis.JavaSource;
+import com.sinqia.maya.service.config.ConfigurationSnapshot;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Regras declaradas nas configurações do banco, sem novo deploy.
+ *
+ * Cada chave maya.rules.forbidden-call.[id] proíbe uma chamada, no formato
+ * "Qualificador.metodo|SEVERIDADE|mensagem" (ex.:
+ * "System.exit|ERROR|Não encerre a JVM a partir da aplicação"). O qualificador
+ * é opcional; a regra é disparada só pelo token do nome do método.
+ */
+@Slf4j
+final class ConfiguredRulePack implements RulePack {
+
+    static final String FORBIDDEN_CALL_PREFIX = "maya.rules.forbidden-call.";
+
+    private final List<Rule> rules;
+
+    private ConfiguredRulePack(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    static ConfiguredRulePack from(ConfigurationSnapshot snapshot) {
+        List<Rule> rules = new ArrayList<>();
+        snapshot.withPrefix(FORBIDDEN_CALL_PREFIX).forEach((id, value) -> {
+            String[] parts = value.split("\\|", 3);
+            try {
+                String[] call = parts[0].trim().split("\\.");
+                AnalysisIssue.IssueSeverity severity = parts.length > 1
+                        ? AnalysisIssue.IssueSeverity.valueOf(parts[1].trim().toUpperCase(Locale.ROOT))
+                        : AnalysisIssue.IssueSeverity.WARNING;
+                String message = parts.length > 2 ? parts[2].trim() : "Chamada proibida pela configuração do projeto.";
+                if (call.length == 0 || call[call.length - 1].isBlank()) {
+                    throw new IllegalArgumentException("chamada vazia");
+                }
+                rules.add(new ForbiddenCallRule("config." + id, call, severity, message));
+            } catch (IllegalArgumentException e) {
+                log.warn("Regra configurada {} ignorada ({}): {}", id, e.getMessage(), value);
+            }
+        });
+        return new ConfiguredRulePack(List.copyOf(rules));
+    }
+
+    @Override
+    public String name() {
+        return "configuração";
+    }
+
+    @Override
+    public List<Rule> rules() {
+        return rules;
+    }
+
+    /**
+     * Chamada proibida: método, opcionalmente qualificado, seguido de '('
+     */
+    private record ForbiddenCallRule(
+            String id,
+            String[] call,
+            AnalysisIssue.IssueSeverity severity,
+            String message
+    ) implements Rule {
+
+        @Override
+        public Set<String> tokenTexts() {
+            return Set.of(call[call.length - 1]);
+        }
+
+        @Override
+        public void onToken(RuleContext context, int index) {
+            JavaSource source = context.source();
+            if (!source.is(index + 1, "(")) {
+                return;
+            }
+            int k = index;
+            for (int part = call.length - 2; part >= 0; part--) {
+                if (!source.is(k - 1, ".") || !source.is(k - 2, call[part])) {
+                    return;
+                }
+                k -= 2;
+            }
+            String name = String.join(".", call);
+            context.report(AnalysisIssue.IssueType.CODE_QUALITY, severity,
+                    "Chamada Proibida: " + name + "()", message,
+                    "Remova a chamada a " + name + "() ou use a alternativa definida pelo projeto.",
+                    source.token(k).offset());
+        }
+    }
+}
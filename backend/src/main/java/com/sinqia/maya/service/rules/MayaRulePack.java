@@ -0,0 +1,209 @@
+package com.sinqia.maya.service.rules;
+
+import com.sinqia.maya.entity.AnalysisIssue;
+import com.sinqia.maya.service.analysis.JavaSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Regras padrão MAYA de arquitetura e segurança.
+ *
+ * Substituem as buscas por regex no arquivo inteiro: cada regra olha apenas
+ * o token que a dispara e a vizinhança dele.
+ */
+@Component
+public class MayaRulePack implements RulePack {
+
+    @Value("${maya.analysis.architecture.enabled:true}")
+    private boolean architectureEnabled;
+
+    @Value("${maya.analysis.architecture.enforce-sinqia-packages:true}")
+    private boolean enforceSinqiaPackages;
+
+    @Value("${maya.analysis.architecture.require-service-suffix:true}")
+    private boolean requireServiceSuffix;
+
+    @Value("${maya.analysis.security.enabled:true}")
+    private boolean securityEnabled;
+
+    @Value("${maya.analysis.security.sql-injection.enabled:true}")
+    private boolean sqlInjectionEnabled;
+
+    @Value("${maya.analysis.security.sensitive-logging.enabled:true}")
+    private boolean sensitiveLoggingEnabled;
+
+    @Override
+    public String name() {
+        return "maya";
+    }
+
+    @Override
+    public List<Rule> rules() {
+        List<Rule> rules = new ArrayList<>();
+        if (architectureEnabled && enforceSinqiaPackages) {
+            rules.add(new SinqiaPackageRule());
+        }
+        if (architectureEnabled && requireServiceSuffix) {
+            rules.add(new LayerSuffixRule());
+        }
+        if (securityEnabled && sqlInjectionEnabled) {
+            rules.add(new SqlConcatenationRule());
+        }
+        if (securityEnabled && sensitiveLoggingEnabled) {
+            rules.add(new SensitiveLoggingRule());
+        }
+        return rules;
+    }
+
+    /**
+     * Declaração de pacote fora de com.sinqia.*
+     */
+    static final class SinqiaPackageRule implements Rule {
+
+        @Override
+        public String id() {
+            return "maya.architecture.sinqia-package";
+        }
+
+        @Override
+        public Set<String> tokenTexts() {
+            return Set.of("package");
+        }
+
+        @Override
+        public void onToken(RuleContext context, int index) {
+            JavaSource source = context.source();
+            StringBuilder packageName = new StringBuilder();
+            for (int k = index + 1; k < source.size() && !source.is(k, ";"); k++) {
+                packageName.append(source.text(k));
+            }
+            String name = packageName.toString();
+            if (!name.equals("com.sinqia") && !name.startsWith("com.sinqia.")) {
+                context.report(AnalysisIssue.IssueType.ARCHITECTURE, AnalysisIssue.IssueSeverity.ERROR,
+                        AnalysisIssue.IssueTemplate.SINQIA_PACKAGE, source.token(index).offset(), name);
+            }
+        }
+    }
+
+    /**
+     * Classe em pacote service/controller sem o sufixo da camada
+     */
+    static final class LayerSuffixRule implements Rule {
+
+        @Override
+        public String id() {
+            return "maya.architecture.layer-suffix";
+        }
+
+        @Override
+        public Set<String> tokenTexts() {
+            return Set.of("class");
+        }
+
+        @Override
+        public void onToken(RuleContext context, int index) {
+            JavaSource source = context.source();
+            String className = context.className();
+            if (className == null || context.filePath() == null || !source.is(index + 1, className)) {
+                return;
+            }
+            String suffix = context.filePath().contains("controller") ? "Controller"
+                    : context.filePath().contains("service") ? "Service" : null;
+            if (suffix != null && !className.endsWith(suffix)) {
+                context.report(AnalysisIssue.IssueType.NAMING_CONVENTION, AnalysisIssue.IssueSeverity.WARNING,
+                        AnalysisIssue.IssueTemplate.LAYER_SUFFIX, source.token(index + 1).offset(),
+                        suffix, className, suffix.toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    /**
+     * Literal SQL concatenado com variável (possível SQL injection)
+     */
+    static final class SqlConcatenationRule implements Rule {
+
+        private static final Pattern SQL_KEYWORD =
+                Pattern.compile("\\b(SELECT|INSERT|UPDATE|DELETE|WHERE)\\b", Pattern.CASE_INSENSITIVE);
+
+        @Override
+        public String id() {
+            return "maya.security.sql-concatenation";
+        }
+
+        @Override
+        public Set<JavaSource.Kind> tokenKinds() {
+            return Set.of(JavaSource.Kind.LITERAL);
+        }
+
+        @Override
+        public void onToken(RuleContext context, int index) {
+            JavaSource source = context.source();
+            String literal = source.text(index);
+            if (literal.isEmpty() || literal.charAt(0) != '"') {
+                return;
+            }
+            boolean concatenated = (source.is(index + 1, "+") && !isLiteral(source, index + 2))
+                    || (source.is(index - 1, "+") && !isLiteral(source, index - 2));
+            if (concatenated && SQL_KEYWORD.matcher(literal).find()) {
+                context.report(AnalysisIssue.IssueType.SQL_INJECTION, AnalysisIssue.IssueSeverity.ERROR,
+                        AnalysisIssue.IssueTemplate.SQL_CONCATENATION, source.token(index).offset());
+            }
+        }
+
+        private static boolean isLiteral(JavaSource source, int index) {
+            return index >= 0 && index < source.size() && source.token(index).kind() == JavaSource.Kind.LITERAL;
+        }
+    }
+
+    /**
+     * Dado sensível (senha, token, CPF, CNPJ) nos argumentos de log.debug/info/warn/error
+     */
+    static final class SensitiveLoggingRule implements Rule {
+
+        private static final Set<String> LEVELS = Set.of("debug", "info", "warn", "error");
+        private static final String[] SENSITIVE = {"senha", "password", "token", "cpf", "cnpj"};
+
+        @Override
+        public String id() {
+            return "maya.security.sensitive-logging";
+        }
+
+        @Override
+        public Set<String> tokenTexts() {
+            return Set.of("log");
+        }
+
+        @Override
+        public void onToken(RuleContext context, int index) {
+            JavaSource source = context.source();
+            if (!source.is(index + 1, ".") || !LEVELS.contains(source.text(index + 2)) || !source.is(index + 3, "(")) {
+                return;
+            }
+            int close = source.matching(index + 3);
+            for (int k = index + 4; k < close; k++) {
+                if (source.token(k).kind() != JavaSource.Kind.SYMBOL && isSensitive(source.text(k))) {
+                    context.report(AnalysisIssue.IssueType.SENSITIVE_DATA, AnalysisIssue.IssueSeverity.ERROR,
+                            AnalysisIssue.IssueTemplate.SENSITIVE_LOGGING, source.token(index).offset(),
+                            source.text(k));
+                    return;
+                }
+            }
+        }
+
+        private static boolean isSensitive(String text) {
+            String lower = text.toLowerCase(Locale.ROOT);
+            for (String word : SENSITIVE) {
+                if (lower.contains(word)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
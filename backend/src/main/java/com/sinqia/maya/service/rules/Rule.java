@@ -0,0 +1,60 @@
+package com.sinqia.maya.service.rules;
+
+import com.sinqia.maya.service.analysis.JavaSource;
+
+import java.util.Set;
+
+/**
+ * Regra de detecção MAYA.
+ *
+ * A regra declara os tokens (por texto ou por tipo) e os nós estruturais que
+ * quer receber; o {@link RuleEngine} percorre os tokens do arquivo uma única
+ * vez e chama apenas as regras interessadas em cada um. Uma regra não deve
+ * varrer o arquivo inteiro: o que precisar além do token recebido é lido ao
+ * redor dele pelo {@link JavaSource} do contexto.
+ *
+ * Implementações são registradas por um {@link RulePack} e podem ser usadas
+ * por várias análises em paralelo, portanto não devem guardar estado.
+ */
+public interface Rule {
+
+    /**
+     * Identificador único, usado para desativar a regra ou trocar sua severidade
+     */
+    String id();
+
+    /**
+     * Textos de token que disparam {@link #onToken} (ex.: "package", "log")
+     */
+    default Set<String> tokenTexts() {
+        return Set.of();
+    }
+
+    /**
+     * Tipos de token que disparam {@link #onToken} (ex.: todos os literais)
+     */
+    default Set<JavaSource.Kind> tokenKinds() {
+        return Set.of();
+    }
+
+    /**
+     * Nós estruturais visitados: o arquivo (uma vez, após os tokens) e cada método
+     */
+    default Set<Node> nodes() {
+        return Set.of();
+    }
+
+    default void onToken(RuleContext context, int index) {
+    }
+
+    default void onMethod(RuleContext context, JavaSource.Method method) {
+    }
+
+    default void onFile(RuleContext context) {
+    }
+
+    enum Node {
+        FILE,
+        METHOD
+    }
+}
@@ -0,0 +1,71 @@
+package com.sinqia.maya.service.rules;
+
+import com.sinqia.maya.entity.AnalysisIssue;
+import com.sinqia.maya.entity.FileAnalysis;
+import com.sinqia.maya.service.analysis.JavaSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estado de uma execução das regras sobre um arquivo.
+ *
+ * Dá acesso ao fonte já lido e aos dados do arquivo, e recolhe os problemas
+ * reportados, já com a severidade configurada para a regra em execução.
+ */
+public final class RuleContext {
+
+    private final FileAnalysis analysis;
+    private final JavaSource source;
+    private final Map<String, AnalysisIssue.IssueSeverity> severityOverrides;
+    private final List<RuleEngine.Violation> violations = new ArrayList<>();
+    private Rule current;
+
+    RuleContext(FileAnalysis analysis, JavaSource source,
+                Map<String, AnalysisIssue.IssueSeverity> severityOverrides) {
+        this.analysis = analysis;
+        this.source = source;
+        this.severityOverrides = severityOverrides;
+    }
+
+    public JavaSource source() {
+        return source;
+    }
+
+    public String filePath() {
+        return analysis.getFilePath();
+    }
+
+    public String className() {
+        return analysis.getClassName();
+    }
+
+    /**
+     * Reporta um problema da regra em execução na posição {@code offset} do fonte (-1: sem posição)
+     */
+    public void report(AnalysisIssue.IssueType type, AnalysisIssue.IssueSeverity severity,
+                       String title, String description, String suggestion, int offset) {
+        violations.add(new RuleEngine.Violation(current.id(), type,
+                severityOverrides.getOrDefault(current.id(), severity),
+                null, null, title, description, suggestion, offset));
+    }
+
+    /**
+     * Reporta um problema com as mensagens de um modelo; só os parâmetros são guardados no issue
+     */
+    public void report(AnalysisIssue.IssueType type, AnalysisIssue.IssueSeverity severity,
+                       AnalysisIssue.IssueTemplate template, int offset, Object... args) {
+        violations.add(new RuleEngine.Violation(current.id(), type,
+                severityOverrides.getOrDefault(current.id(), severity),
+                template, args, null, null, null, offset));
+    }
+
+    void enter(Rule rule) {
+        this.current = rule;
+    }
+
+    List<RuleEngine.Violation> violations() {
+        return violations;
+    }
+}
@@ -0,0 +1,241 @@
+package com.sinqia.maya.service.rules;
+
+import com.sinqia.maya.entity.AnalysisIssue;
+import com.sinqia.maya.entity.FileAnalysis;
+import com.sinqia.maya.service.ConfigurationService;
+import com.sinqia.maya.service.analysis.JavaSource;
+import com.sinqia.maya.service.config.ConfigurationSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Executa as regras MAYA sobre um arquivo.
+ *
+ * As regras de todos os pacotes são compiladas em tabelas de despacho (texto
+ * do token, tipo do token, método, arquivo); cada arquivo é percorrido uma
+ * única vez e cada token chama só as regras que o declararam. Novas regras
+ * aumentam o trabalho por token interessado, não o número de varreduras.
+ *
+ * A compilação acompanha a versão da fotografia de configurações: regras
+ * desativadas, severidades e regras do banco alteradas são refletidas na
+ * próxima análise, recompilando uma única vez.
+ *
+ * Configurações (banco):
+ * - maya.rules.disabled: ids separados por vírgula
+ * - maya.rules.severity.[id]: severidade no lugar da padrão da regra
+ * - maya.rules.forbidden-call.[id]: ver {@link ConfiguredRulePack}
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RuleEngine {
+
+    static final String DISABLED_KEY = "maya.rules.disabled";
+    static final String SEVERITY_PREFIX = "maya.rules.severity.";
+
+    private final List<RulePack> packs;
+    private final ConfigurationService configurationService;
+
+    private final AtomicReference<CompiledRules> compiled = new AtomicReference<>();
+
+    /**
+     * Executa as regras ativas sobre o fonte já lido do arquivo
+     */
+    public List<Violation> run(FileAnalysis analysis, JavaSource source) {
+        CompiledRules rules = compiledRules();
+        RuleContext context = new RuleContext(analysis, source, rules.severities);
+
+        if (rules.hasTokenRules) {
+            for (int i = 0; i < source.size(); i++) {
+                JavaSource.Token token = source.token(i);
+                Rule[] byText = rules.byText.get(token.text());
+                if (byText != null) {
+                    for (Rule rule : byText) {
+                        dispatchToken(rule, context, i);
+                    }
+                }
+                for (Rule rule : rules.byKind.get(token.kind())) {
+                    dispatchToken(rule, context, i);
+                }
+            }
+        }
+
+        if (rules.methodRules.length > 0) {
+            for (JavaSource.Method method : source.methods()) {
+                for (Rule rule : rules.methodRules) {
+                    context.enter(rule);
+                    try {
+                        rule.onMethod(context, method);
+                    } catch (RuntimeException e) {
+                        ruleFailed(rule, context, e);
+                    }
+                }
+            }
+        }
+
+        for (Rule rule : rules.fileRules) {
+            context.enter(rule);
+            try {
+                rule.onFile(context);
+            } catch (RuntimeException e) {
+                ruleFailed(rule, context, e);
+            }
+        }
+        return context.violations();
+    }
+
+    /**
+     * Ids das regras ativas, por pacote
+     */
+    public Map<String, List<String>> activeRules() {
+        return compiledRules().idsByPack;
+    }
+
+    private void dispatchToken(Rule rule, RuleContext context, int index) {
+        context.enter(rule);
+        try {
+            rule.onToken(context, index);
+        } catch (RuntimeException e) {
+            ruleFailed(rule, context, e);
+        }
+    }
+
+    private void ruleFailed(Rule rule, RuleContext context, RuntimeException e) {
+        // Uma regra com defeito não interrompe a análise do arquivo
+        log.warn("Falha na regra {} ({}): {}", rule.id(), context.filePath(), e.getMessage());
+    }
+
+    private CompiledRules compiledRules() {
+        ConfigurationSnapshot snapshot = configurationService.getSnapshot();
+        CompiledRules current = compiled.get();
+        if (current != null && current.version == snapshot.version()) {
+            return current;
+        }
+        CompiledRules rebuilt = compile(snapshot);
+        compiled.set(rebuilt);
+        return rebuilt;
+    }
+
+    private CompiledRules compile(ConfigurationSnapshot snapshot) {
+        List<RulePack> allPacks = new ArrayList<>(packs);
+        ServiceLoader.load(RulePack.class, RulePack.class.getClassLoader()).forEach(allPacks::add);
+        allPacks.add(ConfiguredRulePack.from(snapshot));
+
+        Set<String> disabled = new HashSet<>();
+        for (String id : snapshot.getString(DISABLED_KEY, "").split(",")) {
+            if (!id.isBlank()) {
+                disabled.add(id.trim());
+            }
+        }
+
+        Map<String, AnalysisIssue.IssueSeverity> severities = new HashMap<>();
+        snapshot.withPrefix(SEVERITY_PREFIX).forEach((id, value) -> {
+            try {
+                severities.put(id, AnalysisIssue.IssueSeverity.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                log.warn("Severidade inválida para a regra {}: {}", id, value);
+            }
+        });
+
+        Map<String, List<Rule>> byText = new HashMap<>();
+        Map<JavaSource.Kind, List<Rule>> byKind = new EnumMap<>(JavaSource.Kind.class);
+        List<Rule> methodRules = new ArrayList<>();
+        List<Rule> fileRules = new ArrayList<>();
+        Map<String, List<String>> idsByPack = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+
+        for (RulePack pack : allPacks) {
+            List<String> ids = new ArrayList<>();
+            for (Rule rule : pack.rules()) {
+                if (disabled.contains(rule.id())) {
+                    continue;
+                }
+                if (!seen.add(rule.id())) {
+                    log.warn("Regra {} do pacote {} ignorada: id já registrado", rule.id(), pack.name());
+                    continue;
+                }
+                rule.tokenTexts().forEach(text -> byText.computeIfAbsent(text, k -> new ArrayList<>()).add(rule));
+                rule.tokenKinds().forEach(kind -> byKind.computeIfAbsent(kind, k -> new ArrayList<>()).add(rule));
+                if (rule.nodes().contains(Rule.Node.METHOD)) {
+                    methodRules.add(rule);
+                }
+                if (rule.nodes().contains(Rule.Node.FILE)) {
+                    fileRules.add(rule);
+                }
+                ids.add(rule.id());
+            }
+            if (!ids.isEmpty()) {
+                idsByPack.put(pack.name(), List.copyOf(ids));
+            }
+        }
+
+        CompiledRules rules = new CompiledRules(snapshot.version(), byText, byKind, methodRules, fileRules,
+                Map.copyOf(severities), Collections.unmodifiableMap(idsByPack));
+        log.info("Regras MAYA compiladas: {} regras em {} pacotes (configuração versão {})",
+                seen.size(), idsByPack.size(), snapshot.version());
+        return rules;
+    }
+
+    /**
+     * Tabelas de despacho imutáveis de uma versão das configurações
+     */
+    private static final class CompiledRules {
+        private static final Rule[] NONE = new Rule[0];
+
+        private final long version;
+        private final Map<String, Rule[]> byText;
+        private final Map<JavaSource.Kind, Rule[]> byKind;
+        private final Rule[] methodRules;
+        private final Rule[] fileRules;
+        private final Map<String, AnalysisIssue.IssueSeverity> severities;
+        private final Map<String, List<String>> idsByPack;
+        private final boolean hasTokenRules;
+
+        CompiledRules(long version, Map<String, List<Rule>> byText, Map<JavaSource.Kind, List<Rule>> byKind,
+                      List<Rule> methodRules, List<Rule> fileRules,
+                      Map<String, AnalysisIssue.IssueSeverity> severities, Map<String, List<String>> idsByPack) {
+            this.version = version;
+            this.byText = new HashMap<>();
+            byText.forEach((text, rules) -> this.byText.put(text, rules.toArray(NONE)));
+            this.byKind = new EnumMap<>(JavaSource.Kind.class);
+            for (JavaSource.Kind kind : JavaSource.Kind.values()) {
+                this.byKind.put(kind, byKind.getOrDefault(kind, List.of()).toArray(NONE));
+            }
+            this.methodRules = methodRules.toArray(NONE);
+            this.fileRules = fileRules.toArray(NONE);
+            this.severities = severities;
+            this.idsByPack = idsByPack;
+            this.hasTokenRules = !byText.isEmpty() || !byKind.isEmpty();
+        }
+    }
+
+    /**
+     * Problema reportado por uma regra; {@code offset} é a posição no fonte (-1: sem posição).
+     * Com {@code template}, os textos vêm do modelo e dos {@code args}; sem ele, dos campos literais.
+     */
+    public record Violation(
+            String ruleId,
+            AnalysisIssue.IssueType type,
+            AnalysisIssue.IssueSeverity severity,
+            AnalysisIssue.IssueTemplate template,
+            Object[] args,
+            String title,
+            String description,
+            String suggestion,
+            int offset
+    ) {}
+}
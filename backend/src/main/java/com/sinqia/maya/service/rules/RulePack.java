@@ -0,0 +1,17 @@
+package com.sinqia.maya.service.rules;
+
+import java.util.List;
+
+/**
+ * Conjunto de regras carregado pelo {@link RuleEngine}.
+ *
+ * Pacotes vêm de beans Spring, de JARs no classpath registrados em
+ * META-INF/services/com.sinqia.maya.service.rules.RulePack e das regras
+ * declaradas nas configurações do banco ({@link ConfiguredRulePack}).
+ */
+public interface RulePack {
+
+    String name();
+
+    List<Rule> rules();
+}
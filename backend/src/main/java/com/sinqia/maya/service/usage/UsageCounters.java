@@ -0,0 +1,133 @@
+package com.sinqia.maya.service.usage;
+
+import com.sinqia.maya.repository.AuxiliaryFileRepository;
+import com.sinqia.maya.repository.ReviewPromptRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de uso de prompts e arquivos auxiliares com gravação adiada.
+ *
+ * Cada uso apenas incrementa um contador em memória (LongAdder, sem disputa
+ * entre threads); os totais são somados no banco periodicamente, em uma única
+ * transação por ciclo, com um UPDATE relativo por linha alterada. Assim a
+ * análise não bloqueia a mesma linha a cada uso e os totais no banco ficam
+ * atrasados em no máximo um intervalo (maya.usage.flush-interval-ms).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UsageCounters {
+
+    private final ReviewPromptRepository promptRepository;
+    private final AuxiliaryFileRepository auxiliaryFileRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<Long, Usage> prompts = new ConcurrentHashMap<>();
+    private final Map<Long, Usage> auxiliaryFiles = new ConcurrentHashMap<>();
+
+    public void recordPromptUse(Long promptId) {
+        if (promptId != null) {
+            prompts.computeIfAbsent(promptId, id -> new Usage()).record();
+        }
+    }
+
+    public void recordAuxiliaryFileUse(Long auxiliaryFileId) {
+        if (auxiliaryFileId != null) {
+            auxiliaryFiles.computeIfAbsent(auxiliaryFileId, id -> new Usage()).record();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${maya.usage.flush-interval-ms:10000}")
+    public void flush() {
+        List<Delta> promptDeltas = drain(prompts);
+        List<Delta> fileDeltas = drain(auxiliaryFiles);
+        if (promptDeltas.isEmpty() && fileDeltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                for (Delta delta : promptDeltas) {
+                    promptRepository.addUsage(delta.id(), delta.count(), delta.lastUsedAt());
+                }
+                for (Delta delta : fileDeltas) {
+                    auxiliaryFileRepository.addUsage(delta.id(), (int) Math.min(delta.count(), Integer.MAX_VALUE),
+                            delta.lastUsedAt());
+                }
+            });
+            log.debug("Contadores de uso gravados: {} prompts, {} arquivos auxiliares",
+                    promptDeltas.size(), fileDeltas.size());
+        } catch (RuntimeException e) {
+            // Devolve os usos aos contadores para a próxima tentativa
+            restore(prompts, promptDeltas);
+            restore(auxiliaryFiles, fileDeltas);
+            log.warn("Falha ao gravar contadores de uso, nova tentativa no próximo ciclo: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Retira os usos acumulados; as linhas saem ordenadas por id para que
+     * nós concorrentes bloqueiem na mesma ordem
+     */
+    private List<Delta> drain(Map<Long, Usage> counters) {
+        List<Delta> deltas = new ArrayList<>();
+        counters.forEach((id, usage) -> {
+            long count = usage.count.sumThenReset();
+            if (count > 0) {
+                deltas.add(new Delta(id, count, toDateTime(usage.lastUsedMillis.get())));
+            }
+        });
+        deltas.sort(Comparator.comparing(Delta::id));
+        return deltas;
+    }
+
+    private void restore(Map<Long, Usage> counters, List<Delta> deltas) {
+        for (Delta delta : deltas) {
+            counters.computeIfAbsent(delta.id(), id -> new Usage()).count.add(delta.count());
+        }
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Contador de uma linha; as entradas não são removidas (uma por prompt ou arquivo)
+     */
+    private static final class Usage {
+        private final LongAdder count = new LongAdder();
+        private final AtomicLong lastUsedMillis = new AtomicLong();
+
+        void record() {
+            count.increment();
+            long now = System.currentTimeMillis();
+            if (lastUsedMillis.get() < now) {
+                lastUsedMillis.accumulateAndGet(now, Math::max);
+            }
+        }
+    }
+
+    private record Delta(Long id, long count, LocalDateTime lastUsedAt) {}
+}
@@ -0,0 +1,72 @@
+package com.sinqia.maya.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressedTextConverterTest {
+
+    private final CompressedTextConverter converter = new CompressedTextConverter(2048);
+
+    @Test
+    void textoGrandeIdaEVolta() {
+        String report = "## Issues Encontrados\n\n"
+                + "- **Severidade:** Crítico - conexão emprestada sem devolve() no bloco finally\n".repeat(100);
+
+        String stored = converter.convertToDatabaseColumn(CompressedText.of(report));
+
+        assertThat(stored).startsWith(CompressedTextConverter.PREFIX);
+        assertThat(stored.length()).isLessThan(report.length());
+        assertThat(converter.convertToEntityAttribute(stored).text()).isEqualTo(report);
+    }
+
+    @Test
+    void valorLidoENaoAlteradoRegravadoComoEsta() {
+        String stored = converter.convertToDatabaseColumn(CompressedText.of("Relatório da análise\n".repeat(200)));
+
+        CompressedText loaded = converter.convertToEntityAttribute(stored);
+
+        assertThat(converter.convertToDatabaseColumn(loaded)).isSameAs(stored);
+        assertThat(loaded).isEqualTo(CompressedText.of("Relatório da análise\n".repeat(200)));
+    }
+
+    @Test
+    void textoCurtoGravadoComoEsta() {
+        String description = "Método buscarClientes(): conexão não devolvida";
+
+        assertThat(converter.convertToDatabaseColumn(CompressedText.of(description))).isEqualTo(description);
+        assertThat(converter.convertToEntityAttribute(description).text()).isEqualTo(description);
+    }
+
+    @Test
+    void nuloEVazio() {
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+        assertThat(converter.convertToDatabaseColumn(CompressedText.of(""))).isEmpty();
+        assertThat(converter.convertToEntityAttribute("").text()).isEmpty();
+    }
+
+    @Test
+    void linhaAntigaSemCompressaoLidaComoEsta() {
+        String legacy = "Relatório gravado antes da compressão\n".repeat(200);
+
+        assertThat(converter.convertToEntityAttribute(legacy).text()).isEqualTo(legacy);
+    }
+
+    @Test
+    void textoCurtoComOPrefixoNaoEConfundidoComComprimido() {
+        String text = CompressedTextConverter.PREFIX + "texto do usuário";
+
+        String stored = converter.convertToDatabaseColumn(CompressedText.of(text));
+
+        assertThat(stored).isNotEqualTo(text);
+        assertThat(converter.convertToEntityAttribute(stored).text()).isEqualTo(text);
+    }
+
+    @Test
+    void valorComprimidoInvalidoMantidoComoGravado() {
+        String corrupted = CompressedTextConverter.PREFIX + "não é base64!";
+
+        assertThat(converter.convertToEntityAttribute(corrupted).text()).isEqualTo(corrupted);
+    }
+}
@@ -0,0 +1,148 @@
+package com.sinqia.maya.service.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ComplexityAnalyzerTest {
+
+    @Test
+    void aninhamentoSomaNaCognitiva() {
+        MethodComplexity method = analyzeSingle("""
+                void processar(List<Integer> valores) {
+                    for (Integer valor : valores) {
+                        if (valor > 0) {
+                            while (valor > 10) {
+                                valor--;
+                            }
+                        }
+                    }
+                }
+                """);
+
+        assertThat(method.cyclomatic()).isEqualTo(4);
+        // for (+1), if aninhado (+2), while duplamente aninhado (+3)
+        assertThat(method.cognitive()).isEqualTo(6);
+    }
+
+    @Test
+    void sequenciasDeOperadoresLogicos() {
+        MethodComplexity method = analyzeSingle("""
+                boolean valido(boolean a, boolean b, boolean c, boolean d) {
+                    if (a && b && c || d) {
+                        return true;
+                    }
+                    return false;
+                }
+                """);
+
+        // if + três operadores
+        assertThat(method.cyclomatic()).isEqualTo(5);
+        // if (+1), sequência de && (+1), sequência de || (+1)
+        assertThat(method.cognitive()).isEqualTo(3);
+    }
+
+    @Test
+    void ternarioContaAninhamento() {
+        MethodComplexity method = analyzeSingle("""
+                int sinal(int x) {
+                    int resultado = 0;
+                    if (x != 0) {
+                        resultado = x > 0 ? 1 : -1;
+                    }
+                    return resultado;
+                }
+                """);
+
+        assertThat(method.cyclomatic()).isEqualTo(3);
+        // if (+1), ternário dentro do if (+2)
+        assertThat(method.cognitive()).isEqualTo(3);
+    }
+
+    @Test
+    void switchContaCasosNaCiclomaticaEUmaVezNaCognitiva() {
+        MethodComplexity method = analyzeSingle("""
+                int codigo(String tipo) {
+                    switch (tipo) {
+                        case "A":
+                            return 1;
+                        case "B":
+                            return 2;
+                        default:
+                            return 0;
+                    }
+                }
+                """);
+
+        // default não é decisão
+        assertThat(method.cyclomatic()).isEqualTo(3);
+        assertThat(method.cognitive()).isEqualTo(1);
+    }
+
+    @Test
+    void switchComSetaAninhaOCorpoDoCaso() {
+        MethodComplexity method = analyzeSingle("""
+                int codigo(int tipo, boolean ativo) {
+                    switch (tipo) {
+                        case 1 -> {
+                            if (ativo) {
+                                return 10;
+                            }
+                        }
+                        default -> {
+                            return 0;
+                        }
+                    }
+                    return -1;
+                }
+                """);
+
+        assertThat(method.cyclomatic()).isEqualTo(3);
+        // switch (+1), if dentro do caso (+2)
+        assertThat(method.cognitive()).isEqualTo(3);
+    }
+
+    @Test
+    void elseIfNaoPagaAninhamento() {
+        MethodComplexity method = analyzeSingle("""
+                String faixa(List<Integer> valores) {
+                    String ultima = null;
+                    for (Integer x : valores) {
+                        if (x > 10) {
+                            ultima = "alta";
+                        } else if (x > 5) {
+                            ultima = "media";
+                        } else {
+                            ultima = "baixa";
+                        }
+                    }
+                    return ultima;
+                }
+                """);
+
+        assertThat(method.cyclomatic()).isEqualTo(4);
+        // for (+1), if aninhado (+2), else if (+1), else (+1)
+        assertThat(method.cognitive()).isEqualTo(5);
+    }
+
+    @Test
+    void formatoCompactoIdaEVolta() {
+        List<MethodComplexity> methods = List.of(
+                new MethodComplexity("buscar", 12, 3, 2),
+                new MethodComplexity("calcular", 40, 9, 14));
+
+        String encoded = MethodComplexity.encode(methods);
+
+        assertThat(encoded).isEqualTo("buscar@12=3/2;calcular@40=9/14");
+        assertThat(MethodComplexity.decode(encoded)).isEqualTo(methods);
+    }
+
+    private static MethodComplexity analyzeSingle(String method) {
+        List<MethodComplexity> methods = ComplexityAnalyzer.analyze(
+                JavaSource.parse("public class Calculadora {\n" + method + "}\n"));
+        assertThat(methods).hasSize(1);
+        return methods.get(0);
+    }
+}
@@ -0,0 +1,152 @@
+package com.sinqia.maya.service.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionFlowAnalyzerTest {
+
+    @Test
+    void finallyComTesteDeNuloDevolveAConexao() {
+        List<ConnectionFlowAnalyzer.Finding> findings = analyze("""
+                public void salvar(Usuario usuario) {
+                    Connection conn = null;
+                    try {
+                        conn = ConnectionFactory.empresta();
+                        PreparedStatement stmt = conn.prepareStatement("INSERT INTO usuarios (nome) VALUES (?)");
+                        stmt.setString(1, usuario.getNome());
+                        stmt.executeUpdate();
+                    } finally {
+                        if (conn != null) {
+                            ConnectionFactory.devolve(conn);
+                        }
+                    }
+                }
+                """);
+
+        assertThat(findings).isEmpty();
+    }
+
+    @Test
+    void finallyComTesteDeNuloSemChaves() {
+        List<ConnectionFlowAnalyzer.Finding> findings = analyze("""
+                public void salvar() {
+                    Connection conn = null;
+                    try {
+                        conn = ConnectionFactory.empresta();
+                        conn.prepareStatement("DELETE FROM usuarios").executeUpdate();
+                    } finally {
+                        if (null != conn) ConnectionFactory.devolve(conn);
+                    }
+                }
+                """);
+
+        assertThat(findings).isEmpty();
+    }
+
+    @Test
+    void devolucaoPorMetodoUtilitarioNoFinally() {
+        List<ConnectionFlowAnalyzer.Finding> findings = analyze("""
+                public void salvar() {
+                    Connection c = null;
+                    try {
+                        c = ConnectionFactory.empresta();
+                        c.prepareStatement("DELETE FROM usuarios").executeUpdate();
+                    } finally {
+                        fechar(c);
+                    }
+                }
+                """);
+
+        assertThat(findings).isEmpty();
+    }
+
+    @Test
+    void returnDentroDoTryComFinallyNaoVaza() {
+        List<ConnectionFlowAnalyzer.Finding> findings = analyze("""
+                public int contar() {
+                    Connection c = null;
+                    try {
+                        c = ConnectionFactory.empresta();
+                        return c.consultar();
+                    } finally {
+                        ConnectionFactory.devolve(c);
+                    }
+                }
+                """);
+
+        assertThat(findings).isEmpty();
+    }
+
+    @Test
+    void returnAntesDoDevolveSemFinally() {
+        List<ConnectionFlowAnalyzer.Finding> findings = analyze("""
+                public int contar(boolean vazio) {
+                    Connection c = ConnectionFactory.empresta();
+                    if (vazio) {
+                        return 0;
+                    }
+                    int total = c.consultar();
+                    ConnectionFactory.devolve(c);
+                    return total;
+                }
+                """);
+
+        assertThat(types(findings)).contains(ConnectionFlowAnalyzer.FindingType.RETURN_BEFORE_DEVOLVE);
+    }
+
+    @Test
+    void devolveDuplicado() {
+        List<ConnectionFlowAnalyzer.Finding> findings = analyze("""
+                public void salvar() {
+                    Connection c = null;
+                    try {
+                        c = ConnectionFactory.empresta();
+                        c.prepareStatement("DELETE FROM usuarios").executeUpdate();
+                        ConnectionFactory.devolve(c);
+                    } finally {
+                        ConnectionFactory.devolve(c);
+                    }
+                }
+                """);
+
+        assertThat(types(findings)).containsExactly(ConnectionFlowAnalyzer.FindingType.DOUBLE_DEVOLVE);
+    }
+
+    @Test
+    void conexaoNuncaDevolvida() {
+        List<ConnectionFlowAnalyzer.Finding> findings = analyze("""
+                public void salvar() {
+                    Connection c = ConnectionFactory.empresta();
+                    c.prepareStatement("DELETE FROM usuarios").executeUpdate();
+                }
+                """);
+
+        assertThat(types(findings)).containsExactly(ConnectionFlowAnalyzer.FindingType.MISSING_DEVOLVE);
+    }
+
+    @Test
+    void testeDeNuloNaoEscondeVazamentoForaDoFinally() {
+        List<ConnectionFlowAnalyzer.Finding> findings = analyze("""
+                public void salvar(boolean ok) {
+                    Connection c = ConnectionFactory.empresta();
+                    if (c != null && ok) {
+                        ConnectionFactory.devolve(c);
+                    }
+                }
+                """);
+
+        assertThat(types(findings)).contains(ConnectionFlowAnalyzer.FindingType.MISSING_DEVOLVE);
+    }
+
+    private static List<ConnectionFlowAnalyzer.Finding> analyze(String method) {
+        JavaSource source = JavaSource.parse("public class UsuarioDao {\n" + method + "}\n");
+        return ConnectionFlowAnalyzer.analyze(source).findings();
+    }
+
+    private static List<ConnectionFlowAnalyzer.FindingType> types(List<ConnectionFlowAnalyzer.Finding> findings) {
+        return findings.stream().map(ConnectionFlowAnalyzer.Finding::type).toList();
+    }
+}
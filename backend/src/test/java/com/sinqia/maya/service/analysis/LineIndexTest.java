@@ -0,0 +1,105 @@
+package com.sinqia.maya.service.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LineIndexTest {
+
+    @Test
+    void linhaEColunaDeCadaPosicao() {
+        LineIndex index = LineIndex.of("class A {\n  int x;\n}");
+
+        assertThat(index.lineOf(0)).isEqualTo(1);
+        assertThat(index.columnOf(0)).isEqualTo(1);
+        // 'i' de int
+        assertThat(index.lineOf(12)).isEqualTo(2);
+        assertThat(index.columnOf(12)).isEqualTo(3);
+        assertThat(index.lineOf(19)).isEqualTo(3);
+        assertThat(index.columnOf(19)).isEqualTo(1);
+    }
+
+    @Test
+    void quebraDeLinhaFicaNaLinhaQueEncerra() {
+        LineIndex index = LineIndex.of("ab\ncd");
+
+        assertThat(index.lineOf(2)).isEqualTo(1);
+        assertThat(index.columnOf(2)).isEqualTo(3);
+        assertThat(index.lineOf(3)).isEqualTo(2);
+    }
+
+    @Test
+    void crlfNaoEntraNoTextoDaLinha() {
+        LineIndex index = LineIndex.of("ab\r\ncd\r\n");
+
+        assertThat(index.lineCount()).isEqualTo(2);
+        assertThat(index.line(1)).isEqualTo("ab");
+        assertThat(index.line(2)).isEqualTo("cd");
+        // 'c' logo após o \r\n
+        assertThat(index.lineOf(4)).isEqualTo(2);
+        assertThat(index.columnOf(4)).isEqualTo(1);
+    }
+
+    @Test
+    void quebrasNoFimNaoContamComoLinhas() {
+        assertThat(LineIndex.of("a\nbc\n").lineCount()).isEqualTo(2);
+        assertThat(LineIndex.of("a\n\n\n").lineCount()).isEqualTo(1);
+        assertThat(LineIndex.of("a\n\nb").lineCount()).isEqualTo(3);
+        assertThat(LineIndex.of("a\r\n\r\n").lineCount()).isEqualTo("a\r\n\r\n".split("\\n").length);
+    }
+
+    @Test
+    void conteudoVazioOuNulo() {
+        for (LineIndex index : new LineIndex[]{LineIndex.of(""), LineIndex.of(null)}) {
+            assertThat(index.lineCount()).isEqualTo(1);
+            assertThat(index.lineOf(0)).isEqualTo(1);
+            assertThat(index.columnOf(0)).isEqualTo(1);
+            assertThat(index.line(1)).isEmpty();
+            assertThat(index.indentColumn(1)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void posicaoNoFimDoConteudo() {
+        LineIndex semQuebraFinal = LineIndex.of("ab\ncd");
+        assertThat(semQuebraFinal.lineOf(5)).isEqualTo(2);
+        assertThat(semQuebraFinal.columnOf(5)).isEqualTo(3);
+
+        // Depois da última quebra a posição está no início da linha seguinte, vazia
+        LineIndex comQuebraFinal = LineIndex.of("ab\n");
+        assertThat(comQuebraFinal.lineOf(3)).isEqualTo(2);
+        assertThat(comQuebraFinal.columnOf(3)).isEqualTo(1);
+        assertThat(comQuebraFinal.line(2)).isEmpty();
+    }
+
+    @Test
+    void posicoesForaDoConteudoFicamNasLinhasDasPontas() {
+        LineIndex index = LineIndex.of("ab\ncd");
+
+        assertThat(index.lineOf(-1)).isEqualTo(1);
+        assertThat(index.lineOf(100)).isEqualTo(2);
+        assertThat(index.line(0)).isEmpty();
+        assertThat(index.line(3)).isEmpty();
+    }
+
+    @Test
+    void indentacaoDaLinha() {
+        LineIndex index = LineIndex.of("class A {\n    int x;\n\t}\n\n");
+
+        assertThat(index.indentColumn(1)).isEqualTo(1);
+        assertThat(index.indentColumn(2)).isEqualTo(5);
+        assertThat(index.indentColumn(3)).isEqualTo(2);
+        assertThat(index.indentColumn(4)).isEqualTo(1);
+    }
+
+    @Test
+    void arquivoComMuitasLinhasCurtas() {
+        String content = "x\n".repeat(1000) + "fim";
+        LineIndex index = LineIndex.of(content);
+
+        assertThat(index.lineCount()).isEqualTo(1001);
+        assertThat(index.lineOf(content.indexOf("fim"))).isEqualTo(1001);
+        assertThat(index.line(1001)).isEqualTo("fim");
+        assertThat(index.line(500)).isEqualTo("x");
+    }
+}
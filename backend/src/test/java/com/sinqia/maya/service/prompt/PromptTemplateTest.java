@@ -0,0 +1,49 @@
+package com.sinqia.maya.service.prompt;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PromptTemplateTest {
+
+    @Test
+    void substituiMarcadoresNaOrdemDosParametros() {
+        PromptTemplate template = PromptTemplate.compile(
+                "Analise {{ fileName }} ({{language}}):\n{{code}}\nArquivo: {{fileName}}",
+                "code", "fileName", "language");
+
+        String rendered = template.render("class A {}", "A.java", "java");
+
+        assertThat(rendered).isEqualTo("Analise A.java (java):\nclass A {}\nArquivo: A.java");
+    }
+
+    @Test
+    void marcadorNaoDeclaradoMantidoComoTexto() {
+        PromptTemplate template = PromptTemplate.compile("{{code}} e {{desconhecido}}", "code");
+
+        assertThat(template.render("x = 1")).isEqualTo("x = 1 e {{desconhecido}}");
+    }
+
+    @Test
+    void parametroDeclaradoSemMarcadorNaoAlteraOTexto() {
+        PromptTemplate template = PromptTemplate.compile("Sem marcadores", "code");
+
+        assertThat(template.render("ignorado")).isEqualTo("Sem marcadores");
+        assertThat(template.length()).isEqualTo("Sem marcadores".length());
+    }
+
+    @Test
+    void valorAusenteRejeitado() {
+        PromptTemplate template = PromptTemplate.compile("{{code}} em {{fileName}}", "code", "fileName");
+
+        assertThatThrownBy(() -> template.render("x = 1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("espera 2 valores");
+    }
+
+    @Test
+    void textoNuloCompilaVazio() {
+        assertThat(PromptTemplate.compile(null).render()).isEmpty();
+    }
+}
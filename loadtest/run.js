@@ -0,0 +1,447 @@
+/**
+ * Teste de carga da API de revisão do MAYA.
+ *
+ * Executa um cenário por vez (análise via API, análise via TFS, leituras do
+ * dashboard, relatório executivo e descoberta no GitHub) com N usuários
+ * virtuais em laço fechado. Para cada cenário informa vazão, latências
+ * p50/p95/p99 e quantidade de instruções SQL, lida do actuator
+ * (hibernate.statements) antes e depois da medição. O backend deve estar no
+ * perfil loadtest e os substitutos (stubs.js) em execução.
+ *
+ * As análises via TFS respondem 202 ao enfileirar: a medida vai até as
+ * revisões criadas terminarem (consultadas em GET /api/v1/code-reviews/{id}),
+ * e as recusas por fila cheia (503) são contadas à parte, fora das latências.
+ *
+ *   node loadtest/run.js --concurrency 16 --duration 30
+ *   node loadtest/run.js --scenarios code-review-analyze,dashboard-overview
+ *
+ * Usa apenas módulos nativos do Node.
+ */
+const http = require('http');
+const https = require('https');
+const fs = require('fs');
+const path = require('path');
+const { URL } = require('url');
+
+const options = parseArgs(process.argv.slice(2), {
+  'base-url': process.env.MAYA_BASE_URL || 'http://localhost:8081',
+  user: process.env.MAYA_USER || 'loadtest',
+  password: process.env.MAYA_PASSWORD || 'loadtest',
+  concurrency: 8,
+  duration: 20,
+  warmup: 5,
+  'think-time': 0,
+  scenarios: 'all',
+  project: 'LoadTest',
+  repository: 'maya-loadtest',
+  'java-files': 5,
+  'max-analyses': 3,
+  'poll-interval': 500,
+  'review-timeout': 300,
+  output: path.join(__dirname, 'results')
+});
+
+const baseUrl = new URL(options['base-url']);
+const client = baseUrl.protocol === 'https:' ? https : http;
+const agent = new client.Agent({ keepAlive: true, maxSockets: Number(options.concurrency) * 2 });
+const authorization = 'Basic ' + Buffer.from(`${options.user}:${options.password}`).toString('base64');
+const session = { cookie: null, csrf: null };
+
+// Revisões criadas nos cenários de análise, usadas pelo relatório executivo
+const reviewIds = [];
+let commitSequence = 0;
+
+const DASHBOARD_READS = [
+  'overview', 'quality-metrics', 'trends', 'repository-ranking',
+  'developer-ranking', 'issue-statistics', 'performance-metrics', 'alerts'
+];
+
+const SCENARIOS = [
+  {
+    name: 'code-review-analyze',
+    endpoint: 'POST /api/v1/code-reviews/analyze',
+    request: () => {
+      const sha = nextCommitSha();
+      return {
+        method: 'POST',
+        path: '/api/v1/code-reviews/analyze',
+        body: {
+          commitSha: sha,
+          repositoryName: options.repository,
+          projectName: options.project,
+          author: 'Carga ' + (commitSequence % 20),
+          title: 'Análise de carga ' + sha.substring(0, 8),
+          javaFiles: javaFiles(sha),
+          llmModel: 'gpt-4'
+        }
+      };
+    },
+    onResponse: collectReviewId
+  },
+  {
+    name: 'tfs-commit-analyze',
+    endpoint: 'POST /api/v1/tfs/projects/{p}/repositories/{r}/commits/{sha}/analyze',
+    request: () => ({
+      method: 'POST',
+      path: `${tfsRepositoryPath()}/commits/${nextCommitSha()}/analyze`
+    }),
+    awaitReviews: (body) => (body.reviewId ? [body.reviewId] : [])
+  },
+  {
+    name: 'tfs-analyze-recent',
+    endpoint: 'POST /api/v1/tfs/projects/{p}/repositories/{r}/analyze-recent',
+    request: () => ({
+      method: 'POST',
+      path: `${tfsRepositoryPath()}/analyze-recent?days=7&maxAnalyses=${options['max-analyses']}`
+    }),
+    awaitReviews: (body) => body.reviewIds || [],
+    // A análise em lote responde 200 e informa os pull requests ignorados com a fila cheia
+    rejected: (body) => body.skippedCount > 0
+  },
+  ...DASHBOARD_READS.map((read) => ({
+    name: 'dashboard-' + read,
+    endpoint: 'GET /api/v1/dashboard/' + read,
+    request: () => ({ method: 'GET', path: '/api/v1/dashboard/' + read })
+  })),
+  {
+    name: 'executive-report',
+    endpoint: 'POST /api/v1/code-reviews/{id}/executive-report',
+    request: () => {
+      if (reviewIds.length === 0) {
+        return null;
+      }
+      const id = reviewIds[Math.floor(Math.random() * reviewIds.length)];
+      return { method: 'POST', path: `/api/v1/code-reviews/${id}/executive-report` };
+    }
+  },
+  {
+    name: 'github-discover',
+    endpoint: 'POST /api/v1/repositories/discover',
+    request: () => ({
+      method: 'POST',
+      path: '/api/v1/repositories/discover',
+      body: { type: 'GITHUB', organization: 'sinqia', accessToken: 'loadtest' }
+    })
+  }
+];
+
+main().catch((error) => {
+  console.error('Teste de carga interrompido:', error.message);
+  process.exit(1);
+});
+
+async function main() {
+  const selected = selectScenarios(options.scenarios);
+  await openSession();
+
+  console.log(`Alvo ${baseUrl.origin}: ${options.concurrency} usuários virtuais, ` +
+    `${options.warmup}s de aquecimento e ${options.duration}s de medição por cenário\n`);
+
+  const results = [];
+  for (const scenario of selected) {
+    process.stdout.write(`- ${scenario.name} ... `);
+    const result = await runScenario(scenario);
+    results.push(result);
+    console.log(result.skipped ? 'ignorado (sem revisões criadas)' : `${result.throughput.toFixed(1)} req/s`);
+  }
+
+  printTable(results);
+  writeReport(results);
+  agent.destroy();
+}
+
+/**
+ * Executa um cenário: aquecimento, leitura do contador SQL, medição e nova leitura
+ */
+async function runScenario(scenario) {
+  if (scenario.request() === null) {
+    return { scenario: scenario.name, endpoint: scenario.endpoint, skipped: true };
+  }
+
+  await drive(scenario, Number(options.warmup) * 1000, null);
+
+  const statementsBefore = await readStatementCount();
+  const samples = { latencies: [], statuses: {}, errors: 0, rejected: 0 };
+  const started = process.hrtime.bigint();
+  await drive(scenario, Number(options.duration) * 1000, samples);
+  const elapsedSeconds = Number(process.hrtime.bigint() - started) / 1e9;
+  const statementsAfter = await readStatementCount();
+
+  const latencies = samples.latencies.sort((a, b) => a - b);
+  const completed = latencies.length;
+  const statements = statementsBefore === null || statementsAfter === null
+    ? null : statementsAfter - statementsBefore;
+
+  return {
+    scenario: scenario.name,
+    endpoint: scenario.endpoint,
+    concurrency: Number(options.concurrency),
+    requests: completed,
+    errors: samples.errors,
+    rejected: samples.rejected,
+    statuses: samples.statuses,
+    throughput: completed / elapsedSeconds,
+    latencyMs: {
+      p50: percentile(latencies, 0.50),
+      p95: percentile(latencies, 0.95),
+      p99: percentile(latencies, 0.99),
+      max: completed > 0 ? latencies[completed - 1] : 0
+    },
+    dbStatements: statements,
+    dbStatementsPerRequest: statements === null || completed === 0 ? null : statements / completed
+  };
+}
+
+/**
+ * Usuários virtuais em laço fechado até o fim do prazo; samples null descarta as medidas.
+ * Recusas por fila cheia não entram nas latências nem nos erros.
+ */
+async function drive(scenario, durationMs, samples) {
+  const deadline = Date.now() + durationMs;
+  const workers = [];
+  for (let i = 0; i < Number(options.concurrency); i++) {
+    workers.push((async () => {
+      while (Date.now() < deadline) {
+        const request = scenario.request();
+        const started = process.hrtime.bigint();
+        let response;
+        try {
+          response = await send(request);
+        } catch (error) {
+          response = { status: 0, body: null, error };
+        }
+        let outcome = outcomeOf(scenario, response);
+        if (outcome === 'ok' && scenario.awaitReviews && response.body) {
+          outcome = await awaitReviews(scenario.awaitReviews(response.body));
+        }
+        const latencyMs = Number(process.hrtime.bigint() - started) / 1e6;
+
+        if (samples) {
+          samples.statuses[response.status] = (samples.statuses[response.status] || 0) + 1;
+          if (outcome === 'rejected') {
+            samples.rejected++;
+          } else {
+            samples.latencies.push(latencyMs);
+            if (outcome === 'error') {
+              samples.errors++;
+            }
+          }
+        }
+        if (scenario.onResponse && response.body) {
+          scenario.onResponse(response.body);
+        }
+        if (Number(options['think-time']) > 0) {
+          await sleep(Number(options['think-time']));
+        }
+      }
+    })());
+  }
+  await Promise.all(workers);
+}
+
+function outcomeOf(scenario, response) {
+  if (response.status === 503 || (scenario.rejected && response.body && scenario.rejected(response.body))) {
+    return 'rejected';
+  }
+  return response.status >= 200 && response.status < 300 ? 'ok' : 'error';
+}
+
+/**
+ * Consulta as revisões até todas terminarem; falha ou prazo esgotado contam como erro
+ */
+async function awaitReviews(ids) {
+  const deadline = Date.now() + Number(options['review-timeout']) * 1000;
+  let outcome = 'ok';
+  for (const id of ids) {
+    let status = null;
+    while (status !== 'COMPLETED' && status !== 'FAILED' && Date.now() < deadline) {
+      await sleep(Number(options['poll-interval']));
+      try {
+        const response = await send({ method: 'GET', path: `/api/v1/code-reviews/${id}` });
+        status = response.status === 200 && response.body ? response.body.status : null;
+      } catch (error) {
+        status = null;
+      }
+    }
+    if (status === 'COMPLETED') {
+      collectReviewId({ reviewId: id });
+    } else {
+      outcome = 'error';
+    }
+  }
+  return outcome;
+}
+
+/**
+ * Total de instruções preparadas pelo Hibernate (exige generate_statistics, perfil loadtest)
+ */
+async function readStatementCount() {
+  try {
+    const response = await send({ method: 'GET', path: '/actuator/metrics/hibernate.statements?tag=status:prepared' });
+    if (response.status !== 200 || !response.body) {
+      return null;
+    }
+    const measurement = (response.body.measurements || []).find((m) => m.statistic === 'COUNT');
+    return measurement ? measurement.value : null;
+  } catch (error) {
+    return null;
+  }
+}
+
+/**
+ * Abre a sessão e obtém o token CSRF exigido pelo Spring Security nos POSTs
+ */
+async function openSession() {
+  try {
+    const response = await send({ method: 'GET', path: '/login', raw: true });
+    const match = typeof response.body === 'string' && response.body.match(/name="_csrf"[^>]*value="([^"]+)"/);
+    if (match) {
+      session.csrf = match[1];
+    }
+  } catch (error) {
+    // Sem página de login: a aplicação não exige CSRF
+  }
+}
+
+function send(request) {
+  return new Promise((resolve, reject) => {
+    const payload = request.body ? JSON.stringify(request.body) : null;
+    const headers = { Authorization: authorization, Accept: 'application/json' };
+    if (payload) {
+      headers['Content-Type'] = 'application/json';
+      headers['Content-Length'] = Buffer.byteLength(payload);
+    }
+    if (session.cookie) {
+      headers.Cookie = session.cookie;
+    }
+    if (session.csrf && request.method !== 'GET') {
+      headers['X-CSRF-TOKEN'] = session.csrf;
+    }
+
+    const req = client.request({
+      protocol: baseUrl.protocol,
+      hostname: baseUrl.hostname,
+      port: baseUrl.port,
+      path: request.path,
+      method: request.method,
+      headers,
+      agent
+    }, (res) => {
+      const setCookie = res.headers['set-cookie'];
+      if (setCookie) {
+        const sessionCookie = setCookie.find((cookie) => cookie.startsWith('JSESSIONID='));
+        if (sessionCookie) {
+          session.cookie = sessionCookie.split(';')[0];
+        }
+      }
+      const chunks = [];
+      res.on('data', (chunk) => chunks.push(chunk));
+      res.on('end', () => {
+        const text = Buffer.concat(chunks).toString('utf8');
+        let body = text;
+        if (!request.raw) {
+          try {
+            body = text ? JSON.parse(text) : null;
+          } catch (error) {
+            body = null;
+          }
+        }
+        resolve({ status: res.statusCode, body });
+      });
+    });
+    req.on('error', reject);
+    if (payload) {
+      req.write(payload);
+    }
+    req.end();
+  });
+}
+
+function collectReviewId(body) {
+  if (body.reviewId && reviewIds.length < 1000) {
+    reviewIds.push(body.reviewId);
+  }
+}
+
+function nextCommitSha() {
+  commitSequence++;
+  const prefix = Date.now().toString(16) + commitSequence.toString(16);
+  return (prefix + '0'.repeat(40)).substring(0, 40);
+}
+
+function javaFiles(sha) {
+  const files = [];
+  for (let i = 0; i < Number(options['java-files']); i++) {
+    files.push(`src/main/java/com/sinqia/corban/dao/Carga${sha.substring(0, 6)}Dao${i}.java`);
+  }
+  return files;
+}
+
+function tfsRepositoryPath() {
+  return `/api/v1/tfs/projects/${encodeURIComponent(options.project)}/repositories/${encodeURIComponent(options.repository)}`;
+}
+
+function selectScenarios(names) {
+  if (names === 'all') {
+    return SCENARIOS;
+  }
+  return names.split(',').map((name) => {
+    const scenario = SCENARIOS.find((s) => s.name === name.trim());
+    if (!scenario) {
+      throw new Error(`Cenário desconhecido: ${name}. Disponíveis: ${SCENARIOS.map((s) => s.name).join(', ')}`);
+    }
+    return scenario;
+  });
+}
+
+function percentile(sorted, p) {
+  if (sorted.length === 0) {
+    return 0;
+  }
+  const index = Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+  return sorted[Math.max(0, index)];
+}
+
+function printTable(results) {
+  const header = ['cenário', 'req', 'erros', 'recusas', 'req/s', 'p50 ms', 'p95 ms', 'p99 ms', 'SQL', 'SQL/req'];
+  const rows = results.filter((r) => !r.skipped).map((r) => [
+    r.scenario, r.requests, r.errors, r.rejected, r.throughput.toFixed(1),
+    r.latencyMs.p50.toFixed(1), r.latencyMs.p95.toFixed(1), r.latencyMs.p99.toFixed(1),
+    r.dbStatements === null ? 'n/d' : r.dbStatements,
+    r.dbStatementsPerRequest === null ? 'n/d' : r.dbStatementsPerRequest.toFixed(1)
+  ]);
+  const widths = header.map((h, i) => Math.max(h.length, ...rows.map((row) => String(row[i]).length)));
+  const line = (cells) => cells.map((c, i) => (i === 0 ? String(c).padEnd(widths[i]) : String(c).padStart(widths[i]))).join('  ');
+
+  console.log('\n' + line(header));
+  console.log(widths.map((w) => '-'.repeat(w)).join('  '));
+  rows.forEach((row) => console.log(line(row)));
+}
+
+function writeReport(results) {
+  fs.mkdirSync(options.output, { recursive: true });
+  const file = path.join(options.output, `loadtest-${new Date().toISOString().replace(/[:.]/g, '-')}.json`);
+  fs.writeFileSync(file, JSON.stringify({
+    target: baseUrl.origin,
+    startedAt: new Date().toISOString(),
+    options: { ...options, password: undefined },
+    results
+  }, null, 2));
+  console.log(`\nResultado gravado em ${file}`);
+}
+
+function parseArgs(args, defaults) {
+  const parsed = { ...defaults };
+  for (let i = 0; i < args.length; i++) {
+    if (!args[i].startsWith('--')) {
+      continue;
+    }
+    const [key, inline] = args[i].substring(2).split('=');
+    parsed[key] = inline !== undefined ? inline : args[++i];
+  }
+  return parsed;
+}
+
+function sleep(ms) {
+  return new Promise((resolve) => setTimeout(resolve, ms));
+}
@@ -0,0 +1,256 @@
+/**
+ * Servidores substitutos do TFS (Azure DevOps), GitHub e EverAI para o teste de carga.
+ *
+ * Usa apenas módulos nativos do Node. Cada serviço responde com o formato que
+ * o backend espera e com latência log-normal, definida pela mediana e pelo p99
+ * em milissegundos (variáveis STUB_*_LATENCY="mediana,p99").
+ *
+ *   node loadtest/stubs.js
+ */
+const http = require('http');
+const { URL } = require('url');
+
+const config = {
+  tfs: { port: intEnv('STUB_TFS_PORT', 18081), latency: latencyEnv('STUB_TFS_LATENCY', [40, 250]) },
+  github: { port: intEnv('STUB_GITHUB_PORT', 18082), latency: latencyEnv('STUB_GITHUB_LATENCY', [80, 400]) },
+  everai: { port: intEnv('STUB_EVERAI_PORT', 18083), latency: latencyEnv('STUB_EVERAI_LATENCY', [1200, 6000]) },
+  javaFilesPerCommit: intEnv('STUB_JAVA_FILES_PER_COMMIT', 5),
+  pullRequests: intEnv('STUB_PULL_REQUESTS', 5),
+  errorRate: Number(process.env.STUB_ERROR_RATE || 0)
+};
+
+// ===================================================================
+// TFS / Azure DevOps
+// ===================================================================
+const tfsRoutes = [
+  [/^\/_apis\/projects$/, () => ({ count: 1, value: [{ id: 'p1', name: 'LoadTest' }] })],
+  [/^\/([^/]+)\/_apis\/git\/repositories$/, (m) => ({
+    count: 1,
+    value: [{
+      id: 'r1', name: 'maya-loadtest', webUrl: `http://localhost/${m[1]}/_git/maya-loadtest`,
+      defaultBranch: 'refs/heads/master', project: { name: m[1] }
+    }]
+  })],
+  [/^\/[^/]+\/_apis\/git\/repositories\/[^/]+\/commits\/([^/]+)\/changes$/, (m) => ({
+    changeCounts: { Edit: config.javaFilesPerCommit + 1 },
+    changes: changedFiles(m[1]).map((path) => ({ item: { path, gitObjectType: 'blob' }, changeType: 'edit' }))
+  })],
+  [/^\/[^/]+\/_apis\/git\/repositories\/[^/]+\/commits\/([^/]+)$/, (m) => ({
+    commitId: m[1],
+    author: { name: 'Carga ' + (hash(m[1]) % 20), email: 'carga@sinqia.com.br', date: new Date().toISOString() },
+    comment: 'Ajuste de regra de negócio ' + m[1].substring(0, 8)
+  })],
+  // O TFS devolve o conteúdo dos arquivos como texto puro
+  [/^\/[^/]+\/_apis\/git\/repositories\/[^/]+\/items$/, (m, url) =>
+    new PlainText(javaSource(url.searchParams.get('path') || 'Arquivo.java'))],
+  [/^\/[^/]+\/_apis\/git\/repositories\/[^/]+\/pullrequests$/, () => {
+    const value = [];
+    for (let i = 1; i <= config.pullRequests; i++) {
+      const commitId = randomSha();
+      value.push({
+        pullRequestId: i, title: 'PR de carga ' + i, status: 'completed',
+        createdBy: { displayName: 'Carga ' + i }, lastMergeCommit: { commitId }
+      });
+    }
+    return { count: value.length, value };
+  }]
+];
+
+// ===================================================================
+// GitHub
+// ===================================================================
+const githubRoutes = [
+  [/^\/orgs\/([^/]+)\/repos$/, (m) => {
+    const repos = [];
+    for (let i = 1; i <= 30; i++) {
+      repos.push(githubRepository(m[1], 'servico-' + i, i));
+    }
+    return repos;
+  }],
+  [/^\/repos\/([^/]+)\/([^/]+)$/, (m) => githubRepository(m[1], m[2], hash(m[2]) % 1000)],
+  [/^\/repos\/[^/]+\/[^/]+\/commits\/([^/]+)$/, (m) => githubCommit(m[1])],
+  [/^\/repos\/[^/]+\/[^/]+\/commits$/, (m, url) => {
+    const limit = Math.min(Number(url.searchParams.get('per_page') || 30), 100);
+    return Array.from({ length: limit }, () => githubCommit(randomSha()));
+  }],
+  [/^\/user$/, () => ({ login: 'maya-loadtest', id: 1, name: 'MAYA Load Test' })]
+];
+
+// ===================================================================
+=======
+// EverAI (maya.ai.endpoint, chamado pelo SinqiaAiService)
+// ==========================================================================
+const everaiRoutes = [
+  [/.*/, (m, url, body) => {
+    const promptChars = body ? body.length : 0;
+    return {
+      id: 'loadtest-' + Date.now(),
+      model: 'loadtest',
+      choices: [{
+        index: 0,
+        message: { role: 'assistant', content: executiveReport(promptChars) },
+        finish_reason: 'stop'
+      }],
+      usage: { prompt_tokens: Math.ceil(promptChars / 4), completion_tokens: 600 }
+    };
+  }]
+];
+
+class PlainText {
+  constructor(body) {
+    this.body = body;
+  }
+}
+
+start('TFS', config.tfs, tfsRoutes);
+start('GitHub', config.github, githubRoutes);
+start('EverAI', config.everai, everaiRoutes);
+
+function start(name, service, routes) {
+  const server = http.createServer((req, res) => {
+    const chunks = [];
+    req.on('data', (chunk) => chunks.push(chunk));
+    req.on('end', () => {
+      const url = new URL(req.url, 'http://localhost');
+      const body = Buffer.concat(chunks).toString('utf8');
+      setTimeout(() => respond(req, res, url, body, routes), sampleLatency(service.latency));
+    });
+  });
+  server.keepAliveTimeout = 65000;
+  server.listen(service.port, () => {
+    console.log(`${name} substituto em http://localhost:${service.port} ` +
+      `(latência mediana ${service.latency[0]}ms, p99 ${service.latency[1]}ms)`);
+  });
+}
+
+function respond(req, res, url, body, routes) {
+  if (config.errorRate > 0 && Math.random() < config.errorRate) {
+    return send(res, 503, { message: 'Falha simulada' });
+  }
+  for (const [pattern, handler] of routes) {
+    const match = url.pathname.match(pattern);
+    if (match) {
+      const payload = handler(match, url, body);
+      if (payload instanceof PlainText) {
+        res.writeHead(200, { 'Content-Type': 'text/plain; charset=utf-8' });
+        return res.end(payload.body);
+      }
+      return send(res, 200, payload);
+    }
+  }
+  send(res, 404, { message: `Rota não simulada: ${req.method} ${url.pathname}` });
+}
+
+function send(res, status, payload) {
+  const json = JSON.stringify(payload);
+  res.writeHead(status, { 'Content-Type': 'application/json; charset=utf-8', 'Content-Length': Buffer.byteLength(json) });
+  res.end(json);
+}
+
+/**
+ * Latência log-normal: mediana m e p99 p dão sigma = ln(p/m) / z(0,99)
+ */
+function sampleLatency([median, p99]) {
+  const sigma = Math.log(Math.max(p99, median + 1) / median) / 2.326;
+  const u1 = Math.random() || Number.MIN_VALUE;
+  const u2 = Math.random();
+  const normal = Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+  return Math.round(median * Math.exp(sigma * normal));
+}
+
+function changedFiles(sha) {
+  const files = [];
+  const seed = hash(sha);
+  for (let i = 0; i < config.javaFilesPerCommit; i++) {
+    const kind = ['dao', 'service', 'controller'][(seed + i) % 3];
+    const name = ['Cliente', 'Contrato', 'Parcela', 'Taxa', 'Cadastro'][(seed + i) % 5];
+    const suffix = { dao: 'Dao', service: 'Service', controller: 'Controller' }[kind];
+    files.push(`/src/main/java/com/sinqia/corban/${kind}/${name}${suffix}${i}.java`);
+  }
+  files.push('/src/main/resources/application.properties');
+  return files;
+}
+
+function javaSource(path) {
+  const className = path.substring(path.lastIndexOf('/') + 1).replace('.java', '');
+  return [
+    'package com.sinqia.corban;',
+    '',
+    `public class ${className} {`,
+    '    public void processar(GerenciadorConexao gerenciador) throws Exception {',
+    '        Conexao conexao = gerenciador.empresta();',
+    '        try {',
+    '            conexao.executar("SELECT 1");',
+    '        } finally {',
+    '            gerenciador.devolve(conexao);',
+    '        }',
+    '    }',
+    '}',
+    ''
+  ].join('\n');
+}
+
+function githubRepository(owner, name, id) {
+  return {
+    id, name, full_name: `${owner}/${name}`, description: 'Repositório de carga',
+    html_url: `https://github.com/${owner}/${name}`, clone_url: `https://github.com/${owner}/${name}.git`,
+    default_branch: 'main', private: true, language: 'Java', size: 2048,
+    stargazers_count: 0, forks_count: 0,
+    created_at: '2024-01-01T00:00:00Z', updated_at: new Date().toISOString()
+  };
+}
+
+function githubCommit(sha) {
+  return {
+    sha, html_url: `https://github.com/sinqia/maya/commit/${sha}`,
+    commit: {
+      message: 'Commit de carga',
+      author: { name: 'Carga', email: 'carga@sinqia.com.br', date: new Date().toISOString() }
+    }
+  };
+}
+
+function executiveReport(promptChars) {
+  return [
+    '# Relatório Executivo',
+    '',
+    '## Resumo',
+    `Análise simulada para teste de carga (prompt com ${promptChars} caracteres).`,
+    '',
+    '## Riscos',
+    '- Nenhum risco crítico identificado.',
+    '',
+    '## Recomendações',
+    '- Manter o padrão empresta/devolve em blocos finally.'
+  ].join('\n');
+}
+
+function randomSha() {
+  let sha = '';
+  for (let i = 0; i < 40; i++) {
+    sha += Math.floor(Math.random() * 16).toString(16);
+  }
+  return sha;
+}
+
+function hash(text) {
+  let h = 0;
+  for (let i = 0; i < text.length; i++) {
+    h = (h * 31 + text.charCodeAt(i)) | 0;
+  }
+  return Math.abs(h);
+}
+
+function intEnv(name, fallback) {
+  const value = parseInt(process.env[name], 10);
+  return Number.isNaN(value) ? fallback : value;
+}
+
+function latencyEnv(name, fallback) {
+  const raw = process.env[name];
+  if (!raw) {
+    return fallback;
+  }
+  const [median, p99] = raw.split(',').map(Number);
+  return [median > 0 ? median : fallback[0], p99 > 0 ? p99 : fallback[1]];
+}